@@ -1,25 +1,56 @@
 package edu.intech.meetings.dao;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
 import javax.persistence.EntityManager;
 import javax.persistence.EntityTransaction;
 
+import edu.intech.meetings.dao.cache.CachingUserDao;
 import edu.intech.meetings.dao.implementations.bdd.MeetingDaoBdd;
 import edu.intech.meetings.dao.implementations.bdd.RoomDaoBdd;
 import edu.intech.meetings.dao.implementations.bdd.UserDaoBdd;
+import edu.intech.meetings.dao.implementations.memory.MeetingDaoMemory;
+import edu.intech.meetings.dao.implementations.memory.MemoryDatabase;
+import edu.intech.meetings.dao.implementations.memory.RoomDaoMemory;
+import edu.intech.meetings.dao.implementations.memory.UserDaoMemory;
 import edu.intech.meetings.dao.interfaces.IMeetingDao;
 import edu.intech.meetings.dao.interfaces.IRoomDao;
 import edu.intech.meetings.dao.interfaces.IUserDao;
 import edu.intech.meetings.exceptions.DaoException;
 import edu.intech.meetings.servletListener.MeetingsContextListener;
+import edu.intech.meetings.utils.ConfigHelper;
 
 public class DaoFactory {
 
+	/**
+	 * Implémentation des DAO : {@value #IMPLEMENTATION_BDD} (base de données via
+	 * JPA) ou {@value #IMPLEMENTATION_MEMORY} (tables en mémoire, perdues à
+	 * l'arrêt).
+	 */
+	public final static String IMPLEMENTATION_KEY = "meetings.dao.implementation";
+	public final static String IMPLEMENTATION_BDD = "bdd";
+	public final static String IMPLEMENTATION_MEMORY = "memory";
+
 	private static DaoFactory instance;
-	private final EntityManager em;
 
-	private IUserDao userDao = null;
-	private IMeetingDao meetingDao = null;
-	private IRoomDao roomDao = null;
+	/**
+	 * Un EntityManager n'est pas thread-safe : chaque thread (donc chaque requête
+	 * HTTP) dispose du sien, créé à la demande et fermé par
+	 * {@link #releaseEntityManager()}.
+	 */
+	private final ThreadLocal<EntityManager> entityManagers = new ThreadLocal<>();
+
+	/**
+	 * Flux sur curseur ouverts par les DAO pendant la requête du thread, fermés
+	 * par {@link #releaseEntityManager()}.
+	 */
+	private final ThreadLocal<List<Stream<?>>> streams = ThreadLocal.withInitial(ArrayList::new);
+
+	private final IUserDao userDao;
+	private final IMeetingDao meetingDao;
+	private final IRoomDao roomDao;
 
 	/**
 	 * actory
@@ -27,39 +58,121 @@ public class DaoFactory {
 	 * @return the _instance
 	 * @throws DaoException
 	 */
-	public static final DaoFactory getInstance() throws DaoException {
+	public static final synchronized DaoFactory getInstance() throws DaoException {
 		if (instance == null) {
 			instance = new DaoFactory();
 		}
 		return instance;
 	}
 
+	/**
+	 * @return <code>true</code> si la configuration demande les DAO en mémoire.
+	 */
+	public static boolean isMemoryEnabled() {
+		return IMPLEMENTATION_MEMORY.equalsIgnoreCase(ConfigHelper.getString(IMPLEMENTATION_KEY, IMPLEMENTATION_BDD));
+	}
+
 	/**
 	 *
 	 */
 	private DaoFactory() throws DaoException {
-		try {
-			this.em = MeetingsContextListener.createEntityManager();
-			System.out.println("EntityManager créé.");
-		} catch (final Exception e) {
-			throw new DaoException("Impossible de créer l'EntityManager.", e);
+		final IUserDao users;
+		if (isMemoryEnabled()) {
+			// Les trois DAO partagent les mêmes tables pour que les index secondaires
+			// (réunions d'un utilisateur, salles d'une réunion) restent cohérents.
+			final MemoryDatabase database = new MemoryDatabase();
+			users = new UserDaoMemory(database);
+			this.meetingDao = new MeetingDaoMemory(database);
+			this.roomDao = new RoomDaoMemory(database);
+		} else {
+			// Les DAO sont sans état : ils demandent l'EntityManager du thread courant
+			// à chaque appel, on peut donc les partager entre toutes les requêtes.
+			users = new UserDaoBdd(this);
+			this.meetingDao = new MeetingDaoBdd(this);
+			this.roomDao = new RoomDaoBdd(this);
+		}
+		// Utilisateurs lus à chaque connexion et à chaque vérification d'existence :
+		// gardés en mémoire devant la base (voir CachingUserDao).
+		this.userDao = CachingUserDao.isEnabled() ? new CachingUserDao(users) : users;
+	}
+
+	/**
+	 * Renvoie l'EntityManager associé au thread courant, en le créant si besoin.
+	 * Il reste ouvert jusqu'à l'appel de {@link #releaseEntityManager()}, fait en
+	 * fin de requête par
+	 * {@link edu.intech.meetings.servletFilter.EntityManagerFilter}.
+	 *
+	 * @return l'EntityManager du thread courant.
+	 * @throws DaoException si l'EntityManager ne peut être créé.
+	 */
+	public EntityManager getEntityManager() throws DaoException {
+		EntityManager em = this.entityManagers.get();
+		if (em == null || !em.isOpen()) {
+			try {
+				em = MeetingsContextListener.createEntityManager();
+			} catch (final Exception e) {
+				throw new DaoException("Impossible de créer l'EntityManager.", e);
+			}
+			this.entityManagers.set(em);
+		}
+		return em;
+	}
+
+	/**
+	 * Confie un flux sur curseur au thread courant : il sera fermé par
+	 * {@link #releaseEntityManager()} s'il ne l'a pas été avant, par exemple
+	 * lorsque le corps de la réponse qui devait le parcourir n'est pas écrit.
+	 *
+	 * @param stream Flux ouvert par un DAO.
+	 */
+	public void closeOnRelease(final Stream<?> stream) {
+		this.streams.get().add(stream);
+	}
+
+	/**
+	 * Ferme les flux confiés par {@link #closeOnRelease(Stream)} puis
+	 * l'EntityManager associé au thread courant s'il existe. Une transaction
+	 * restée ouverte est annulée.
+	 */
+	public void releaseEntityManager() {
+		final List<Stream<?>> opened = this.streams.get();
+		this.streams.remove();
+		for (final Stream<?> stream : opened) {
+			// Fermer un flux déjà fermé ne fait rien.
+			stream.close();
+		}
+		final EntityManager em = this.entityManagers.get();
+		this.entityManagers.remove();
+		if (em != null && em.isOpen()) {
+			try {
+				final EntityTransaction trans = em.getTransaction();
+				if (trans.isActive()) {
+					trans.rollback();
+				}
+			} finally {
+				em.close();
+			}
 		}
 	}
 
 	/**
 	 * Ouvre une transaction sur la BDD. Celle-ci devra être fermée plus tard par un
 	 * appel à {@link #commitTransaction()} ou {@link #rollbackTransaction()}.
+	 *
+	 * @throws DaoException si l'EntityManager ne peut être créé.
 	 */
-	public void openTransaction() {
-		this.em.getTransaction().begin();
+	public void openTransaction() throws DaoException {
+		getEntityManager().getTransaction().begin();
 	}
 
 	/**
 	 * Valide une transaction sur la BDD. Celle-ci doit avoir auparavant été ouverte
 	 * par un appel à {@link #openTransaction()}.
+	 *
+	 * @throws DaoException si l'EntityManager ne peut être créé.
 	 */
-	public void commitTransaction() {
-		final EntityTransaction trans = this.em.getTransaction();
+	public void commitTransaction() throws DaoException {
+		final EntityTransaction trans = getEntityManager().getTransaction();
 		if (trans.isActive()) {
 			trans.commit();
 		}
@@ -68,32 +181,25 @@ public class DaoFactory {
 	/**
 	 * Annule une transaction sur la BDD. Celle-ci doit avoir auparavant été ouverte
 	 * par un appel à {@link #openTransaction()}.
+	 *
+	 * @throws DaoException si l'EntityManager ne peut être créé.
 	 */
-	public void rollbackTransaction() {
-		final EntityTransaction trans = this.em.getTransaction();
+	public void rollbackTransaction() throws DaoException {
+		final EntityTransaction trans = getEntityManager().getTransaction();
 		if (trans.isActive()) {
 			trans.rollback();
 		}
 	}
 
 	public IUserDao getUserDao() {
-		if (this.userDao == null) {
-			this.userDao = new UserDaoBdd(this.em);
-		}
 		return this.userDao;
 	}
 
 	public IMeetingDao getMeetingDao() {
-		if (this.meetingDao == null) {
-			this.meetingDao = new MeetingDaoBdd(this.em);
-		}
 		return this.meetingDao;
 	}
 
 	public IRoomDao getRoomDao() {
-		if (this.roomDao == null) {
-			this.roomDao = new RoomDaoBdd(this.em);
-		}
 		return this.roomDao;
 	}
 
@@ -0,0 +1,130 @@
+package edu.intech.meetings.dao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+
+import edu.intech.meetings.exceptions.DaoException;
+import edu.intech.meetings.utils.ConfigHelper;
+
+/**
+ * Base H2 en mémoire (mode MySQL) utilisée à la place de MySQL lorsque la
+ * propriété {@value #DATABASE_KEY} vaut {@value #DATABASE_EMBEDDED} : les
+ * tests, les tests de charge et les benchmarks tournent ainsi sur n'importe
+ * quel poste, sans serveur MySQL. Le driver H2 n'est présent que dans le
+ * classpath des tests (il n'est pas livré dans le war).<br>
+ * <br>
+ * Le schéma est créé au démarrage à partir de {@value #SCHEMA_SCRIPT} (le
+ * script de création de la base MySQL, copié dans le classpath) et la base est
+ * supprimée à l'arrêt de l'application : chaque démarrage repart d'une base
+ * vide.
+ */
+public class EmbeddedDatabase {
+
+	public final static String DATABASE_KEY = "meetings.database";
+	public final static String DATABASE_MYSQL = "mysql";
+	public final static String DATABASE_EMBEDDED = "embedded";
+
+	public final static String DRIVER = "org.h2.Driver";
+	public final static String USER = "sa";
+	public final static String PASSWORD = "sa";
+	public final static String SCHEMA_SCRIPT = "createDDL.sql";
+
+	/**
+	 * @return <code>true</code> si la configuration demande la base embarquée.
+	 */
+	public static boolean isEnabled() {
+		return DATABASE_EMBEDDED.equalsIgnoreCase(ConfigHelper.getString(DATABASE_KEY, DATABASE_MYSQL));
+	}
+
+	/**
+	 * La réutilisation des résultats de requêtes de H2 est désactivée : H2
+	 * marque la table modifiée avant de rendre visibles les lignes validées, une
+	 * lecture faite entre les deux était ensuite resservie à la connexion sans
+	 * ces lignes.
+	 *
+	 * @return l'URL JDBC de la base embarquée.
+	 */
+	public static String getUrl() {
+		return ConfigHelper.getString("meetings.embedded.url",
+				"jdbc:h2:mem:meetings;MODE=MySQL;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE");
+	}
+
+	/**
+	 * @return les propriétés de connexion qui remplacent celles de
+	 *         persistence.xml.
+	 */
+	public static Map<String, Object> getPersistenceProperties() {
+		final Map<String, Object> ret = new HashMap<>();
+		ret.put(PersistenceUnitProperties.JDBC_DRIVER, DRIVER);
+		ret.put(PersistenceUnitProperties.JDBC_URL, getUrl());
+		ret.put(PersistenceUnitProperties.JDBC_USER, USER);
+		ret.put(PersistenceUnitProperties.JDBC_PASSWORD, PASSWORD);
+		return ret;
+	}
+
+	/**
+	 * Crée la base et son schéma.
+	 *
+	 * @throws DaoException si le driver H2 est absent ou si le script échoue.
+	 */
+	public static void create() throws DaoException {
+		try {
+			// Dans un conteneur de servlets, le driver n'est pas forcément visible de
+			// DriverManager sans être chargé explicitement.
+			Class.forName(DRIVER);
+		} catch (final ClassNotFoundException e) {
+			throw new DaoException("Driver de la base embarquée absent : " + DRIVER, e);
+		}
+		try (Connection connection = DriverManager.getConnection(getUrl(), USER, PASSWORD);
+				Statement statement = connection.createStatement()) {
+			for (final String sql : readScript()) {
+				statement.execute(sql);
+			}
+		} catch (final SQLException | IOException e) {
+			throw new DaoException("Impossible de créer la base embarquée : " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Supprime la base (malgré <code>DB_CLOSE_DELAY</code>).
+	 */
+	public static void drop() throws DaoException {
+		try (Connection connection = DriverManager.getConnection(getUrl(), USER, PASSWORD);
+				Statement statement = connection.createStatement()) {
+			statement.execute("SHUTDOWN");
+		} catch (final SQLException e) {
+			throw new DaoException("Impossible de supprimer la base embarquée : " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * @return les instructions du script de création, séparées par des
+	 *         points-virgules.
+	 */
+	private static String[] readScript() throws IOException {
+		try (InputStream in = EmbeddedDatabase.class.getClassLoader().getResourceAsStream(SCHEMA_SCRIPT)) {
+			if (in == null) {
+				throw new IOException("Script " + SCHEMA_SCRIPT + " absent du classpath.");
+			}
+			final StringBuilder script = new StringBuilder();
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					script.append(line).append('\n');
+				}
+			}
+			return script.toString().trim().split("\\s*;\\s*");
+		}
+	}
+}
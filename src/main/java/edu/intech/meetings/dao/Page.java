@@ -0,0 +1,58 @@
+package edu.intech.meetings.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Page d'éléments lue par pagination sur l'identifiant (keyset) : une page
+ * contient au plus <code>limit</code> éléments dont l'identifiant est
+ * strictement supérieur au curseur demandé, triés par identifiant croissant.
+ * Le coût d'une lecture ne dépend donc pas de la profondeur de la page.
+ *
+ * @param <T> Type des éléments de la page.
+ */
+public class Page<T> {
+
+	private final List<T> items;
+	private final Integer nextCursor;
+
+	public Page(final List<T> items, final Integer nextCursor) {
+		this.items = items;
+		this.nextCursor = nextCursor;
+	}
+
+	/**
+	 * @return les éléments de la page. Peut être vide <b>mais ne peut être
+	 *         <code>null</code></b>.
+	 */
+	public List<T> getItems() {
+		return this.items;
+	}
+
+	/**
+	 * @return l'identifiant à passer comme curseur pour lire la page suivante, ou
+	 *         <code>null</code> s'il s'agit de la dernière page.
+	 */
+	public Integer getNextCursor() {
+		return this.nextCursor;
+	}
+
+	/**
+	 * Construit une page à partir du résultat d'une requête ayant demandé
+	 * <code>limit + 1</code> lignes : la ligne surnuméraire indique seulement
+	 * qu'une page suivante existe.
+	 *
+	 * @param rows  Lignes lues, triées par identifiant croissant.
+	 * @param limit Taille de la page.
+	 * @param idOf  Fonction donnant l'identifiant d'une ligne.
+	 * @return la page correspondante.
+	 */
+	public static <T> Page<T> of(final List<T> rows, final int limit, final ToIntFunction<T> idOf) {
+		if (rows.size() <= limit) {
+			return new Page<>(rows, null);
+		}
+		final List<T> items = new ArrayList<>(rows.subList(0, limit));
+		return new Page<>(items, idOf.applyAsInt(items.get(limit - 1)));
+	}
+}
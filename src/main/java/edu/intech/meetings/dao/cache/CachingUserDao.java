@@ -0,0 +1,198 @@
+package edu.intech.meetings.dao.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.intech.meetings.dao.Page;
+import edu.intech.meetings.dao.interfaces.IUserDao;
+import edu.intech.meetings.exceptions.DaoException;
+import edu.intech.meetings.model.User;
+import edu.intech.meetings.utils.AdmissionCache;
+import edu.intech.meetings.utils.CacheStatistics;
+import edu.intech.meetings.utils.ConfigHelper;
+
+/**
+ * DAO des utilisateurs qui garde en mémoire les utilisateurs lus par
+ * identifiant ({@link #readUser(int)}) et par nom
+ * ({@link #readUserByName(String)}, appelé à chaque connexion), devant un autre
+ * DAO. Les deux caches sont bornés, leurs entrées expirent
+ * (<code>meetings.userCache.maxSize</code> et
+ * <code>meetings.userCache.ttlSeconds</code>) et leur éviction favorise les
+ * utilisateurs souvent lus (voir {@link AdmissionCache}).<br>
+ * <br>
+ * Le cache conserve sa propre copie de chaque utilisateur et renvoie une
+ * nouvelle copie à chaque lecture, qu'elle soit servie par le cache ou par le
+ * DAO : les services peuvent modifier l'objet reçu sans toucher au cache, et
+ * reçoivent toujours un utilisateur détaché (voir {@link IUserDao}). Les
+ * listes d'invités, rattachées aux réunions, sont lues directement
+ * ({@link #readUsersByIdList(List)}).<br>
+ * <br>
+ * {@link #updateUser(User, boolean)} et {@link #deleteUser(User, boolean)}
+ * retirent l'utilisateur des deux caches, même en cas d'échec. Une lecture
+ * commencée avant une écriture n'alimente pas le cache.
+ */
+public class CachingUserDao implements IUserDao {
+
+	private final IUserDao delegate;
+	private final AdmissionCache<Integer, User> byId;
+	private final AdmissionCache<String, User> byName;
+
+	/**
+	 * Nom sous lequel chaque utilisateur a été mis en cache par
+	 * {@link #readUserByName(String)} : une écriture retire l'utilisateur de
+	 * {@link #byName} sous son ancien nom sans parcourir le cache.
+	 */
+	private final Map<Integer, String> namesById = new ConcurrentHashMap<>();
+
+	/**
+	 * Incrémenté avant chaque écriture : une lecture qui a vu passer une écriture
+	 * ne met pas en cache un utilisateur peut-être déjà périmé.
+	 */
+	private final AtomicLong generation = new AtomicLong();
+
+	/**
+	 * @param delegate DAO qui lit et écrit réellement les utilisateurs.
+	 */
+	public CachingUserDao(final IUserDao delegate) {
+		this(delegate, ConfigHelper.getInt("meetings.userCache.maxSize", 10000),
+				ConfigHelper.getLong("meetings.userCache.ttlSeconds", 300) * 1000);
+	}
+
+	/**
+	 * @param delegate DAO qui lit et écrit réellement les utilisateurs.
+	 * @param maxSize  Nombre maximal d'utilisateurs de chaque cache.
+	 * @param ttlMs    Durée de vie des utilisateurs en cache, en millisecondes.
+	 */
+	public CachingUserDao(final IUserDao delegate, final int maxSize, final long ttlMs) {
+		this.delegate = delegate;
+		this.byId = new AdmissionCache<>(maxSize, ttlMs);
+		this.byName = new AdmissionCache<>(maxSize, ttlMs);
+	}
+
+	/**
+	 * @return <code>true</code> si la configuration active le cache des
+	 *         utilisateurs (<code>meetings.userCache.maxSize</code> non nul).
+	 */
+	public static boolean isEnabled() {
+		return ConfigHelper.getInt("meetings.userCache.maxSize", 10000) > 0;
+	}
+
+	@Override
+	public User createUser(final User user, final boolean useTransaction) throws DaoException {
+		return this.delegate.createUser(user, useTransaction);
+	}
+
+	@Override
+	public User readUser(final int id) throws DaoException {
+		final User cached = this.byId.get(id);
+		if (cached != null) {
+			return copyOf(cached);
+		}
+		final long before = this.generation.get();
+		final User ret = this.delegate.readUser(id);
+		if (ret == null) {
+			return null;
+		}
+		if (this.generation.get() == before) {
+			this.byId.put(id, copyOf(ret));
+		}
+		return copyOf(ret);
+	}
+
+	@Override
+	public User readUserByName(final String name) throws DaoException {
+		final User cached = this.byName.get(name);
+		if (cached != null) {
+			return copyOf(cached);
+		}
+		final long before = this.generation.get();
+		final User ret = this.delegate.readUserByName(name);
+		if (ret == null) {
+			return null;
+		}
+		if (this.generation.get() == before) {
+			this.namesById.put(ret.getId(), name);
+			this.byName.put(name, copyOf(ret));
+		}
+		return copyOf(ret);
+	}
+
+	@Override
+	public List<User> readUsersByIdList(final List<Integer> ids) throws DaoException {
+		return this.delegate.readUsersByIdList(ids);
+	}
+
+	@Override
+	public List<User> readAllUsers() throws DaoException {
+		return this.delegate.readAllUsers();
+	}
+
+	@Override
+	public Page<User> readUsersPage(final int cursor, final int limit) throws DaoException {
+		return this.delegate.readUsersPage(cursor, limit);
+	}
+
+	@Override
+	public void updateUser(final User user, final boolean useTransaction) throws DaoException {
+		this.generation.incrementAndGet();
+		try {
+			this.delegate.updateUser(user, useTransaction);
+		} finally {
+			invalidate(user);
+		}
+	}
+
+	@Override
+	public void deleteUser(final User user, final boolean useTransaction) throws DaoException {
+		this.generation.incrementAndGet();
+		try {
+			this.delegate.deleteUser(user, useTransaction);
+		} finally {
+			invalidate(user);
+		}
+	}
+
+	/**
+	 * Retire l'utilisateur des deux caches, sous son ancien nom comme sous le
+	 * nouveau.
+	 */
+	private void invalidate(final User user) {
+		final int id = user.getId();
+		this.byId.invalidate(id);
+		final String cachedName = this.namesById.remove(id);
+		if (cachedName != null) {
+			this.byName.invalidate(cachedName);
+		}
+		if (user.getName() != null) {
+			this.byName.invalidate(user.getName());
+		}
+	}
+
+	/**
+	 * Vide les deux caches.
+	 */
+	public void clear() {
+		this.generation.incrementAndGet();
+		this.byId.clear();
+		this.byName.clear();
+		this.namesById.clear();
+	}
+
+	/**
+	 * @return les statistiques cumulées des caches par identifiant et par nom.
+	 */
+	public CacheStatistics getStatistics() {
+		final CacheStatistics ids = this.byId.getStatistics();
+		final CacheStatistics names = this.byName.getStatistics();
+		return new CacheStatistics(ids.getSize() + names.getSize(), ids.getHits() + names.getHits(),
+				ids.getMisses() + names.getMisses(), ids.getEvictions() + names.getEvictions());
+	}
+
+	private static User copyOf(final User user) {
+		final User ret = new User(user.getName(), user.getPassword(), user.getFirstName(), user.getEMail());
+		ret.setId(user.getId());
+		return ret;
+	}
+}
@@ -0,0 +1,125 @@
+package edu.intech.meetings.dao.cache;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.invalidation.NoExpiryCacheInvalidationPolicy;
+import org.eclipse.persistence.descriptors.invalidation.TimeToLiveCacheInvalidationPolicy;
+import org.eclipse.persistence.jpa.JpaCache;
+import org.eclipse.persistence.jpa.JpaHelper;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.queries.ReadQuery;
+import org.eclipse.persistence.sessions.server.Server;
+
+import edu.intech.meetings.model.Meeting;
+import edu.intech.meetings.model.Room;
+import edu.intech.meetings.model.User;
+import edu.intech.meetings.utils.ConfigHelper;
+
+/**
+ * Réglage du cache partagé (second niveau) d'EclipseLink pour chaque entité :
+ * type et taille du cache d'objets, durée de vie des objets en cache et des
+ * résultats des requêtes mises en cache (hint
+ * <code>eclipselink.query-results-cache</code> des requêtes nommées). Toutes
+ * les valeurs sont lues via {@link ConfigHelper}, clés
+ * <code>meetings.cache.&lt;entité&gt;.*</code> (<code>user</code>,
+ * <code>meeting</code>, <code>room</code>).<br>
+ * <br>
+ * Les écritures faites par EclipseLink mettent à jour le cache d'objets au
+ * commit et invalident les résultats des requêtes mises en cache portant sur
+ * l'entité modifiée, et seulement celles-ci : une requête dont le résultat
+ * porte aussi d'autres entités (les salles et leurs réunions) ne doit pas être
+ * mise en cache. Les écritures qui ne passent pas par EclipseLink (requêtes
+ * SQL natives des opérations en masse) doivent appeler
+ * {@link #invalidate(EntityManager, Class...)}.
+ */
+public class SharedCache {
+
+	/**
+	 * Entités mises en cache, avec le nom utilisé dans les clés de configuration.
+	 */
+	public static final Map<Class<?>, String> ENTITIES;
+	static {
+		final Map<Class<?>, String> entities = new LinkedHashMap<>();
+		entities.put(User.class, "user");
+		entities.put(Meeting.class, "meeting");
+		entities.put(Room.class, "room");
+		ENTITIES = Collections.unmodifiableMap(entities);
+	}
+
+	/**
+	 * @return <code>true</code> si la configuration active le cache partagé
+	 *         (<code>meetings.cache.enabled</code>, vrai par défaut).
+	 */
+	public static boolean isEnabled() {
+		return ConfigHelper.getBoolean("meetings.cache.enabled", true);
+	}
+
+	/**
+	 * @return les propriétés de l'unité de persistance fixant le type et la
+	 *         taille du cache de chaque entité.
+	 */
+	public static Map<String, Object> getPersistenceProperties() {
+		final Map<String, Object> ret = new HashMap<>();
+		if (!isEnabled()) {
+			ret.put(PersistenceUnitProperties.CACHE_SHARED_DEFAULT, "false");
+			return ret;
+		}
+		for (final Map.Entry<Class<?>, String> entity : ENTITIES.entrySet()) {
+			final String name = entity.getKey().getSimpleName();
+			ret.put(PersistenceUnitProperties.CACHE_TYPE_ + name,
+					ConfigHelper.getString("meetings.cache." + entity.getValue() + ".type", "SoftWeak"));
+			ret.put(PersistenceUnitProperties.CACHE_SIZE_ + name,
+					Integer.toString(ConfigHelper.getInt("meetings.cache." + entity.getValue() + ".size", 1000)));
+		}
+		return ret;
+	}
+
+	/**
+	 * Applique la durée de vie configurée aux objets en cache de chaque entité et
+	 * aux résultats de ses requêtes mises en cache.
+	 */
+	public static void install(final EntityManagerFactory emf) {
+		if (!isEnabled()) {
+			return;
+		}
+		final Server session = JpaHelper.getServerSession(emf);
+		for (final Map.Entry<Class<?>, String> entity : ENTITIES.entrySet()) {
+			final long expiryMs = ConfigHelper.getLong("meetings.cache." + entity.getValue() + ".expirySeconds", 600)
+					* 1000;
+			final ClassDescriptor descriptor = session.getDescriptor(entity.getKey());
+			descriptor.setCacheInvalidationPolicy(expiryMs > 0 ? new TimeToLiveCacheInvalidationPolicy(expiryMs)
+					: new NoExpiryCacheInvalidationPolicy());
+			for (final List<DatabaseQuery> queries : session.getQueries().values()) {
+				for (final DatabaseQuery query : queries) {
+					if (query instanceof ReadQuery && ((ReadQuery) query).getQueryResultsCachePolicy() != null
+							&& entity.getKey().equals(query.getReferenceClass())) {
+						((ReadQuery) query).getQueryResultsCachePolicy()
+								.setCacheInvalidationPolicy(descriptor.getCacheInvalidationPolicy());
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Oublie les entités données du cache partagé, ainsi que les résultats mis en
+	 * cache des requêtes portant sur elles, après une écriture faite hors
+	 * d'EclipseLink.
+	 */
+	public static void invalidate(final EntityManager em, final Class<?>... entities) {
+		final JpaCache cache = (JpaCache) em.getEntityManagerFactory().getCache();
+		for (final Class<?> entity : entities) {
+			cache.evict(entity);
+			cache.clearQueryCache(entity);
+		}
+	}
+}
@@ -1,43 +1,88 @@
 package edu.intech.meetings.dao.implementations.bdd;
 
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceException;
 import javax.persistence.TypedQuery;
 
 import edu.intech.meetings.dao.DaoFactory;
+import edu.intech.meetings.dao.Page;
+import edu.intech.meetings.dao.cache.SharedCache;
 import edu.intech.meetings.dao.interfaces.IMeetingDao;
 import edu.intech.meetings.exceptions.DaoException;
 import edu.intech.meetings.model.Meeting;
+import edu.intech.meetings.model.Room;
 import edu.intech.meetings.model.User;
 import edu.intech.meetings.utils.DaoHelper;
+import edu.intech.meetings.utils.MeetingsHelper;
 
 public class MeetingDaoBdd implements IMeetingDao {
 
-	private final EntityManager em;
+	/**
+	 * Nombre maximal d'identifiants dans la clause IN d'une opération en masse :
+	 * au-delà, l'opération est découpée en plusieurs instructions.
+	 */
+	private final static int BULK_CHUNK_SIZE = 1000;
+
+	private final DaoFactory factory;
+
+	/**
+	 * Durée, en minutes, de la plus longue réunion en base (lue au premier appel
+	 * de {@link #readMeetingsBetween(Date, Date)} puis tenue à jour à chaque
+	 * écriture) : des réunions plus longues que
+	 * {@link MeetingsHelper#getMaxDuration()} peuvent y avoir été enregistrées
+	 * avant l'introduction de cette limite.
+	 */
+	private final AtomicInteger longestDuration = new AtomicInteger();
+	private volatile boolean longestDurationRead = false;
 
 	/**
 	 * @param factory
 	 */
-	public MeetingDaoBdd(final EntityManager em) {
-		this.em = em;
+	public MeetingDaoBdd(final DaoFactory factory) {
+		this.factory = factory;
 	}
 
 	@Override
 	public void createMeeting(final Meeting meeting, final boolean useTransaction)
 			throws DaoException {
+		final EntityManager em = this.factory.getEntityManager();
 		try {
-			DaoHelper.persistObject(meeting, this.em, useTransaction);
+			DaoHelper.persistObject(meeting, em, useTransaction);
 		} catch (final PersistenceException e) {
 			throw new DaoException("Impossible de créer la réunion", e);
 		}
+		noteDuration(meeting);
+	}
+
+	@Override
+	public void createMeetings(final List<Meeting> meetings) throws DaoException {
+		final EntityManager em = this.factory.getEntityManager();
+		try {
+			// Avec le batch writing d'EclipseLink, les insertions sont envoyées par
+			// lots au commit.
+			this.factory.openTransaction();
+			for (final Meeting meeting : meetings) {
+				DaoHelper.persistObject(meeting, em, false);
+			}
+			this.factory.commitTransaction();
+		} catch (final PersistenceException e) {
+			this.factory.rollbackTransaction();
+			throw new DaoException("Impossible de créer les réunions", e);
+		}
+		meetings.forEach(this::noteDuration);
 	}
 
 	@Override
 	public Meeting readMeeting(final int meetingId) throws DaoException {
-		final TypedQuery<Meeting> query = this.em.createNamedQuery("Meeting.findById", Meeting.class);
+		final EntityManager em = this.factory.getEntityManager();
+		final TypedQuery<Meeting> query = em.createNamedQuery("Meeting.findById", Meeting.class);
 		query.setParameter("id", meetingId);
 		final List<Meeting> ret = query.getResultList();
 		if (ret.size() > 0) {
@@ -48,46 +93,206 @@ public class MeetingDaoBdd implements IMeetingDao {
 
 	@Override
 	public List<Meeting> readAllMeetings() throws DaoException {
-		final TypedQuery<Meeting> query = this.em.createNamedQuery("Meeting.findAll", Meeting.class);
+		final EntityManager em = this.factory.getEntityManager();
+		final TypedQuery<Meeting> query = em.createNamedQuery("Meeting.findAllWithGuests", Meeting.class);
+		return query.getResultList();
+	}
+
+	@Override
+	public Page<Meeting> readMeetingsPage(final int cursor, final int limit) throws DaoException {
+		final EntityManager em = this.factory.getEntityManager();
+		final TypedQuery<Meeting> query = em.createNamedQuery("Meeting.findPage", Meeting.class);
+		query.setParameter("cursor", cursor);
+		query.setMaxResults(limit + 1);
+		return Page.of(query.getResultList(), limit, Meeting::getId);
+	}
+
+	@Override
+	public List<Meeting> readMeetingsBetween(final Date from, final Date to) throws DaoException {
+		final EntityManager em = this.factory.getEntityManager();
+		final TypedQuery<Meeting> query = em.createNamedQuery("Meeting.findBetween", Meeting.class);
+		final long window = Math.max(MeetingsHelper.getMaxDuration(), readLongestDuration(em));
+		query.setParameter("earliest", new Date(from.getTime() - window * 60_000L));
+		query.setParameter("from", from);
+		query.setParameter("to", to);
 		return query.getResultList();
 	}
 
 	@Override
 	public List<Meeting> readMeetingsByIdList(List<Integer> ids) throws DaoException {
-		final TypedQuery<Meeting> query = this.em.createNamedQuery("Meeting.findByIdsList", Meeting.class);
+		final EntityManager em = this.factory.getEntityManager();
+		final TypedQuery<Meeting> query = em.createNamedQuery("Meeting.findByIdsList", Meeting.class);
 		query.setParameter("ids", ids);
 		return query.getResultList();	}
 
 	@Override
 	public List<Meeting> readAllMeetingsWithUser(final int userId) throws DaoException {
-		final TypedQuery<Meeting> query = this.em.createNamedQuery("Meeting.findByUser", Meeting.class);
+		final EntityManager em = this.factory.getEntityManager();
+		final TypedQuery<Meeting> query = em.createNamedQuery("Meeting.findByUserWithGuests", Meeting.class);
 		query.setParameter("id", userId);
 		return query.getResultList();
 	}
 
+	@Override
+	public Stream<Meeting> streamAllMeetings() throws DaoException {
+		final EntityManager em = this.factory.getEntityManager();
+		final TypedQuery<Meeting> query = em.createNamedQuery("Meeting.streamAll", Meeting.class);
+		try {
+			final Stream<Meeting> ret = DaoHelper.streamQuery(query, DaoHelper.getStreamFetchSize());
+			this.factory.closeOnRelease(ret);
+			return ret;
+		} catch (final PersistenceException e) {
+			throw new DaoException("Impossible de lire les réunions", e);
+		}
+	}
+
+	@Override
+	public Stream<Meeting> streamMeetingsWithUser(final int userId) throws DaoException {
+		final EntityManager em = this.factory.getEntityManager();
+		final TypedQuery<Meeting> query = em.createNamedQuery("Meeting.streamByUser", Meeting.class);
+		query.setParameter("id", userId);
+		try {
+			final Stream<Meeting> ret = DaoHelper.streamQuery(query, DaoHelper.getStreamFetchSize());
+			this.factory.closeOnRelease(ret);
+			return ret;
+		} catch (final PersistenceException e) {
+			throw new DaoException("Impossible de lire les réunions de l'utilisateur", e);
+		}
+	}
+
 	@Override
 	public void updateMeeting(final Meeting meeting, final boolean useTransaction) throws DaoException {
+		final EntityManager em = this.factory.getEntityManager();
 		try {
-			DaoHelper.mergeObject(meeting, this.em, useTransaction);
+			DaoHelper.mergeObject(meeting, em, useTransaction);
 		} catch (final PersistenceException e) {
 			throw new DaoException("Impossible de modifier la réunion", e);
 		}
+		noteDuration(meeting);
 	}
 
 	@Override
 	public void deleteMeeting(final Meeting meeting) throws DaoException {
+		final EntityManager em = this.factory.getEntityManager();
 		try {
 			// Pour éviter une violation de contrainte, on enlève les invités éventuels de
 			// la réunion avant de l'effacer.
 			meeting.setGuests(new ArrayList<User>());
-			DaoFactory.getInstance().openTransaction();
-			DaoHelper.mergeObject(meeting, this.em, false);
-			DaoHelper.removeObject(meeting, this.em, false);
-			DaoFactory.getInstance().commitTransaction();
+			this.factory.openTransaction();
+			DaoHelper.mergeObject(meeting, em, false);
+			DaoHelper.removeObject(meeting, em, false);
+			this.factory.commitTransaction();
 		} catch (final PersistenceException e) {
-			DaoFactory.getInstance().rollbackTransaction();
+			this.factory.rollbackTransaction();
 			throw new DaoException("Impossible de supprimer la réunion", e);
 		}
 	}
 
+	@Override
+	public int deleteMeetings(final List<Integer> meetingIds) throws DaoException {
+		final EntityManager em = this.factory.getEntityManager();
+		int ret = 0;
+		try {
+			this.factory.openTransaction();
+			for (int from = 0; from < meetingIds.size(); from += BULK_CHUNK_SIZE) {
+				final Object[] ids = meetingIds.subList(from, Math.min(from + BULK_CHUNK_SIZE, meetingIds.size()))
+						.toArray();
+				final String in = DaoHelper.inParameters(1, ids.length);
+				DaoHelper.executeNativeUpdate(em, "Meeting.bulkDeleteParticipants",
+						"DELETE FROM Participants WHERE meetingId IN " + in, ids);
+				DaoHelper.executeNativeUpdate(em, "Meeting.bulkDeleteGuests",
+						"DELETE FROM Guests WHERE meetingId IN " + in, ids);
+				ret += DaoHelper.executeNativeUpdate(em, "Meeting.bulkDelete", "DELETE FROM Meeting WHERE id IN " + in,
+						ids);
+			}
+			this.factory.commitTransaction();
+		} catch (final PersistenceException e) {
+			this.factory.rollbackTransaction();
+			throw new DaoException("Impossible de supprimer les réunions", e);
+		} finally {
+			evictMeetings(em);
+		}
+		return ret;
+	}
+
+	@Override
+	public List<Integer> deleteMeetingsBefore(final Date date) throws DaoException {
+		final EntityManager em = this.factory.getEntityManager();
+		try {
+			this.factory.openTransaction();
+			final TypedQuery<Integer> query = em.createNamedQuery("Meeting.findIdsBefore", Integer.class);
+			query.setParameter("date", date);
+			final List<Integer> ret = query.getResultList();
+			final Timestamp limit = new Timestamp(date.getTime());
+			final String before = "(SELECT id FROM Meeting WHERE start < ?1)";
+			DaoHelper.executeNativeUpdate(em, "Meeting.bulkDeleteParticipants",
+					"DELETE FROM Participants WHERE meetingId IN " + before, limit);
+			DaoHelper.executeNativeUpdate(em, "Meeting.bulkDeleteGuests",
+					"DELETE FROM Guests WHERE meetingId IN " + before, limit);
+			DaoHelper.executeNativeUpdate(em, "Meeting.bulkDelete", "DELETE FROM Meeting WHERE start < ?1", limit);
+			this.factory.commitTransaction();
+			return ret;
+		} catch (final PersistenceException e) {
+			this.factory.rollbackTransaction();
+			throw new DaoException("Impossible de supprimer les réunions", e);
+		} finally {
+			evictMeetings(em);
+		}
+	}
+
+	@Override
+	public int rescheduleMeetings(final List<Integer> meetingIds, final int offsetMinutes) throws DaoException {
+		final EntityManager em = this.factory.getEntityManager();
+		int ret = 0;
+		try {
+			this.factory.openTransaction();
+			for (int from = 0; from < meetingIds.size(); from += BULK_CHUNK_SIZE) {
+				final List<Integer> chunk = meetingIds.subList(from,
+						Math.min(from + BULK_CHUNK_SIZE, meetingIds.size()));
+				final Object[] params = new Object[chunk.size() + 1];
+				params[0] = offsetMinutes;
+				for (int i = 0; i < chunk.size(); i++) {
+					params[i + 1] = chunk.get(i);
+				}
+				ret += DaoHelper.executeNativeUpdate(em, "Meeting.bulkReschedule",
+						"UPDATE Meeting SET start = TIMESTAMPADD(MINUTE, ?1, start) WHERE id IN "
+								+ DaoHelper.inParameters(2, chunk.size()),
+						params);
+			}
+			this.factory.commitTransaction();
+		} catch (final PersistenceException e) {
+			this.factory.rollbackTransaction();
+			throw new DaoException("Impossible de décaler les réunions", e);
+		} finally {
+			evictMeetings(em);
+		}
+		return ret;
+	}
+
+	/**
+	 * Les opérations en masse ne passent pas par EclipseLink : on oublie les
+	 * réunions (et les salles qui les référencent) du contexte de persistance, du
+	 * cache partagé et des résultats de requêtes en cache pour qu'elles soient
+	 * relues en base.
+	 */
+	private static void evictMeetings(final EntityManager em) {
+		em.clear();
+		SharedCache.invalidate(em, Meeting.class, Room.class);
+	}
+
+	/**
+	 * @return la durée, en minutes, de la plus longue réunion en base.
+	 */
+	private int readLongestDuration(final EntityManager em) {
+		if (!this.longestDurationRead) {
+			final Integer longest = em.createNamedQuery("Meeting.findMaxDuration", Integer.class).getSingleResult();
+			this.longestDuration.accumulateAndGet(longest == null ? 0 : longest, Math::max);
+			this.longestDurationRead = true;
+		}
+		return this.longestDuration.get();
+	}
+
+	private void noteDuration(final Meeting meeting) {
+		this.longestDuration.accumulateAndGet(meeting.getDuration(), Math::max);
+	}
 }
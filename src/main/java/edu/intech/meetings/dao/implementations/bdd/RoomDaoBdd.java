@@ -1,6 +1,7 @@
 package edu.intech.meetings.dao.implementations.bdd;
 
 import edu.intech.meetings.dao.DaoFactory;
+import edu.intech.meetings.dao.Page;
 import edu.intech.meetings.dao.interfaces.IRoomDao;
 import edu.intech.meetings.exceptions.DaoException;
 import edu.intech.meetings.model.Meeting;
@@ -12,22 +13,24 @@ import javax.persistence.PersistenceException;
 import javax.persistence.TypedQuery;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class RoomDaoBdd implements IRoomDao {
     
-    private final EntityManager em;
+    private final DaoFactory factory;
 
     /**
-     * @param factory 
+     * @param factory
      */
-    public RoomDaoBdd(final EntityManager em) {
-        this.em = em;
+    public RoomDaoBdd(final DaoFactory factory) {
+        this.factory = factory;
     }
 
     @Override
     public void createRoom(Room room, boolean useTransaction) throws DaoException {
+        final EntityManager em = this.factory.getEntityManager();
         try {
-            DaoHelper.persistObject(room, this.em, useTransaction);
+            DaoHelper.persistObject(room, em, useTransaction);
         } catch (final PersistenceException e) {
             throw new DaoException("Impossible de créer la réunion", e);
         }
@@ -35,7 +38,8 @@ public class RoomDaoBdd implements IRoomDao {
 
     @Override
     public Room readRoom(int roomId) throws DaoException {
-        final TypedQuery<Room> query = this.em.createNamedQuery("Room.findById", Room.class);
+        final EntityManager em = this.factory.getEntityManager();
+        final TypedQuery<Room> query = em.createNamedQuery("Room.findById", Room.class);
         query.setParameter("id", roomId);
         final List<Room> ret = query.getResultList();
         if (ret.size() > 0) {
@@ -45,20 +49,45 @@ public class RoomDaoBdd implements IRoomDao {
 
     @Override
     public List<Room> readAllRooms() throws DaoException {
-        final TypedQuery<Room> query = this.em.createNamedQuery("Room.findAll", Room.class);
+        final EntityManager em = this.factory.getEntityManager();
+        final TypedQuery<Room> query = em.createNamedQuery("Room.findAllWithMeetings", Room.class);
         return query.getResultList();
     }
 
+    @Override
+    public Page<Room> readRoomsPage(int cursor, int limit) throws DaoException {
+        final EntityManager em = this.factory.getEntityManager();
+        final TypedQuery<Room> query = em.createNamedQuery("Room.findPage", Room.class);
+        query.setParameter("cursor", cursor);
+        query.setMaxResults(limit + 1);
+        return Page.of(query.getResultList(), limit, Room::getId);
+    }
+
     @Override
     public List<Room> readAllRoomsWithMeeting(int meetingId) throws DaoException {
-        final TypedQuery<Room> query = this.em.createNamedQuery("Room.findByMeeting", Room.class);
+        final EntityManager em = this.factory.getEntityManager();
+        final TypedQuery<Room> query = em.createNamedQuery("Room.findByMeeting", Room.class);
         query.setParameter("id", meetingId);
         return query.getResultList();    }
 
+    @Override
+    public Stream<Room> streamAllRooms() throws DaoException {
+        final EntityManager em = this.factory.getEntityManager();
+        final TypedQuery<Room> query = em.createNamedQuery("Room.streamAll", Room.class);
+        try {
+            final Stream<Room> ret = DaoHelper.streamQuery(query, DaoHelper.getStreamFetchSize());
+            this.factory.closeOnRelease(ret);
+            return ret;
+        } catch (final PersistenceException e) {
+            throw new DaoException("Impossible de lire les salles", e);
+        }
+    }
+
     @Override
     public void updateRoom(Room room, boolean useTransaction) throws DaoException {
+        final EntityManager em = this.factory.getEntityManager();
         try {
-            DaoHelper.mergeObject(room, this.em, useTransaction);
+            DaoHelper.mergeObject(room, em, useTransaction);
         } catch (final PersistenceException e) {
             throw new DaoException("Impossible de modifier la salle", e);
         }
@@ -66,16 +95,17 @@ public class RoomDaoBdd implements IRoomDao {
 
     @Override
     public void deleteRoom(Room room) throws DaoException {
+        final EntityManager em = this.factory.getEntityManager();
         try {
             // Pour éviter une violation de contrainte, on enlève les invités éventuels de
             // la réunion avant de l'effacer.
             room.setMeetings(new ArrayList<Meeting>());
-            DaoFactory.getInstance().openTransaction();
-            DaoHelper.mergeObject(room, this.em, false);
-            DaoHelper.removeObject(room, this.em, false);
-            DaoFactory.getInstance().commitTransaction();
+            this.factory.openTransaction();
+            DaoHelper.mergeObject(room, em, false);
+            DaoHelper.removeObject(room, em, false);
+            this.factory.commitTransaction();
         } catch (final PersistenceException e) {
-            DaoFactory.getInstance().rollbackTransaction();
+            this.factory.rollbackTransaction();
             throw new DaoException("Impossible de supprimer la salle", e);
         }
     }
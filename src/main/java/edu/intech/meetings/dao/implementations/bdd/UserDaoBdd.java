@@ -6,6 +6,8 @@ import javax.persistence.EntityManager;
 import javax.persistence.PersistenceException;
 import javax.persistence.TypedQuery;
 
+import edu.intech.meetings.dao.DaoFactory;
+import edu.intech.meetings.dao.Page;
 import edu.intech.meetings.dao.interfaces.IUserDao;
 import edu.intech.meetings.exceptions.DaoException;
 import edu.intech.meetings.model.User;
@@ -13,19 +15,20 @@ import edu.intech.meetings.utils.DaoHelper;
 
 public class UserDaoBdd implements IUserDao {
 
-	private final EntityManager em;
+	private final DaoFactory factory;
 
 	/**
 	 *
 	 */
-	public UserDaoBdd(final EntityManager em) {
-		this.em = em;
+	public UserDaoBdd(final DaoFactory factory) {
+		this.factory = factory;
 	}
 
 	@Override
 	public User createUser(final User user, final boolean useTransaction) throws DaoException {
+		final EntityManager em = this.factory.getEntityManager();
 		try {
-			DaoHelper.persistObject(user, this.em, useTransaction);
+			DaoHelper.persistObject(user, em, useTransaction);
 			return user;
 		} catch (final PersistenceException e) {
 			throw new DaoException("Impossible de créer l'utilisateur", e);
@@ -34,7 +37,8 @@ public class UserDaoBdd implements IUserDao {
 
 	@Override
 	public User readUser(final int id) throws DaoException {
-		final TypedQuery<User> query = this.em.createNamedQuery("User.findById", User.class);
+		final EntityManager em = this.factory.getEntityManager();
+		final TypedQuery<User> query = em.createNamedQuery("User.findById", User.class);
 		query.setParameter("id", id);
 		if (query.getResultList().size() > 0) {
 			return query.getResultList().get(0);
@@ -44,7 +48,8 @@ public class UserDaoBdd implements IUserDao {
 
 	@Override
 	public User readUserByName(final String name) throws DaoException {
-		final TypedQuery<User> query = this.em.createNamedQuery("User.findByName", User.class);
+		final EntityManager em = this.factory.getEntityManager();
+		final TypedQuery<User> query = em.createNamedQuery("User.findByName", User.class);
 		query.setParameter("name", name);
 		final List<User> ret = query.getResultList();
 		if (ret.size() > 0) {
@@ -55,21 +60,33 @@ public class UserDaoBdd implements IUserDao {
 
 	@Override
 	public List<User> readUsersByIdList(final List<Integer> ids) throws DaoException {
-		final TypedQuery<User> query = this.em.createNamedQuery("User.findByIdsList", User.class);
+		final EntityManager em = this.factory.getEntityManager();
+		final TypedQuery<User> query = em.createNamedQuery("User.findByIdsList", User.class);
 		query.setParameter("ids", ids);
 		return query.getResultList();
 	}
 
 	@Override
 	public List<User> readAllUsers() throws DaoException {
-		final TypedQuery<User> query = this.em.createNamedQuery("User.findAll", User.class);
+		final EntityManager em = this.factory.getEntityManager();
+		final TypedQuery<User> query = em.createNamedQuery("User.findAll", User.class);
 		return query.getResultList();
 	}
 
+	@Override
+	public Page<User> readUsersPage(final int cursor, final int limit) throws DaoException {
+		final EntityManager em = this.factory.getEntityManager();
+		final TypedQuery<User> query = em.createNamedQuery("User.findPage", User.class);
+		query.setParameter("cursor", cursor);
+		query.setMaxResults(limit + 1);
+		return Page.of(query.getResultList(), limit, User::getId);
+	}
+
 	@Override
 	public void updateUser(final User s, final boolean useTransaction) throws DaoException {
+		final EntityManager em = this.factory.getEntityManager();
 		try {
-			DaoHelper.mergeObject(s, this.em, useTransaction);
+			DaoHelper.mergeObject(s, em, useTransaction);
 		} catch (final PersistenceException e) {
 			throw new DaoException("Impossible de modifier l'utilisateur.", e);
 		}
@@ -77,8 +94,15 @@ public class UserDaoBdd implements IUserDao {
 
 	@Override
 	public void deleteUser(final User s, final boolean useTransaction) throws DaoException {
+		final EntityManager em = this.factory.getEntityManager();
 		try {
-			DaoHelper.removeObject(s, this.em, useTransaction);
+			// L'utilisateur peut être une copie détachée (voir IUserDao) : on supprime
+			// l'entité gérée correspondante.
+			final User managed = em.contains(s) ? s : em.find(User.class, s.getId());
+			if (managed == null) {
+				throw new DaoException("Impossible de supprimer l'utilisateur : il n'existe plus.");
+			}
+			DaoHelper.removeObject(managed, em, useTransaction);
 		} catch (final PersistenceException e) {
 			throw new DaoException("Impossible de supprimer l'utilisateur.", e);
 		}
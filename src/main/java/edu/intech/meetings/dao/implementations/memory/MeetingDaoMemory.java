@@ -0,0 +1,145 @@
+package edu.intech.meetings.dao.implementations.memory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import edu.intech.meetings.dao.Page;
+import edu.intech.meetings.dao.interfaces.IMeetingDao;
+import edu.intech.meetings.exceptions.DaoException;
+import edu.intech.meetings.model.Meeting;
+
+public class MeetingDaoMemory implements IMeetingDao {
+
+	private final MemoryDatabase database;
+
+	/**
+	 * @param database
+	 */
+	public MeetingDaoMemory(final MemoryDatabase database) {
+		this.database = database;
+	}
+
+	@Override
+	public void createMeeting(final Meeting meeting, final boolean useTransaction) throws DaoException {
+		try {
+			this.database.insertMeeting(meeting);
+		} catch (final DaoException e) {
+			throw new DaoException("Impossible de créer la réunion", e);
+		}
+	}
+
+	@Override
+	public void createMeetings(final List<Meeting> meetings) throws DaoException {
+		try {
+			this.database.insertMeetings(meetings);
+		} catch (final DaoException e) {
+			throw new DaoException("Impossible de créer les réunions", e);
+		}
+	}
+
+	@Override
+	public Meeting readMeeting(final int meetingId) throws DaoException {
+		return this.database.copyOfMeeting(meetingId);
+	}
+
+	@Override
+	public List<Meeting> readAllMeetings() throws DaoException {
+		return read(this.database.meetings.keySet());
+	}
+
+	@Override
+	public Page<Meeting> readMeetingsPage(final int cursor, final int limit) throws DaoException {
+		final List<Meeting> rows = new ArrayList<>(limit + 1);
+		for (final Integer id : this.database.meetings.tailMap(cursor, false).keySet()) {
+			final Meeting meeting = this.database.copyOfMeeting(id);
+			if (meeting != null) {
+				rows.add(meeting);
+			}
+			if (rows.size() > limit) {
+				break;
+			}
+		}
+		return Page.of(rows, limit, Meeting::getId);
+	}
+
+	@Override
+	public List<Meeting> readMeetingsBetween(final Date from, final Date to) throws DaoException {
+		return stream(this.database.meetings.keySet()).filter(meeting -> {
+			final long start = meeting.getStart().getTime();
+			return start < to.getTime() && start + meeting.getDuration() * 60_000L > from.getTime();
+		}).sorted(Comparator.comparing(Meeting::getStart).thenComparing(Meeting::getId)).collect(Collectors.toList());
+	}
+
+	@Override
+	public List<Meeting> readMeetingsByIdList(final List<Integer> ids) throws DaoException {
+		return read(new TreeSet<>(ids));
+	}
+
+	@Override
+	public List<Meeting> readAllMeetingsWithUser(final int userId) throws DaoException {
+		return read(MemoryDatabase.indexed(this.database.meetingsByUser, userId));
+	}
+
+	@Override
+	public Stream<Meeting> streamAllMeetings() throws DaoException {
+		return stream(this.database.meetings.keySet());
+	}
+
+	@Override
+	public Stream<Meeting> streamMeetingsWithUser(final int userId) throws DaoException {
+		return stream(MemoryDatabase.indexed(this.database.meetingsByUser, userId));
+	}
+
+	@Override
+	public void updateMeeting(final Meeting meeting, final boolean useTransaction) throws DaoException {
+		try {
+			this.database.replaceMeeting(meeting);
+		} catch (final DaoException e) {
+			throw new DaoException("Impossible de modifier la réunion", e);
+		}
+	}
+
+	@Override
+	public void deleteMeeting(final Meeting meeting) throws DaoException {
+		try {
+			this.database.removeMeeting(meeting.getId());
+		} catch (final DaoException e) {
+			throw new DaoException("Impossible de supprimer la réunion", e);
+		}
+	}
+
+	@Override
+	public int deleteMeetings(final List<Integer> meetingIds) throws DaoException {
+		return this.database.removeMeetings(new TreeSet<>(meetingIds));
+	}
+
+	@Override
+	public List<Integer> deleteMeetingsBefore(final Date date) throws DaoException {
+		return this.database.removeMeetingsBefore(date);
+	}
+
+	@Override
+	public int rescheduleMeetings(final List<Integer> meetingIds, final int offsetMinutes) throws DaoException {
+		return this.database.shiftMeetings(new TreeSet<>(meetingIds), offsetMinutes);
+	}
+
+	/**
+	 * @return les copies des réunions existantes parmi les identifiants donnés,
+	 *         dans leur ordre.
+	 */
+	private List<Meeting> read(final Collection<Integer> ids) {
+		return stream(ids).collect(Collectors.toList());
+	}
+
+	private Stream<Meeting> stream(final Collection<Integer> ids) {
+		return ids.stream().map(this.database::copyOfMeeting).filter(Objects::nonNull);
+	}
+
+}
@@ -0,0 +1,447 @@
+package edu.intech.meetings.dao.implementations.memory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.intech.meetings.exceptions.DaoException;
+import edu.intech.meetings.model.Meeting;
+import edu.intech.meetings.model.Room;
+import edu.intech.meetings.model.User;
+
+/**
+ * Données partagées par les DAO en mémoire : les utilisateurs, réunions et
+ * salles rangés par identifiant, et les index secondaires qui remplacent les
+ * requêtes de la base (nom → utilisateurs, utilisateur → réunions où il est
+ * invité, réunion → salles où elle a lieu).<br>
+ * <br>
+ * Les entités stockées ne sont jamais transmises aux appelants : chaque lecture
+ * renvoie une copie, comme un EntityManager propre à chaque requête, si bien
+ * qu'une entité modifiée par un service n'est enregistrée qu'à l'appel de la
+ * méthode <code>update</code> du DAO. Les invités d'une réunion et les réunions
+ * d'une salle sont relus par identifiant à chaque copie et reflètent donc leurs
+ * dernières modifications.<br>
+ * <br>
+ * Les lectures se font sans verrou ; les écritures sont sérialisées pour que les
+ * tables et les index restent cohérents entre eux. Comme en base, un
+ * utilisateur invité à une réunion ou une réunion affectée à une salle ne peut
+ * être supprimé.
+ */
+public class MemoryDatabase {
+
+	final ConcurrentSkipListMap<Integer, User> users = new ConcurrentSkipListMap<>();
+	final ConcurrentSkipListMap<Integer, Meeting> meetings = new ConcurrentSkipListMap<>();
+	final ConcurrentSkipListMap<Integer, Room> rooms = new ConcurrentSkipListMap<>();
+
+	final ConcurrentMap<String, NavigableSet<Integer>> usersByName = new ConcurrentHashMap<>();
+	final ConcurrentMap<Integer, NavigableSet<Integer>> meetingsByUser = new ConcurrentHashMap<>();
+	final ConcurrentMap<Integer, NavigableSet<Integer>> roomsByMeeting = new ConcurrentHashMap<>();
+
+	private final AtomicInteger userIds = new AtomicInteger();
+	private final AtomicInteger meetingIds = new AtomicInteger();
+	private final AtomicInteger roomIds = new AtomicInteger();
+
+	/**
+	 * Verrou des écritures.
+	 */
+	final Object lock = new Object();
+
+	/**
+	 * Enregistre un nouvel utilisateur et lui affecte son identifiant.
+	 */
+	void insertUser(final User user) {
+		synchronized (this.lock) {
+			user.setId(this.userIds.incrementAndGet());
+			putUser(user);
+		}
+	}
+
+	/**
+	 * Remplace un utilisateur existant.
+	 *
+	 * @throws DaoException si l'utilisateur n'existe pas.
+	 */
+	void replaceUser(final User user) throws DaoException {
+		synchronized (this.lock) {
+			final User old = this.users.get(user.getId());
+			if (old == null) {
+				throw new DaoException("Aucun utilisateur avec l'identifiant " + user.getId() + ".");
+			}
+			unindex(this.usersByName, old.getName(), old.getId());
+			putUser(user);
+		}
+	}
+
+	/**
+	 * Supprime un utilisateur.
+	 *
+	 * @throws DaoException si l'utilisateur est invité à une réunion.
+	 */
+	void removeUser(final int userId) throws DaoException {
+		synchronized (this.lock) {
+			if (!indexed(this.meetingsByUser, userId).isEmpty()) {
+				throw new DaoException("L'utilisateur " + userId + " est invité à des réunions.");
+			}
+			final User old = this.users.remove(userId);
+			if (old != null) {
+				unindex(this.usersByName, old.getName(), userId);
+			}
+		}
+	}
+
+	/**
+	 * Enregistre une nouvelle réunion et lui affecte son identifiant. Les invités
+	 * pas encore enregistrés le sont aussi.
+	 *
+	 * @throws DaoException si un invité n'existe pas.
+	 */
+	void insertMeeting(final Meeting meeting) throws DaoException {
+		synchronized (this.lock) {
+			insertGuests(meeting);
+			meeting.setId(this.meetingIds.incrementAndGet());
+			putMeeting(meeting);
+		}
+	}
+
+	/**
+	 * Enregistre de nouvelles réunions : si l'une d'elles a un invité inexistant,
+	 * aucune n'est enregistrée.
+	 *
+	 * @throws DaoException si un invité n'existe pas.
+	 */
+	void insertMeetings(final List<Meeting> meetings) throws DaoException {
+		synchronized (this.lock) {
+			for (final Meeting meeting : meetings) {
+				for (final User guest : guestsOf(meeting)) {
+					if (guest.getId() != 0 && !this.users.containsKey(guest.getId())) {
+						throw new DaoException("Aucun utilisateur avec l'identifiant " + guest.getId() + ".");
+					}
+				}
+			}
+			for (final Meeting meeting : meetings) {
+				insertMeeting(meeting);
+			}
+		}
+	}
+
+	/**
+	 * Remplace une réunion existante.
+	 *
+	 * @throws DaoException si la réunion ou l'un de ses invités n'existe pas.
+	 */
+	void replaceMeeting(final Meeting meeting) throws DaoException {
+		synchronized (this.lock) {
+			final Meeting old = this.meetings.get(meeting.getId());
+			if (old == null) {
+				throw new DaoException("Aucune réunion avec l'identifiant " + meeting.getId() + ".");
+			}
+			insertGuests(meeting);
+			for (final User guest : guestsOf(old)) {
+				unindex(this.meetingsByUser, guest.getId(), old.getId());
+			}
+			putMeeting(meeting);
+		}
+	}
+
+	/**
+	 * Supprime une réunion.
+	 *
+	 * @throws DaoException si la réunion est affectée à une salle.
+	 */
+	void removeMeeting(final int meetingId) throws DaoException {
+		synchronized (this.lock) {
+			if (!indexed(this.roomsByMeeting, meetingId).isEmpty()) {
+				throw new DaoException("La réunion " + meetingId + " est affectée à des salles.");
+			}
+			final Meeting old = this.meetings.remove(meetingId);
+			if (old != null) {
+				for (final User guest : guestsOf(old)) {
+					unindex(this.meetingsByUser, guest.getId(), meetingId);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Supprime des réunions ainsi que leurs réservations de salles.
+	 *
+	 * @return le nombre de réunions supprimées.
+	 */
+	int removeMeetings(final Collection<Integer> meetingIds) {
+		synchronized (this.lock) {
+			int ret = 0;
+			for (final Integer meetingId : meetingIds) {
+				for (final Integer roomId : new ArrayList<>(indexed(this.roomsByMeeting, meetingId))) {
+					final Room old = this.rooms.get(roomId);
+					final Room room = new Room(old.getName(), old.getCapacity(), new ArrayList<>());
+					room.setId(roomId);
+					for (final Meeting meeting : meetingsOf(old)) {
+						if (meeting.getId() != meetingId) {
+							room.getMeetings().add(meeting);
+						}
+					}
+					putRoom(room);
+				}
+				this.roomsByMeeting.remove(meetingId);
+				final Meeting old = this.meetings.remove(meetingId);
+				if (old != null) {
+					for (final User guest : guestsOf(old)) {
+						unindex(this.meetingsByUser, guest.getId(), meetingId);
+					}
+					ret++;
+				}
+			}
+			return ret;
+		}
+	}
+
+	/**
+	 * Supprime les réunions commençant avant la date donnée, ainsi que leurs
+	 * réservations de salles.
+	 *
+	 * @return les identifiants des réunions supprimées.
+	 */
+	List<Integer> removeMeetingsBefore(final Date date) {
+		synchronized (this.lock) {
+			final List<Integer> ret = new ArrayList<>();
+			for (final Meeting meeting : this.meetings.values()) {
+				if (meeting.getStart() != null && meeting.getStart().before(date)) {
+					ret.add(meeting.getId());
+				}
+			}
+			removeMeetings(ret);
+			return ret;
+		}
+	}
+
+	/**
+	 * Décale le début de réunions existantes.
+	 *
+	 * @return le nombre de réunions décalées.
+	 */
+	int shiftMeetings(final Collection<Integer> meetingIds, final int offsetMinutes) {
+		synchronized (this.lock) {
+			int ret = 0;
+			for (final Integer meetingId : meetingIds) {
+				final Meeting old = this.meetings.get(meetingId);
+				if (old != null && old.getStart() != null) {
+					final Meeting meeting = new Meeting(old.getTitle(),
+							new Date(old.getStart().getTime() + offsetMinutes * 60_000L), old.getDuration(),
+							old.getGuests());
+					meeting.setId(meetingId);
+					// Les invités ne changent pas : les index restent valides.
+					this.meetings.put(meetingId, meeting);
+					ret++;
+				}
+			}
+			return ret;
+		}
+	}
+
+	/**
+	 * Enregistre une nouvelle salle et lui affecte son identifiant. Les réunions
+	 * pas encore enregistrées le sont aussi.
+	 *
+	 * @throws DaoException si une réunion n'existe pas.
+	 */
+	void insertRoom(final Room room) throws DaoException {
+		synchronized (this.lock) {
+			insertRoomMeetings(room);
+			room.setId(this.roomIds.incrementAndGet());
+			putRoom(room);
+		}
+	}
+
+	/**
+	 * Remplace une salle existante.
+	 *
+	 * @throws DaoException si la salle ou l'une de ses réunions n'existe pas.
+	 */
+	void replaceRoom(final Room room) throws DaoException {
+		synchronized (this.lock) {
+			final Room old = this.rooms.get(room.getId());
+			if (old == null) {
+				throw new DaoException("Aucune salle avec l'identifiant " + room.getId() + ".");
+			}
+			insertRoomMeetings(room);
+			for (final Meeting meeting : meetingsOf(old)) {
+				unindex(this.roomsByMeeting, meeting.getId(), old.getId());
+			}
+			putRoom(room);
+		}
+	}
+
+	/**
+	 * Supprime une salle (ses réunions sont conservées).
+	 */
+	void removeRoom(final int roomId) {
+		synchronized (this.lock) {
+			final Room old = this.rooms.remove(roomId);
+			if (old != null) {
+				for (final Meeting meeting : meetingsOf(old)) {
+					unindex(this.roomsByMeeting, meeting.getId(), roomId);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return une copie de l'utilisateur stocké, ou <code>null</code>.
+	 */
+	User copyOfUser(final int userId) {
+		final User stored = this.users.get(userId);
+		return stored == null ? null : copy(stored);
+	}
+
+	/**
+	 * @return une copie de la réunion stockée avec ses invités, ou
+	 *         <code>null</code>.
+	 */
+	Meeting copyOfMeeting(final int meetingId) {
+		final Meeting stored = this.meetings.get(meetingId);
+		if (stored == null) {
+			return null;
+		}
+		final List<User> guests = new ArrayList<>();
+		for (final User guest : guestsOf(stored)) {
+			final User copy = copyOfUser(guest.getId());
+			if (copy != null) {
+				guests.add(copy);
+			}
+		}
+		final Meeting ret = new Meeting(stored.getTitle(),
+				stored.getStart() == null ? null : new Date(stored.getStart().getTime()), stored.getDuration(),
+				guests);
+		ret.setId(stored.getId());
+		return ret;
+	}
+
+	/**
+	 * @return une copie de la salle stockée avec ses réunions, ou
+	 *         <code>null</code>.
+	 */
+	Room copyOfRoom(final int roomId) {
+		final Room stored = this.rooms.get(roomId);
+		if (stored == null) {
+			return null;
+		}
+		final List<Meeting> roomMeetings = new ArrayList<>();
+		for (final Meeting meeting : meetingsOf(stored)) {
+			final Meeting copy = copyOfMeeting(meeting.getId());
+			if (copy != null) {
+				roomMeetings.add(copy);
+			}
+		}
+		final Room ret = new Room(stored.getName(), stored.getCapacity(), roomMeetings);
+		ret.setId(stored.getId());
+		return ret;
+	}
+
+	/**
+	 * @return les identifiants indexés sous la clé donnée (vide si aucun).
+	 */
+	static <K> NavigableSet<Integer> indexed(final ConcurrentMap<K, NavigableSet<Integer>> index, final K key) {
+		final NavigableSet<Integer> ret = key == null ? null : index.get(key);
+		return ret == null ? Collections.emptyNavigableSet() : ret;
+	}
+
+	private void putUser(final User user) {
+		final User stored = copy(user);
+		this.users.put(stored.getId(), stored);
+		index(this.usersByName, stored.getName(), stored.getId());
+	}
+
+	private void putMeeting(final Meeting meeting) {
+		final Meeting stored = new Meeting(meeting.getTitle(),
+				meeting.getStart() == null ? null : new Date(meeting.getStart().getTime()), meeting.getDuration(),
+				new ArrayList<>());
+		stored.setId(meeting.getId());
+		for (final User guest : guestsOf(meeting)) {
+			stored.getGuests().add(copy(guest));
+		}
+		this.meetings.put(stored.getId(), stored);
+		for (final User guest : guestsOf(stored)) {
+			index(this.meetingsByUser, guest.getId(), stored.getId());
+		}
+	}
+
+	private void putRoom(final Room room) {
+		final Room stored = new Room(room.getName(), room.getCapacity(), new ArrayList<>());
+		stored.setId(room.getId());
+		for (final Meeting meeting : meetingsOf(room)) {
+			// Seul l'identifiant sert : la réunion est relue à chaque copie.
+			final Meeting ref = new Meeting();
+			ref.setId(meeting.getId());
+			stored.getMeetings().add(ref);
+		}
+		this.rooms.put(stored.getId(), stored);
+		for (final Meeting meeting : meetingsOf(stored)) {
+			index(this.roomsByMeeting, meeting.getId(), stored.getId());
+		}
+	}
+
+	/**
+	 * Enregistre les invités pas encore enregistrés (comme la cascade JPA) et
+	 * vérifie que les autres existent.
+	 */
+	private void insertGuests(final Meeting meeting) throws DaoException {
+		for (final User guest : guestsOf(meeting)) {
+			if (guest.getId() == 0) {
+				insertUser(guest);
+			} else if (!this.users.containsKey(guest.getId())) {
+				throw new DaoException("Aucun utilisateur avec l'identifiant " + guest.getId() + ".");
+			}
+		}
+	}
+
+	/**
+	 * Enregistre les réunions pas encore enregistrées (comme la cascade JPA) et
+	 * vérifie que les autres existent.
+	 */
+	private void insertRoomMeetings(final Room room) throws DaoException {
+		for (final Meeting meeting : meetingsOf(room)) {
+			if (meeting.getId() == 0) {
+				insertMeeting(meeting);
+			} else if (!this.meetings.containsKey(meeting.getId())) {
+				throw new DaoException("Aucune réunion avec l'identifiant " + meeting.getId() + ".");
+			}
+		}
+	}
+
+	private static User copy(final User user) {
+		final User ret = new User(user.getName(), user.getPassword(), user.getFirstName(), user.getEMail());
+		ret.setId(user.getId());
+		return ret;
+	}
+
+	private static List<User> guestsOf(final Meeting meeting) {
+		return meeting.getGuests() == null ? Collections.emptyList() : meeting.getGuests();
+	}
+
+	private static List<Meeting> meetingsOf(final Room room) {
+		return room.getMeetings() == null ? Collections.emptyList() : room.getMeetings();
+	}
+
+	private static <K> void index(final ConcurrentMap<K, NavigableSet<Integer>> index, final K key, final int id) {
+		if (key != null) {
+			index.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>()).add(id);
+		}
+	}
+
+	private static <K> void unindex(final ConcurrentMap<K, NavigableSet<Integer>> index, final K key, final int id) {
+		if (key != null) {
+			index.computeIfPresent(key, (k, ids) -> {
+				ids.remove(id);
+				return ids.isEmpty() ? null : ids;
+			});
+		}
+	}
+}
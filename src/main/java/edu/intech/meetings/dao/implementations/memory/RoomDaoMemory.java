@@ -0,0 +1,87 @@
+package edu.intech.meetings.dao.implementations.memory;
+
+import edu.intech.meetings.dao.Page;
+import edu.intech.meetings.dao.interfaces.IRoomDao;
+import edu.intech.meetings.exceptions.DaoException;
+import edu.intech.meetings.model.Room;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class RoomDaoMemory implements IRoomDao {
+
+    private final MemoryDatabase database;
+
+    /**
+     * @param database
+     */
+    public RoomDaoMemory(final MemoryDatabase database) {
+        this.database = database;
+    }
+
+    @Override
+    public void createRoom(Room room, boolean useTransaction) throws DaoException {
+        try {
+            this.database.insertRoom(room);
+        } catch (final DaoException e) {
+            throw new DaoException("Impossible de créer la salle", e);
+        }
+    }
+
+    @Override
+    public Room readRoom(int roomId) throws DaoException {
+        return this.database.copyOfRoom(roomId);
+    }
+
+    @Override
+    public List<Room> readAllRooms() throws DaoException {
+        return stream(this.database.rooms.keySet()).collect(Collectors.toList());
+    }
+
+    @Override
+    public Page<Room> readRoomsPage(int cursor, int limit) throws DaoException {
+        final List<Room> rows = new ArrayList<>(limit + 1);
+        for (final Integer id : this.database.rooms.tailMap(cursor, false).keySet()) {
+            final Room room = this.database.copyOfRoom(id);
+            if (room != null) {
+                rows.add(room);
+            }
+            if (rows.size() > limit) {
+                break;
+            }
+        }
+        return Page.of(rows, limit, Room::getId);
+    }
+
+    @Override
+    public List<Room> readAllRoomsWithMeeting(int meetingId) throws DaoException {
+        return stream(MemoryDatabase.indexed(this.database.roomsByMeeting, meetingId)).collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<Room> streamAllRooms() throws DaoException {
+        return stream(this.database.rooms.keySet());
+    }
+
+    @Override
+    public void updateRoom(Room room, boolean useTransaction) throws DaoException {
+        try {
+            this.database.replaceRoom(room);
+        } catch (final DaoException e) {
+            throw new DaoException("Impossible de modifier la salle", e);
+        }
+    }
+
+    @Override
+    public void deleteRoom(Room room) throws DaoException {
+        this.database.removeRoom(room.getId());
+    }
+
+    private Stream<Room> stream(final Collection<Integer> ids) {
+        return ids.stream().map(this.database::copyOfRoom).filter(Objects::nonNull);
+    }
+}
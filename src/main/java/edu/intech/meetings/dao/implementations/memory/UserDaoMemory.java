@@ -0,0 +1,97 @@
+package edu.intech.meetings.dao.implementations.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import edu.intech.meetings.dao.Page;
+import edu.intech.meetings.dao.interfaces.IUserDao;
+import edu.intech.meetings.exceptions.DaoException;
+import edu.intech.meetings.model.User;
+
+public class UserDaoMemory implements IUserDao {
+
+	private final MemoryDatabase database;
+
+	/**
+	 * @param database
+	 */
+	public UserDaoMemory(final MemoryDatabase database) {
+		this.database = database;
+	}
+
+	@Override
+	public User createUser(final User user, final boolean useTransaction) throws DaoException {
+		this.database.insertUser(user);
+		return user;
+	}
+
+	@Override
+	public User readUser(final int id) throws DaoException {
+		return this.database.copyOfUser(id);
+	}
+
+	@Override
+	public User readUserByName(final String name) throws DaoException {
+		for (final Integer id : MemoryDatabase.indexed(this.database.usersByName, name)) {
+			final User ret = this.database.copyOfUser(id);
+			if (ret != null) {
+				return ret;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public List<User> readUsersByIdList(final List<Integer> ids) throws DaoException {
+		return new TreeSet<>(ids).stream().map(this.database::copyOfUser).filter(Objects::nonNull)
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public List<User> readAllUsers() throws DaoException {
+		final List<User> ret = new ArrayList<>();
+		for (final Integer id : this.database.users.keySet()) {
+			final User user = this.database.copyOfUser(id);
+			if (user != null) {
+				ret.add(user);
+			}
+		}
+		return ret;
+	}
+
+	@Override
+	public Page<User> readUsersPage(final int cursor, final int limit) throws DaoException {
+		final List<User> rows = new ArrayList<>(limit + 1);
+		for (final Integer id : this.database.users.tailMap(cursor, false).keySet()) {
+			final User user = this.database.copyOfUser(id);
+			if (user != null) {
+				rows.add(user);
+			}
+			if (rows.size() > limit) {
+				break;
+			}
+		}
+		return Page.of(rows, limit, User::getId);
+	}
+
+	@Override
+	public void updateUser(final User s, final boolean useTransaction) throws DaoException {
+		try {
+			this.database.replaceUser(s);
+		} catch (final DaoException e) {
+			throw new DaoException("Impossible de modifier l'utilisateur.", e);
+		}
+	}
+
+	@Override
+	public void deleteUser(final User s, final boolean useTransaction) throws DaoException {
+		try {
+			this.database.removeUser(s.getId());
+		} catch (final DaoException e) {
+			throw new DaoException("Impossible de supprimer l'utilisateur.", e);
+		}
+	}
+}
@@ -1,7 +1,10 @@
 package edu.intech.meetings.dao.interfaces;
 
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
+import edu.intech.meetings.dao.Page;
 import edu.intech.meetings.exceptions.DaoException;
 import edu.intech.meetings.model.Meeting;
 import edu.intech.meetings.model.User;
@@ -18,6 +21,15 @@ public interface IMeetingDao {
 	 */
 	void createMeeting(Meeting meeting, boolean useTransaction) throws DaoException;
 
+	/**
+	 * Stocke les réunions dans la couche de persistance en une seule
+	 * transaction : soit toutes sont créées, soit aucune.
+	 *
+	 * @param meetings Les réunions à stocker.
+	 * @throws DaoException en cas d'erreur
+	 */
+	void createMeetings(List<Meeting> meetings) throws DaoException;
+
 	/**
 	 * Renvoie la réunion correspondant à l'id passé.
 	 *
@@ -35,6 +47,30 @@ public interface IMeetingDao {
 	 */
 	List<Meeting> readAllMeetings() throws DaoException;
 
+	/**
+	 * Lit une page de réunions, triées par identifiant croissant.
+	 *
+	 * @param cursor Identifiant après lequel commence la page (<code>0</code> pour
+	 *               la première page).
+	 * @param limit  Nombre maximum d'éléments de la page.
+	 * @return la page lue.
+	 * @throws DaoException en cas d'erreur
+	 */
+	Page<Meeting> readMeetingsPage(int cursor, int limit) throws DaoException;
+
+	/**
+	 * Renvoie les réunions qui chevauchent la période donnée.
+	 *
+	 * @param from Début de la période (inclus).
+	 * @param to   Fin de la période (exclue).
+	 * @return les réunions ayant au moins un instant dans la période, triées par
+	 *         début, y compris celles enregistrées avec une durée supérieure à
+	 *         {@link edu.intech.meetings.utils.MeetingsHelper#getMaxDuration()}
+	 *         minutes (avant l'introduction de cette limite, par exemple).
+	 * @throws DaoException en cas d'erreur
+	 */
+	List<Meeting> readMeetingsBetween(Date from, Date to) throws DaoException;
+
 	/**
 	 * @param ids
 	 * @return
@@ -52,6 +88,26 @@ public interface IMeetingDao {
 	 */
 	List<Meeting> readAllMeetingsWithUser(int userId) throws DaoException;
 
+	/**
+	 * Renvoie toutes les réunions au fil de leur lecture, sans les charger toutes
+	 * en mémoire. Le flux doit être fermé après usage.
+	 *
+	 * @return le flux de toutes les réunions, triées par identifiant.
+	 * @throws DaoException en cas d'erreur
+	 */
+	Stream<Meeting> streamAllMeetings() throws DaoException;
+
+	/**
+	 * Renvoie au fil de leur lecture les réunions dans lesquelles un utilisateur
+	 * est invité. Le flux doit être fermé après usage.
+	 *
+	 * @param userId Id de l'utilisateur pour lequel on veut récupérer les réunions.
+	 * @return le flux des réunions dans lesquelles l'utilisateur est invité,
+	 *         triées par identifiant.
+	 * @throws DaoException en cas d'erreur
+	 */
+	Stream<Meeting> streamMeetingsWithUser(int userId) throws DaoException;
+
 	/**
 	 * Modifie la réunion dans la couche de persistance.
 	 *
@@ -70,4 +126,37 @@ public interface IMeetingDao {
 	 */
 	void deleteMeeting(Meeting meeting) throws DaoException;
 
+	/**
+	 * Supprime en masse les réunions données, avec leurs invitations et leurs
+	 * réservations de salles, en un nombre de requêtes qui ne dépend pas du
+	 * nombre de réunions.
+	 *
+	 * @param meetingIds Identifiants des réunions à supprimer (les identifiants
+	 *                   inconnus sont ignorés).
+	 * @return le nombre de réunions supprimées.
+	 * @throws DaoException en cas d'erreur
+	 */
+	int deleteMeetings(List<Integer> meetingIds) throws DaoException;
+
+	/**
+	 * Supprime en masse les réunions commençant avant la date donnée, avec leurs
+	 * invitations et leurs réservations de salles.
+	 *
+	 * @param date Date limite (exclue).
+	 * @return les identifiants des réunions supprimées.
+	 * @throws DaoException en cas d'erreur
+	 */
+	List<Integer> deleteMeetingsBefore(Date date) throws DaoException;
+
+	/**
+	 * Décale en masse le début des réunions données.
+	 *
+	 * @param meetingIds    Identifiants des réunions à décaler.
+	 * @param offsetMinutes Décalage en minutes (négatif pour avancer les
+	 *                      réunions).
+	 * @return le nombre de réunions décalées.
+	 * @throws DaoException en cas d'erreur
+	 */
+	int rescheduleMeetings(List<Integer> meetingIds, int offsetMinutes) throws DaoException;
+
 }
@@ -1,10 +1,12 @@
 package edu.intech.meetings.dao.interfaces;
 
+import edu.intech.meetings.dao.Page;
 import edu.intech.meetings.exceptions.DaoException;
 import edu.intech.meetings.model.Meeting;
 import edu.intech.meetings.model.Room;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface IRoomDao {
 
@@ -28,6 +30,14 @@ public interface IRoomDao {
      */
     List<Room> readAllRooms() throws DaoException;
 
+    /**
+     * @param cursor identifiant après lequel commence la page (0 pour la première)
+     * @param limit  nombre maximum de salles de la page
+     * @return la page de salles, triées par identifiant croissant
+     * @throws DaoException
+     */
+    Page<Room> readRoomsPage(int cursor, int limit) throws DaoException;
+
     /**
      * @param meetingId
      * @return
@@ -35,6 +45,13 @@ public interface IRoomDao {
      */
     List<Room> readAllRoomsWithMeeting(int meetingId) throws DaoException;
 
+    /**
+     * @return le flux de toutes les salles, triées par identifiant, lu au fil du
+     *         parcours. Le flux doit être fermé après usage.
+     * @throws DaoException
+     */
+    Stream<Room> streamAllRooms() throws DaoException;
+
     /**
      * @param room
      * @param useTransaction
@@ -2,9 +2,21 @@ package edu.intech.meetings.dao.interfaces;
 
 import java.util.List;
 
+import edu.intech.meetings.dao.Page;
 import edu.intech.meetings.exceptions.DaoException;
 import edu.intech.meetings.model.User;
 
+/**
+ * Accès aux utilisateurs.<br>
+ * <br>
+ * Les utilisateurs renvoyés par {@link #readUser(int)} et
+ * {@link #readUserByName(String)} peuvent être des copies détachées de la
+ * couche de persistance (voir
+ * {@link edu.intech.meetings.dao.cache.CachingUserDao}) : les modifier ne
+ * change rien tant qu'ils ne sont pas passés à
+ * {@link #updateUser(User, boolean)} ou {@link #deleteUser(User, boolean)},
+ * qui acceptent des utilisateurs détachés.
+ */
 public interface IUserDao {
 
 	/**
@@ -54,6 +66,17 @@ public interface IUserDao {
 	 */
 	List<User> readAllUsers() throws DaoException;
 
+	/**
+	 * Lit une page d'utilisateurs, triés par identifiant croissant.
+	 *
+	 * @param cursor Identifiant après lequel commence la page (<code>0</code> pour
+	 *               la première page).
+	 * @param limit  Nombre maximum d'éléments de la page.
+	 * @return la page lue.
+	 * @throws DaoException en cas d'erreur
+	 */
+	Page<User> readUsersPage(int cursor, int limit) throws DaoException;
+
 	/**
 	 * Modifie l'utilisateur dans la couche de persistance.
 	 *
@@ -0,0 +1,136 @@
+package edu.intech.meetings.dao.pool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+
+import edu.intech.meetings.utils.ConfigHelper;
+
+/**
+ * Pool de connexions JDBC (HikariCP) fourni à EclipseLink comme DataSource
+ * lorsque la propriété {@value #MODE_KEY} vaut {@value #MODE_POOLED}. Dans le
+ * mode par défaut ({@value #MODE_INTERNAL}), EclipseLink gère lui-même ses
+ * connexions à partir des propriétés <code>javax.persistence.jdbc.*</code> de
+ * persistence.xml.<br>
+ * <br>
+ * Toutes les valeurs sont lues via {@link ConfigHelper} (clés
+ * <code>meetings.datasource.*</code> et <code>meetings.pool.*</code>).
+ */
+public class ConnectionPool implements AutoCloseable {
+
+	public final static String MODE_KEY = "meetings.datasource.mode";
+	public final static String MODE_INTERNAL = "internal";
+	public final static String MODE_POOLED = "pooled";
+
+	private final HikariDataSource dataSource;
+
+	private final LongAdder acquisitions = new LongAdder();
+	private final LongAdder timeouts = new LongAdder();
+	private final LongAdder totalWaitNanos = new LongAdder();
+	private final AtomicLong maxWaitNanos = new AtomicLong();
+
+	/**
+	 * @return <code>true</code> si la configuration demande un pool de connexions
+	 *         externe à EclipseLink.
+	 */
+	public static boolean isEnabled() {
+		return MODE_POOLED.equalsIgnoreCase(ConfigHelper.getString(MODE_KEY, MODE_INTERNAL));
+	}
+
+	/**
+	 * Pool vers la base configurée par les clés <code>meetings.datasource.*</code>.
+	 */
+	public ConnectionPool() {
+		this(ConfigHelper.getString("meetings.datasource.driver", "com.mysql.jdbc.Driver"),
+				ConfigHelper.getString("meetings.datasource.url", "jdbc:mysql://localhost:3306/meetings?useCursorFetch=true"),
+				ConfigHelper.getString("meetings.datasource.user", "root"),
+				ConfigHelper.getString("meetings.datasource.password", "root"));
+	}
+
+	/**
+	 * Pool vers la base donnée (base embarquée par exemple), les autres réglages
+	 * étant lus dans les clés <code>meetings.pool.*</code>.
+	 */
+	public ConnectionPool(final String driver, final String url, final String user, final String password) {
+		final HikariConfig config = new HikariConfig();
+		config.setPoolName("meetings");
+		config.setDriverClassName(driver);
+		config.setJdbcUrl(url);
+		config.setUsername(user);
+		config.setPassword(password);
+		config.setMinimumIdle(ConfigHelper.getInt("meetings.pool.minIdle", 2));
+		config.setMaximumPoolSize(ConfigHelper.getInt("meetings.pool.maxSize", 10));
+		config.setConnectionTimeout(ConfigHelper.getLong("meetings.pool.acquireTimeoutMs", 3000));
+		config.setValidationTimeout(ConfigHelper.getLong("meetings.pool.validationTimeoutMs", 1000));
+		// Sans requête de validation, le pool utilise Connection.isValid() (JDBC 4).
+		config.setConnectionTestQuery(ConfigHelper.getString("meetings.pool.validationQuery", null));
+		config.setLeakDetectionThreshold(ConfigHelper.getLong("meetings.pool.leakDetectionMs", 0));
+		config.setIdleTimeout(ConfigHelper.getLong("meetings.pool.idleTimeoutMs", 600000));
+		config.setMaxLifetime(ConfigHelper.getLong("meetings.pool.maxLifetimeMs", 1800000));
+		// Comme avec EclipseLink, l'application démarre même si la base n'est pas
+		// encore joignable.
+		config.setInitializationFailTimeout(-1);
+		config.setMetricsTrackerFactory((poolName, poolStats) -> new IMetricsTracker() {
+			@Override
+			public void recordConnectionAcquiredNanos(final long elapsedAcquiredNanos) {
+				ConnectionPool.this.acquisitions.increment();
+				ConnectionPool.this.totalWaitNanos.add(elapsedAcquiredNanos);
+				ConnectionPool.this.maxWaitNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+			}
+
+			@Override
+			public void recordConnectionTimeout() {
+				ConnectionPool.this.timeouts.increment();
+			}
+		});
+		this.dataSource = new PoolDataSource(config);
+	}
+
+	/**
+	 * @return la DataSource à transmettre à EclipseLink.
+	 */
+	public DataSource getDataSource() {
+		return this.dataSource;
+	}
+
+	/**
+	 * @return les statistiques courantes du pool.
+	 */
+	public PoolStatistics getStatistics() {
+		final HikariPoolMXBean pool = this.dataSource.getHikariPoolMXBean();
+		return new PoolStatistics(pool == null ? 0 : pool.getActiveConnections(),
+				pool == null ? 0 : pool.getIdleConnections(), pool == null ? 0 : pool.getTotalConnections(),
+				pool == null ? 0 : pool.getThreadsAwaitingConnection(), this.acquisitions.sum(), this.timeouts.sum(),
+				this.totalWaitNanos.sum(), this.maxWaitNanos.get());
+	}
+
+	@Override
+	public void close() {
+		this.dataSource.close();
+	}
+
+	/**
+	 * EclipseLink demande ses connexions avec l'utilisateur et le mot de passe de
+	 * persistence.xml ; c'est le pool qui porte les identifiants, on ignore donc
+	 * ceux transmis.
+	 */
+	private static class PoolDataSource extends HikariDataSource {
+
+		PoolDataSource(final HikariConfig config) {
+			super(config);
+		}
+
+		@Override
+		public Connection getConnection(final String username, final String password) throws SQLException {
+			return getConnection();
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package edu.intech.meetings.dao.pool;
+
+/**
+ * Photographie des statistiques du pool de connexions JDBC à un instant donné.
+ */
+public class PoolStatistics {
+
+	private final int activeConnections;
+	private final int idleConnections;
+	private final int totalConnections;
+	private final int waitingThreads;
+	private final long acquisitions;
+	private final long timeouts;
+	private final long totalWaitNanos;
+	private final long maxWaitNanos;
+
+	public PoolStatistics(final int activeConnections, final int idleConnections, final int totalConnections,
+			final int waitingThreads, final long acquisitions, final long timeouts, final long totalWaitNanos,
+			final long maxWaitNanos) {
+		this.activeConnections = activeConnections;
+		this.idleConnections = idleConnections;
+		this.totalConnections = totalConnections;
+		this.waitingThreads = waitingThreads;
+		this.acquisitions = acquisitions;
+		this.timeouts = timeouts;
+		this.totalWaitNanos = totalWaitNanos;
+		this.maxWaitNanos = maxWaitNanos;
+	}
+
+	/**
+	 * @return le nombre de connexions actuellement empruntées.
+	 */
+	public int getActiveConnections() {
+		return this.activeConnections;
+	}
+
+	/**
+	 * @return le nombre de connexions disponibles dans le pool.
+	 */
+	public int getIdleConnections() {
+		return this.idleConnections;
+	}
+
+	/**
+	 * @return le nombre total de connexions ouvertes par le pool.
+	 */
+	public int getTotalConnections() {
+		return this.totalConnections;
+	}
+
+	/**
+	 * @return le nombre de threads en attente d'une connexion.
+	 */
+	public int getWaitingThreads() {
+		return this.waitingThreads;
+	}
+
+	/**
+	 * @return le nombre de connexions obtenues depuis le démarrage.
+	 */
+	public long getAcquisitions() {
+		return this.acquisitions;
+	}
+
+	/**
+	 * @return le nombre de demandes de connexion abandonnées faute de connexion
+	 *         libre dans le délai imparti.
+	 */
+	public long getTimeouts() {
+		return this.timeouts;
+	}
+
+	/**
+	 * @return le temps d'attente cumulé pour obtenir une connexion, en
+	 *         nanosecondes.
+	 */
+	public long getTotalWaitNanos() {
+		return this.totalWaitNanos;
+	}
+
+	/**
+	 * @return le plus long temps d'attente observé pour obtenir une connexion, en
+	 *         nanosecondes.
+	 */
+	public long getMaxWaitNanos() {
+		return this.maxWaitNanos;
+	}
+
+	/**
+	 * @return le temps d'attente moyen pour obtenir une connexion, en
+	 *         millisecondes.
+	 */
+	public double getAverageWaitMillis() {
+		return this.acquisitions == 0 ? 0 : this.totalWaitNanos / 1e6 / this.acquisitions;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("active=%d, idle=%d, total=%d, waiting=%d, acquisitions=%d, timeouts=%d, avgWait=%.3fms",
+				this.activeConnections, this.idleConnections, this.totalConnections, this.waitingThreads,
+				this.acquisitions, this.timeouts, getAverageWaitMillis());
+	}
+}
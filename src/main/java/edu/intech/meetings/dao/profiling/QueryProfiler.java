@@ -0,0 +1,255 @@
+package edu.intech.meetings.dao.profiling;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.jpa.JpaHelper;
+import org.eclipse.persistence.queries.Cursor;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.sessions.Record;
+import org.eclipse.persistence.sessions.SessionProfiler;
+import org.eclipse.persistence.sessions.SessionProfilerAdapter;
+import org.eclipse.persistence.sessions.server.Server;
+
+import edu.intech.meetings.dao.cache.SharedCache;
+import edu.intech.meetings.utils.CacheStatistics;
+import edu.intech.meetings.utils.ConfigHelper;
+
+/**
+ * Profileur EclipseLink mesurant chaque requête exécutée par les DAO : temps
+ * d'exécution, nombre de lignes renvoyées et nombre de requêtes SQL réellement
+ * envoyées à la base (chargement des relations compris). Les mesures sont
+ * regroupées par nom de requête : nom de la requête nommée
+ * (<code>Meeting.findByUser</code>, <code>Room.findByMeeting</code>...) ou,
+ * pour les requêtes internes d'EclipseLink, type de requête et entité lue
+ * (<code>ReadObjectQuery(User)</code>...).<br>
+ * <br>
+ * Les requêtes plus longues que <code>meetings.dao.slowQueryMs</code> sont
+ * journalisées au niveau WARNING par le logger {@value #SLOW_QUERY_LOGGER}, ce
+ * qui permet de faire tourner EclipseLink sans journalisation
+ * (<code>meetings.jpa.loggingLevel=OFF</code>).<br>
+ * <br>
+ * Il compte aussi, par entité, les lectures servies par le cache partagé
+ * d'EclipseLink et celles qui ont dû aller en base (voir
+ * {@link #getCacheStatistics()}).<br>
+ * <br>
+ * Il s'installe sur la session serveur : seuls les EntityManager créés après
+ * {@link #install(EntityManagerFactory)} sont mesurés.
+ */
+public class QueryProfiler extends SessionProfilerAdapter {
+
+	public final static String SLOW_QUERY_LOGGER = "edu.intech.meetings.dao.slowQueries";
+
+	private static final Logger SLOW_QUERIES = Logger.getLogger(SLOW_QUERY_LOGGER);
+
+	/**
+	 * Requête en cours d'exécution sur le thread courant. Une requête peut en
+	 * déclencher d'autres (relations, délégation de l'unité de travail à la
+	 * session) : chacune compte alors les requêtes SQL de ses filles.
+	 */
+	private static final class Frame {
+		final Frame parent;
+		final DatabaseQuery query;
+		long statements;
+
+		Frame(final Frame parent, final DatabaseQuery query) {
+			this.parent = parent;
+			this.query = query;
+		}
+	}
+
+	private static final class Counters {
+		final LongAdder executions = new LongAdder();
+		final LongAdder totalNanos = new LongAdder();
+		final AtomicLong maxNanos = new AtomicLong();
+		final LongAdder rows = new LongAdder();
+		final LongAdder statements = new LongAdder();
+		final LongAdder slowExecutions = new LongAdder();
+	}
+
+	private final long slowQueryNanos = ConfigHelper.getLong("meetings.dao.slowQueryMs", 500) * 1000000;
+	private final ThreadLocal<Frame> current = new ThreadLocal<>();
+	private final Map<String, Counters> queries = new ConcurrentHashMap<>();
+	private final LongAdder statements = new LongAdder();
+	private final Map<Class<?>, LongAdder> cacheHits = new ConcurrentHashMap<>();
+	private final Map<Class<?>, LongAdder> cacheMisses = new ConcurrentHashMap<>();
+	private Server session;
+
+	/**
+	 * @return <code>true</code> si la configuration demande de mesurer les
+	 *         requêtes (<code>meetings.dao.profiling</code>, vrai par défaut).
+	 */
+	public static boolean isEnabled() {
+		return ConfigHelper.getBoolean("meetings.dao.profiling", true);
+	}
+
+	/**
+	 * Installe un nouveau profileur sur la session serveur de l'unité de
+	 * persistance.
+	 */
+	public static QueryProfiler install(final EntityManagerFactory emf) {
+		final QueryProfiler ret = new QueryProfiler();
+		ret.session = JpaHelper.getServerSession(emf);
+		ret.session.setProfiler(ret);
+		return ret;
+	}
+
+	/**
+	 * Retire le profileur de la session serveur.
+	 */
+	public void uninstall() {
+		this.session.setProfiler(null);
+	}
+
+	@Override
+	public Object profileExecutionOfQuery(final DatabaseQuery query, final Record row,
+			final AbstractSession executionSession) {
+		final Frame parent = this.current.get();
+		if (parent != null && parent.query == query) {
+			// Même requête déléguée par l'unité de travail à sa session : déjà
+			// mesurée.
+			return executionSession.internalExecuteQuery(query, (AbstractRecord) row);
+		}
+		final Frame frame = new Frame(parent, query);
+		this.current.set(frame);
+		final long start = System.nanoTime();
+		Object result = null;
+		try {
+			result = executionSession.internalExecuteQuery(query, (AbstractRecord) row);
+			return result;
+		} finally {
+			final long nanos = System.nanoTime() - start;
+			this.current.set(parent);
+			if (parent != null) {
+				parent.statements += frame.statements;
+			}
+			record(query, nanos, rowCount(query, result), frame.statements);
+		}
+	}
+
+	@Override
+	public void startOperationProfile(final String operationName, final DatabaseQuery query, final int weight) {
+		if (SessionProfiler.StatementExecute.equals(operationName)) {
+			this.statements.increment();
+			final Frame frame = this.current.get();
+			if (frame != null) {
+				frame.statements++;
+			}
+		}
+	}
+
+	@Override
+	public void occurred(final String operationName, final DatabaseQuery query, final AbstractSession session) {
+		if (query == null || query.getReferenceClass() == null) {
+			return;
+		}
+		if (SessionProfiler.CacheHits.equals(operationName)) {
+			this.cacheHits.computeIfAbsent(query.getReferenceClass(), c -> new LongAdder()).increment();
+		} else if (SessionProfiler.CacheMisses.equals(operationName)) {
+			this.cacheMisses.computeIfAbsent(query.getReferenceClass(), c -> new LongAdder()).increment();
+		}
+	}
+
+	@Override
+	public int getProfileWeight() {
+		return SessionProfiler.ALL;
+	}
+
+	/**
+	 * @return le nombre total de requêtes SQL envoyées à la base depuis
+	 *         l'installation du profileur.
+	 */
+	public long getStatementCount() {
+		return this.statements.sum();
+	}
+
+	/**
+	 * @return les statistiques de chaque requête exécutée depuis l'installation
+	 *         du profileur.
+	 */
+	public Collection<QueryStatistics> getStatistics() {
+		final List<QueryStatistics> ret = new ArrayList<>(this.queries.size());
+		for (final Map.Entry<String, Counters> entry : this.queries.entrySet()) {
+			final Counters counters = entry.getValue();
+			ret.add(new QueryStatistics(entry.getKey(), counters.executions.sum(), counters.totalNanos.sum(),
+					counters.maxNanos.get(), counters.rows.sum(), counters.statements.sum(),
+					counters.slowExecutions.sum()));
+		}
+		return ret;
+	}
+
+	/**
+	 * @return les statistiques du cache partagé de chaque entité mise en cache,
+	 *         par nom d'entité. Les évictions ne sont pas comptées par
+	 *         EclipseLink et valent toujours 0.
+	 */
+	public Map<String, CacheStatistics> getCacheStatistics() {
+		final Map<String, CacheStatistics> ret = new LinkedHashMap<>();
+		for (final Class<?> entity : SharedCache.ENTITIES.keySet()) {
+			final ClassDescriptor descriptor = this.session.getDescriptor(entity);
+			final int size = descriptor.isIsolated() ? 0
+					: ((AbstractSession) this.session).getIdentityMapAccessorInstance().getIdentityMap(descriptor)
+							.getSize();
+			ret.put(entity.getSimpleName(), new CacheStatistics(size, sum(this.cacheHits.get(entity)),
+					sum(this.cacheMisses.get(entity)), 0));
+		}
+		return ret;
+	}
+
+	private static long sum(final LongAdder adder) {
+		return adder == null ? 0 : adder.sum();
+	}
+
+	private void record(final DatabaseQuery query, final long nanos, final long rows, final long statementCount) {
+		final String name = nameOf(query);
+		final Counters counters = this.queries.computeIfAbsent(name, n -> new Counters());
+		counters.executions.increment();
+		counters.totalNanos.add(nanos);
+		counters.maxNanos.accumulateAndGet(nanos, Math::max);
+		counters.rows.add(rows);
+		counters.statements.add(statementCount);
+		if (this.slowQueryNanos >= 0 && nanos > this.slowQueryNanos) {
+			counters.slowExecutions.increment();
+			if (SLOW_QUERIES.isLoggable(Level.WARNING)) {
+				SLOW_QUERIES.warning(String.format("Requête lente : %s (%.1f ms, %d lignes, %d requêtes SQL) %s",
+						name, nanos / 1e6, rows, statementCount, query.getSQLString()));
+			}
+		}
+	}
+
+	private static String nameOf(final DatabaseQuery query) {
+		final String name = query.getName();
+		if (name != null && !name.isEmpty()) {
+			return name;
+		}
+		final Class<?> entity = query.getReferenceClass();
+		return query.getClass().getSimpleName() + (entity == null ? "" : "(" + entity.getSimpleName() + ")");
+	}
+
+	private static long rowCount(final DatabaseQuery query, final Object result) {
+		if (result == null || result instanceof Cursor) {
+			// Un curseur est lu après l'exécution de la requête.
+			return 0;
+		}
+		if (result instanceof Collection) {
+			return ((Collection<?>) result).size();
+		}
+		if (query.isModifyQuery() && result instanceof Number) {
+			return ((Number) result).longValue();
+		}
+		return 1;
+	}
+}
@@ -0,0 +1,90 @@
+package edu.intech.meetings.dao.profiling;
+
+/**
+ * Photographie des statistiques d'exécution d'une requête JPA (requête nommée
+ * ou requête interne d'EclipseLink) à un instant donné.
+ */
+public class QueryStatistics {
+
+	private final String query;
+	private final long executions;
+	private final long totalNanos;
+	private final long maxNanos;
+	private final long rows;
+	private final long statements;
+	private final long slowExecutions;
+
+	public QueryStatistics(final String query, final long executions, final long totalNanos, final long maxNanos,
+			final long rows, final long statements, final long slowExecutions) {
+		this.query = query;
+		this.executions = executions;
+		this.totalNanos = totalNanos;
+		this.maxNanos = maxNanos;
+		this.rows = rows;
+		this.statements = statements;
+		this.slowExecutions = slowExecutions;
+	}
+
+	/**
+	 * @return le nom de la requête (par exemple <code>Meeting.findByUser</code>).
+	 */
+	public String getQuery() {
+		return this.query;
+	}
+
+	/**
+	 * @return le nombre d'exécutions depuis le démarrage.
+	 */
+	public long getExecutions() {
+		return this.executions;
+	}
+
+	/**
+	 * @return le temps d'exécution cumulé, en nanosecondes.
+	 */
+	public long getTotalNanos() {
+		return this.totalNanos;
+	}
+
+	/**
+	 * @return le plus long temps d'exécution, en nanosecondes.
+	 */
+	public long getMaxNanos() {
+		return this.maxNanos;
+	}
+
+	/**
+	 * @return le nombre cumulé de lignes renvoyées (ou modifiées).
+	 */
+	public long getRows() {
+		return this.rows;
+	}
+
+	/**
+	 * @return le nombre cumulé de requêtes SQL envoyées à la base.
+	 */
+	public long getStatements() {
+		return this.statements;
+	}
+
+	/**
+	 * @return le nombre d'exécutions ayant dépassé le seuil des requêtes lentes.
+	 */
+	public long getSlowExecutions() {
+		return this.slowExecutions;
+	}
+
+	/**
+	 * @return le temps d'exécution moyen, en millisecondes.
+	 */
+	public double getAverageMillis() {
+		return this.executions == 0 ? 0 : this.totalNanos / 1e6 / this.executions;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: executions=%d, avg=%.3fms, max=%.3fms, rows=%d, statements=%d, slow=%d",
+				this.query, this.executions, getAverageMillis(), this.maxNanos / 1e6, this.rows, this.statements,
+				this.slowExecutions);
+	}
+}
@@ -0,0 +1,23 @@
+package edu.intech.meetings.exceptions;
+
+/**
+ * Levée quand le serveur refuse une requête parce qu'il est saturé. Les
+ * services la traduisent en statut 503 (Service Unavailable) pour que le client
+ * réessaie plus tard.
+ */
+public class ServiceOverloadedException extends ServiceException {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = 1L;
+
+	public ServiceOverloadedException(final String message) {
+		super(message);
+	}
+
+	public ServiceOverloadedException(final String message, final Throwable cause) {
+		super(message, cause);
+	}
+
+}
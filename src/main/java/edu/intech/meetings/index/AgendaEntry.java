@@ -0,0 +1,73 @@
+package edu.intech.meetings.index;
+
+import java.util.Comparator;
+import java.util.Date;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import edu.intech.meetings.model.Meeting;
+import edu.intech.meetings.utils.DateTimeHelper;
+
+/**
+ * Réunion telle qu'elle figure dans l'agenda d'un invité
+ * ({@link AgendaIndex}) : identifiant, titre, début et durée, sans la liste des
+ * invités. Les entrées sont immuables et partagées entre les agendas de tous
+ * les invités de la réunion.
+ */
+@JsonPropertyOrder({ "id", "title", "start", "duration" })
+public final class AgendaEntry {
+
+	/**
+	 * Ordre des agendas : par début, puis par identifiant.
+	 */
+	static final Comparator<AgendaEntry> ORDER = Comparator.comparingLong(AgendaEntry::getStartTime)
+			.thenComparingInt(AgendaEntry::getId);
+
+	private final int id;
+	private final String title;
+	private final long start;
+	private final int duration;
+
+	private AgendaEntry(final int id, final String title, final long start, final int duration) {
+		this.id = id;
+		this.title = title;
+		this.start = start;
+		this.duration = duration;
+	}
+
+	/**
+	 * @param meeting Réunion enregistrée.
+	 * @return l'entrée d'agenda de la réunion, à son horaire actuel.
+	 */
+	public static AgendaEntry of(final Meeting meeting) {
+		return new AgendaEntry(meeting.getId(), meeting.getTitle(), meeting.getStart().getTime(),
+				meeting.getDuration());
+	}
+
+	public int getId() {
+		return this.id;
+	}
+
+	public String getTitle() {
+		return this.title;
+	}
+
+	@JsonSerialize(using = DateTimeHelper.Serializer.class)
+	public Date getStart() {
+		return new Date(this.start);
+	}
+
+	public int getDuration() {
+		return this.duration;
+	}
+
+	long getStartTime() {
+		return this.start;
+	}
+
+	@Override
+	public String toString() {
+		return this.id + "[" + new Date(this.start) + ", " + this.duration + " min] " + this.title;
+	}
+}
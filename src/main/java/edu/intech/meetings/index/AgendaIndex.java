@@ -0,0 +1,172 @@
+package edu.intech.meetings.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import edu.intech.meetings.dao.DaoFactory;
+import edu.intech.meetings.exceptions.DaoException;
+import edu.intech.meetings.model.Meeting;
+import edu.intech.meetings.model.User;
+
+/**
+ * Agenda de chaque utilisateur : les réunions auxquelles il est invité, sous
+ * forme compacte ({@link AgendaEntry}) et triées par début. La lecture d'un
+ * agenda est une simple recherche dans une table, sans requête en base ni
+ * chargement des invités des réunions.<br>
+ * <br>
+ * Comme les index des emplois du temps, l'agenda est construit à partir de la
+ * base au premier accès puis tenu à jour par les services à chaque écriture
+ * d'une réunion (sous les {@link BookingLocks} de la réunion). Chaque agenda
+ * est un tableau remplacé en entier à chaque modification : les lectures ne
+ * prennent aucun verrou.
+ */
+public class AgendaIndex {
+
+	private static final AgendaEntry[] EMPTY = new AgendaEntry[0];
+
+	private static AgendaIndex instance;
+
+	private volatile Map<Integer, AgendaEntry[]> agendas = new ConcurrentHashMap<>();
+	private final Map<Integer, Set<Integer>> guestsByMeeting = new HashMap<>();
+	private volatile boolean loaded = false;
+
+	private AgendaIndex() {
+	}
+
+	public static synchronized AgendaIndex getInstance() {
+		if (instance == null) {
+			instance = new AgendaIndex();
+		}
+		return instance;
+	}
+
+	/**
+	 * Reconstruit tous les agendas à partir de la base.
+	 *
+	 * @throws DaoException si la base ne peut être lue.
+	 */
+	public synchronized void reload() throws DaoException {
+		final Map<Integer, List<AgendaEntry>> entries = new HashMap<>();
+		this.guestsByMeeting.clear();
+		// Lecture par curseur : seules les entrées sont conservées.
+		try (Stream<Meeting> meetings = DaoFactory.getInstance().getMeetingDao().streamAllMeetings()) {
+			meetings.forEach(meeting -> {
+				final AgendaEntry entry = AgendaEntry.of(meeting);
+				final Set<Integer> guests = guestIdsOf(meeting);
+				for (final Integer guest : guests) {
+					entries.computeIfAbsent(guest, id -> new ArrayList<>()).add(entry);
+				}
+				if (!guests.isEmpty()) {
+					this.guestsByMeeting.put(meeting.getId(), guests);
+				}
+			});
+		}
+		final Map<Integer, AgendaEntry[]> loadedAgendas = new ConcurrentHashMap<>();
+		for (final Map.Entry<Integer, List<AgendaEntry>> agenda : entries.entrySet()) {
+			final AgendaEntry[] sorted = agenda.getValue().toArray(EMPTY);
+			Arrays.sort(sorted, AgendaEntry.ORDER);
+			loadedAgendas.put(agenda.getKey(), sorted);
+		}
+		this.agendas = loadedAgendas;
+		this.loaded = true;
+	}
+
+	private void ensureLoaded() throws DaoException {
+		if (!this.loaded) {
+			synchronized (this) {
+				if (!this.loaded) {
+					reload();
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param userId Identifiant de l'utilisateur.
+	 * @return les réunions auxquelles l'utilisateur est invité, triées par début
+	 *         puis par identifiant (liste vide si l'utilisateur n'a aucune
+	 *         réunion ou n'existe pas). La liste n'est pas modifiable.
+	 * @throws DaoException si l'index ne peut être construit.
+	 */
+	public List<AgendaEntry> getAgenda(final int userId) throws DaoException {
+		ensureLoaded();
+		return Collections.unmodifiableList(Arrays.asList(this.agendas.getOrDefault(userId, EMPTY)));
+	}
+
+	/**
+	 * Enregistre une réunion créée ou modifiée : elle est retirée de l'agenda de
+	 * ses anciens invités puis placée, à son horaire et avec son titre actuels,
+	 * dans celui de ses invités actuels.
+	 */
+	public synchronized void putMeeting(final Meeting meeting) throws DaoException {
+		ensureLoaded();
+		removeMeetingLocked(meeting.getId());
+		final AgendaEntry entry = AgendaEntry.of(meeting);
+		final Set<Integer> guests = guestIdsOf(meeting);
+		for (final Integer guest : guests) {
+			final AgendaEntry[] agenda = this.agendas.getOrDefault(guest, EMPTY);
+			int position = Arrays.binarySearch(agenda, entry, AgendaEntry.ORDER);
+			position = position < 0 ? -position - 1 : position;
+			final AgendaEntry[] updated = new AgendaEntry[agenda.length + 1];
+			System.arraycopy(agenda, 0, updated, 0, position);
+			updated[position] = entry;
+			System.arraycopy(agenda, position, updated, position + 1, agenda.length - position);
+			this.agendas.put(guest, updated);
+		}
+		if (!guests.isEmpty()) {
+			this.guestsByMeeting.put(meeting.getId(), guests);
+		}
+	}
+
+	/**
+	 * Retire une réunion supprimée de l'agenda de tous ses invités.
+	 */
+	public synchronized void removeMeeting(final int meetingId) throws DaoException {
+		ensureLoaded();
+		removeMeetingLocked(meetingId);
+	}
+
+	/**
+	 * Retire l'agenda d'un utilisateur supprimé.
+	 */
+	public synchronized void removeUser(final int userId) throws DaoException {
+		ensureLoaded();
+		if (this.agendas.remove(userId) != null) {
+			this.guestsByMeeting.values().removeIf(guests -> guests.remove(userId) && guests.isEmpty());
+		}
+	}
+
+	private void removeMeetingLocked(final int meetingId) {
+		final Set<Integer> guests = this.guestsByMeeting.remove(meetingId);
+		if (guests == null) {
+			return;
+		}
+		for (final Integer guest : guests) {
+			final AgendaEntry[] agenda = this.agendas.get(guest);
+			if (agenda == null) {
+				continue;
+			}
+			final AgendaEntry[] updated = Arrays.stream(agenda).filter(entry -> entry.getId() != meetingId)
+					.toArray(AgendaEntry[]::new);
+			if (updated.length == 0) {
+				this.agendas.remove(guest);
+			} else {
+				this.agendas.put(guest, updated);
+			}
+		}
+	}
+
+	private static Set<Integer> guestIdsOf(final Meeting meeting) {
+		return meeting.getGuests() == null ? new HashSet<>()
+				: meeting.getGuests().stream().map(User::getId).collect(Collectors.toCollection(HashSet::new));
+	}
+}
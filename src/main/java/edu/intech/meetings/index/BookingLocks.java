@@ -0,0 +1,198 @@
+package edu.intech.meetings.index;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import edu.intech.meetings.exceptions.DaoException;
+import edu.intech.meetings.model.Meeting;
+import edu.intech.meetings.model.User;
+
+/**
+ * Verrous des réservations : une vérification dans les index des emplois du
+ * temps suivie d'une écriture en base doit être faite en tenant les verrous
+ * des salles, des invités et des réunions concernés, pour que deux requêtes ne
+ * réservent pas le même créneau en même temps. Les requêtes qui ne partagent
+ * ni salle, ni invité, ni réunion s'exécutent en parallèle.<br>
+ * <br>
+ * Les verrous sont répartis sur un nombre fixe de « bandes » : deux
+ * propriétaires différents peuvent partager une bande, ce qui ne fait que
+ * sérialiser leurs écritures. Les bandes sont prises dans l'ordre croissant,
+ * après le verrou global en lecture ; {@link #all()} prend ce verrou global
+ * en écriture pour les opérations dont les réunions ne sont pas connues
+ * d'avance.<br>
+ * <br>
+ * Utilisation :
+ *
+ * <pre>
+ * final BookingLocks locks = BookingLocks.of(() -&gt; new BookingLocks.Keys().meeting(id).guestsOf(meeting));
+ * locks.lock();
+ * try {
+ * 	// vérifications puis écriture
+ * } finally {
+ * 	locks.unlock();
+ * }
+ * </pre>
+ */
+public final class BookingLocks {
+
+	private static final int STRIPES = 1024;
+
+	private static final int ROOM = 1;
+	private static final int GUEST = 2;
+	private static final int MEETING = 3;
+
+	private static final ReentrantReadWriteLock GLOBAL = new ReentrantReadWriteLock();
+	private static final ReentrantLock[] LOCKS = new ReentrantLock[STRIPES];
+
+	static {
+		for (int i = 0; i < STRIPES; i++) {
+			LOCKS[i] = new ReentrantLock();
+		}
+	}
+
+	/**
+	 * Calcule les propriétaires à verrouiller. Le calcul est refait une fois les
+	 * verrous pris : il peut lire les index, qu'une autre requête modifiait
+	 * peut-être avant.
+	 */
+	@FunctionalInterface
+	public interface KeysSupplier {
+		Keys get() throws DaoException;
+	}
+
+	/**
+	 * Ensemble des bandes à verrouiller.
+	 */
+	public static final class Keys {
+
+		private final TreeSet<Integer> stripes = new TreeSet<>();
+
+		public Keys room(final int roomId) {
+			this.stripes.add(stripe(ROOM, roomId));
+			return this;
+		}
+
+		public Keys rooms(final Collection<Integer> roomIds) {
+			roomIds.forEach(this::room);
+			return this;
+		}
+
+		public Keys guest(final int userId) {
+			this.stripes.add(stripe(GUEST, userId));
+			return this;
+		}
+
+		public Keys guests(final Collection<Integer> userIds) {
+			userIds.forEach(this::guest);
+			return this;
+		}
+
+		/**
+		 * Ajoute les invités actuels de la réunion.
+		 */
+		public Keys guestsOf(final Meeting meeting) {
+			if (meeting.getGuests() != null) {
+				for (final User guest : meeting.getGuests()) {
+					guest(guest.getId());
+				}
+			}
+			return this;
+		}
+
+		public Keys meeting(final int meetingId) {
+			this.stripes.add(stripe(MEETING, meetingId));
+			return this;
+		}
+
+		public Keys meetings(final Collection<Integer> meetingIds) {
+			meetingIds.forEach(this::meeting);
+			return this;
+		}
+	}
+
+	private final KeysSupplier supplier;
+	private TreeSet<Integer> locked;
+
+	private BookingLocks(final KeysSupplier supplier) {
+		this.supplier = supplier;
+	}
+
+	/**
+	 * @param supplier Calcul des propriétaires concernés par l'opération.
+	 * @return les verrous de ces propriétaires, pas encore pris.
+	 */
+	public static BookingLocks of(final KeysSupplier supplier) {
+		return new BookingLocks(supplier);
+	}
+
+	/**
+	 * @return le verrou exclusif de toutes les réservations, pas encore pris.
+	 */
+	public static BookingLocks all() {
+		return new BookingLocks(null);
+	}
+
+	/**
+	 * Prend les verrous. Si les propriétaires concernés ont changé pendant
+	 * l'attente, les verrous sont relâchés puis repris, nouveaux propriétaires
+	 * compris.
+	 *
+	 * @throws DaoException si les index ne peuvent être lus.
+	 */
+	public void lock() throws DaoException {
+		if (this.supplier == null) {
+			GLOBAL.writeLock().lock();
+			return;
+		}
+		final TreeSet<Integer> wanted = new TreeSet<>(this.supplier.get().stripes);
+		while (true) {
+			lockStripes(wanted);
+			final TreeSet<Integer> current;
+			try {
+				current = this.supplier.get().stripes;
+			} catch (final DaoException | RuntimeException e) {
+				unlockStripes(wanted);
+				throw e;
+			}
+			if (wanted.containsAll(current)) {
+				this.locked = wanted;
+				return;
+			}
+			unlockStripes(wanted);
+			wanted.addAll(current);
+		}
+	}
+
+	/**
+	 * Relâche les verrous pris par {@link #lock()}.
+	 */
+	public void unlock() {
+		if (this.supplier == null) {
+			GLOBAL.writeLock().unlock();
+			return;
+		}
+		unlockStripes(this.locked);
+		this.locked = null;
+	}
+
+	private static void lockStripes(final TreeSet<Integer> stripes) {
+		GLOBAL.readLock().lock();
+		for (final Integer stripe : stripes) {
+			LOCKS[stripe].lock();
+		}
+	}
+
+	private static void unlockStripes(final TreeSet<Integer> stripes) {
+		for (final Integer stripe : stripes.descendingSet()) {
+			LOCKS[stripe].unlock();
+		}
+		GLOBAL.readLock().unlock();
+	}
+
+	private static int stripe(final int kind, final int id) {
+		final long key = ((long) kind << 32 | (id & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L;
+		return (int) (key >>> 54);
+	}
+}
@@ -0,0 +1,83 @@
+package edu.intech.meetings.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import edu.intech.meetings.dao.DaoFactory;
+import edu.intech.meetings.exceptions.DaoException;
+import edu.intech.meetings.model.Meeting;
+import edu.intech.meetings.model.User;
+
+/**
+ * Index des emplois du temps des invités : pour chaque utilisateur, les
+ * réunions auxquelles il est invité. Il permet de vérifier qu'un invité est
+ * disponible en O(log n) plutôt qu'en relisant tout son historique de réunions
+ * en base.
+ */
+public class GuestScheduleIndex extends ScheduleIndex {
+
+	private static GuestScheduleIndex instance;
+
+	private GuestScheduleIndex() {
+	}
+
+	public static synchronized GuestScheduleIndex getInstance() {
+		if (instance == null) {
+			instance = new GuestScheduleIndex();
+		}
+		return instance;
+	}
+
+	@Override
+	protected Map<Integer, List<Interval>> loadSchedules() throws DaoException {
+		final Map<Integer, List<Interval>> ret = new HashMap<>();
+		// Lecture par curseur : seuls les intervalles sont conservés.
+		try (Stream<Meeting> meetings = DaoFactory.getInstance().getMeetingDao().streamAllMeetings()) {
+			meetings.forEach(meeting -> {
+				final Interval interval = Interval.of(meeting);
+				for (final User guest : guestsOf(meeting)) {
+					ret.computeIfAbsent(guest.getId(), id -> new ArrayList<>()).add(interval);
+				}
+			});
+		}
+		return ret;
+	}
+
+	/**
+	 * Cherche, pour chaque invité de la réunion, les autres réunions auxquelles il
+	 * est déjà invité sur le même créneau.
+	 *
+	 * @param meeting Réunion créée ou modifiée (identifiant à 0 si elle n'est pas
+	 *                encore enregistrée).
+	 * @return les réunions en conflit par invité, dans l'ordre des invités ; seuls
+	 *         les invités en conflit y figurent.
+	 * @throws DaoException si l'index ne peut être construit.
+	 */
+	public Map<User, List<Interval>> findConflicts(final Meeting meeting) throws DaoException {
+		final Interval interval = Interval.of(meeting);
+		final Map<User, List<Interval>> ret = new LinkedHashMap<>();
+		for (final User guest : guestsOf(meeting)) {
+			final List<Interval> conflicts = findConflicts(guest.getId(), interval);
+			if (!conflicts.isEmpty()) {
+				ret.put(guest, conflicts);
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Enregistre une réunion créée ou modifiée chez ses invités actuels.
+	 */
+	public void putMeeting(final Meeting meeting) throws DaoException {
+		putMeeting(meeting, guestsOf(meeting).stream().map(User::getId).collect(Collectors.toList()));
+	}
+
+	private static List<User> guestsOf(final Meeting meeting) {
+		return meeting.getGuests() == null ? List.of() : meeting.getGuests();
+	}
+}
@@ -0,0 +1,76 @@
+package edu.intech.meetings.index;
+
+import java.util.Date;
+
+import edu.intech.meetings.model.Meeting;
+
+/**
+ * Intervalle de temps semi-ouvert <code>[start, end[</code>, en millisecondes
+ * depuis l'epoch, associé à l'identifiant de l'objet qui l'occupe (une
+ * réunion). Deux réunions consécutives (la première finit à 10:00, la seconde
+ * commence à 10:00) ne se chevauchent donc pas.
+ */
+public final class Interval {
+
+	private final long start;
+	private final long end;
+	private final int id;
+
+	public Interval(final long start, final long end, final int id) {
+		if (end < start) {
+			throw new IllegalArgumentException("La fin de l'intervalle précède son début.");
+		}
+		this.start = start;
+		this.end = end;
+		this.id = id;
+	}
+
+	/**
+	 * @param meeting Réunion dont on veut l'intervalle.
+	 * @return l'intervalle occupé par la réunion, de son début à son début plus
+	 *         sa durée.
+	 */
+	public static Interval of(final Meeting meeting) {
+		final long start = meeting.getStart().getTime();
+		return new Interval(start, start + meeting.getDuration() * 60_000L, meeting.getId());
+	}
+
+	public long getStart() {
+		return this.start;
+	}
+
+	public long getEnd() {
+		return this.end;
+	}
+
+	public int getId() {
+		return this.id;
+	}
+
+	/**
+	 * @return <code>true</code> si cet intervalle a au moins un instant en commun
+	 *         avec <code>[start, end[</code>.
+	 */
+	public boolean overlaps(final long start, final long end) {
+		return this.start < end && start < this.end;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (!(obj instanceof Interval)) {
+			return false;
+		}
+		final Interval other = (Interval) obj;
+		return this.start == other.start && this.end == other.end && this.id == other.id;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(this.start) * 31 + Long.hashCode(this.end) * 17 + this.id;
+	}
+
+	@Override
+	public String toString() {
+		return this.id + "[" + new Date(this.start) + " - " + new Date(this.end) + "[";
+	}
+}
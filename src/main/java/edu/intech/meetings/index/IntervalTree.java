@@ -0,0 +1,231 @@
+package edu.intech.meetings.index;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Arbre d'intervalles : arbre AVL trié par début d'intervalle (puis par
+ * identifiant), dont chaque nœud connaît la plus grande fin de son
+ * sous-arbre. Insertion et suppression se font en O(log n), la recherche des
+ * <code>k</code> intervalles chevauchant une période en O(log n + k).<br>
+ * <br>
+ * Plusieurs intervalles peuvent se chevaucher dans l'arbre : c'est aux
+ * utilisateurs de l'arbre de les refuser s'ils le souhaitent. <b>Cette classe
+ * n'est pas thread-safe.</b>
+ */
+public class IntervalTree {
+
+	private static final class Node {
+		final Interval interval;
+		Node left;
+		Node right;
+		int height = 1;
+		long maxEnd;
+
+		Node(final Interval interval) {
+			this.interval = interval;
+			this.maxEnd = interval.getEnd();
+		}
+	}
+
+	private Node root;
+	private int size;
+
+	/**
+	 * @return le nombre d'intervalles de l'arbre.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Ajoute un intervalle. Un intervalle identique (même début et même
+	 * identifiant) déjà présent est remplacé.
+	 */
+	public void add(final Interval interval) {
+		this.root = insert(this.root, interval);
+	}
+
+	/**
+	 * Supprime l'intervalle donné.
+	 *
+	 * @return <code>true</code> si l'intervalle était présent.
+	 */
+	public boolean remove(final Interval interval) {
+		final int before = this.size;
+		this.root = delete(this.root, interval);
+		return this.size < before;
+	}
+
+	/**
+	 * @param start        Début de la période (inclus).
+	 * @param end          Fin de la période (exclue).
+	 * @param ignoredId    Identifiant à ne pas prendre en compte (par exemple la
+	 *                     réunion que l'on déplace), ou une valeur négative.
+	 * @return <code>true</code> si au moins un intervalle de l'arbre chevauche la
+	 *         période.
+	 */
+	public boolean overlaps(final long start, final long end, final int ignoredId) {
+		return !find(start, end, ignoredId, 1).isEmpty();
+	}
+
+	/**
+	 * @param start     Début de la période (inclus).
+	 * @param end       Fin de la période (exclue).
+	 * @param ignoredId Identifiant à ne pas prendre en compte, ou une valeur
+	 *                  négative.
+	 * @return les intervalles chevauchant la période, triés par début.
+	 */
+	public List<Interval> findOverlapping(final long start, final long end, final int ignoredId) {
+		return find(start, end, ignoredId, Integer.MAX_VALUE);
+	}
+
+	private List<Interval> find(final long start, final long end, final int ignoredId, final int limit) {
+		final List<Interval> ret = new ArrayList<>();
+		if (start < end) {
+			collect(this.root, start, end, ignoredId, limit, ret);
+		}
+		return ret;
+	}
+
+	/**
+	 * @return <code>false</code> si la limite est atteinte et qu'il faut arrêter
+	 *         la recherche.
+	 */
+	private static boolean collect(final Node node, final long start, final long end, final int ignoredId,
+			final int limit, final List<Interval> ret) {
+		// Aucun intervalle du sous-arbre ne finit après le début de la période.
+		if (node == null || node.maxEnd <= start) {
+			return true;
+		}
+		if (!collect(node.left, start, end, ignoredId, limit, ret)) {
+			return false;
+		}
+		// Ce nœud et tout son sous-arbre droit commencent après la fin de la période.
+		if (node.interval.getStart() >= end) {
+			return true;
+		}
+		if (node.interval.getId() != ignoredId && node.interval.overlaps(start, end)) {
+			ret.add(node.interval);
+			if (ret.size() >= limit) {
+				return false;
+			}
+		}
+		return collect(node.right, start, end, ignoredId, limit, ret);
+	}
+
+	private static int compare(final Interval a, final Interval b) {
+		final int ret = Long.compare(a.getStart(), b.getStart());
+		return ret != 0 ? ret : Integer.compare(a.getId(), b.getId());
+	}
+
+	private Node insert(final Node node, final Interval interval) {
+		if (node == null) {
+			this.size++;
+			return new Node(interval);
+		}
+		final int cmp = compare(interval, node.interval);
+		if (cmp == 0) {
+			final Node ret = new Node(interval);
+			ret.left = node.left;
+			ret.right = node.right;
+			return rebalance(ret);
+		}
+		if (cmp < 0) {
+			node.left = insert(node.left, interval);
+		} else {
+			node.right = insert(node.right, interval);
+		}
+		return rebalance(node);
+	}
+
+	private Node delete(final Node node, final Interval interval) {
+		if (node == null) {
+			return null;
+		}
+		final int cmp = compare(interval, node.interval);
+		if (cmp < 0) {
+			node.left = delete(node.left, interval);
+		} else if (cmp > 0) {
+			node.right = delete(node.right, interval);
+		} else {
+			this.size--;
+			if (node.left == null) {
+				return node.right;
+			}
+			if (node.right == null) {
+				return node.left;
+			}
+			// Le nœud est remplacé par le plus petit nœud de son sous-arbre droit.
+			Node min = node.right;
+			while (min.left != null) {
+				min = min.left;
+			}
+			final Node ret = new Node(min.interval);
+			ret.right = removeMin(node.right);
+			ret.left = node.left;
+			return rebalance(ret);
+		}
+		return rebalance(node);
+	}
+
+	private static Node removeMin(final Node node) {
+		if (node.left == null) {
+			return node.right;
+		}
+		node.left = removeMin(node.left);
+		return rebalance(node);
+	}
+
+	private static int height(final Node node) {
+		return node == null ? 0 : node.height;
+	}
+
+	private static void update(final Node node) {
+		node.height = 1 + Math.max(height(node.left), height(node.right));
+		long maxEnd = node.interval.getEnd();
+		if (node.left != null && node.left.maxEnd > maxEnd) {
+			maxEnd = node.left.maxEnd;
+		}
+		if (node.right != null && node.right.maxEnd > maxEnd) {
+			maxEnd = node.right.maxEnd;
+		}
+		node.maxEnd = maxEnd;
+	}
+
+	private static Node rotateRight(final Node node) {
+		final Node ret = node.left;
+		node.left = ret.right;
+		ret.right = node;
+		update(node);
+		update(ret);
+		return ret;
+	}
+
+	private static Node rotateLeft(final Node node) {
+		final Node ret = node.right;
+		node.right = ret.left;
+		ret.left = node;
+		update(node);
+		update(ret);
+		return ret;
+	}
+
+	private static Node rebalance(final Node node) {
+		update(node);
+		final int balance = height(node.left) - height(node.right);
+		if (balance > 1) {
+			if (height(node.left.left) < height(node.left.right)) {
+				node.left = rotateLeft(node.left);
+			}
+			return rotateRight(node);
+		}
+		if (balance < -1) {
+			if (height(node.right.right) < height(node.right.left)) {
+				node.right = rotateRight(node.right);
+			}
+			return rotateLeft(node);
+		}
+		return node;
+	}
+}
@@ -0,0 +1,131 @@
+package edu.intech.meetings.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import edu.intech.meetings.dao.DaoFactory;
+import edu.intech.meetings.exceptions.DaoException;
+import edu.intech.meetings.model.Meeting;
+import edu.intech.meetings.model.Room;
+
+/**
+ * Index des réservations des salles : pour chaque salle, les réunions qui s'y
+ * tiennent (table Participants). Il permet de refuser une double réservation
+ * et de savoir si une salle est libre sur une période en O(log n), sans
+ * requête en base.
+ */
+public class RoomBookingIndex extends ScheduleIndex {
+
+	private static RoomBookingIndex instance;
+
+	/** Capacité de chaque salle, par identifiant. */
+	private volatile Map<Integer, Integer> capacities = new ConcurrentHashMap<>();
+
+	private RoomBookingIndex() {
+	}
+
+	public static synchronized RoomBookingIndex getInstance() {
+		if (instance == null) {
+			instance = new RoomBookingIndex();
+		}
+		return instance;
+	}
+
+	@Override
+	protected Map<Integer, List<Interval>> loadSchedules() throws DaoException {
+		final Map<Integer, List<Interval>> ret = new HashMap<>();
+		final Map<Integer, Integer> roomCapacities = new ConcurrentHashMap<>();
+		for (final Room room : DaoFactory.getInstance().getRoomDao().readAllRooms()) {
+			roomCapacities.put(room.getId(), room.getCapacity());
+			final List<Interval> intervals = new ArrayList<>(room.getMeetings().size());
+			for (final Meeting meeting : room.getMeetings()) {
+				intervals.add(Interval.of(meeting));
+			}
+			ret.put(room.getId(), intervals);
+		}
+		this.capacities = roomCapacities;
+		return ret;
+	}
+
+	/**
+	 * @param minCapacity Capacité minimale voulue.
+	 * @return les identifiants des salles d'au moins cette capacité, de la plus
+	 *         petite à la plus grande.
+	 * @throws DaoException si l'index ne peut être construit.
+	 */
+	public List<Integer> getRoomsWithCapacity(final int minCapacity) throws DaoException {
+		ensureLoaded();
+		return this.capacities.entrySet().stream().filter(entry -> entry.getValue() >= minCapacity)
+				.sorted(Map.Entry.<Integer, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+				.map(Map.Entry::getKey).collect(Collectors.toList());
+	}
+
+	/**
+	 * Vérifie qu'une liste de réunions peut se tenir dans une même salle.
+	 *
+	 * @param meetings Réunions de la salle.
+	 * @return pour chaque chevauchement trouvé, les deux réunions concernées (vide
+	 *         si la liste est valide).
+	 */
+	public static List<Interval[]> findConflicts(final List<Meeting> meetings) {
+		final List<Interval[]> ret = new ArrayList<>();
+		final IntervalTree tree = new IntervalTree();
+		for (final Meeting meeting : meetings) {
+			final Interval interval = Interval.of(meeting);
+			for (final Interval other : tree.findOverlapping(interval.getStart(), interval.getEnd(),
+					interval.getId())) {
+				ret.add(new Interval[] { other, interval });
+			}
+			tree.add(interval);
+		}
+		return ret;
+	}
+
+	/**
+	 * Cherche les réunions qui chevaucheraient la réunion donnée, à son nouvel
+	 * horaire, dans les salles où elle se tient.
+	 *
+	 * @param meeting Réunion modifiée (son identifiant doit être renseigné).
+	 * @return les réunions en conflit, vide s'il n'y en a pas.
+	 * @throws DaoException si l'index ne peut être construit.
+	 */
+	public List<Interval> findConflicts(final Meeting meeting) throws DaoException {
+		final Interval interval = Interval.of(meeting);
+		final List<Interval> ret = new ArrayList<>();
+		for (final Integer roomId : getOwners(meeting.getId())) {
+			ret.addAll(findConflicts(roomId, interval));
+		}
+		return ret;
+	}
+
+	/**
+	 * Enregistre (ou remplace) la liste des réunions d'une salle.
+	 */
+	public void putRoom(final Room room) throws DaoException {
+		putOwner(room.getId(), room.getMeetings());
+		this.capacities.put(room.getId(), room.getCapacity());
+	}
+
+	/**
+	 * Retire une salle supprimée.
+	 */
+	public void removeRoom(final int roomId) throws DaoException {
+		removeOwner(roomId);
+		this.capacities.remove(roomId);
+	}
+
+	/**
+	 * Déplace une réunion modifiée dans toutes les salles où elle se tient.
+	 */
+	public void updateMeeting(final Meeting meeting) throws DaoException {
+		final Set<Integer> rooms = getOwners(meeting.getId());
+		if (!rooms.isEmpty()) {
+			putMeeting(meeting, rooms);
+		}
+	}
+}
@@ -0,0 +1,231 @@
+package edu.intech.meetings.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import edu.intech.meetings.exceptions.DaoException;
+import edu.intech.meetings.model.Meeting;
+
+/**
+ * Index en mémoire des emplois du temps : un {@link IntervalTree} par
+ * « propriétaire » (une salle, un invité) contenant les réunions qui le
+ * concernent. Une réunion peut concerner plusieurs propriétaires.<br>
+ * <br>
+ * L'index est construit à partir de la base au premier accès (voir
+ * {@link #loadSchedules()}), puis tenu à jour par les services à chaque
+ * écriture. Les lectures peuvent être simultanées ; une vérification suivie
+ * d'une écriture en base doit être faite en tenant les {@link BookingLocks}
+ * des propriétaires concernés.
+ */
+public abstract class ScheduleIndex {
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<Integer, IntervalTree> trees = new HashMap<>();
+	private final Map<Integer, Interval> meetings = new HashMap<>();
+	private final Map<Integer, Set<Integer>> ownersByMeeting = new HashMap<>();
+	private boolean loaded = false;
+
+	/**
+	 * Lit en base l'emploi du temps de chaque propriétaire.
+	 *
+	 * @return les réunions de chaque propriétaire, par identifiant de
+	 *         propriétaire. Un propriétaire sans réunion peut y figurer avec une
+	 *         liste vide.
+	 * @throws DaoException si la base ne peut être lue.
+	 */
+	protected abstract Map<Integer, List<Interval>> loadSchedules() throws DaoException;
+
+	/**
+	 * Reconstruit l'index à partir de la base.
+	 *
+	 * @throws DaoException si la base ne peut être lue.
+	 */
+	public void reload() throws DaoException {
+		final Map<Integer, List<Interval>> schedules = loadSchedules();
+		this.lock.writeLock().lock();
+		try {
+			this.trees.clear();
+			this.meetings.clear();
+			this.ownersByMeeting.clear();
+			for (final Map.Entry<Integer, List<Interval>> schedule : schedules.entrySet()) {
+				putOwnerLocked(schedule.getKey(), schedule.getValue());
+			}
+			this.loaded = true;
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	protected void ensureLoaded() throws DaoException {
+		this.lock.readLock().lock();
+		try {
+			if (this.loaded) {
+				return;
+			}
+		} finally {
+			this.lock.readLock().unlock();
+		}
+		synchronized (this) {
+			if (!this.loaded) {
+				reload();
+			}
+		}
+	}
+
+	/**
+	 * @param owner    Identifiant du propriétaire.
+	 * @param interval Créneau voulu ; l'identifiant de l'intervalle (la réunion
+	 *                 déplacée) n'est pas pris en compte.
+	 * @return les réunions du propriétaire chevauchant le créneau, triées par
+	 *         début.
+	 * @throws DaoException si l'index ne peut être construit.
+	 */
+	public List<Interval> findConflicts(final int owner, final Interval interval) throws DaoException {
+		ensureLoaded();
+		this.lock.readLock().lock();
+		try {
+			final IntervalTree tree = this.trees.get(owner);
+			return tree == null ? new ArrayList<>()
+					: tree.findOverlapping(interval.getStart(), interval.getEnd(), interval.getId());
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @param owner Identifiant du propriétaire.
+	 * @param start Début de la période (inclus), en millisecondes.
+	 * @param end   Fin de la période (exclue), en millisecondes.
+	 * @return les réunions du propriétaire chevauchant la période, triées par
+	 *         début, ou <code>null</code> si le propriétaire n'est pas connu de
+	 *         l'index.
+	 * @throws DaoException si l'index ne peut être construit.
+	 */
+	public List<Interval> findBookings(final int owner, final long start, final long end) throws DaoException {
+		ensureLoaded();
+		this.lock.readLock().lock();
+		try {
+			final IntervalTree tree = this.trees.get(owner);
+			return tree == null ? null : tree.findOverlapping(start, end, -1);
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return les propriétaires concernés par la réunion (vide si la réunion
+	 *         n'est pas connue de l'index).
+	 * @throws DaoException si l'index ne peut être construit.
+	 */
+	public Set<Integer> getOwners(final int meetingId) throws DaoException {
+		ensureLoaded();
+		this.lock.readLock().lock();
+		try {
+			return new HashSet<>(this.ownersByMeeting.getOrDefault(meetingId, Set.of()));
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Enregistre (ou remplace) l'emploi du temps complet d'un propriétaire.
+	 */
+	public void putOwner(final int owner, final Collection<Meeting> ownerMeetings) throws DaoException {
+		ensureLoaded();
+		final List<Interval> intervals = new ArrayList<>(ownerMeetings.size());
+		for (final Meeting meeting : ownerMeetings) {
+			intervals.add(Interval.of(meeting));
+		}
+		this.lock.writeLock().lock();
+		try {
+			removeOwnerLocked(owner);
+			putOwnerLocked(owner, intervals);
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Retire un propriétaire supprimé.
+	 */
+	public void removeOwner(final int owner) throws DaoException {
+		ensureLoaded();
+		this.lock.writeLock().lock();
+		try {
+			removeOwnerLocked(owner);
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Enregistre une réunion créée ou modifiée : elle est placée, à son horaire
+	 * actuel, chez exactement les propriétaires donnés.
+	 */
+	public void putMeeting(final Meeting meeting, final Collection<Integer> owners) throws DaoException {
+		ensureLoaded();
+		final Interval interval = Interval.of(meeting);
+		this.lock.writeLock().lock();
+		try {
+			removeMeetingLocked(meeting.getId());
+			if (owners.isEmpty()) {
+				return;
+			}
+			this.meetings.put(meeting.getId(), interval);
+			this.ownersByMeeting.put(meeting.getId(), new HashSet<>(owners));
+			for (final Integer owner : owners) {
+				this.trees.computeIfAbsent(owner, id -> new IntervalTree()).add(interval);
+			}
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Retire une réunion supprimée de tous ses propriétaires.
+	 */
+	public void removeMeeting(final int meetingId) throws DaoException {
+		ensureLoaded();
+		this.lock.writeLock().lock();
+		try {
+			removeMeetingLocked(meetingId);
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	private void putOwnerLocked(final int owner, final List<Interval> intervals) {
+		final IntervalTree tree = this.trees.computeIfAbsent(owner, id -> new IntervalTree());
+		for (final Interval interval : intervals) {
+			tree.add(interval);
+			this.meetings.put(interval.getId(), interval);
+			this.ownersByMeeting.computeIfAbsent(interval.getId(), id -> new HashSet<>()).add(owner);
+		}
+	}
+
+	private void removeOwnerLocked(final int owner) {
+		if (this.trees.remove(owner) == null) {
+			return;
+		}
+		this.ownersByMeeting.values().removeIf(owners -> owners.remove(owner) && owners.isEmpty());
+		this.meetings.keySet().retainAll(this.ownersByMeeting.keySet());
+	}
+
+	private void removeMeetingLocked(final int meetingId) {
+		final Interval previous = this.meetings.remove(meetingId);
+		final Set<Integer> owners = this.ownersByMeeting.remove(meetingId);
+		if (previous != null && owners != null) {
+			for (final Integer owner : owners) {
+				this.trees.get(owner).remove(previous);
+			}
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package edu.intech.meetings.index;
+
+/**
+ * Occupation d'une période découpée en créneaux de taille fixe : le bit
+ * <code>i</code> est à 1 si le créneau <code>i</code> est occupé. Les
+ * opérations travaillent sur des mots de 64 créneaux, ce qui permet de croiser
+ * les emplois du temps de nombreux invités et salles sur plusieurs semaines en
+ * quelques centaines d'opérations.<br>
+ * <br>
+ * <b>Cette classe n'est pas thread-safe.</b>
+ */
+public class SlotBitmap {
+
+	private final int size;
+	private final long[] words;
+
+	/**
+	 * @param size Nombre de créneaux de la période.
+	 */
+	public SlotBitmap(final int size) {
+		this.size = size;
+		this.words = new long[(size + 63) >>> 6];
+	}
+
+	private SlotBitmap(final int size, final long[] words) {
+		this.size = size;
+		this.words = words;
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Marque les créneaux <code>[from, to[</code> comme occupés (les bornes hors
+	 * de la période sont ramenées à ses limites).
+	 */
+	public void occupy(final int from, final int to) {
+		final int start = Math.max(from, 0);
+		final int end = Math.min(to, this.size);
+		if (start >= end) {
+			return;
+		}
+		final int first = start >>> 6;
+		final int last = (end - 1) >>> 6;
+		final long firstMask = -1L << start;
+		final long lastMask = -1L >>> -end;
+		if (first == last) {
+			this.words[first] |= firstMask & lastMask;
+			return;
+		}
+		this.words[first] |= firstMask;
+		for (int i = first + 1; i < last; i++) {
+			this.words[i] = -1L;
+		}
+		this.words[last] |= lastMask;
+	}
+
+	/**
+	 * Ajoute l'occupation d'un autre bitmap de même taille.
+	 */
+	public void or(final SlotBitmap other) {
+		for (int i = 0; i < this.words.length; i++) {
+			this.words[i] |= other.words[i];
+		}
+	}
+
+	/**
+	 * @param other Bitmap de même taille.
+	 * @return un nouveau bitmap occupé là où l'un des deux l'est.
+	 */
+	public SlotBitmap union(final SlotBitmap other) {
+		final SlotBitmap ret = new SlotBitmap(this.size, this.words.clone());
+		ret.or(other);
+		return ret;
+	}
+
+	/**
+	 * @param length Nombre de créneaux consécutifs voulus (au moins 1).
+	 * @return un bitmap dont le bit <code>i</code> est à 1 si les créneaux
+	 *         <code>[i, i + length[</code> sont tous libres et dans la période.
+	 */
+	public SlotBitmap freeRuns(final int length) {
+		final long[] ret = new long[this.words.length];
+		for (int i = 0; i < ret.length; i++) {
+			ret[i] = ~this.words[i];
+		}
+		clearTail(ret, this.size);
+		// Après chaque étape, le bit i indique que les « covered » créneaux à partir
+		// de i sont libres ; on double la longueur couverte à chaque décalage.
+		int covered = 1;
+		while (covered < length) {
+			final int shift = Math.min(covered, length - covered);
+			andShifted(ret, shift);
+			covered += shift;
+		}
+		return new SlotBitmap(this.size, ret);
+	}
+
+	/**
+	 * @return l'indice du premier bit à 1 à partir de <code>from</code>, ou -1.
+	 */
+	public int nextSetBit(final int from) {
+		if (from >= this.size) {
+			return -1;
+		}
+		final int start = Math.max(from, 0);
+		int index = start >>> 6;
+		long word = this.words[index] & (-1L << start);
+		while (true) {
+			if (word != 0) {
+				final int ret = (index << 6) + Long.numberOfTrailingZeros(word);
+				return ret < this.size ? ret : -1;
+			}
+			if (++index == this.words.length) {
+				return -1;
+			}
+			word = this.words[index];
+		}
+	}
+
+	/**
+	 * @return <code>true</code> si le créneau est occupé.
+	 */
+	public boolean get(final int index) {
+		return (this.words[index >>> 6] & (1L << index)) != 0;
+	}
+
+	/**
+	 * <code>words[i] &= words[i] >>> shift</code> sur tout le tableau vu comme un
+	 * seul nombre : le bit <code>i</code> reçoit le bit <code>i + shift</code>.
+	 */
+	private static void andShifted(final long[] words, final int shift) {
+		final int wordShift = shift >>> 6;
+		final int bitShift = shift & 63;
+		for (int i = 0; i < words.length; i++) {
+			final int src = i + wordShift;
+			long shifted = 0;
+			if (src < words.length) {
+				shifted = words[src] >>> bitShift;
+				if (bitShift != 0 && src + 1 < words.length) {
+					shifted |= words[src + 1] << (64 - bitShift);
+				}
+			}
+			words[i] &= shifted;
+		}
+	}
+
+	private static void clearTail(final long[] words, final int size) {
+		if (words.length > 0 && (size & 63) != 0) {
+			words[words.length - 1] &= -1L >>> -size;
+		}
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder ret = new StringBuilder(this.size);
+		for (int i = 0; i < this.size; i++) {
+			ret.append(get(i) ? '1' : '0');
+		}
+		return ret.toString();
+	}
+}
@@ -0,0 +1,133 @@
+package edu.intech.meetings.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import edu.intech.meetings.exceptions.DaoException;
+
+/**
+ * Recherche de créneaux libres communs à plusieurs invités (et, si besoin, à
+ * une salle d'une capacité donnée). La période de recherche est découpée en
+ * créneaux de {@value #SLOT_MINUTES} minutes : l'emploi du temps de chaque
+ * invité et de chaque salle, lu dans les index, devient un {@link SlotBitmap},
+ * puis les bitmaps sont croisés mot par mot.
+ */
+public class SlotFinder {
+
+	/** Granularité des créneaux proposés, en minutes. */
+	public static final int SLOT_MINUTES = 5;
+
+	private static final long SLOT_MILLIS = SLOT_MINUTES * 60_000L;
+
+	/**
+	 * Créneau proposé.
+	 */
+	public static final class Slot {
+		private final long start;
+		private final long end;
+		private final Integer roomId;
+
+		Slot(final long start, final long end, final Integer roomId) {
+			this.start = start;
+			this.end = end;
+			this.roomId = roomId;
+		}
+
+		public long getStart() {
+			return this.start;
+		}
+
+		public long getEnd() {
+			return this.end;
+		}
+
+		/**
+		 * @return la salle proposée, ou <code>null</code> si aucune salle n'était
+		 *         demandée.
+		 */
+		public Integer getRoomId() {
+			return this.roomId;
+		}
+	}
+
+	private SlotFinder() {
+	}
+
+	/**
+	 * @param guestIds Identifiants des invités qui doivent tous être libres.
+	 * @param duration Durée de la réunion, en minutes (au moins 1).
+	 * @param capacity Capacité minimale de la salle, ou <code>null</code> si
+	 *                 aucune salle n'est demandée.
+	 * @param from     Début de la période de recherche, en millisecondes.
+	 * @param to       Fin de la période de recherche, en millisecondes.
+	 * @param limit    Nombre maximal de créneaux à proposer.
+	 * @return les premiers créneaux libres de la période, dans l'ordre
+	 *         chronologique et sans chevauchement entre eux. Quand une salle est
+	 *         demandée, c'est la plus petite salle libre qui est proposée.
+	 * @throws DaoException si les index ne peuvent être construits.
+	 */
+	public static List<Slot> findSlots(final Collection<Integer> guestIds, final int duration,
+			final Integer capacity, final long from, final long to, final int limit) throws DaoException {
+		final List<Slot> ret = new ArrayList<>();
+		// Les créneaux sont alignés sur des multiples de SLOT_MINUTES.
+		final long origin = Math.floorDiv(from + SLOT_MILLIS - 1, SLOT_MILLIS) * SLOT_MILLIS;
+		final int size = (int) Math.max(0, (to - origin) / SLOT_MILLIS);
+		final int length = (int) ((duration * 60_000L + SLOT_MILLIS - 1) / SLOT_MILLIS);
+		if (length > size) {
+			return ret;
+		}
+		final long end = origin + size * SLOT_MILLIS;
+
+		final SlotBitmap busy = new SlotBitmap(size);
+		for (final Integer guestId : guestIds) {
+			occupy(busy, GuestScheduleIndex.getInstance().findBookings(guestId, origin, end), origin);
+		}
+
+		final List<Integer> rooms = new ArrayList<>();
+		final List<SlotBitmap> starts = new ArrayList<>();
+		if (capacity == null) {
+			rooms.add(null);
+			starts.add(busy.freeRuns(length));
+		} else {
+			for (final Integer roomId : RoomBookingIndex.getInstance().getRoomsWithCapacity(capacity)) {
+				final SlotBitmap roomBusy = new SlotBitmap(size);
+				occupy(roomBusy, RoomBookingIndex.getInstance().findBookings(roomId, origin, end), origin);
+				rooms.add(roomId);
+				starts.add(busy.union(roomBusy).freeRuns(length));
+			}
+		}
+
+		int position = 0;
+		while (ret.size() < limit) {
+			// Premier début possible, toutes salles confondues ; à égalité, la plus
+			// petite salle (les salles sont triées par capacité).
+			int best = -1;
+			Integer bestRoom = null;
+			for (int i = 0; i < starts.size(); i++) {
+				final int next = starts.get(i).nextSetBit(position);
+				if (next >= 0 && (best < 0 || next < best)) {
+					best = next;
+					bestRoom = rooms.get(i);
+				}
+			}
+			if (best < 0) {
+				break;
+			}
+			final long slotStart = origin + best * SLOT_MILLIS;
+			ret.add(new Slot(slotStart, slotStart + duration * 60_000L, bestRoom));
+			position = best + length;
+		}
+		return ret;
+	}
+
+	private static void occupy(final SlotBitmap bitmap, final List<Interval> bookings, final long origin) {
+		if (bookings == null) {
+			return;
+		}
+		for (final Interval booking : bookings) {
+			bitmap.occupy((int) Math.floorDiv(booking.getStart() - origin, SLOT_MILLIS),
+					(int) Math.floorDiv(booking.getEnd() - origin + SLOT_MILLIS - 1, SLOT_MILLIS));
+		}
+	}
+}
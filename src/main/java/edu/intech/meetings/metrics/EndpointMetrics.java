@@ -0,0 +1,74 @@
+package edu.intech.meetings.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs d'un point d'entrée de l'API : nombre de requêtes par code de
+ * statut HTTP et histogramme des latences.
+ */
+public class EndpointMetrics {
+
+	private final String endpoint;
+	private final Map<Integer, LongAdder> requestsByStatus = new ConcurrentHashMap<>();
+	private final LatencyHistogram latency = new LatencyHistogram();
+
+	EndpointMetrics(final String endpoint) {
+		this.endpoint = endpoint;
+	}
+
+	/**
+	 * @param status Code de statut HTTP de la réponse.
+	 * @param nanos  Durée de traitement de la requête, en nanosecondes.
+	 */
+	public void record(final int status, final long nanos) {
+		this.requestsByStatus.computeIfAbsent(status, s -> new LongAdder()).increment();
+		this.latency.record(nanos);
+	}
+
+	/**
+	 * @return le point d'entrée (par exemple <code>/meetings/add</code>).
+	 */
+	public String getEndpoint() {
+		return this.endpoint;
+	}
+
+	/**
+	 * @return le nombre de requêtes traitées, par code de statut.
+	 */
+	public Map<Integer, LongAdder> getRequestsByStatus() {
+		return this.requestsByStatus;
+	}
+
+	/**
+	 * @return le nombre total de requêtes traitées.
+	 */
+	public long getRequests() {
+		long ret = 0;
+		for (final LongAdder count : this.requestsByStatus.values()) {
+			ret += count.sum();
+		}
+		return ret;
+	}
+
+	/**
+	 * @return le nombre de requêtes terminées en erreur (statut 4xx ou 5xx).
+	 */
+	public long getErrors() {
+		long ret = 0;
+		for (final Map.Entry<Integer, LongAdder> entry : this.requestsByStatus.entrySet()) {
+			if (entry.getKey() >= 400) {
+				ret += entry.getValue().sum();
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * @return l'histogramme des latences.
+	 */
+	public LatencyHistogram getLatency() {
+		return this.latency;
+	}
+}
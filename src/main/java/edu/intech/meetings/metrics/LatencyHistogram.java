@@ -0,0 +1,69 @@
+package edu.intech.meetings.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme de latences à bornes fixes, sans verrou : chaque enregistrement
+ * se limite à la recherche de la tranche et à l'incrémentation de deux
+ * {@link LongAdder}, qui répartissent la contention entre les threads.<br>
+ * <br>
+ * Les tranches ne sont pas cumulées à l'enregistrement ; elles le sont à la
+ * lecture ({@link #getCumulativeCounts()}), comme l'attend le format
+ * Prometheus.
+ */
+public class LatencyHistogram {
+
+	/** Bornes supérieures des tranches, en secondes. */
+	public static final double[] BOUNDS = { 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5,
+			10 };
+
+	private static final long[] BOUNDS_NANOS = new long[BOUNDS.length];
+	static {
+		for (int i = 0; i < BOUNDS.length; i++) {
+			BOUNDS_NANOS[i] = (long) (BOUNDS[i] * 1e9);
+		}
+	}
+
+	// Une tranche de plus pour les durées au-delà de la dernière borne.
+	private final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+	private final LongAdder sumNanos = new LongAdder();
+
+	public LatencyHistogram() {
+		for (int i = 0; i < this.buckets.length; i++) {
+			this.buckets[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * @param nanos Durée observée, en nanosecondes.
+	 */
+	public void record(final long nanos) {
+		int i = 0;
+		while (i < BOUNDS_NANOS.length && nanos > BOUNDS_NANOS[i]) {
+			i++;
+		}
+		this.buckets[i].increment();
+		this.sumNanos.add(nanos);
+	}
+
+	/**
+	 * @return pour chaque borne de {@link #BOUNDS}, le nombre d'observations
+	 *         inférieures ou égales, suivi du nombre total d'observations.
+	 */
+	public long[] getCumulativeCounts() {
+		final long[] ret = new long[this.buckets.length];
+		long total = 0;
+		for (int i = 0; i < this.buckets.length; i++) {
+			total += this.buckets[i].sum();
+			ret[i] = total;
+		}
+		return ret;
+	}
+
+	/**
+	 * @return la somme des durées observées, en secondes.
+	 */
+	public double getSumSeconds() {
+		return this.sumNanos.sum() / 1e9;
+	}
+}
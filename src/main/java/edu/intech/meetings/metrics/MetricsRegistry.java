@@ -0,0 +1,294 @@
+package edu.intech.meetings.metrics;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import edu.intech.meetings.dao.DaoFactory;
+import edu.intech.meetings.dao.cache.CachingUserDao;
+import edu.intech.meetings.dao.interfaces.IUserDao;
+import edu.intech.meetings.dao.pool.PoolStatistics;
+import edu.intech.meetings.dao.profiling.QueryProfiler;
+import edu.intech.meetings.dao.profiling.QueryStatistics;
+import edu.intech.meetings.exceptions.DaoException;
+import edu.intech.meetings.servletListener.MeetingsContextListener;
+import edu.intech.meetings.utils.CacheStatistics;
+import edu.intech.meetings.utils.ConfigHelper;
+import edu.intech.meetings.utils.HashingStatistics;
+import edu.intech.meetings.utils.PasswordHashingExecutor;
+import edu.intech.meetings.utils.TokenCache;
+
+/**
+ * Registre des métriques de l'application, exportées au format texte de
+ * Prometheus par {@link #writePrometheus()} : compteurs et latences de chaque
+ * point d'entrée de l'API (alimentés par le <code>MetricsFilter</code>), ainsi
+ * que les mesures des requêtes des DAO et l'état des caches des tokens et des
+ * utilisateurs, du pool de hachage des mots de passe et du pool de connexions.<br>
+ * <br>
+ * Le nombre de points d'entrée suivis est borné
+ * (<code>meetings.metrics.maxEndpoints</code>) pour qu'une série d'URL
+ * inexistantes ne fasse pas grossir le registre indéfiniment ; au-delà, les
+ * requêtes sont comptées sous {@value #OTHER_ENDPOINT}. Une réponse 404 ne
+ * crée jamais de point d'entrée : elle est comptée sous
+ * {@value #OTHER_ENDPOINT} si son chemin n'est pas déjà suivi.
+ */
+public class MetricsRegistry {
+
+	public static final String OTHER_ENDPOINT = "other";
+
+	private static final int HTTP_NOT_FOUND = 404;
+
+	private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+	private final int maxEndpoints = ConfigHelper.getInt("meetings.metrics.maxEndpoints", 100);
+	private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+	private final EndpointMetrics other = new EndpointMetrics(OTHER_ENDPOINT);
+
+	private MetricsRegistry() {
+	}
+
+	public static MetricsRegistry getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * @param endpoint Chemin du point d'entrée, relatif à <code>/api</code>.
+	 * @return les compteurs de ce point d'entrée, créés au premier appel.
+	 */
+	public EndpointMetrics getEndpoint(final String endpoint) {
+		final EndpointMetrics ret = this.endpoints.get(endpoint);
+		if (ret != null) {
+			return ret;
+		}
+		if (this.endpoints.size() >= this.maxEndpoints) {
+			return this.other;
+		}
+		return this.endpoints.computeIfAbsent(endpoint, EndpointMetrics::new);
+	}
+
+	/**
+	 * Enregistre une requête traitée. Une requête terminée en 404 n'est comptée
+	 * sous son chemin que si celui-ci est déjà suivi : les URL inexistantes
+	 * n'occupent pas de place dans le registre.
+	 *
+	 * @param endpoint Chemin du point d'entrée, relatif à <code>/api</code>.
+	 * @param status   Code de statut HTTP de la réponse.
+	 * @param nanos    Durée de traitement, en nanosecondes.
+	 */
+	public void record(final String endpoint, final int status, final long nanos) {
+		if (status == HTTP_NOT_FOUND) {
+			this.endpoints.getOrDefault(endpoint, this.other).record(status, nanos);
+		} else {
+			getEndpoint(endpoint).record(status, nanos);
+		}
+	}
+
+	/**
+	 * @return toutes les métriques, au format texte de Prometheus (version
+	 *         0.0.4).
+	 */
+	public String writePrometheus() {
+		final StringBuilder out = new StringBuilder(4096);
+		final Map<String, EndpointMetrics> sorted = new TreeMap<>(this.endpoints);
+		if (this.other.getRequests() > 0) {
+			sorted.put(OTHER_ENDPOINT, this.other);
+		}
+
+		header(out, "meetings_http_requests_total", "counter", "Requêtes traitées, par point d'entrée et statut.");
+		for (final EndpointMetrics endpoint : sorted.values()) {
+			for (final Map.Entry<Integer, LongAdder> entry : new TreeMap<>(endpoint.getRequestsByStatus())
+					.entrySet()) {
+				out.append("meetings_http_requests_total{endpoint=\"").append(escape(endpoint.getEndpoint()))
+						.append("\",status=\"").append(entry.getKey()).append("\"} ").append(entry.getValue().sum())
+						.append('\n');
+			}
+		}
+
+		header(out, "meetings_http_request_errors_total", "counter",
+				"Requêtes terminées en erreur (4xx et 5xx), par point d'entrée.");
+		for (final EndpointMetrics endpoint : sorted.values()) {
+			sample(out, "meetings_http_request_errors_total", endpoint, null, endpoint.getErrors());
+		}
+
+		header(out, "meetings_http_request_duration_seconds", "histogram",
+				"Durée de traitement des requêtes, par point d'entrée.");
+		for (final EndpointMetrics endpoint : sorted.values()) {
+			final long[] counts = endpoint.getLatency().getCumulativeCounts();
+			for (int i = 0; i < LatencyHistogram.BOUNDS.length; i++) {
+				sample(out, "meetings_http_request_duration_seconds_bucket", endpoint,
+						number(LatencyHistogram.BOUNDS[i]), counts[i]);
+			}
+			sample(out, "meetings_http_request_duration_seconds_bucket", endpoint, "+Inf", counts[counts.length - 1]);
+			out.append("meetings_http_request_duration_seconds_sum{endpoint=\"")
+					.append(escape(endpoint.getEndpoint())).append("\"} ")
+					.append(number(endpoint.getLatency().getSumSeconds())).append('\n');
+			sample(out, "meetings_http_request_duration_seconds_count", endpoint, null, counts[counts.length - 1]);
+		}
+
+		final QueryProfiler profiler = MeetingsContextListener.getQueryProfiler();
+		if (profiler != null) {
+			final Map<String, QueryStatistics> queries = new TreeMap<>();
+			for (final QueryStatistics query : profiler.getStatistics()) {
+				queries.put(query.getQuery(), query);
+			}
+			header(out, "meetings_db_queries_total", "counter", "Exécutions de chaque requête JPA.");
+			for (final QueryStatistics query : queries.values()) {
+				querySample(out, "meetings_db_queries_total", query, query.getExecutions());
+			}
+			header(out, "meetings_db_query_seconds_total", "counter",
+					"Temps d'exécution cumulé de chaque requête JPA.");
+			for (final QueryStatistics query : queries.values()) {
+				querySample(out, "meetings_db_query_seconds_total", query, query.getTotalNanos() / 1e9);
+			}
+			header(out, "meetings_db_query_max_seconds", "gauge",
+					"Plus long temps d'exécution de chaque requête JPA.");
+			for (final QueryStatistics query : queries.values()) {
+				querySample(out, "meetings_db_query_max_seconds", query, query.getMaxNanos() / 1e9);
+			}
+			header(out, "meetings_db_query_rows_total", "counter", "Lignes renvoyées par chaque requête JPA.");
+			for (final QueryStatistics query : queries.values()) {
+				querySample(out, "meetings_db_query_rows_total", query, query.getRows());
+			}
+			header(out, "meetings_db_query_statements_total", "counter",
+					"Requêtes SQL envoyées par chaque requête JPA.");
+			for (final QueryStatistics query : queries.values()) {
+				querySample(out, "meetings_db_query_statements_total", query, query.getStatements());
+			}
+			header(out, "meetings_db_slow_queries_total", "counter",
+					"Exécutions au-delà du seuil des requêtes lentes.");
+			for (final QueryStatistics query : queries.values()) {
+				querySample(out, "meetings_db_slow_queries_total", query, query.getSlowExecutions());
+			}
+
+			final Map<String, CacheStatistics> caches = profiler.getCacheStatistics();
+			header(out, "meetings_entity_cache_size", "gauge", "Entités dans le cache partagé d'EclipseLink.");
+			for (final Map.Entry<String, CacheStatistics> cache : caches.entrySet()) {
+				entitySample(out, "meetings_entity_cache_size", cache.getKey(), cache.getValue().getSize());
+			}
+			header(out, "meetings_entity_cache_hits_total", "counter", "Lectures servies par le cache partagé.");
+			for (final Map.Entry<String, CacheStatistics> cache : caches.entrySet()) {
+				entitySample(out, "meetings_entity_cache_hits_total", cache.getKey(), cache.getValue().getHits());
+			}
+			header(out, "meetings_entity_cache_misses_total", "counter",
+					"Lectures absentes du cache partagé, faites en base.");
+			for (final Map.Entry<String, CacheStatistics> cache : caches.entrySet()) {
+				entitySample(out, "meetings_entity_cache_misses_total", cache.getKey(), cache.getValue().getMisses());
+			}
+			header(out, "meetings_entity_cache_hit_ratio", "gauge",
+					"Part des lectures servies par le cache partagé depuis le démarrage.");
+			for (final Map.Entry<String, CacheStatistics> cache : caches.entrySet()) {
+				entitySample(out, "meetings_entity_cache_hit_ratio", cache.getKey(), cache.getValue().getHitRatio());
+			}
+		}
+
+		final CacheStatistics tokens = TokenCache.getInstance().getStatistics();
+		gauge(out, "meetings_token_cache_size", "Tokens vérifiés en cache.", tokens.getSize());
+		counter(out, "meetings_token_cache_hits_total", "Vérifications de token servies par le cache.",
+				tokens.getHits());
+		counter(out, "meetings_token_cache_misses_total", "Vérifications de token absentes du cache.",
+				tokens.getMisses());
+		counter(out, "meetings_token_cache_evictions_total", "Tokens retirés du cache faute de place.",
+				tokens.getEvictions());
+
+		IUserDao userDao = null;
+		try {
+			userDao = DaoFactory.getInstance().getUserDao();
+		} catch (final DaoException e) {
+			// Pas de DAO : pas de cache des utilisateurs à exporter.
+		}
+		if (userDao instanceof CachingUserDao) {
+			final CacheStatistics users = ((CachingUserDao) userDao).getStatistics();
+			gauge(out, "meetings_user_cache_size", "Utilisateurs en cache (par identifiant et par nom).",
+					users.getSize());
+			counter(out, "meetings_user_cache_hits_total", "Lectures d'utilisateur servies par le cache.",
+					users.getHits());
+			counter(out, "meetings_user_cache_misses_total", "Lectures d'utilisateur absentes du cache.",
+					users.getMisses());
+			counter(out, "meetings_user_cache_evictions_total", "Utilisateurs écartés du cache faute de place.",
+					users.getEvictions());
+		}
+
+		final HashingStatistics hashing = PasswordHashingExecutor.getInstance().getStatistics();
+		gauge(out, "meetings_password_hashing_active", "Hachages de mots de passe en cours.",
+				hashing.getActiveThreads());
+		gauge(out, "meetings_password_hashing_queued", "Hachages de mots de passe en attente.",
+				hashing.getQueueDepth());
+		counter(out, "meetings_password_hashing_completed_total", "Hachages de mots de passe terminés.",
+				hashing.getCompleted());
+		counter(out, "meetings_password_hashing_rejected_total", "Hachages refusés pour surcharge.",
+				hashing.getRejected());
+		counter(out, "meetings_password_hashing_seconds_total", "Temps de calcul cumulé des hachages.",
+				hashing.getTotalHashNanos() / 1e9);
+		gauge(out, "meetings_password_hashing_max_seconds", "Plus long temps de calcul d'un hachage.",
+				hashing.getMaxHashNanos() / 1e9);
+		counter(out, "meetings_password_hashing_wait_seconds_total", "Attente cumulée d'un thread de hachage.",
+				hashing.getTotalWaitNanos() / 1e9);
+		gauge(out, "meetings_password_hashing_wait_max_seconds", "Plus longue attente d'un thread de hachage.",
+				hashing.getMaxWaitNanos() / 1e9);
+
+		final PoolStatistics pool = MeetingsContextListener.getPoolStatistics();
+		if (pool != null) {
+			gauge(out, "meetings_db_connections_active", "Connexions empruntées au pool.",
+					pool.getActiveConnections());
+			gauge(out, "meetings_db_connections_idle", "Connexions libres dans le pool.", pool.getIdleConnections());
+			gauge(out, "meetings_db_connections_waiting", "Threads en attente d'une connexion.",
+					pool.getWaitingThreads());
+			counter(out, "meetings_db_connection_acquisitions_total", "Connexions obtenues du pool.",
+					pool.getAcquisitions());
+			counter(out, "meetings_db_connection_timeouts_total", "Demandes de connexion abandonnées.",
+					pool.getTimeouts());
+			counter(out, "meetings_db_connection_wait_seconds_total", "Attente cumulée d'une connexion.",
+					pool.getTotalWaitNanos() / 1e9);
+		}
+		return out.toString();
+	}
+
+	private static void header(final StringBuilder out, final String name, final String type, final String help) {
+		out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+	}
+
+	private static void sample(final StringBuilder out, final String name, final EndpointMetrics endpoint,
+			final String le, final long value) {
+		out.append(name).append("{endpoint=\"").append(escape(endpoint.getEndpoint())).append('"');
+		if (le != null) {
+			out.append(",le=\"").append(le).append('"');
+		}
+		out.append("} ").append(value).append('\n');
+	}
+
+	private static void querySample(final StringBuilder out, final String name, final QueryStatistics query,
+			final double value) {
+		out.append(name).append("{query=\"").append(escape(query.getQuery())).append("\"} ").append(number(value))
+				.append('\n');
+	}
+
+	private static void entitySample(final StringBuilder out, final String name, final String entity,
+			final double value) {
+		out.append(name).append("{entity=\"").append(escape(entity)).append("\"} ").append(number(value))
+				.append('\n');
+	}
+
+	private static void gauge(final StringBuilder out, final String name, final String help, final double value) {
+		header(out, name, "gauge", help);
+		out.append(name).append(' ').append(number(value)).append('\n');
+	}
+
+	private static void counter(final StringBuilder out, final String name, final String help, final double value) {
+		header(out, name, "counter", help);
+		out.append(name).append(' ').append(number(value)).append('\n');
+	}
+
+	private static String number(final double value) {
+		if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+			return Long.toString((long) value);
+		}
+		return String.format(Locale.ROOT, "%s", value);
+	}
+
+	private static String escape(final String label) {
+		return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+	}
+}
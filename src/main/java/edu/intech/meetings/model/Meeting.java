@@ -7,7 +7,13 @@ import java.util.List;
 
 import javax.persistence.*;
 
-import com.fasterxml.jackson.annotation.JsonFormat;
+import org.eclipse.persistence.config.QueryHints;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import edu.intech.meetings.utils.DateTimeHelper;
 
 /**
  * The persistent class for the "Meeting" database table.
@@ -18,8 +24,41 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 @NamedQueries({
 		@NamedQuery(name = "Meeting.findById", query = "SELECT s FROM Meeting s WHERE s.id = :id"),
 		@NamedQuery(name = "Meeting.findAll", query = "SELECT s FROM Meeting s"),
-		@NamedQuery(name = "Meeting.findByUser", query = "SELECT m FROM Meeting m WHERE :id = ANY (SELECT u.id FROM m.guests u)"),
+		// Lectures par invité : jointure sur l'index Guests(userId, meetingId) plutôt
+		// qu'une sous-requête corrélée évaluée pour chaque réunion.
+		@NamedQuery(name = "Meeting.findByUser", query = "SELECT m FROM Meeting m JOIN m.guests u WHERE u.id = :id"),
 		@NamedQuery(name = "Meeting.findByIdsList", query = "SELECT s FROM Meeting s WHERE s.id in :ids"),
+		@NamedQuery(name = "Meeting.findIdsBefore", query = "SELECT s.id FROM Meeting s WHERE s.start < :date"),
+		// Variantes chargeant les invités de toutes les réunions en une seule requête
+		// supplémentaire au lieu d'une requête par réunion.
+		@NamedQuery(name = "Meeting.findAllWithGuests", query = "SELECT s FROM Meeting s", hints = {
+				@QueryHint(name = QueryHints.BATCH, value = "s.guests"),
+				@QueryHint(name = QueryHints.BATCH_TYPE, value = "JOIN") }),
+		@NamedQuery(name = "Meeting.findByUserWithGuests", query = "SELECT m FROM Meeting m JOIN m.guests u WHERE u.id = :id", hints = {
+				@QueryHint(name = QueryHints.BATCH, value = "m.guests"),
+				@QueryHint(name = QueryHints.BATCH_TYPE, value = "JOIN") }),
+		// Pagination par identifiant : le lot d'invités est lu avec un IN sur les
+		// identifiants de la page, un JOIN relirait toutes les réunions suivantes.
+		@NamedQuery(name = "Meeting.findPage", query = "SELECT s FROM Meeting s WHERE s.id > :cursor ORDER BY s.id", hints = {
+				@QueryHint(name = QueryHints.BATCH, value = "s.guests"),
+				@QueryHint(name = QueryHints.BATCH_TYPE, value = "IN") }),
+		// Lectures sur curseur (voir DaoHelper.streamQuery) : les invités sont lus
+		// par lots d'identifiants au fil du parcours.
+		@NamedQuery(name = "Meeting.streamAll", query = "SELECT s FROM Meeting s ORDER BY s.id", hints = {
+				@QueryHint(name = QueryHints.BATCH, value = "s.guests"),
+				@QueryHint(name = QueryHints.BATCH_TYPE, value = "IN") }),
+		// Réunions chevauchant une période : une réunion ne durant pas plus de
+		// MeetingsHelper.getMaxDuration() (ou de la plus longue réunion en base, voir
+		// Meeting.findMaxDuration), son début est compris entre :earliest (le début
+		// de la période moins cette durée) et :to. La recherche est un intervalle
+		// fermé sur IDX_Meeting_start, endTime ne filtre que ses lignes.
+		@NamedQuery(name = "Meeting.findBetween", query = "SELECT s FROM Meeting s WHERE s.start >= :earliest AND s.start < :to AND s.endTime > :from ORDER BY s.start, s.id", hints = {
+				@QueryHint(name = QueryHints.BATCH, value = "s.guests"),
+				@QueryHint(name = QueryHints.BATCH_TYPE, value = "IN") }),
+		@NamedQuery(name = "Meeting.findMaxDuration", query = "SELECT MAX(s.duration) FROM Meeting s"),
+		@NamedQuery(name = "Meeting.streamByUser", query = "SELECT m FROM Meeting m JOIN m.guests u WHERE u.id = :id ORDER BY m.id", hints = {
+				@QueryHint(name = QueryHints.BATCH, value = "m.guests"),
+				@QueryHint(name = QueryHints.BATCH_TYPE, value = "IN") }),
 })
 public class Meeting implements Serializable {
 
@@ -30,6 +69,7 @@ public class Meeting implements Serializable {
 	private String title;
 	private Date start;
 	private int duration;
+	private Date endTime;
 	private List<User> guests = new ArrayList<>();
 
 	public Meeting() {
@@ -87,7 +127,8 @@ public class Meeting implements Serializable {
 	/**
 	 * @return the start date and time of the meeting
 	 */
-	@JsonFormat(pattern = "dd/MM/yyyy HH:mm")
+	@JsonSerialize(using = DateTimeHelper.Serializer.class)
+	@JsonDeserialize(using = DateTimeHelper.Deserializer.class)
 	@Temporal(TemporalType.TIMESTAMP)
 	@Column(name = "start", nullable = false)
 	public Date getStart() {
@@ -116,6 +157,27 @@ public class Meeting implements Serializable {
 		this.duration = duration;
 	}
 
+	/**
+	 * @return la fin de la réunion telle que calculée par la base (colonne
+	 *         générée <code>start + duration</code>), utilisée seulement dans les
+	 *         requêtes sur une période. Elle n'est pas à jour pour une réunion
+	 *         créée ou modifiée dans l'EntityManager courant.
+	 */
+	@JsonIgnore
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name = "endTime", insertable = false, updatable = false)
+	public Date getEndTime() {
+		return this.endTime;
+	}
+
+	/**
+	 * @param endTime the endTime to set
+	 */
+	@JsonIgnore
+	public void setEndTime(final Date endTime) {
+		this.endTime = endTime;
+	}
+
 	/**
 	 * @return the guests
 	 */
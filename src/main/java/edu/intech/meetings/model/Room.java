@@ -1,6 +1,9 @@
 package edu.intech.meetings.model;
 
 import javax.persistence.*;
+
+import org.eclipse.persistence.config.QueryHints;
+
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -13,9 +16,27 @@ import java.util.List;
 @Table(name = "Room")
 @NamedQueries({
         @NamedQuery(name = "Room.findById", query = "SELECT s FROM Room s WHERE s.id = :id"),
+        // Les listes de salles, qui portent leurs réunions, ne sont pas mises en
+        // cache : seule une écriture de salle en invaliderait le résultat, pas
+        // celle d'une réunion.
         @NamedQuery(name = "Room.findAll", query = "SELECT s FROM Room s"),
-        @NamedQuery(name = "Room.findByMeeting", query = "SELECT m FROM Room m WHERE :id = ANY (SELECT u.id FROM m.meetings u)"),
-        @NamedQuery(name = "Room.findByName", query = "SELECT s FROM Room s WHERE s.name = :name")
+        // Jointure sur l'index Participants(meetingId, roomId).
+        @NamedQuery(name = "Room.findByMeeting", query = "SELECT s FROM Room s JOIN s.meetings m WHERE m.id = :id"),
+        @NamedQuery(name = "Room.findByName", query = "SELECT s FROM Room s WHERE s.name = :name"),
+        // Variante chargeant les réunions des salles puis leurs invités en une
+        // requête par niveau au lieu d'une requête par ligne.
+        @NamedQuery(name = "Room.findAllWithMeetings", query = "SELECT s FROM Room s", hints = {
+                @QueryHint(name = QueryHints.BATCH, value = "s.meetings"),
+                @QueryHint(name = QueryHints.BATCH, value = "s.meetings.guests"),
+                @QueryHint(name = QueryHints.BATCH_TYPE, value = "JOIN") }),
+        @NamedQuery(name = "Room.findPage", query = "SELECT s FROM Room s WHERE s.id > :cursor ORDER BY s.id", hints = {
+                @QueryHint(name = QueryHints.BATCH, value = "s.meetings"),
+                @QueryHint(name = QueryHints.BATCH, value = "s.meetings.guests"),
+                @QueryHint(name = QueryHints.BATCH_TYPE, value = "IN") }),
+        @NamedQuery(name = "Room.streamAll", query = "SELECT s FROM Room s ORDER BY s.id", hints = {
+                @QueryHint(name = QueryHints.BATCH, value = "s.meetings"),
+                @QueryHint(name = QueryHints.BATCH, value = "s.meetings.guests"),
+                @QueryHint(name = QueryHints.BATCH_TYPE, value = "IN") })
 })
 public class Room implements Serializable {
 
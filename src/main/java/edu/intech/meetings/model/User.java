@@ -9,8 +9,11 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
+import javax.persistence.QueryHint;
 import javax.persistence.Table;
 
+import org.eclipse.persistence.config.QueryHints;
+
 /**
  * The persistent class for the "User" database table.
  *
@@ -21,7 +24,12 @@ import javax.persistence.Table;
 		@NamedQuery(name = "User.findAll", query = "SELECT s FROM User s"),
 		@NamedQuery(name = "User.findById", query = "SELECT s FROM User s WHERE s.id = :id"),
 		@NamedQuery(name = "User.findByIdsList", query = "SELECT s FROM User s WHERE s.id in :ids"),
-		@NamedQuery(name = "User.findByName", query = "SELECT s FROM User s WHERE s.name = :name")
+		// Lecture à chaque connexion : résultat mis en cache (voir SharedCache),
+		// invalidé par toute écriture d'un utilisateur.
+		@NamedQuery(name = "User.findByName", query = "SELECT s FROM User s WHERE s.name = :name", hints = {
+				@QueryHint(name = QueryHints.QUERY_RESULTS_CACHE, value = "true"),
+				@QueryHint(name = QueryHints.QUERY_RESULTS_CACHE_SIZE, value = "1000") }),
+		@NamedQuery(name = "User.findPage", query = "SELECT s FROM User s WHERE s.id > :cursor ORDER BY s.id")
 })
 public class User implements Serializable {
 	private static final long serialVersionUID = 1L;
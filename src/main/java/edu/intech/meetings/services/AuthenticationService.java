@@ -15,11 +15,17 @@ import javax.ws.rs.core.Response;
 import javax.xml.bind.DatatypeConverter;
 
 import edu.intech.meetings.dao.DaoFactory;
+import edu.intech.meetings.exceptions.DaoException;
 import edu.intech.meetings.exceptions.ServiceException;
+import edu.intech.meetings.exceptions.ServiceOverloadedException;
 import edu.intech.meetings.model.User;
+import edu.intech.meetings.utils.PasswordHashingExecutor;
 import edu.intech.meetings.utils.PasswordHelper;
 import edu.intech.meetings.utils.ServicesHelper;
+import edu.intech.meetings.utils.TokenCache;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 
@@ -33,7 +39,13 @@ public class AuthenticationService {
 
 	// The JWT signature algorithm we will be using to sign the password in DB and
 	// the token
-	private final SignatureAlgorithm signatureAlgorithm = SignatureAlgorithm.HS256;
+	private final static SignatureAlgorithm SIGNATURE_ALGORITHM = SignatureAlgorithm.HS256;
+
+	// Clé et parser construits une seule fois : la clé secrète n'est plus décodée
+	// à chaque connexion ou vérification de token.
+	private final static Key SIGNING_KEY = new SecretKeySpec(DatatypeConverter.parseBase64Binary(SECRET_API_KEY),
+			SIGNATURE_ALGORITHM.getJcaName());
+	private final static JwtParser TOKEN_PARSER = Jwts.parser().setSigningKey(SIGNING_KEY);
 
 	@POST
 	@Path("/login/")
@@ -57,13 +69,16 @@ public class AuthenticationService {
 			// Return the token on the response
 			return Response.ok(token).build();
 
+		} catch (final ServiceOverloadedException e) {
+			// Trop de connexions simultanées : le client doit réessayer plus tard.
+			return Response.status(Response.Status.SERVICE_UNAVAILABLE).header("Retry-After", "1").build();
 		} catch (final Exception e) {
 			return Response.status(Response.Status.FORBIDDEN).build();
 		}
 	}
 
 	// The issued token must be associated to a user
-	private String issueToken(final String issuer, final long ttlMillis) {
+	static String issueToken(final String issuer, final long ttlMillis) {
 
 		final String id = UUID.randomUUID().toString();
 
@@ -72,13 +87,9 @@ public class AuthenticationService {
 		final long nowMillis = System.currentTimeMillis();
 		final Date now = new Date(nowMillis);
 
-		// We will sign our JWT with our ApiKey secret
-		final byte[] apiKeySecretBytes = DatatypeConverter.parseBase64Binary(SECRET_API_KEY);
-		final Key signingKey = new SecretKeySpec(apiKeySecretBytes, this.signatureAlgorithm.getJcaName());
-
-		// Let's set the JWT Claims
+		// Let's set the JWT Claims, signed with our ApiKey secret
 		final JwtBuilder builder = Jwts.builder().setId(id).setIssuedAt(now).setSubject(TOKEN_SUBJECT).setIssuer(issuer)
-				.signWith(this.signatureAlgorithm, signingKey);
+				.signWith(SIGNATURE_ALGORITHM, SIGNING_KEY);
 
 		// if it has been specified, let's add the expiration
 		if (ttlMillis >= 0) {
@@ -95,19 +106,44 @@ public class AuthenticationService {
 		// Throw an Exception if the credentials are invalid
 		final User ret = DaoFactory.getInstance().getUserDao().readUserByName(username);
 		if (ret != null) {
-			if (PasswordHelper.verifyUserPassword(password, ret.getPassword())) {
+			if (PasswordHashingExecutor.getInstance().verifyUserPassword(password, ret.getPassword())) {
+				if (PasswordHelper.needsRehash(ret.getPassword())) {
+					rehash(ret, password);
+				}
 				return ret;
 			}
 		}
 		throw new ServiceException("Utilisateur inconnu ou mauvais mot de passe.");
 	}
 
+	/**
+	 * Recalcule le hachage d'un mot de passe stocké à l'ancien format (ou avec
+	 * moins d'itérations que la configuration actuelle), maintenant que le mot de
+	 * passe en clair est connu. En cas d'échec, la connexion n'est pas refusée :
+	 * on réessaiera à la prochaine.
+	 */
+	private void rehash(final User user, final String password) {
+		try {
+			final String rehashed = PasswordHashingExecutor.getInstance().generateSecurePassword(password);
+			user.setPassword(rehashed);
+			DaoFactory.getInstance().getUserDao().updateUser(user, true);
+		} catch (final ServiceOverloadedException | DaoException e) {
+			// Hachage reporté à la prochaine connexion.
+		}
+	}
+
 	public static String checkToken(final MultivaluedMap<String, String> formParams) throws ServiceException {
 		final String token = ServicesHelper.extractParam(formParams, AUTH_PARAM_TOKEN);
 		if (token == null || token.isBlank()) {
 			throw new ServiceException("Vous devez fournir un token d'identification valide");
 		}
-		return ServicesHelper.parseJWT(token, SECRET_API_KEY);
+		final String cached = TokenCache.getInstance().get(token);
+		if (cached != null) {
+			return cached;
+		}
+		final Claims claims = ServicesHelper.parseJWT(token, TOKEN_PARSER);
+		TokenCache.getInstance().put(token, claims.getIssuer(), claims.getExpiration().getTime());
+		return claims.getIssuer();
 	}
 
 }
\ No newline at end of file
@@ -1,15 +1,31 @@
 package edu.intech.meetings.services;
 
+import static edu.intech.meetings.utils.MeetingsHelper.MEETING_PARAM_BEFORE;
+import static edu.intech.meetings.utils.MeetingsHelper.MEETING_PARAM_CAPACITY;
+import static edu.intech.meetings.utils.MeetingsHelper.MEETING_PARAM_DURATION;
+import static edu.intech.meetings.utils.MeetingsHelper.MEETING_PARAM_FROM;
+import static edu.intech.meetings.utils.MeetingsHelper.MEETING_PARAM_GUESTS;
+import static edu.intech.meetings.utils.MeetingsHelper.MEETING_PARAM_ID;
+import static edu.intech.meetings.utils.MeetingsHelper.MEETING_PARAM_IDS;
+import static edu.intech.meetings.utils.MeetingsHelper.MEETING_PARAM_MEETINGS;
+import static edu.intech.meetings.utils.MeetingsHelper.MEETING_PARAM_OFFSET;
+import static edu.intech.meetings.utils.MeetingsHelper.MEETING_PARAM_START;
+import static edu.intech.meetings.utils.MeetingsHelper.MEETING_PARAM_TITLE;
+import static edu.intech.meetings.utils.MeetingsHelper.MEETING_PARAM_TO;
+
 import java.io.IOException;
 import java.net.URI;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Locale;
-import java.util.StringTokenizer;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
@@ -18,52 +34,67 @@ import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriBuilder;
 
+import org.codehaus.jettison.json.JSONArray;
 import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
 
 import com.fasterxml.jackson.core.JsonGenerationException;
 import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import edu.intech.meetings.dao.DaoFactory;
 import edu.intech.meetings.exceptions.DaoException;
 import edu.intech.meetings.exceptions.ServiceException;
+import edu.intech.meetings.index.AgendaEntry;
+import edu.intech.meetings.index.AgendaIndex;
+import edu.intech.meetings.index.BookingLocks;
+import edu.intech.meetings.index.GuestScheduleIndex;
+import edu.intech.meetings.index.Interval;
+import edu.intech.meetings.index.RoomBookingIndex;
+import edu.intech.meetings.index.SlotFinder;
 import edu.intech.meetings.model.Meeting;
 import edu.intech.meetings.model.User;
+import edu.intech.meetings.utils.ConfigHelper;
+import edu.intech.meetings.utils.DateTimeHelper;
+import edu.intech.meetings.utils.JsonHelper;
+import edu.intech.meetings.utils.MeetingsHelper;
 import edu.intech.meetings.utils.ServicesHelper;
 
 @Path("/meetings")
 public class MeetingsService {
 
-	public final static String MEETING_PARAM_ID = "id";
-	public final static String MEETING_PARAM_TITLE = "title";
-	public final static String MEETING_PARAM_START = "start";
-	public final static String MEETING_PARAM_DURATION = "duration";
-	public final static String MEETING_PARAM_GUESTS = "guests";
-
-	public static final DateFormat DATE_FORMATTER = new SimpleDateFormat(Meeting.DATETIME_PATTERN, Locale.FRANCE);
-	static {
-		// Cette ligne est nécessaire pour que le formateur refuse les date incoérentes
-		// comme "33/22/2020 40:73".
-		DATE_FORMATTER.setLenient(false);
-	}
+	private final static int SLOTS_DEFAULT_LIMIT = 5;
+	private final static int SLOTS_MAX_LIMIT = 50;
 
 	@GET
 	@Path("/all")
 	@Produces(MediaType.APPLICATION_JSON)
-	public Response getAllMeetings() throws JSONException, IOException {
+	public Response getAllMeetings(@QueryParam(ServicesHelper.PAGE_PARAM_LIMIT) final String limitAsString,
+			@QueryParam(ServicesHelper.PAGE_PARAM_CURSOR) final String cursorAsString)
+			throws JSONException, IOException {
 
 		// No token needed to read all meetings.
 		try {
-			final ObjectMapper mapper = new ObjectMapper();
-			return Response.ok()
-					.entity(mapper.writeValueAsString(DaoFactory.getInstance().getMeetingDao().readAllMeetings()))
-					.build();
+			if (limitAsString == null && cursorAsString == null) {
+				// Sans paramètre de pagination, on renvoie la liste complète comme
+				// auparavant.
+				return Response.ok().entity(ServicesHelper.streamJsonArray(JsonHelper.writerFor(Meeting.class),
+						DaoFactory.getInstance().getMeetingDao().streamAllMeetings())).build();
+			}
+			final int limit = ServicesHelper.parsePageLimit(limitAsString);
+			final int cursor = ServicesHelper.decodeCursor(cursorAsString);
+			return Response.ok().entity(ServicesHelper.writePage(JsonHelper.writerFor(Meeting.class),
+					DaoFactory.getInstance().getMeetingDao().readMeetingsPage(cursor, limit))).build();
+		} catch (final ServiceException e) {
+			final JSONObject json = new JSONObject();
+			json.put("status", "error");
+			json.put("message", e.getMessage());
+			return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
 		} catch (final DaoException e) {
 			final JSONObject json = new JSONObject();
 			json.put("status", "error");
@@ -72,6 +103,10 @@ public class MeetingsService {
 		}
 	}
 
+	public Response getAllMeetings() throws JSONException, IOException {
+		return getAllMeetings(null, null);
+	}
+
 	@GET
 	@Path("/getById")
 	@Consumes("application/x-www-form-urlencoded")
@@ -109,8 +144,7 @@ public class MeetingsService {
 			json.put("message", "Meeting non trouvé");
 			return Response.status(Response.Status.NOT_FOUND).entity(json.toString()).build();
 		} else {
-			final ObjectMapper mapper = new ObjectMapper();
-			return Response.ok().entity(mapper.writeValueAsString(meeting)).build();
+			return Response.ok().entity(JsonHelper.writerFor(Meeting.class).writeValueAsString(meeting)).build();
 		}
 	}
 
@@ -138,16 +172,192 @@ public class MeetingsService {
 			json.put("message", "L'identifiant fourni n'est pas un entier.");
 			return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
 		}
-		List<Meeting> meetings = null;
+		Stream<Meeting> meetings = null;
+		try {
+			meetings = DaoFactory.getInstance().getMeetingDao().streamMeetingsWithUser(userId);
+		} catch (final DaoException e) {
+			json.put("status", "error");
+			json.put("message", e.getMessage());
+			return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(json.toString()).build();
+		}
+		return Response.ok().entity(ServicesHelper.streamJsonArray(JsonHelper.writerFor(Meeting.class), meetings)).build();
+	}
+
+	/**
+	 * Renvoie l'agenda de l'utilisateur d'identifiant {@value MeetingsHelper#MEETING_PARAM_ID} :
+	 * ses réunions (identifiant, titre, début et durée, sans les invités) triées
+	 * par début, lues dans {@link AgendaIndex} sans accès à la base.
+	 */
+	@GET
+	@Path("/agenda")
+	@Consumes("application/x-www-form-urlencoded")
+	@Produces(MediaType.APPLICATION_JSON)
+	public Response getAgendaByUserId(final MultivaluedMap<String, String> formParams)
+			throws JSONException, IOException {
+		// No token needed to read meetings.
+
+		final JSONObject json = new JSONObject();
+		// verifying given id.
+		final String idAsString = ServicesHelper.extractParam(formParams, MEETING_PARAM_ID);
+		if (idAsString == null) {
+			json.put("status", "error");
+			json.put("message", "Vous devez fournir l'identifiant.");
+			return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
+		}
+		int userId = -1;
+		try {
+			userId = Integer.parseUnsignedInt(idAsString);
+		} catch (final NumberFormatException e) {
+			json.put("status", "error");
+			json.put("message", "L'identifiant fourni n'est pas un entier.");
+			return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
+		}
+		final List<AgendaEntry> agenda;
 		try {
-			meetings = DaoFactory.getInstance().getMeetingDao().readAllMeetingsWithUser(userId);
+			agenda = AgendaIndex.getInstance().getAgenda(userId);
 		} catch (final DaoException e) {
 			json.put("status", "error");
 			json.put("message", e.getMessage());
 			return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(json.toString()).build();
 		}
-		final ObjectMapper mapper = new ObjectMapper();
-		return Response.ok().entity(mapper.writeValueAsString(meetings)).build();
+		return Response.ok().entity(JsonHelper.listWriterFor(AgendaEntry.class).writeValueAsString(agenda)).build();
+	}
+
+	/**
+	 * Renvoie les réunions qui chevauchent la période donnée par les paramètres
+	 * {@value MeetingsHelper#MEETING_PARAM_FROM} (inclus) et {@value MeetingsHelper#MEETING_PARAM_TO}
+	 * (exclu), y compris celles commencées avant son début.
+	 */
+	@GET
+	@Path("/range")
+	@Consumes("application/x-www-form-urlencoded")
+	@Produces(MediaType.APPLICATION_JSON)
+	public Response getMeetingsBetween(final MultivaluedMap<String, String> formParams)
+			throws JSONException, IOException {
+		// No token needed to read meetings.
+
+		final JSONObject json = new JSONObject();
+		final String fromAsString = ServicesHelper.extractParam(formParams, MEETING_PARAM_FROM);
+		final String toAsString = ServicesHelper.extractParam(formParams, MEETING_PARAM_TO);
+		if (fromAsString == null || toAsString == null) {
+			json.put("status", "error");
+			json.put("message", "Vous devez fournir le début et la fin de la période.");
+			return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
+		}
+		final Date from;
+		final Date to;
+		try {
+			from = DateTimeHelper.parse(fromAsString);
+			to = DateTimeHelper.parse(toAsString);
+		} catch (final DateTimeParseException e) {
+			json.put("status", "error");
+			json.put("message", "Les dates doivent être au format " + Meeting.DATETIME_PATTERN + ".");
+			return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
+		}
+		final long maxWindow = ConfigHelper.getInt("meetings.range.maxWindowDays", 92) * 86_400_000L;
+		if (!from.before(to) || to.getTime() - from.getTime() > maxWindow) {
+			json.put("status", "error");
+			json.put("message", "La période doit être non vide et ne pas dépasser " + maxWindow / 86_400_000L
+					+ " jours.");
+			return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
+		}
+		final List<Meeting> meetings;
+		try {
+			meetings = DaoFactory.getInstance().getMeetingDao().readMeetingsBetween(from, to);
+		} catch (final DaoException e) {
+			json.put("status", "error");
+			json.put("message", e.getMessage());
+			return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(json.toString()).build();
+		}
+		return Response.ok().entity(JsonHelper.listWriterFor(Meeting.class).writeValueAsString(meetings)).build();
+	}
+
+	@GET
+	@Path("/findSlots")
+	@Consumes("application/x-www-form-urlencoded")
+	@Produces(MediaType.APPLICATION_JSON)
+	public Response findSlots(final MultivaluedMap<String, String> formParams) throws JSONException {
+		// No token needed to search free slots.
+
+		final JSONObject json = new JSONObject();
+		final String guests = ServicesHelper.extractParam(formParams, MEETING_PARAM_GUESTS);
+		final String durationAsString = ServicesHelper.extractParam(formParams, MEETING_PARAM_DURATION);
+		final String capacityAsString = ServicesHelper.extractParam(formParams, MEETING_PARAM_CAPACITY);
+		final String fromAsString = ServicesHelper.extractParam(formParams, MEETING_PARAM_FROM);
+		final String toAsString = ServicesHelper.extractParam(formParams, MEETING_PARAM_TO);
+		final String limitAsString = ServicesHelper.extractParam(formParams, ServicesHelper.PAGE_PARAM_LIMIT);
+		if (durationAsString == null || fromAsString == null || toAsString == null) {
+			json.put("status", "error");
+			json.put("message", "Vous devez fournir au moins la durée de la réunion et la période de recherche.");
+			return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
+		}
+		final int duration;
+		final Integer capacity;
+		final int limit;
+		try {
+			duration = Integer.parseUnsignedInt(durationAsString);
+			capacity = capacityAsString == null ? null : Integer.valueOf(Integer.parseUnsignedInt(capacityAsString));
+			limit = limitAsString == null ? SLOTS_DEFAULT_LIMIT : Integer.parseUnsignedInt(limitAsString);
+		} catch (final NumberFormatException e) {
+			json.put("status", "error");
+			json.put("message", "La durée, la capacité et le nombre de créneaux doivent être des entiers positifs.");
+			return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
+		}
+		if (duration == 0 || limit == 0 || limit > SLOTS_MAX_LIMIT) {
+			json.put("status", "error");
+			json.put("message", "La durée doit être positive et le nombre de créneaux compris entre 1 et "
+					+ SLOTS_MAX_LIMIT + ".");
+			return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
+		}
+		final Date from;
+		final Date to;
+		try {
+			from = DateTimeHelper.parse(fromAsString);
+			to = DateTimeHelper.parse(toAsString);
+		} catch (final DateTimeParseException e) {
+			json.put("status", "error");
+			json.put("message", "Les dates doivent être au format " + Meeting.DATETIME_PATTERN + ".");
+			return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
+		}
+		final long maxWindow = ConfigHelper.getInt("meetings.slots.maxWindowDays", 31) * 86_400_000L;
+		if (!from.before(to) || to.getTime() - from.getTime() > maxWindow) {
+			json.put("status", "error");
+			json.put("message", "La période de recherche doit être non vide et ne pas dépasser "
+					+ maxWindow / 86_400_000L + " jours.");
+			return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
+		}
+		final List<Integer> guestIds = new ArrayList<>();
+		try {
+			if (guests != null && !guests.isBlank()) {
+				for (final User guest : MeetingsHelper.parseMeetingUsersList(guests)) {
+					guestIds.add(guest.getId());
+				}
+			}
+		} catch (final ServiceException e) {
+			json.put("status", "error");
+			json.put("message", e.getMessage());
+			return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
+		}
+
+		final List<SlotFinder.Slot> slots;
+		try {
+			slots = SlotFinder.findSlots(guestIds, duration, capacity, from.getTime(), to.getTime(), limit);
+		} catch (final DaoException e) {
+			json.put("status", "error");
+			json.put("message", e.getMessage());
+			return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(json.toString()).build();
+		}
+		final JSONArray ret = new JSONArray();
+		for (final SlotFinder.Slot slot : slots) {
+			final JSONObject item = new JSONObject();
+			item.put("start", DateTimeHelper.format(new Date(slot.getStart())));
+			item.put("end", DateTimeHelper.format(new Date(slot.getEnd())));
+			if (slot.getRoomId() != null) {
+				item.put("roomId", slot.getRoomId());
+			}
+			ret.put(item);
+		}
+		return Response.ok().entity(ret.toString()).build();
 	}
 
 	@POST
@@ -168,7 +378,7 @@ public class MeetingsService {
 		Meeting meeting;
 		// Verifying given parameters
 		try {
-			meeting = checkGivenMeeting(formParams);
+			meeting = MeetingsHelper.checkGivenMeeting(formParams);
 		} catch (final ServiceException e) {
 			json.put("status", "error");
 			json.put("message", e.getMessage());
@@ -176,16 +386,192 @@ public class MeetingsService {
 		}
 		// Trying to create...
 		try {
-			DaoFactory.getInstance().getMeetingDao().createMeeting(meeting, true);
+			// Only requests sharing a guest with this meeting wait for each other.
+			final BookingLocks locks = BookingLocks.of(() -> new BookingLocks.Keys().guestsOf(meeting));
+			locks.lock();
+			try {
+				final Map<User, List<Interval>> guestConflicts = GuestScheduleIndex.getInstance().findConflicts(meeting);
+				if (!guestConflicts.isEmpty()) {
+					return guestConflictsResponse(guestConflicts);
+				}
+				DaoFactory.getInstance().getMeetingDao().createMeeting(meeting, true);
+				GuestScheduleIndex.getInstance().putMeeting(meeting);
+				AgendaIndex.getInstance().putMeeting(meeting);
+			} finally {
+				locks.unlock();
+			}
 		} catch (final DaoException e) {
 			json.put("status", "error");
 			json.put("message", e.getMessage());
 			return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(json.toString()).build();
 		}
 		// Success !
-		final ObjectMapper mapper = new ObjectMapper();
 		final URI serieId = UriBuilder.fromResource(this.getClass()).build(this);
-		return Response.created(serieId).entity(mapper.writeValueAsString(meeting)).build();
+		return Response.created(serieId).entity(JsonHelper.writerFor(Meeting.class).writeValueAsString(meeting)).build();
+	}
+
+	/**
+	 * Crée en une fois les réunions décrites par le paramètre
+	 * {@value MeetingsHelper#MEETING_PARAM_MEETINGS} : un tableau JSON d'objets ayant les
+	 * champs {@value MeetingsHelper#MEETING_PARAM_TITLE}, {@value MeetingsHelper#MEETING_PARAM_START},
+	 * {@value MeetingsHelper#MEETING_PARAM_DURATION} et, éventuellement,
+	 * {@value MeetingsHelper#MEETING_PARAM_GUESTS} (tableau d'identifiants).<br>
+	 * <br>
+	 * Le token est vérifié une seule fois, les invités de toutes les réunions sont
+	 * lus en une requête et les réunions valides sont créées dans une seule
+	 * transaction. Une réunion invalide (paramètre manquant, invité inconnu ou
+	 * déjà pris, y compris par une réunion précédente du lot) n'empêche pas la
+	 * création des autres : le champ <code>results</code> de la réponse donne,
+	 * dans l'ordre du lot, l'identifiant de chaque réunion créée ou la raison de
+	 * son refus. Le statut est 201 si au moins une réunion a été créée, 412
+	 * sinon.
+	 */
+	@POST
+	@Consumes("application/x-www-form-urlencoded")
+	@Path("/batchAdd")
+	@Produces(MediaType.APPLICATION_JSON)
+	public Response batchAddMeetings(final MultivaluedMap<String, String> formParams) throws JSONException {
+		final JSONObject json = new JSONObject();
+		// Checking JWT once for the whole batch...
+		try {
+			AuthenticationService.checkToken(formParams);
+		} catch (final ServiceException e) {
+			json.put("status", "error");
+			json.put("message", e.getMessage());
+			return Response.status(Response.Status.FORBIDDEN).entity(json.toString()).build();
+		}
+		// Reading the batch...
+		final String meetingsAsString = ServicesHelper.extractParam(formParams, MEETING_PARAM_MEETINGS);
+		JSONArray items = null;
+		try {
+			items = meetingsAsString == null ? null : new JSONArray(meetingsAsString);
+		} catch (final JSONException e) {
+			// Signalé ci-dessous.
+		}
+		final int maxSize = ConfigHelper.getInt("meetings.batch.maxSize", 1000);
+		if (items == null || items.length() == 0 || items.length() > maxSize) {
+			json.put("status", "error");
+			json.put("message", "Vous devez fournir un tableau JSON de 1 à " + maxSize + " réunions.");
+			return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
+		}
+		// Verifying each meeting, then reading all the guests at once.
+		final int count = items.length();
+		final Meeting[] meetings = new Meeting[count];
+		final List<Set<Integer>> guestIds = new ArrayList<>(count);
+		final JSONObject[] results = new JSONObject[count];
+		final Set<Integer> allGuestIds = new TreeSet<>();
+		for (int i = 0; i < count; i++) {
+			final Set<Integer> ids = new LinkedHashSet<>();
+			guestIds.add(ids);
+			try {
+				meetings[i] = MeetingsHelper.checkGivenMeeting(items.optJSONObject(i), ids);
+				allGuestIds.addAll(ids);
+			} catch (final ServiceException e) {
+				results[i] = new JSONObject().put("status", "error").put("message", e.getMessage());
+			}
+		}
+		final Map<Integer, User> guests = new HashMap<>();
+		try {
+			if (!allGuestIds.isEmpty()) {
+				for (final User user : DaoFactory.getInstance().getUserDao()
+						.readUsersByIdList(new ArrayList<>(allGuestIds))) {
+					guests.put(user.getId(), user);
+				}
+			}
+		} catch (final DaoException e) {
+			json.put("status", "error");
+			json.put("message", e.getMessage());
+			return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(json.toString()).build();
+		}
+		for (int i = 0; i < count; i++) {
+			if (meetings[i] == null) {
+				continue;
+			}
+			if (!guests.keySet().containsAll(guestIds.get(i))) {
+				meetings[i] = null;
+				results[i] = new JSONObject().put("status", "error").put("message",
+						"La liste des invités de la réunion contient au moins un utilisateur non trouvé.");
+				continue;
+			}
+			final List<User> meetingGuests = new ArrayList<>(guestIds.get(i).size());
+			for (final Integer id : guestIds.get(i)) {
+				meetingGuests.add(guests.get(id));
+			}
+			meetings[i].setGuests(meetingGuests);
+		}
+
+		// Trying to create...
+		final List<Meeting> created = new ArrayList<>(count);
+		try {
+			final BookingLocks locks = BookingLocks.of(() -> {
+				final BookingLocks.Keys keys = new BookingLocks.Keys();
+				for (final Meeting meeting : meetings) {
+					if (meeting != null) {
+						keys.guestsOf(meeting);
+					}
+				}
+				return keys;
+			});
+			locks.lock();
+			try {
+				// Créneaux des invités déjà pris par les réunions retenues du lot
+				// (l'identifiant de l'intervalle est la position de la réunion dans le
+				// lot).
+				final Map<Integer, List<Interval>> batchSchedules = new HashMap<>();
+				for (int i = 0; i < count; i++) {
+					if (meetings[i] == null) {
+						continue;
+					}
+					final Map<User, List<Interval>> guestConflicts = GuestScheduleIndex.getInstance()
+							.findConflicts(meetings[i]);
+					if (!guestConflicts.isEmpty()) {
+						results[i] = guestConflictsJson(guestConflicts);
+						continue;
+					}
+					final Interval interval = Interval.of(meetings[i]);
+					final JSONObject batchConflict = findBatchConflict(meetings[i], interval, batchSchedules);
+					if (batchConflict != null) {
+						results[i] = batchConflict;
+						continue;
+					}
+					for (final User guest : meetings[i].getGuests()) {
+						batchSchedules.computeIfAbsent(guest.getId(), k -> new ArrayList<>())
+								.add(new Interval(interval.getStart(), interval.getEnd(), i));
+					}
+					created.add(meetings[i]);
+				}
+				if (!created.isEmpty()) {
+					DaoFactory.getInstance().getMeetingDao().createMeetings(created);
+					for (final Meeting meeting : created) {
+						GuestScheduleIndex.getInstance().putMeeting(meeting);
+						AgendaIndex.getInstance().putMeeting(meeting);
+					}
+				}
+			} finally {
+				locks.unlock();
+			}
+		} catch (final DaoException e) {
+			json.put("status", "error");
+			json.put("message", e.getMessage());
+			return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(json.toString()).build();
+		}
+
+		// Reporting each meeting's outcome.
+		final JSONArray ret = new JSONArray();
+		for (int i = 0; i < count; i++) {
+			final JSONObject result = results[i] != null ? results[i]
+					: new JSONObject().put("status", "ok").put("id", meetings[i].getId());
+			ret.put(result.put("index", i));
+		}
+		json.put("status", created.size() == count ? "ok" : "error");
+		json.put("created", created.size());
+		json.put("failed", count - created.size());
+		json.put("results", ret);
+		if (created.isEmpty()) {
+			return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
+		}
+		final URI serieId = UriBuilder.fromResource(this.getClass()).build(this);
+		return Response.created(serieId).entity(json.toString()).build();
 	}
 
 	@PUT
@@ -206,7 +592,7 @@ public class MeetingsService {
 		Meeting meeting;
 		// Verifying given parameters
 		try {
-			meeting = checkGivenMeeting(formParams);
+			meeting = MeetingsHelper.checkGivenMeeting(formParams);
 		} catch (final ServiceException e) {
 			json.put("status", "error");
 			json.put("message", e.getMessage());
@@ -243,7 +629,33 @@ public class MeetingsService {
 		// Trying to update...
 		meeting.setId(meetingId);
 		try {
-			DaoFactory.getInstance().getMeetingDao().updateMeeting(meeting, true);
+			// The rooms of the meeting, its current and new guests and the meeting itself.
+			final BookingLocks locks = BookingLocks.of(() -> new BookingLocks.Keys().meeting(meeting.getId())
+					.rooms(RoomBookingIndex.getInstance().getOwners(meeting.getId()))
+					.guests(GuestScheduleIndex.getInstance().getOwners(meeting.getId())).guestsOf(meeting));
+			locks.lock();
+			try {
+				// La réunion ne doit pas chevaucher, à son nouvel horaire, une autre
+				// réunion d'une de ses salles.
+				final List<Interval> conflicts = RoomBookingIndex.getInstance().findConflicts(meeting);
+				if (!conflicts.isEmpty()) {
+					json.put("status", "error");
+					json.put("message", "La réunion chevaucherait la réunion " + conflicts.get(0).getId()
+							+ " dans une de ses salles.");
+					return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
+				}
+				// Ses invités ne doivent pas être déjà pris sur ce créneau.
+				final Map<User, List<Interval>> guestConflicts = GuestScheduleIndex.getInstance().findConflicts(meeting);
+				if (!guestConflicts.isEmpty()) {
+					return guestConflictsResponse(guestConflicts);
+				}
+				DaoFactory.getInstance().getMeetingDao().updateMeeting(meeting, true);
+				RoomBookingIndex.getInstance().updateMeeting(meeting);
+				GuestScheduleIndex.getInstance().putMeeting(meeting);
+				AgendaIndex.getInstance().putMeeting(meeting);
+			} finally {
+				locks.unlock();
+			}
 		} catch (final DaoException e) {
 			json.put("status", "error");
 			json.put("message", e.getMessage());
@@ -251,9 +663,8 @@ public class MeetingsService {
 		}
 
 		// Success !
-		final ObjectMapper mapper = new ObjectMapper();
 		final URI uri = UriBuilder.fromResource(this.getClass()).build(this);
-		return Response.ok(uri).entity(mapper.writeValueAsString(meeting)).build();
+		return Response.ok(uri).entity(JsonHelper.writerFor(Meeting.class).writeValueAsString(meeting)).build();
 	}
 
 	@DELETE
@@ -302,7 +713,16 @@ public class MeetingsService {
 
 		// Trying to delete...
 		try {
-			DaoFactory.getInstance().getMeetingDao().deleteMeeting(meeting);
+			final BookingLocks locks = BookingLocks.of(() -> new BookingLocks.Keys().meeting(meeting.getId()));
+			locks.lock();
+			try {
+				DaoFactory.getInstance().getMeetingDao().deleteMeeting(meeting);
+				RoomBookingIndex.getInstance().removeMeeting(meetingId);
+				GuestScheduleIndex.getInstance().removeMeeting(meetingId);
+				AgendaIndex.getInstance().removeMeeting(meetingId);
+			} finally {
+				locks.unlock();
+			}
 		} catch (final DaoException e) {
 			json.put("status", "error");
 			json.put("message", e.getMessage());
@@ -310,63 +730,285 @@ public class MeetingsService {
 		}
 
 		// Success !
-		final ObjectMapper mapper = new ObjectMapper();
 		final URI uri = UriBuilder.fromResource(this.getClass()).build(this);
-		return Response.ok(uri).entity(mapper.writeValueAsString(meeting)).build();
+		return Response.ok(uri).entity(JsonHelper.writerFor(Meeting.class).writeValueAsString(meeting)).build();
 	}
 
-	private Meeting checkGivenMeeting(final MultivaluedMap<String, String> formParams) throws ServiceException {
-		final String title = ServicesHelper.extractParam(formParams, MEETING_PARAM_TITLE);
-		final String startAsString = ServicesHelper.extractParam(formParams, MEETING_PARAM_START);
-		final String durationAsString = ServicesHelper.extractParam(formParams, MEETING_PARAM_DURATION);
-		final String guests = ServicesHelper.extractParam(formParams, MEETING_PARAM_GUESTS);
-		if (title == null || startAsString == null || durationAsString == null) {
-			throw new ServiceException(
-					"Vous devez fournir au moins le nom, la date/heure de début et la durée de la réunion.");
+	/**
+	 * Supprime en masse les réunions dont les identifiants sont donnés, séparés
+	 * par des virgules, par le paramètre {@value MeetingsHelper#MEETING_PARAM_IDS}, avec leurs
+	 * invitations et leurs réservations de salles. Les identifiants inconnus sont
+	 * ignorés.
+	 */
+	@DELETE
+	@Consumes("application/x-www-form-urlencoded")
+	@Path("/deleteList")
+	@Produces(MediaType.APPLICATION_JSON)
+	public Response deleteMeetingsByIdList(final MultivaluedMap<String, String> formParams) throws JSONException {
+		final JSONObject json = new JSONObject();
+		// Checking JWT...
+		try {
+			AuthenticationService.checkToken(formParams);
+		} catch (final ServiceException e) {
+			json.put("status", "error");
+			json.put("message", e.getMessage());
+			return Response.status(Response.Status.FORBIDDEN).entity(json.toString()).build();
 		}
-		// Start date/time conversion...
-		Date start = null;
+		// Verifying given ids.
+		final List<Integer> meetingIds;
 		try {
-			start = DATE_FORMATTER.parse(startAsString);
-		} catch (final ParseException e) {
-			throw new ServiceException(
-					"La date de début fournie pour la réunion ne peut être convertie (format attendu : {"
-							.concat(Meeting.DATETIME_PATTERN).concat("} reçu : {").concat(startAsString).concat("})."));
+			meetingIds = MeetingsHelper.parseMeetingsIdsList(ServicesHelper.extractParam(formParams, MEETING_PARAM_IDS));
+		} catch (final ServiceException e) {
+			json.put("status", "error");
+			json.put("message", e.getMessage());
+			return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
 		}
-		// Duration conversion...
-		int duration = -1;
+		// Trying to delete...
+		final int deleted;
 		try {
-			duration = Integer.parseUnsignedInt(durationAsString);
-		} catch (final NumberFormatException e) {
-			throw new ServiceException(
-					"La durée fournie n'est pas un entier.");
+			final BookingLocks locks = BookingLocks.of(() -> new BookingLocks.Keys().meetings(meetingIds));
+			locks.lock();
+			try {
+				deleted = DaoFactory.getInstance().getMeetingDao().deleteMeetings(meetingIds);
+				for (final Integer meetingId : meetingIds) {
+					RoomBookingIndex.getInstance().removeMeeting(meetingId);
+					GuestScheduleIndex.getInstance().removeMeeting(meetingId);
+					AgendaIndex.getInstance().removeMeeting(meetingId);
+				}
+			} finally {
+				locks.unlock();
+			}
+		} catch (final DaoException e) {
+			json.put("status", "error");
+			json.put("message", e.getMessage());
+			return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(json.toString()).build();
 		}
-		final Meeting ret = new Meeting(title, start, duration);
-		// adding guests if provided.
-		if (guests != null && !guests.isBlank()) {
-			ret.setGuests(parseMeetingUsersList(guests));
+		json.put("status", "ok");
+		json.put("deleted", deleted);
+		return Response.ok().entity(json.toString()).build();
+	}
+
+	/**
+	 * Supprime en masse les réunions commençant avant la date donnée par le
+	 * paramètre {@value MeetingsHelper#MEETING_PARAM_BEFORE}, avec leurs invitations et leurs
+	 * réservations de salles.
+	 */
+	@DELETE
+	@Consumes("application/x-www-form-urlencoded")
+	@Path("/deleteBefore")
+	@Produces(MediaType.APPLICATION_JSON)
+	public Response deleteMeetingsBefore(final MultivaluedMap<String, String> formParams) throws JSONException {
+		final JSONObject json = new JSONObject();
+		// Checking JWT...
+		try {
+			AuthenticationService.checkToken(formParams);
+		} catch (final ServiceException e) {
+			json.put("status", "error");
+			json.put("message", e.getMessage());
+			return Response.status(Response.Status.FORBIDDEN).entity(json.toString()).build();
 		}
-		return ret;
+		// Verifying given date.
+		final String beforeAsString = ServicesHelper.extractParam(formParams, MEETING_PARAM_BEFORE);
+		if (beforeAsString == null) {
+			json.put("status", "error");
+			json.put("message", "Vous devez fournir une date au format " + Meeting.DATETIME_PATTERN + ".");
+			return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
+		}
+		final Date before;
+		try {
+			before = DateTimeHelper.parse(beforeAsString);
+		} catch (final DateTimeParseException e) {
+			json.put("status", "error");
+			json.put("message", "La date fournie ne peut être convertie (format attendu : {"
+					.concat(Meeting.DATETIME_PATTERN).concat("} reçu : {").concat(beforeAsString).concat("})."));
+			return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
+		}
+		// Trying to delete...
+		final List<Integer> deleted;
+		try {
+			// The deleted meetings are only known once deleted: every booking waits.
+			final BookingLocks locks = BookingLocks.all();
+			locks.lock();
+			try {
+				deleted = DaoFactory.getInstance().getMeetingDao().deleteMeetingsBefore(before);
+				for (final Integer meetingId : deleted) {
+					RoomBookingIndex.getInstance().removeMeeting(meetingId);
+					GuestScheduleIndex.getInstance().removeMeeting(meetingId);
+					AgendaIndex.getInstance().removeMeeting(meetingId);
+				}
+			} finally {
+				locks.unlock();
+			}
+		} catch (final DaoException e) {
+			json.put("status", "error");
+			json.put("message", e.getMessage());
+			return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(json.toString()).build();
+		}
+		json.put("status", "ok");
+		json.put("deleted", deleted.size());
+		return Response.ok().entity(json.toString()).build();
 	}
 
-	private List<User> parseMeetingUsersList(final String commaSeparatedUsersIds) throws ServiceException {
-		final StringTokenizer st = new StringTokenizer(commaSeparatedUsersIds, ",");
-		final List<Integer> ids = new ArrayList<Integer>(st.countTokens());
+	/**
+	 * Décale en masse de {@value MeetingsHelper#MEETING_PARAM_OFFSET} minutes (négatif pour les
+	 * avancer) les réunions dont les identifiants sont donnés par le paramètre
+	 * {@value MeetingsHelper#MEETING_PARAM_IDS}. Le décalage est refusé si l'une d'elles
+	 * chevaucherait alors, dans une de ses salles ou chez un de ses invités, une
+	 * réunion qui n'est pas décalée.
+	 */
+	@PUT
+	@Consumes("application/x-www-form-urlencoded")
+	@Path("/reschedule")
+	@Produces(MediaType.APPLICATION_JSON)
+	public Response rescheduleMeetings(final MultivaluedMap<String, String> formParams) throws JSONException {
+		final JSONObject json = new JSONObject();
+		// Checking JWT...
 		try {
-			while (st.hasMoreTokens()) {
-				ids.add(Integer.valueOf(st.nextToken()));
+			AuthenticationService.checkToken(formParams);
+		} catch (final ServiceException e) {
+			json.put("status", "error");
+			json.put("message", e.getMessage());
+			return Response.status(Response.Status.FORBIDDEN).entity(json.toString()).build();
+		}
+		// Verifying given parameters.
+		final List<Integer> meetingIds;
+		final int offset;
+		try {
+			meetingIds = MeetingsHelper.parseMeetingsIdsList(ServicesHelper.extractParam(formParams, MEETING_PARAM_IDS));
+			final String offsetAsString = ServicesHelper.extractParam(formParams, MEETING_PARAM_OFFSET);
+			if (offsetAsString == null) {
+				throw new ServiceException("Vous devez fournir le décalage des réunions, en minutes.");
 			}
+			offset = Integer.parseInt(offsetAsString);
 		} catch (final NumberFormatException e) {
-			throw new ServiceException("La liste des invités de la réunion n'est pas une suite d'identifiants.", e);
+			json.put("status", "error");
+			json.put("message", "Le décalage fourni n'est pas un entier.");
+			return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
+		} catch (final ServiceException e) {
+			json.put("status", "error");
+			json.put("message", e.getMessage());
+			return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
 		}
+		// Trying to reschedule...
+		final int updated;
 		try {
-			final List<User> ret = DaoFactory.getInstance().getUserDao().readUsersByIdList(ids);
-			if (ret.size() != ids.size()) {
-				throw new ServiceException("La liste des invités de la réunion contient au moins un utilisateur non trouvé.");
+			final BookingLocks locks = BookingLocks.of(() -> {
+				final BookingLocks.Keys keys = new BookingLocks.Keys().meetings(meetingIds);
+				for (final Integer meetingId : meetingIds) {
+					keys.rooms(RoomBookingIndex.getInstance().getOwners(meetingId));
+					keys.guests(GuestScheduleIndex.getInstance().getOwners(meetingId));
+				}
+				return keys;
+			});
+			locks.lock();
+			try {
+				final List<Meeting> meetings = DaoFactory.getInstance().getMeetingDao().readMeetingsByIdList(meetingIds);
+				final Set<Integer> moved = new HashSet<>(meetingIds);
+				if (meetings.size() != moved.size()) {
+					json.put("status", "error");
+					json.put("message", "La liste contient au moins une réunion non trouvée.");
+					return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
+				}
+				// Les réunions décalées ensemble ne peuvent se chevaucher entre elles :
+				// seuls les conflits avec les autres réunions comptent.
+				final List<Meeting> shifted = new ArrayList<>(meetings.size());
+				for (final Meeting meeting : meetings) {
+					final Meeting copy = new Meeting(meeting.getTitle(),
+							new Date(meeting.getStart().getTime() + offset * 60_000L), meeting.getDuration(),
+							meeting.getGuests());
+					copy.setId(meeting.getId());
+					for (final Interval conflict : RoomBookingIndex.getInstance().findConflicts(copy)) {
+						if (!moved.contains(conflict.getId())) {
+							json.put("status", "error");
+							json.put("message", "La réunion " + copy.getId() + " chevaucherait la réunion "
+									+ conflict.getId() + " dans une de ses salles.");
+							return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString())
+									.build();
+						}
+					}
+					final Map<User, List<Interval>> guestConflicts = GuestScheduleIndex.getInstance()
+							.findConflicts(copy);
+					guestConflicts.values().forEach(intervals -> intervals.removeIf(i -> moved.contains(i.getId())));
+					guestConflicts.values().removeIf(List::isEmpty);
+					if (!guestConflicts.isEmpty()) {
+						return guestConflictsResponse(guestConflicts);
+					}
+					shifted.add(copy);
+				}
+				updated = DaoFactory.getInstance().getMeetingDao().rescheduleMeetings(meetingIds, offset);
+				for (final Meeting meeting : shifted) {
+					RoomBookingIndex.getInstance().updateMeeting(meeting);
+					GuestScheduleIndex.getInstance().putMeeting(meeting);
+					AgendaIndex.getInstance().putMeeting(meeting);
+				}
+			} finally {
+				locks.unlock();
 			}
-			return ret;
 		} catch (final DaoException e) {
-			throw new ServiceException("Impossible de lire la liste des invités de la réunion.", e);
+			json.put("status", "error");
+			json.put("message", e.getMessage());
+			return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(json.toString()).build();
+		}
+		json.put("status", "ok");
+		json.put("updated", updated);
+		return Response.ok().entity(json.toString()).build();
+	}
+
+	/**
+	 * @return la réponse 412 listant, pour chaque invité déjà pris, les réunions
+	 *         qui chevauchent celle demandée.
+	 */
+	private Response guestConflictsResponse(final Map<User, List<Interval>> guestConflicts) throws JSONException {
+		return Response.status(Response.Status.PRECONDITION_FAILED).entity(guestConflictsJson(guestConflicts).toString())
+				.build();
+	}
+
+	/**
+	 * @return l'erreur listant, pour chaque invité déjà pris, les réunions qui
+	 *         chevauchent celle demandée.
+	 */
+	private JSONObject guestConflictsJson(final Map<User, List<Interval>> guestConflicts) throws JSONException {
+		final JSONObject json = new JSONObject();
+		final JSONArray conflicts = new JSONArray();
+		for (final Map.Entry<User, List<Interval>> entry : guestConflicts.entrySet()) {
+			final JSONArray meetingIds = new JSONArray();
+			for (final Interval interval : entry.getValue()) {
+				meetingIds.put(interval.getId());
+			}
+			final JSONObject conflict = new JSONObject();
+			conflict.put("guestId", entry.getKey().getId());
+			conflict.put("meetings", meetingIds);
+			conflicts.put(conflict);
+		}
+		final User first = guestConflicts.keySet().iterator().next();
+		json.put("status", "error");
+		json.put("message", first.getFirstName() + " " + first.getName()
+				+ " est déjà invité(e) à une réunion sur ce créneau.");
+		json.put("conflicts", conflicts);
+		return json;
+	}
+
+	/**
+	 * @param batchSchedules Créneaux, par invité, des réunions déjà retenues du
+	 *                       lot.
+	 * @return l'erreur indiquant la réunion précédente du lot à laquelle un des
+	 *         invités est déjà pris sur ce créneau, ou <code>null</code> s'il n'y
+	 *         en a pas.
+	 */
+	private JSONObject findBatchConflict(final Meeting meeting, final Interval interval,
+			final Map<Integer, List<Interval>> batchSchedules) throws JSONException {
+		for (final User guest : meeting.getGuests()) {
+			for (final Interval booked : batchSchedules.getOrDefault(guest.getId(), new ArrayList<>())) {
+				if (booked.overlaps(interval.getStart(), interval.getEnd())) {
+					final JSONObject json = new JSONObject();
+					json.put("status", "error");
+					json.put("message", guest.getFirstName() + " " + guest.getName()
+							+ " est déjà invité(e) à la réunion " + booked.getId() + " du lot sur ce créneau.");
+					json.put("batchIndex", booked.getId());
+					return json;
+				}
+			}
 		}
+		return null;
 	}
 }
@@ -0,0 +1,22 @@
+package edu.intech.meetings.services;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Response;
+
+import edu.intech.meetings.metrics.MetricsRegistry;
+
+@Path("/metrics")
+public class MetricsService {
+
+	public final static String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	@GET
+	@Produces(PROMETHEUS_CONTENT_TYPE)
+	public Response getMetrics() {
+		// No token needed: the metrics are scraped by the monitoring server.
+		return Response.ok().entity(MetricsRegistry.getInstance().writePrometheus()).build();
+	}
+
+}
@@ -1,12 +1,17 @@
 package edu.intech.meetings.services;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.intech.meetings.dao.DaoFactory;
 import edu.intech.meetings.exceptions.DaoException;
 import edu.intech.meetings.exceptions.ServiceException;
+import edu.intech.meetings.index.BookingLocks;
+import edu.intech.meetings.index.Interval;
+import edu.intech.meetings.index.RoomBookingIndex;
 import edu.intech.meetings.model.Meeting;
 import edu.intech.meetings.model.Room;
+import edu.intech.meetings.utils.DateTimeHelper;
+import edu.intech.meetings.utils.JsonHelper;
 import edu.intech.meetings.utils.ServicesHelper;
+import org.codehaus.jettison.json.JSONArray;
 import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
 
@@ -17,7 +22,9 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriBuilder;
 import java.io.IOException;
 import java.net.URI;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.StringTokenizer;
 
@@ -28,19 +35,34 @@ public class RoomsService {
     public final static String ROOM_PARAM_NAME = "name";
     public final static String ROOM_PARAM_CAPACITY = "capacity";
     public final static String ROOM_PARAM_MEETINGS = "meetings";
+    public final static String ROOM_PARAM_START = "start";
+    public final static String ROOM_PARAM_END = "end";
 
 
     @GET
     @Path("/all")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getAllRooms() throws JSONException, IOException {
+    public Response getAllRooms(@QueryParam(ServicesHelper.PAGE_PARAM_LIMIT) final String limitAsString,
+            @QueryParam(ServicesHelper.PAGE_PARAM_CURSOR) final String cursorAsString)
+            throws JSONException, IOException {
 
         // No token needed to read all rooms.
         try {
-            final ObjectMapper mapper = new ObjectMapper();
-            return Response.ok()
-                    .entity(mapper.writeValueAsString(DaoFactory.getInstance().getRoomDao().readAllRooms()))
-                    .build();
+            if (limitAsString == null && cursorAsString == null) {
+                // Sans paramètre de pagination, on renvoie la liste complète comme
+                // auparavant.
+                return Response.ok().entity(ServicesHelper.streamJsonArray(JsonHelper.writerFor(Room.class),
+                        DaoFactory.getInstance().getRoomDao().streamAllRooms())).build();
+            }
+            final int limit = ServicesHelper.parsePageLimit(limitAsString);
+            final int cursor = ServicesHelper.decodeCursor(cursorAsString);
+            return Response.ok().entity(ServicesHelper.writePage(JsonHelper.writerFor(Room.class),
+                    DaoFactory.getInstance().getRoomDao().readRoomsPage(cursor, limit))).build();
+        } catch (final ServiceException e) {
+            final JSONObject json = new JSONObject();
+            json.put("status", "error");
+            json.put("message", e.getMessage());
+            return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
         } catch (final DaoException e) {
             final JSONObject json = new JSONObject();
             json.put("status", "error");
@@ -50,6 +72,10 @@ public class RoomsService {
     }
 
 
+    public Response getAllRooms() throws JSONException, IOException {
+        return getAllRooms(null, null);
+    }
+
     @GET
     @Path("/getById")
     @Consumes("application/x-www-form-urlencoded")
@@ -87,11 +113,73 @@ public class RoomsService {
             json.put("message", "Room non trouvé");
             return Response.status(Response.Status.NOT_FOUND).entity(json.toString()).build();
         } else {
-            final ObjectMapper mapper = new ObjectMapper();
-            return Response.ok().entity(mapper.writeValueAsString(room)).build();
+            return Response.ok().entity(JsonHelper.writerFor(Room.class).writeValueAsString(room)).build();
         }
     }
 
+    @GET
+    @Path("/availability")
+    @Consumes("application/x-www-form-urlencoded")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getRoomAvailability(final MultivaluedMap<String, String> formParams)
+            throws JSONException {
+        // No token needed to read a room availability.
+
+        final JSONObject json = new JSONObject();
+        final String idAsString = ServicesHelper.extractParam(formParams, ROOM_PARAM_ID);
+        final String startAsString = ServicesHelper.extractParam(formParams, ROOM_PARAM_START);
+        final String endAsString = ServicesHelper.extractParam(formParams, ROOM_PARAM_END);
+        if (idAsString == null || startAsString == null || endAsString == null) {
+            json.put("status", "error");
+            json.put("message", "Vous devez fournir l'identifiant de la salle, le début et la fin de la période.");
+            return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
+        }
+        int roomId = -1;
+        try {
+            roomId = Integer.parseUnsignedInt(idAsString);
+        } catch (final NumberFormatException e) {
+            json.put("status", "error");
+            json.put("message", "L'identifiant fourni n'est pas un entier.");
+            return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
+        }
+        final Date start;
+        final Date end;
+        try {
+            start = DateTimeHelper.parse(startAsString);
+            end = DateTimeHelper.parse(endAsString);
+        } catch (final DateTimeParseException e) {
+            json.put("status", "error");
+            json.put("message", "Les dates doivent être au format " + Meeting.DATETIME_PATTERN + ".");
+            return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
+        }
+        if (!start.before(end)) {
+            json.put("status", "error");
+            json.put("message", "La fin de la période doit suivre son début.");
+            return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
+        }
+        final List<Interval> bookings;
+        try {
+            bookings = RoomBookingIndex.getInstance().findBookings(roomId, start.getTime(), end.getTime());
+        } catch (final DaoException e) {
+            json.put("status", "error");
+            json.put("message", e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(json.toString()).build();
+        }
+        if (bookings == null) {
+            json.put("status", "error");
+            json.put("message", "Room non trouvé");
+            return Response.status(Response.Status.NOT_FOUND).entity(json.toString()).build();
+        }
+        final JSONArray conflicts = new JSONArray();
+        for (final Interval booking : bookings) {
+            conflicts.put(booking.getId());
+        }
+        json.put("roomId", roomId);
+        json.put("free", bookings.isEmpty());
+        json.put("conflicts", conflicts);
+        return Response.ok().entity(json.toString()).build();
+    }
+
     @POST
     @Consumes("application/x-www-form-urlencoded")
     @Path("/add")
@@ -108,9 +196,11 @@ public class RoomsService {
             return Response.status(Response.Status.FORBIDDEN).entity(json.toString()).build();
         }
         Room room;
+        List<Integer> meetingIds;
         // Verifying given parameters
         try {
             room = checkGivenRoom(formParams);
+            meetingIds = parseRoomMeetingIds(ServicesHelper.extractParam(formParams, ROOM_PARAM_MEETINGS));
         } catch (final ServiceException e) {
             json.put("status", "error");
             json.put("message", e.getMessage());
@@ -118,16 +208,31 @@ public class RoomsService {
         }
         // Trying to create...
         try {
-            DaoFactory.getInstance().getRoomDao().createRoom(room, true);
+            final BookingLocks locks = BookingLocks.of(() -> new BookingLocks.Keys().meetings(meetingIds));
+            locks.lock();
+            try {
+                // The meetings are read and checked under the lock: a meeting moved by a
+                // concurrent update cannot make them overlap once the room is written.
+                try {
+                    room.setMeetings(readRoomMeetings(meetingIds));
+                } catch (final ServiceException e) {
+                    json.put("status", "error");
+                    json.put("message", e.getMessage());
+                    return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
+                }
+                DaoFactory.getInstance().getRoomDao().createRoom(room, true);
+                RoomBookingIndex.getInstance().putRoom(room);
+            } finally {
+                locks.unlock();
+            }
         } catch (final DaoException e) {
             json.put("status", "error");
             json.put("message", e.getMessage());
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(json.toString()).build();
         }
         // Success !
-        final ObjectMapper mapper = new ObjectMapper();
         final URI serieId = UriBuilder.fromResource(this.getClass()).build(this);
-        return Response.created(serieId).entity(mapper.writeValueAsString(room)).build();
+        return Response.created(serieId).entity(JsonHelper.writerFor(Room.class).writeValueAsString(room)).build();
     }
 
     @PUT
@@ -146,9 +251,11 @@ public class RoomsService {
             return Response.status(Response.Status.FORBIDDEN).entity(json.toString()).build();
         }
         Room room;
+        List<Integer> meetingIds;
         // Verifying given parameters
         try {
             room = checkGivenRoom(formParams);
+            meetingIds = parseRoomMeetingIds(ServicesHelper.extractParam(formParams, ROOM_PARAM_MEETINGS));
         } catch (final ServiceException e) {
             json.put("status", "error");
             json.put("message", e.getMessage());
@@ -185,7 +292,24 @@ public class RoomsService {
         // Trying to update...
         room.setId(roomId);
         try {
-            DaoFactory.getInstance().getRoomDao().updateRoom(room, true);
+            final BookingLocks locks = BookingLocks
+                    .of(() -> new BookingLocks.Keys().room(room.getId()).meetings(meetingIds));
+            locks.lock();
+            try {
+                // The meetings are read and checked under the lock: a meeting moved by a
+                // concurrent update cannot make them overlap once the room is written.
+                try {
+                    room.setMeetings(readRoomMeetings(meetingIds));
+                } catch (final ServiceException e) {
+                    json.put("status", "error");
+                    json.put("message", e.getMessage());
+                    return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
+                }
+                DaoFactory.getInstance().getRoomDao().updateRoom(room, true);
+                RoomBookingIndex.getInstance().putRoom(room);
+            } finally {
+                locks.unlock();
+            }
         } catch (final DaoException e) {
             json.put("status", "error");
             json.put("message", e.getMessage());
@@ -193,9 +317,8 @@ public class RoomsService {
         }
 
         // Success !
-        final ObjectMapper mapper = new ObjectMapper();
         final URI uri = UriBuilder.fromResource(this.getClass()).build(this);
-        return Response.ok(uri).entity(mapper.writeValueAsString(room)).build();
+        return Response.ok(uri).entity(JsonHelper.writerFor(Room.class).writeValueAsString(room)).build();
     }
 
     @DELETE
@@ -244,7 +367,14 @@ public class RoomsService {
 
         // Trying to delete...
         try {
-            DaoFactory.getInstance().getRoomDao().deleteRoom(room);
+            final BookingLocks locks = BookingLocks.of(() -> new BookingLocks.Keys().room(room.getId()));
+            locks.lock();
+            try {
+                DaoFactory.getInstance().getRoomDao().deleteRoom(room);
+                RoomBookingIndex.getInstance().removeRoom(roomId);
+            } finally {
+                locks.unlock();
+            }
         } catch (final DaoException e) {
             json.put("status", "error");
             json.put("message", e.getMessage());
@@ -252,15 +382,18 @@ public class RoomsService {
         }
 
         // Success !
-        final ObjectMapper mapper = new ObjectMapper();
         final URI uri = UriBuilder.fromResource(this.getClass()).build(this);
-        return Response.ok(uri).entity(mapper.writeValueAsString(room)).build();
+        return Response.ok(uri).entity(JsonHelper.writerFor(Room.class).writeValueAsString(room)).build();
     }
 
+    /**
+     * @return la salle décrite par les paramètres, sans ses réunions (voir
+     *         {@link #readRoomMeetings(List)}).
+     * @throws ServiceException si un paramètre est absent ou invalide.
+     */
     private Room checkGivenRoom(final MultivaluedMap<String, String> formParams) throws ServiceException {
         final String name = ServicesHelper.extractParam(formParams, ROOM_PARAM_NAME);
         final String capacity = ServicesHelper.extractParam(formParams, ROOM_PARAM_CAPACITY);
-        final String meetings = ServicesHelper.extractParam(formParams, ROOM_PARAM_MEETINGS);
         if (name == null) {
             throw new ServiceException(
                     "Vous devez fournir au moins le nom de la salle.");
@@ -269,31 +402,58 @@ public class RoomsService {
         if (capacity != null) {
             ret.setCapacity(Integer.parseInt(capacity));
         }
-        // adding guests if provided.
-        if (meetings != null && !meetings.isBlank()) {
-            ret.setMeetings(parseRoomMeetingList(meetings));
-        }
         return ret;
     }
 
-    private List<Meeting> parseRoomMeetingList(final String commaSeparatedUsersIds) throws ServiceException {
-        final StringTokenizer st = new StringTokenizer(commaSeparatedUsersIds, ",");
-        final List<Integer> ids = new ArrayList<Integer>(st.countTokens());
+    /**
+     * @return les identifiants des réunions de la salle (vide si aucune n'est
+     *         fournie).
+     * @throws ServiceException si la liste n'est pas une suite d'identifiants.
+     */
+    private static List<Integer> parseRoomMeetingIds(final String commaSeparatedMeetingsIds)
+            throws ServiceException {
+        final List<Integer> ret = new ArrayList<>();
+        if (commaSeparatedMeetingsIds == null || commaSeparatedMeetingsIds.isBlank()) {
+            return ret;
+        }
+        final StringTokenizer st = new StringTokenizer(commaSeparatedMeetingsIds, ",");
         try {
             while (st.hasMoreTokens()) {
-                ids.add(Integer.valueOf(st.nextToken()));
+                ret.add(Integer.valueOf(st.nextToken()));
             }
         } catch (final NumberFormatException e) {
             throw new ServiceException("La liste des réunions n'est pas une suite d'identifiants.", e);
         }
+        return ret;
+    }
+
+    /**
+     * Lit les réunions de la salle et vérifie qu'elles ne se chevauchent pas. À
+     * appeler sous les {@link BookingLocks} de ces réunions, juste avant
+     * l'écriture de la salle.
+     *
+     * @throws ServiceException si une réunion est inconnue ou si deux réunions
+     *                          se chevauchent.
+     */
+    private static List<Meeting> readRoomMeetings(final List<Integer> ids) throws ServiceException {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        final List<Meeting> ret;
         try {
-            final List<Meeting> ret = DaoFactory.getInstance().getMeetingDao().readMeetingsByIdList(ids);
-            if (ret.size() != ids.size()) {
-                throw new ServiceException("La liste des réunions contient au moins un utilisateur non trouvé.");
-            }
-            return ret;
+            ret = DaoFactory.getInstance().getMeetingDao().readMeetingsByIdList(ids);
         } catch (final DaoException e) {
             throw new ServiceException("Impossible de lire la liste des réunions.", e);
         }
+        if (ret.size() != ids.size()) {
+            throw new ServiceException("La liste des réunions contient au moins un utilisateur non trouvé.");
+        }
+        // Une salle ne peut accueillir deux réunions en même temps.
+        final List<Interval[]> conflicts = RoomBookingIndex.findConflicts(ret);
+        if (!conflicts.isEmpty()) {
+            throw new ServiceException("Les réunions " + conflicts.get(0)[0].getId() + " et "
+                    + conflicts.get(0)[1].getId() + " se chevauchent dans cette salle.");
+        }
+        return ret;
     }
 }
@@ -10,6 +10,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
@@ -20,13 +21,17 @@ import org.codehaus.jettison.json.JSONObject;
 
 import com.fasterxml.jackson.core.JsonGenerationException;
 import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import edu.intech.meetings.dao.DaoFactory;
 import edu.intech.meetings.exceptions.DaoException;
 import edu.intech.meetings.exceptions.ServiceException;
+import edu.intech.meetings.exceptions.ServiceOverloadedException;
+import edu.intech.meetings.index.AgendaIndex;
+import edu.intech.meetings.index.BookingLocks;
+import edu.intech.meetings.index.GuestScheduleIndex;
 import edu.intech.meetings.model.User;
-import edu.intech.meetings.utils.PasswordHelper;
+import edu.intech.meetings.utils.PasswordHashingExecutor;
+import edu.intech.meetings.utils.JsonHelper;
 import edu.intech.meetings.utils.ServicesHelper;
 
 @Path("/users")
@@ -41,13 +46,27 @@ public class UsersService {
 	@GET
 	@Path("/all")
 	@Produces(MediaType.APPLICATION_JSON)
-	public Response getAllUsers() throws JSONException, IOException {
+	public Response getAllUsers(@QueryParam(ServicesHelper.PAGE_PARAM_LIMIT) final String limitAsString,
+			@QueryParam(ServicesHelper.PAGE_PARAM_CURSOR) final String cursorAsString)
+			throws JSONException, IOException {
 		// No token needed to read all users.
-		final ObjectMapper mapper = new ObjectMapper();
 		try {
-			return Response.ok().entity(mapper.writeValueAsString(DaoFactory.getInstance().getUserDao().readAllUsers()))
-					.build();
+			if (limitAsString == null && cursorAsString == null) {
+				// Sans paramètre de pagination, on renvoie la liste complète comme
+				// auparavant.
+				return Response.ok()
+						.entity(JsonHelper.listWriterFor(User.class).writeValueAsString(DaoFactory.getInstance().getUserDao().readAllUsers())).build();
+			}
+			final int limit = ServicesHelper.parsePageLimit(limitAsString);
+			final int cursor = ServicesHelper.decodeCursor(cursorAsString);
+			return Response.ok().entity(ServicesHelper.writePage(JsonHelper.writerFor(User.class),
+					DaoFactory.getInstance().getUserDao().readUsersPage(cursor, limit))).build();
 
+		} catch (final ServiceException e) {
+			final JSONObject json = new JSONObject();
+			json.put("status", "error");
+			json.put("message", e.getMessage());
+			return Response.status(Response.Status.PRECONDITION_FAILED).entity(json.toString()).build();
 		} catch (final DaoException e) {
 			final JSONObject json = new JSONObject();
 			json.put("status", "error");
@@ -56,6 +75,10 @@ public class UsersService {
 		}
 	}
 
+	public Response getAllUsers() throws JSONException, IOException {
+		return getAllUsers(null, null);
+	}
+
 	@GET
 	@Path("/getById")
 	@Consumes("application/x-www-form-urlencoded")
@@ -65,7 +88,6 @@ public class UsersService {
 		// No token needed to read.
 
 		final JSONObject json = new JSONObject();
-		final ObjectMapper mapper = new ObjectMapper();
 
 		// verifying given id.
 		final String idAsString = ServicesHelper.extractParam(formParams, USER_PARAM_ID);
@@ -95,7 +117,7 @@ public class UsersService {
 			json.put("message", "Utilisateur non trouvé");
 			return Response.status(Response.Status.NOT_FOUND).entity(json.toString()).build();
 		} else {
-			return Response.ok().entity(mapper.writeValueAsString(user)).build();
+			return Response.ok().entity(JsonHelper.writerFor(User.class).writeValueAsString(user)).build();
 		}
 	}
 
@@ -118,6 +140,11 @@ public class UsersService {
 		// Verifying given parameters
 		try {
 			user = checkGivenUser(formParams);
+		} catch (final ServiceOverloadedException e) {
+			json.put("status", "error");
+			json.put("message", e.getMessage());
+			return Response.status(Response.Status.SERVICE_UNAVAILABLE).header("Retry-After", "1")
+					.entity(json.toString()).build();
 		} catch (final ServiceException e) {
 			json.put("status", "error");
 			json.put("message", e.getMessage());
@@ -132,9 +159,8 @@ public class UsersService {
 			return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(json.toString()).build();
 		}
 		// Success !
-		final ObjectMapper mapper = new ObjectMapper();
 		final URI serieId = UriBuilder.fromResource(this.getClass()).build(this);
-		return Response.created(serieId).entity(mapper.writeValueAsString(user)).build();
+		return Response.created(serieId).entity(JsonHelper.writerFor(User.class).writeValueAsString(user)).build();
 	}
 
 	@PUT
@@ -156,6 +182,11 @@ public class UsersService {
 		// Verifying given parameters
 		try {
 			user = checkGivenUser(formParams);
+		} catch (final ServiceOverloadedException e) {
+			json.put("status", "error");
+			json.put("message", e.getMessage());
+			return Response.status(Response.Status.SERVICE_UNAVAILABLE).header("Retry-After", "1")
+					.entity(json.toString()).build();
 		} catch (final ServiceException e) {
 			json.put("status", "error");
 			json.put("message", e.getMessage());
@@ -199,9 +230,8 @@ public class UsersService {
 		}
 
 		// Success !
-		final ObjectMapper mapper = new ObjectMapper();
 		final URI uri = UriBuilder.fromResource(this.getClass()).build(this);
-		return Response.ok(uri).entity(mapper.writeValueAsString(user)).build();
+		return Response.ok(uri).entity(JsonHelper.writerFor(User.class).writeValueAsString(user)).build();
 	}
 
 	@DELETE
@@ -250,7 +280,15 @@ public class UsersService {
 
 		// Trying to delete...
 		try {
-			DaoFactory.getInstance().getUserDao().deleteUser(user, true);
+			final BookingLocks locks = BookingLocks.of(() -> new BookingLocks.Keys().guest(user.getId()));
+			locks.lock();
+			try {
+				DaoFactory.getInstance().getUserDao().deleteUser(user, true);
+				GuestScheduleIndex.getInstance().removeOwner(user.getId());
+				AgendaIndex.getInstance().removeUser(user.getId());
+			} finally {
+				locks.unlock();
+			}
 		} catch (final DaoException e) {
 			json.put("status", "error");
 			json.put("message", e.getMessage());
@@ -258,9 +296,8 @@ public class UsersService {
 		}
 
 		// Success !
-		final ObjectMapper mapper = new ObjectMapper();
 		final URI uri = UriBuilder.fromResource(this.getClass()).build(this);
-		return Response.ok(uri).entity(mapper.writeValueAsString(user)).build();
+		return Response.ok(uri).entity(JsonHelper.writerFor(User.class).writeValueAsString(user)).build();
 	}
 
 	private User checkGivenUser(final MultivaluedMap<String, String> formParams) throws ServiceException {
@@ -274,6 +311,7 @@ public class UsersService {
 		if (eMail != null && !ServicesHelper.validateEmail(eMail)) {
 			throw new ServiceException("Vous devez fournir une adresse email valide.");
 		}
-		return new User(name, PasswordHelper.generateSecurePassword(password), firstName, eMail);
+		return new User(name, PasswordHashingExecutor.getInstance().generateSecurePassword(password), firstName,
+				eMail);
 	}
 }
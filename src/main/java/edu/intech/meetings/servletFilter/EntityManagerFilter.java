@@ -0,0 +1,36 @@
+package edu.intech.meetings.servletFilter;
+
+import java.io.IOException;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+import edu.intech.meetings.dao.DaoFactory;
+import edu.intech.meetings.exceptions.DaoException;
+
+/**
+ * Délimite la durée de vie de l'EntityManager à celle d'une requête : les DAO
+ * obtiennent celui du thread courant via {@link DaoFactory#getEntityManager()}
+ * et ce filtre le ferme une fois la réponse écrite. Chaque requête dispose
+ * ainsi de son propre contexte de persistance et de sa propre transaction.
+ */
+public class EntityManagerFilter implements Filter {
+
+	@Override
+	public void doFilter(final ServletRequest request, final ServletResponse response, final FilterChain chain)
+			throws IOException, ServletException {
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			try {
+				DaoFactory.getInstance().releaseEntityManager();
+			} catch (final DaoException e) {
+				throw new ServletException("Impossible de libérer l'EntityManager.", e);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,52 @@
+package edu.intech.meetings.servletFilter;
+
+import java.io.IOException;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import edu.intech.meetings.metrics.MetricsRegistry;
+
+/**
+ * Mesure chaque requête de l'API : point d'entrée, code de statut de la
+ * réponse et durée de traitement, écriture de la réponse comprise. Les mesures
+ * sont exportées par le service <code>/api/metrics</code>.
+ */
+public class MetricsFilter implements Filter {
+
+	@Override
+	public void doFilter(final ServletRequest request, final ServletResponse response, final FilterChain chain)
+			throws IOException, ServletException {
+		final long start = System.nanoTime();
+		int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+		try {
+			chain.doFilter(request, response);
+			status = ((HttpServletResponse) response).getStatus();
+		} finally {
+			MetricsRegistry.getInstance().record(endpoint((HttpServletRequest) request), status,
+					System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * @return le chemin de la requête relatif à <code>/api</code>, sans barre
+	 *         oblique finale (<code>/authentication/login/</code> et
+	 *         <code>/authentication/login</code> sont le même point d'entrée).
+	 */
+	static String endpoint(final HttpServletRequest request) {
+		String ret = request.getPathInfo();
+		if (ret == null || ret.isEmpty()) {
+			return "/";
+		}
+		while (ret.length() > 1 && ret.endsWith("/")) {
+			ret = ret.substring(0, ret.length() - 1);
+		}
+		return ret;
+	}
+
+}
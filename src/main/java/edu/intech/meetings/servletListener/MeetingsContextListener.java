@@ -1,5 +1,10 @@
 package edu.intech.meetings.servletListener;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
@@ -7,20 +12,114 @@ import javax.servlet.ServletContextEvent;
 import javax.servlet.ServletContextListener;
 import javax.servlet.annotation.WebListener;
 
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+
+import edu.intech.meetings.dao.DaoFactory;
+import edu.intech.meetings.dao.EmbeddedDatabase;
+import edu.intech.meetings.dao.cache.SharedCache;
+import edu.intech.meetings.dao.pool.ConnectionPool;
+import edu.intech.meetings.dao.pool.PoolStatistics;
+import edu.intech.meetings.dao.profiling.QueryProfiler;
+import edu.intech.meetings.exceptions.DaoException;
+import edu.intech.meetings.index.AgendaIndex;
+import edu.intech.meetings.index.GuestScheduleIndex;
+import edu.intech.meetings.index.RoomBookingIndex;
+import edu.intech.meetings.utils.ConfigHelper;
+import edu.intech.meetings.utils.PasswordHashingExecutor;
+
 @WebListener
 public class MeetingsContextListener implements ServletContextListener {
 
+	private static final Logger LOGGER = Logger.getLogger(MeetingsContextListener.class.getName());
+
 	private static EntityManagerFactory emf;
+	private static ConnectionPool pool;
+	private static QueryProfiler queryProfiler;
 
 	@Override
 	public void contextInitialized(final ServletContextEvent sce) {
-		emf = Persistence.createEntityManagerFactory("EvalS5");
+		// Les DAO en mémoire n'utilisent ni la base ni JPA.
+		if (!DaoFactory.isMemoryEnabled()) {
+			createEntityManagerFactory();
+		}
+		// Construction des index des emplois du temps dès le démarrage. En cas
+		// d'échec (base indisponible), ils seront construits à la première requête
+		// qui en a besoin.
+		try {
+			RoomBookingIndex.getInstance().reload();
+			GuestScheduleIndex.getInstance().reload();
+			AgendaIndex.getInstance().reload();
+		} catch (final DaoException e) {
+			LOGGER.log(Level.WARNING, "Index des emplois du temps non construits : " + e.getMessage(), e);
+		} finally {
+			try {
+				DaoFactory.getInstance().releaseEntityManager();
+			} catch (final DaoException e) {
+				// Rien à libérer.
+			}
+		}
 	}
 
 	@Override
 	public void contextDestroyed(final ServletContextEvent sce) {
+		queryProfiler = null;
 		if (emf != null) {
 			emf.close();
+			emf = null;
+		}
+		if (pool != null) {
+			pool.close();
+			pool = null;
+		}
+		if (EmbeddedDatabase.isEnabled() && !DaoFactory.isMemoryEnabled()) {
+			try {
+				EmbeddedDatabase.drop();
+			} catch (final DaoException e) {
+				LOGGER.log(Level.WARNING, "Base embarquée non supprimée : " + e.getMessage(), e);
+			}
+		}
+		PasswordHashingExecutor.shutdown();
+	}
+
+	/**
+	 * Crée l'EntityManagerFactory, sur la base embarquée ou MySQL, avec ou sans
+	 * pool de connexions selon la configuration.
+	 */
+	private static void createEntityManagerFactory() {
+		final Map<String, Object> properties = new HashMap<>();
+		if (EmbeddedDatabase.isEnabled()) {
+			try {
+				EmbeddedDatabase.create();
+			} catch (final DaoException e) {
+				throw new IllegalStateException(e.getMessage(), e);
+			}
+			properties.putAll(EmbeddedDatabase.getPersistenceProperties());
+		}
+		if (ConnectionPool.isEnabled()) {
+			pool = EmbeddedDatabase.isEnabled()
+					? new ConnectionPool(EmbeddedDatabase.DRIVER, EmbeddedDatabase.getUrl(), EmbeddedDatabase.USER,
+							EmbeddedDatabase.PASSWORD)
+					: new ConnectionPool();
+			properties.put(PersistenceUnitProperties.NON_JTA_DATASOURCE, pool.getDataSource());
+		}
+		// Niveau de journalisation d'EclipseLink (OFF en production : les requêtes
+		// lentes sont journalisées par le QueryProfiler).
+		final String loggingLevel = ConfigHelper.getString("meetings.jpa.loggingLevel", null);
+		if (loggingLevel != null) {
+			properties.put(PersistenceUnitProperties.LOGGING_LEVEL, loggingLevel);
+		}
+		// Écritures envoyées par lots JDBC au commit (création de réunions par lot).
+		final String batchWriting = ConfigHelper.getString("meetings.jpa.batchWriting", "JDBC");
+		properties.put(PersistenceUnitProperties.BATCH_WRITING, batchWriting);
+		properties.put(PersistenceUnitProperties.BATCH_WRITING_SIZE,
+				Integer.toString(ConfigHelper.getInt("meetings.jpa.batchSize", 100)));
+		// Cache partagé : type et taille par entité, puis durée de vie une fois la
+		// session créée.
+		properties.putAll(SharedCache.getPersistenceProperties());
+		emf = Persistence.createEntityManagerFactory("EvalS5", properties);
+		SharedCache.install(emf);
+		if (QueryProfiler.isEnabled()) {
+			queryProfiler = QueryProfiler.install(emf);
 		}
 	}
 
@@ -31,4 +130,21 @@ public class MeetingsContextListener implements ServletContextListener {
 		return emf.createEntityManager();
 	}
 
+	/**
+	 * @return les statistiques du pool de connexions, ou <code>null</code> si
+	 *         les connexions sont gérées par EclipseLink (mode
+	 *         {@value ConnectionPool#MODE_INTERNAL}).
+	 */
+	public static PoolStatistics getPoolStatistics() {
+		return pool == null ? null : pool.getStatistics();
+	}
+
+	/**
+	 * @return le profileur des requêtes des DAO, ou <code>null</code> s'il est
+	 *         désactivé (<code>meetings.dao.profiling=false</code>).
+	 */
+	public static QueryProfiler getQueryProfiler() {
+		return queryProfiler;
+	}
+
 }
@@ -0,0 +1,311 @@
+package edu.intech.meetings.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache borné dont les entrées expirent après une durée fixe, avec une
+ * politique d'éviction de type W-TinyLFU : les nouvelles entrées passent par
+ * une petite fenêtre LRU (1 % de la taille) ; à sa sortie, une entrée n'entre
+ * dans la zone principale que si elle a été demandée plus souvent que l'entrée
+ * qu'elle remplacerait. Les fréquences sont estimées par un
+ * {@link FrequencySketch}. Un parcours de clés lues une seule fois ne chasse
+ * donc pas les entrées souvent lues.<br>
+ * <br>
+ * Les lectures ne prennent aucun verrou : les valeurs sont dans une table
+ * concurrente, et les accès sont notés dans un tampon que le premier lecteur
+ * trouvant la politique libre applique par lots (les lectures en trop sont
+ * perdues). Seules les écritures verrouillent la politique.<br>
+ * <br>
+ * Une taille maximale de 0 désactive le cache.
+ *
+ * @param <K> Type des clés.
+ * @param <V> Type des valeurs.
+ */
+public class AdmissionCache<K, V> {
+
+	private static final class Entry<V> {
+		final V value;
+		final long expiresAt;
+
+		Entry(final V value, final long expiresAt) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	/**
+	 * Estimation des fréquences d'accès des clés (count-min sketch à 4 lignes,
+	 * compteurs plafonnés à 15). Les compteurs sont divisés par deux tous les
+	 * <code>10 × taille du cache</code> accès : les fréquences anciennes
+	 * s'effacent.
+	 */
+	static final class FrequencySketch {
+
+		private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL,
+				0xcbf29ce484222325L };
+		private static final int MAX_COUNT = 15;
+
+		private final byte[] table;
+		private final int mask;
+		private final int sampleSize;
+		private int additions;
+
+		FrequencySketch(final int maxSize) {
+			final int width = Integer.highestOneBit(Math.max(maxSize, 16) * 8 - 1) << 1;
+			this.table = new byte[width];
+			this.mask = width - 1;
+			this.sampleSize = Math.max(maxSize, 16) * 10;
+		}
+
+		void increment(final Object key) {
+			final int hash = spread(key.hashCode());
+			boolean added = false;
+			for (int i = 0; i < SEEDS.length; i++) {
+				final int index = indexOf(hash, i);
+				if (this.table[index] < MAX_COUNT) {
+					this.table[index]++;
+					added = true;
+				}
+			}
+			if (added && ++this.additions >= this.sampleSize) {
+				reset();
+			}
+		}
+
+		int frequency(final Object key) {
+			final int hash = spread(key.hashCode());
+			int ret = MAX_COUNT;
+			for (int i = 0; i < SEEDS.length; i++) {
+				ret = Math.min(ret, this.table[indexOf(hash, i)]);
+			}
+			return ret;
+		}
+
+		private void reset() {
+			for (int i = 0; i < this.table.length; i++) {
+				this.table[i] >>>= 1;
+			}
+			this.additions /= 2;
+		}
+
+		private int indexOf(final int hash, final int i) {
+			long h = (hash + SEEDS[i]) * SEEDS[i];
+			h += h >>> 32;
+			return (int) h & this.mask;
+		}
+
+		private static int spread(final int hash) {
+			final int h = hash * 0x9e3779b9;
+			return h ^ (h >>> 16);
+		}
+	}
+
+	/**
+	 * Nombre maximal de lectures en attente d'être appliquées à la politique :
+	 * au-delà, les lectures ne sont pas enregistrées (la politique n'a besoin que
+	 * d'un échantillon des accès).
+	 */
+	private static final int READ_BUFFER_SIZE = 128;
+
+	/**
+	 * Nombre de lectures en attente à partir duquel un lecteur tente de les
+	 * appliquer.
+	 */
+	private static final int READ_BUFFER_DRAIN = 32;
+
+	private final int windowSize;
+	private final int mainSize;
+	private final long ttlMs;
+	private final ConcurrentHashMap<K, Entry<V>> data = new ConcurrentHashMap<>();
+
+	/**
+	 * Politique d'éviction, modifiée sous {@link #evictionLock} : ordre d'accès
+	 * des clés de la fenêtre et de la zone principale, et leurs fréquences.
+	 */
+	private final ReentrantLock evictionLock = new ReentrantLock();
+	private final FrequencySketch sketch;
+	private final LinkedHashMap<K, Boolean> window = new LinkedHashMap<>(16, 0.75f, true);
+	private final LinkedHashMap<K, Boolean> main = new LinkedHashMap<>(16, 0.75f, true);
+	private final Queue<K> readBuffer = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger pendingReads = new AtomicInteger();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * @param maxSize Nombre maximal d'entrées (0 pour désactiver le cache).
+	 * @param ttlMs   Durée de vie des entrées, en millisecondes.
+	 */
+	public AdmissionCache(final int maxSize, final long ttlMs) {
+		final int size = Math.max(maxSize, 0);
+		this.windowSize = size == 0 ? 0 : Math.max(1, size / 100);
+		this.mainSize = size - this.windowSize;
+		this.ttlMs = ttlMs;
+		this.sketch = new FrequencySketch(size);
+	}
+
+	/**
+	 * Lit la valeur sans verrou ; l'accès est noté dans un tampon, appliqué à
+	 * la politique d'éviction par lots (voir {@link #drainReads()}).
+	 *
+	 * @return la valeur associée à la clé si elle est en cache et n'a pas expiré,
+	 *         <code>null</code> sinon.
+	 */
+	public V get(final K key) {
+		if (this.windowSize == 0) {
+			this.misses.increment();
+			return null;
+		}
+		recordRead(key);
+		Entry<V> entry = this.data.get(key);
+		if (entry != null && entry.expiresAt <= System.currentTimeMillis()) {
+			this.data.remove(key, entry);
+			entry = null;
+		}
+		if (entry == null) {
+			this.misses.increment();
+			return null;
+		}
+		this.hits.increment();
+		return entry.value;
+	}
+
+	/**
+	 * Mémorise une valeur lue, pour la durée de vie du cache.
+	 */
+	public void put(final K key, final V value) {
+		if (this.windowSize == 0) {
+			return;
+		}
+		final Entry<V> entry = new Entry<>(value, System.currentTimeMillis() + this.ttlMs);
+		this.evictionLock.lock();
+		try {
+			drainReads();
+			this.data.put(key, entry);
+			if (this.main.containsKey(key)) {
+				this.main.get(key);
+				return;
+			}
+			this.window.put(key, Boolean.TRUE);
+			if (this.window.size() > this.windowSize) {
+				final Iterator<K> eldest = this.window.keySet().iterator();
+				final K candidate = eldest.next();
+				eldest.remove();
+				admit(candidate);
+			}
+		} finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Fait passer une clé sortie de la fenêtre dans la zone principale si elle y
+	 * a sa place, ou si elle est plus demandée que la clé la moins récemment
+	 * utilisée de la zone principale, qui est alors retirée.
+	 */
+	private void admit(final K key) {
+		if (this.main.size() < this.mainSize) {
+			this.main.put(key, Boolean.TRUE);
+			return;
+		}
+		this.evictions.increment();
+		if (this.main.isEmpty()) {
+			this.data.remove(key);
+			return;
+		}
+		final Iterator<K> eldest = this.main.keySet().iterator();
+		final K victim = eldest.next();
+		if (this.sketch.frequency(key) > this.sketch.frequency(victim)) {
+			eldest.remove();
+			this.data.remove(victim);
+			this.main.put(key, Boolean.TRUE);
+		} else {
+			this.data.remove(key);
+		}
+	}
+
+	/**
+	 * Note une lecture dans le tampon et l'applique si assez de lectures sont en
+	 * attente et que la politique n'est pas déjà verrouillée. Un tampon plein
+	 * perd la lecture plutôt que de bloquer le lecteur.
+	 */
+	private void recordRead(final K key) {
+		final int pending = this.pendingReads.incrementAndGet();
+		if (pending > READ_BUFFER_SIZE) {
+			this.pendingReads.decrementAndGet();
+		} else {
+			this.readBuffer.offer(key);
+		}
+		if (pending >= READ_BUFFER_DRAIN && this.evictionLock.tryLock()) {
+			try {
+				drainReads();
+			} finally {
+				this.evictionLock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Applique les lectures en attente : fréquence de chaque clé et ordre
+	 * d'accès. Une clé retirée entre-temps du cache (expirée) est retirée de la
+	 * politique. À appeler sous {@link #evictionLock}.
+	 */
+	private void drainReads() {
+		K key;
+		while ((key = this.readBuffer.poll()) != null) {
+			this.pendingReads.decrementAndGet();
+			this.sketch.increment(key);
+			if (this.data.containsKey(key)) {
+				if (this.window.get(key) == null) {
+					this.main.get(key);
+				}
+			} else {
+				this.window.remove(key);
+				this.main.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Retire la clé du cache.
+	 */
+	public void invalidate(final K key) {
+		this.evictionLock.lock();
+		try {
+			this.data.remove(key);
+			this.window.remove(key);
+			this.main.remove(key);
+		} finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Vide le cache.
+	 */
+	public void clear() {
+		this.evictionLock.lock();
+		try {
+			this.data.clear();
+			this.window.clear();
+			this.main.clear();
+		} finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * @return les statistiques du cache depuis sa création.
+	 */
+	public CacheStatistics getStatistics() {
+		return new CacheStatistics(this.data.size(), this.hits.sum(), this.misses.sum(), this.evictions.sum());
+	}
+}
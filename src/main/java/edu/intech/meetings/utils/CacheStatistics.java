@@ -0,0 +1,64 @@
+package edu.intech.meetings.utils;
+
+/**
+ * Photographie des statistiques d'un cache à un instant donné.
+ */
+public class CacheStatistics {
+
+	private final int size;
+	private final long hits;
+	private final long misses;
+	private final long evictions;
+
+	public CacheStatistics(final int size, final long hits, final long misses, final long evictions) {
+		this.size = size;
+		this.hits = hits;
+		this.misses = misses;
+		this.evictions = evictions;
+	}
+
+	/**
+	 * @return le nombre d'entrées actuellement en cache.
+	 */
+	public int getSize() {
+		return this.size;
+	}
+
+	/**
+	 * @return le nombre de lectures servies par le cache depuis le démarrage.
+	 */
+	public long getHits() {
+		return this.hits;
+	}
+
+	/**
+	 * @return le nombre de lectures non trouvées (ou expirées) dans le cache
+	 *         depuis le démarrage.
+	 */
+	public long getMisses() {
+		return this.misses;
+	}
+
+	/**
+	 * @return le nombre d'entrées retirées pour respecter la taille maximale du
+	 *         cache.
+	 */
+	public long getEvictions() {
+		return this.evictions;
+	}
+
+	/**
+	 * @return la part des lectures servies par le cache, entre 0 et 1 (0 s'il n'y
+	 *         a eu aucune lecture).
+	 */
+	public double getHitRatio() {
+		final long total = this.hits + this.misses;
+		return total == 0 ? 0 : (double) this.hits / total;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d entrée(s), %d succès, %d échec(s), %d éviction(s)", this.size, this.hits,
+				this.misses, this.evictions);
+	}
+}
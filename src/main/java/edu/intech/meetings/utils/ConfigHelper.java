@@ -0,0 +1,69 @@
+package edu.intech.meetings.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Accès à la configuration de l'application. Les valeurs sont lues dans le
+ * fichier {@value #CONFIG_FILE} du classpath et peuvent être surchargées par
+ * une propriété système de même nom (<code>-Dclé=valeur</code>).
+ */
+public class ConfigHelper {
+
+	public final static String CONFIG_FILE = "meetings.properties";
+
+	private static final Properties PROPERTIES = load();
+
+	private static Properties load() {
+		final Properties ret = new Properties();
+		try (InputStream in = ConfigHelper.class.getClassLoader().getResourceAsStream(CONFIG_FILE)) {
+			if (in != null) {
+				ret.load(in);
+			}
+		} catch (final IOException e) {
+			throw new IllegalStateException("Impossible de lire le fichier de configuration " + CONFIG_FILE, e);
+		}
+		return ret;
+	}
+
+	/**
+	 * @param key          Clé de la propriété.
+	 * @param defaultValue Valeur renvoyée si la propriété n'est pas définie.
+	 * @return la valeur de la propriété ou <code>defaultValue</code> si elle est
+	 *         absente ou vide.
+	 */
+	public static String getString(final String key, final String defaultValue) {
+		String value = System.getProperty(key);
+		if (value == null) {
+			value = PROPERTIES.getProperty(key);
+		}
+		if (value == null || value.isBlank()) {
+			return defaultValue;
+		}
+		return value.trim();
+	}
+
+	public static int getInt(final String key, final int defaultValue) {
+		final String value = getString(key, null);
+		try {
+			return value == null ? defaultValue : Integer.parseInt(value);
+		} catch (final NumberFormatException e) {
+			throw new IllegalStateException("La propriété " + key + " doit être un entier (reçu : " + value + ").", e);
+		}
+	}
+
+	public static long getLong(final String key, final long defaultValue) {
+		final String value = getString(key, null);
+		try {
+			return value == null ? defaultValue : Long.parseLong(value);
+		} catch (final NumberFormatException e) {
+			throw new IllegalStateException("La propriété " + key + " doit être un entier (reçu : " + value + ").", e);
+		}
+	}
+
+	public static boolean getBoolean(final String key, final boolean defaultValue) {
+		final String value = getString(key, null);
+		return value == null ? defaultValue : Boolean.parseBoolean(value);
+	}
+}
@@ -1,11 +1,31 @@
 package edu.intech.meetings.utils;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 import javax.persistence.EntityManager;
 import javax.persistence.EntityTransaction;
 import javax.persistence.PersistenceException;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+
+import org.eclipse.persistence.config.HintValues;
+import org.eclipse.persistence.config.QueryHints;
+import org.eclipse.persistence.jpa.JpaQuery;
+import org.eclipse.persistence.queries.CursoredStream;
 
 public class DaoHelper {
 
+	/**
+	 * Nombre d'objets lus entre deux libérations des objets déjà parcourus du
+	 * curseur.
+	 */
+	private final static int STREAM_RELEASE_INTERVAL = 100;
+
 	public static void persistObject(final Object obj, final EntityManager em, final boolean useTransaction)
 			throws PersistenceException {
 		final EntityTransaction trans = em.getTransaction();
@@ -63,4 +83,107 @@ public class DaoHelper {
 		}
 	}
 
+	/**
+	 * Exécute une instruction SQL de modification (INSERT, UPDATE, DELETE) dans la
+	 * transaction en cours. Elle ne passe pas par le contexte de persistance : les
+	 * entités concernées doivent ensuite être retirées des caches.
+	 *
+	 * @param em     EntityManager dont la transaction est ouverte.
+	 * @param name   Nom de la requête dans les mesures des DAO.
+	 * @param sql    Instruction SQL, dont les paramètres sont notés
+	 *               <code>?1</code>, <code>?2</code>...
+	 * @param params Valeurs des paramètres, dans l'ordre.
+	 * @return le nombre de lignes modifiées.
+	 * @throws PersistenceException en cas d'erreur SQL.
+	 */
+	public static int executeNativeUpdate(final EntityManager em, final String name, final String sql,
+			final Object... params) throws PersistenceException {
+		final Query query = em.createNativeQuery(sql);
+		query.unwrap(JpaQuery.class).getDatabaseQuery().setName(name);
+		for (int i = 0; i < params.length; i++) {
+			query.setParameter(i + 1, params[i]);
+		}
+		return query.executeUpdate();
+	}
+
+	/**
+	 * @return la liste de paramètres <code>(?first, ?first+1, ...)</code> d'une
+	 *         clause IN de <code>count</code> valeurs.
+	 */
+	public static String inParameters(final int first, final int count) {
+		final StringBuilder ret = new StringBuilder("(");
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				ret.append(", ");
+			}
+			ret.append('?').append(first + i);
+		}
+		return ret.append(')').toString();
+	}
+
+	/**
+	 * @return le nombre de lignes lues à chaque aller-retour avec la base lors
+	 *         d'une lecture sur curseur (<code>meetings.stream.fetchSize</code>).
+	 */
+	public static int getStreamFetchSize() {
+		return ConfigHelper.getInt("meetings.stream.fetchSize", 100);
+	}
+
+	/**
+	 * Exécute la requête sur un curseur base de données et renvoie ses résultats
+	 * au fil de la lecture, sans construire la liste complète. Les objets lus ne
+	 * sont pas enregistrés dans l'EntityManager (requête en lecture seule) et
+	 * ceux déjà parcourus sont libérés régulièrement : la mémoire utilisée ne
+	 * dépend pas du nombre de lignes.<br>
+	 * <br>
+	 * Le curseur est ouvert immédiatement : une erreur de la base est levée ici,
+	 * avant que le service ne commence sa réponse. <b>Le flux renvoyé doit être
+	 * fermé</b> (try-with-resources) pour libérer le curseur, et parcouru avant
+	 * la libération de l'EntityManager. Les DAO le confient aussi à
+	 * {@link edu.intech.meetings.dao.DaoFactory#closeOnRelease(Stream)} : un
+	 * flux jamais parcouru (corps de réponse non écrit) est fermé en fin de
+	 * requête.
+	 *
+	 * @param query     Requête à exécuter.
+	 * @param fetchSize Nombre de lignes demandées au driver JDBC à chaque
+	 *                  aller-retour.
+	 * @return le flux des résultats de la requête.
+	 * @throws PersistenceException en cas d'erreur à l'ouverture du curseur.
+	 */
+	public static <T> Stream<T> streamQuery(final TypedQuery<T> query, final int fetchSize)
+			throws PersistenceException {
+		query.setHint(QueryHints.CURSOR, HintValues.TRUE);
+		query.setHint(QueryHints.CURSOR_PAGE_SIZE, fetchSize);
+		query.setHint(QueryHints.JDBC_FETCH_SIZE, fetchSize);
+		query.setHint(QueryHints.READ_ONLY, HintValues.TRUE);
+		final CursoredStream cursor = (CursoredStream) query.getSingleResult();
+		final Iterator<T> iterator = iterate(cursor);
+		return StreamSupport
+				.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(cursor::close);
+	}
+
+	private static <T> Iterator<T> iterate(final CursoredStream cursor) {
+		return new Iterator<T>() {
+			private int read = 0;
+
+			@Override
+			public boolean hasNext() {
+				return cursor.hasNext();
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public T next() {
+				if (!cursor.hasNext()) {
+					throw new NoSuchElementException();
+				}
+				if (++this.read % STREAM_RELEASE_INTERVAL == 0) {
+					cursor.releasePrevious();
+				}
+				return (T) cursor.next();
+			}
+		};
+	}
+
 }
@@ -0,0 +1,183 @@
+package edu.intech.meetings.utils;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.time.format.SignStyle;
+import java.time.temporal.ChronoField;
+import java.util.Date;
+import java.util.Locale;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import edu.intech.meetings.model.Meeting;
+
+/**
+ * Lecture et écriture des dates/heures au format {@value Meeting#DATETIME_PATTERN}
+ * (services et JSON). Contrairement à un {@link java.text.SimpleDateFormat}
+ * partagé, toutes les méthodes sont sans état et peuvent être appelées en même
+ * temps par tous les threads, sans verrou.<br>
+ * <br>
+ * La lecture est stricte : une date incohérente comme "33/22/2020 40:73" ou
+ * "31/02/2021 10:00" est refusée, de même qu'un texte suivant la date. Les
+ * dates sont interprétées dans le fuseau horaire du serveur.
+ */
+public class DateTimeHelper {
+
+	/**
+	 * Formateur équivalent à {@value Meeting#DATETIME_PATTERN}. Les jours, mois,
+	 * heures et minutes peuvent comporter un seul chiffre en lecture, et les
+	 * années plus de quatre chiffres (en lecture comme en écriture), comme avec
+	 * l'ancien {@link java.text.SimpleDateFormat}.
+	 */
+	public static final DateTimeFormatter FORMATTER = new DateTimeFormatterBuilder()
+			.appendValue(ChronoField.DAY_OF_MONTH, 1, 2, SignStyle.NOT_NEGATIVE).appendLiteral('/')
+			.appendValue(ChronoField.MONTH_OF_YEAR, 1, 2, SignStyle.NOT_NEGATIVE).appendLiteral('/')
+			.appendValue(ChronoField.YEAR, 4, 9, SignStyle.NORMAL).appendLiteral(' ')
+			.appendValue(ChronoField.HOUR_OF_DAY, 1, 2, SignStyle.NOT_NEGATIVE).appendLiteral(':')
+			.appendValue(ChronoField.MINUTE_OF_HOUR, 1, 2, SignStyle.NOT_NEGATIVE)
+			.toFormatter(Locale.FRANCE).withResolverStyle(ResolverStyle.STRICT);
+
+	private static final ZoneId ZONE = ZoneId.systemDefault();
+
+	/**
+	 * Convertit une date/heure reçue.
+	 *
+	 * @param text Date/heure au format {@value Meeting#DATETIME_PATTERN}.
+	 * @return la date correspondante.
+	 * @throws DateTimeParseException si le texte n'est pas une date/heure valide
+	 *                                à ce format.
+	 */
+	public static Date parse(final String text) throws DateTimeParseException {
+		LocalDateTime ret = parseCanonical(text);
+		if (ret == null) {
+			ret = LocalDateTime.parse(text, FORMATTER);
+		}
+		return Date.from(ret.atZone(ZONE).toInstant());
+	}
+
+	/**
+	 * @param date Date à écrire.
+	 * @return la date au format {@value Meeting#DATETIME_PATTERN}.
+	 */
+	public static String format(final Date date) {
+		final LocalDateTime time = LocalDateTime.ofInstant(date.toInstant(), ZONE);
+		final int year = time.getYear();
+		if (year < 0 || year > 9999) {
+			// Année écrite en entier, les autres champs sur deux chiffres.
+			return String.format("%02d/%02d/%04d %02d:%02d", time.getDayOfMonth(), time.getMonthValue(), year,
+					time.getHour(), time.getMinute());
+		}
+		final char[] ret = new char[16];
+		write2(ret, 0, time.getDayOfMonth());
+		ret[2] = '/';
+		write2(ret, 3, time.getMonthValue());
+		ret[5] = '/';
+		write2(ret, 6, year / 100);
+		write2(ret, 8, year % 100);
+		ret[10] = ' ';
+		write2(ret, 11, time.getHour());
+		ret[13] = ':';
+		write2(ret, 14, time.getMinute());
+		return new String(ret);
+	}
+
+	/**
+	 * Lecture directe de la forme complète "dd/MM/yyyy HH:mm", de loin la plus
+	 * fréquente, sans passer par le {@link DateTimeFormatter}.
+	 *
+	 * @return la date/heure lue, ou <code>null</code> si le texte n'a pas
+	 *         exactement cette forme (le formateur décidera).
+	 * @throws DateTimeParseException si la forme est respectée mais que la date
+	 *                                n'existe pas.
+	 */
+	private static LocalDateTime parseCanonical(final String text) {
+		if (text == null || text.length() != 16 || text.charAt(2) != '/' || text.charAt(5) != '/'
+				|| text.charAt(10) != ' ' || text.charAt(13) != ':') {
+			return null;
+		}
+		final int day = read2(text, 0);
+		final int month = read2(text, 3);
+		final int century = read2(text, 6);
+		final int yearOfCentury = read2(text, 8);
+		final int hour = read2(text, 11);
+		final int minute = read2(text, 14);
+		if ((day | month | century | yearOfCentury | hour | minute) < 0) {
+			return null;
+		}
+		try {
+			return LocalDateTime.of(century * 100 + yearOfCentury, month, day, hour, minute);
+		} catch (final DateTimeException e) {
+			throw new DateTimeParseException(e.getMessage(), text, 0, e);
+		}
+	}
+
+	/**
+	 * @return la valeur des deux chiffres à la position donnée, ou -1 si ce ne
+	 *         sont pas deux chiffres.
+	 */
+	private static int read2(final String text, final int index) {
+		final int tens = text.charAt(index) - '0';
+		final int units = text.charAt(index + 1) - '0';
+		if (tens < 0 || tens > 9 || units < 0 || units > 9) {
+			return -1;
+		}
+		return tens * 10 + units;
+	}
+
+	private static void write2(final char[] buffer, final int index, final int value) {
+		buffer[index] = (char) ('0' + value / 10);
+		buffer[index + 1] = (char) ('0' + value % 10);
+	}
+
+	/**
+	 * Écriture JSON d'une date au format {@value Meeting#DATETIME_PATTERN}.
+	 */
+	public static class Serializer extends StdSerializer<Date> {
+
+		private static final long serialVersionUID = 1L;
+
+		public Serializer() {
+			super(Date.class);
+		}
+
+		@Override
+		public void serialize(final Date value, final JsonGenerator gen, final SerializerProvider provider)
+				throws IOException {
+			gen.writeString(format(value));
+		}
+	}
+
+	/**
+	 * Lecture JSON d'une date au format {@value Meeting#DATETIME_PATTERN}.
+	 */
+	public static class Deserializer extends StdDeserializer<Date> {
+
+		private static final long serialVersionUID = 1L;
+
+		public Deserializer() {
+			super(Date.class);
+		}
+
+		@Override
+		public Date deserialize(final JsonParser p, final DeserializationContext ctxt) throws IOException {
+			final String text = p.getValueAsString();
+			try {
+				return parse(text);
+			} catch (final DateTimeParseException e) {
+				return (Date) ctxt.handleWeirdStringValue(Date.class, text, "format attendu : {%s}",
+						Meeting.DATETIME_PATTERN);
+			}
+		}
+	}
+}
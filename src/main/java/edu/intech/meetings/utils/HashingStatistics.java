@@ -0,0 +1,108 @@
+package edu.intech.meetings.utils;
+
+/**
+ * Photographie des statistiques du pool de hachage des mots de passe à un
+ * instant donné.
+ */
+public class HashingStatistics {
+
+	private final int activeThreads;
+	private final int queueDepth;
+	private final long completed;
+	private final long rejected;
+	private final long totalHashNanos;
+	private final long maxHashNanos;
+	private final long totalWaitNanos;
+	private final long maxWaitNanos;
+
+	public HashingStatistics(final int activeThreads, final int queueDepth, final long completed,
+			final long rejected, final long totalHashNanos, final long maxHashNanos, final long totalWaitNanos,
+			final long maxWaitNanos) {
+		this.activeThreads = activeThreads;
+		this.queueDepth = queueDepth;
+		this.completed = completed;
+		this.rejected = rejected;
+		this.totalHashNanos = totalHashNanos;
+		this.maxHashNanos = maxHashNanos;
+		this.totalWaitNanos = totalWaitNanos;
+		this.maxWaitNanos = maxWaitNanos;
+	}
+
+	/**
+	 * @return le nombre de hachages en cours.
+	 */
+	public int getActiveThreads() {
+		return this.activeThreads;
+	}
+
+	/**
+	 * @return le nombre de hachages en attente d'un thread.
+	 */
+	public int getQueueDepth() {
+		return this.queueDepth;
+	}
+
+	/**
+	 * @return le nombre de hachages terminés depuis le démarrage.
+	 */
+	public long getCompleted() {
+		return this.completed;
+	}
+
+	/**
+	 * @return le nombre de hachages refusés (file pleine ou attente trop longue)
+	 *         depuis le démarrage.
+	 */
+	public long getRejected() {
+		return this.rejected;
+	}
+
+	/**
+	 * @return le temps de calcul cumulé des hachages, en nanosecondes.
+	 */
+	public long getTotalHashNanos() {
+		return this.totalHashNanos;
+	}
+
+	/**
+	 * @return le plus long temps de calcul d'un hachage, en nanosecondes.
+	 */
+	public long getMaxHashNanos() {
+		return this.maxHashNanos;
+	}
+
+	/**
+	 * @return le temps cumulé passé dans la file d'attente, en nanosecondes.
+	 */
+	public long getTotalWaitNanos() {
+		return this.totalWaitNanos;
+	}
+
+	/**
+	 * @return le plus long temps passé dans la file d'attente, en nanosecondes.
+	 */
+	public long getMaxWaitNanos() {
+		return this.maxWaitNanos;
+	}
+
+	/**
+	 * @return le temps de calcul moyen d'un hachage, en millisecondes.
+	 */
+	public double getAverageHashMillis() {
+		return this.completed == 0 ? 0 : this.totalHashNanos / 1e6 / this.completed;
+	}
+
+	/**
+	 * @return le temps moyen passé dans la file d'attente, en millisecondes.
+	 */
+	public double getAverageWaitMillis() {
+		return this.completed == 0 ? 0 : this.totalWaitNanos / 1e6 / this.completed;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("active=%d, queued=%d, completed=%d, rejected=%d, avgHash=%.3fms, avgWait=%.3fms",
+				this.activeThreads, this.queueDepth, this.completed, this.rejected, getAverageHashMillis(),
+				getAverageWaitMillis());
+	}
+}
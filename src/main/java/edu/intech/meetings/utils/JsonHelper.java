@@ -0,0 +1,59 @@
+package edu.intech.meetings.utils;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Point d'accès unique à Jackson pour les services. Créer un
+ * {@link ObjectMapper} est coûteux et chaque instance reconstruit ses propres
+ * caches de sérialiseurs : on en partage donc un seul, configuré une fois pour
+ * toutes, ainsi que des {@link ObjectWriter} déjà résolus par type. Mapper et
+ * writers sont thread-safe une fois configurés.
+ */
+public class JsonHelper {
+
+	private static final ObjectMapper MAPPER = createMapper();
+
+	private static final Map<Class<?>, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+	private static final Map<Class<?>, ObjectWriter> LIST_WRITERS = new ConcurrentHashMap<>();
+
+	private static ObjectMapper createMapper() {
+		final ObjectMapper ret = new ObjectMapper();
+		// Les dates des réunions passent par DateTimeHelper, dans le fuseau du
+		// serveur ; les autres dates éventuelles suivent ce même fuseau (et non
+		// UTC, valeur par défaut de Jackson).
+		ret.setTimeZone(TimeZone.getDefault());
+		ret.setLocale(Locale.FRANCE);
+		return ret;
+	}
+
+	/**
+	 * @return le mapper partagé. <b>Il ne doit pas être reconfiguré</b>.
+	 */
+	public static ObjectMapper getMapper() {
+		return MAPPER;
+	}
+
+	/**
+	 * @param type Type des objets à écrire.
+	 * @return le writer partagé pour ce type.
+	 */
+	public static ObjectWriter writerFor(final Class<?> type) {
+		return WRITERS.computeIfAbsent(type, MAPPER::writerFor);
+	}
+
+	/**
+	 * @param elementType Type des éléments des listes à écrire.
+	 * @return le writer partagé pour les listes de ce type.
+	 */
+	public static ObjectWriter listWriterFor(final Class<?> elementType) {
+		return LIST_WRITERS.computeIfAbsent(elementType,
+				type -> MAPPER.writerFor(MAPPER.getTypeFactory().constructCollectionType(List.class, type)));
+	}
+}
@@ -0,0 +1,181 @@
+package edu.intech.meetings.utils;
+
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.StringTokenizer;
+
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+
+import edu.intech.meetings.dao.DaoFactory;
+import edu.intech.meetings.exceptions.DaoException;
+import edu.intech.meetings.exceptions.ServiceException;
+import edu.intech.meetings.model.Meeting;
+import edu.intech.meetings.model.User;
+
+/**
+ * Paramètres des services des réunions (<code>/meetings</code>) et leur
+ * lecture : réunion décrite par un formulaire ou par un objet JSON, listes
+ * d'identifiants de réunions et d'invités.
+ */
+public class MeetingsHelper {
+
+	public final static String MEETING_PARAM_ID = "id";
+	public final static String MEETING_PARAM_TITLE = "title";
+	public final static String MEETING_PARAM_START = "start";
+	public final static String MEETING_PARAM_DURATION = "duration";
+	public final static String MEETING_PARAM_GUESTS = "guests";
+	public final static String MEETING_PARAM_CAPACITY = "capacity";
+	public final static String MEETING_PARAM_FROM = "from";
+	public final static String MEETING_PARAM_TO = "to";
+	public final static String MEETING_PARAM_MEETINGS = "meetings";
+	public final static String MEETING_PARAM_IDS = "ids";
+	public final static String MEETING_PARAM_BEFORE = "before";
+	public final static String MEETING_PARAM_OFFSET = "offset";
+
+	/**
+	 * @return la durée maximale d'une réunion, en minutes.
+	 */
+	public static int getMaxDuration() {
+		return ConfigHelper.getInt("meetings.meeting.maxDurationMinutes", 1440);
+	}
+
+	/**
+	 * Construit la réunion décrite par les paramètres d'un formulaire d'ajout ou
+	 * de modification.
+	 *
+	 * @throws ServiceException si un paramètre est absent ou invalide.
+	 */
+	public static Meeting checkGivenMeeting(final MultivaluedMap<String, String> formParams) throws ServiceException {
+		final String guests = ServicesHelper.extractParam(formParams, MEETING_PARAM_GUESTS);
+		final Meeting ret = buildMeeting(ServicesHelper.extractParam(formParams, MEETING_PARAM_TITLE),
+				ServicesHelper.extractParam(formParams, MEETING_PARAM_START),
+				ServicesHelper.extractParam(formParams, MEETING_PARAM_DURATION));
+		// adding guests if provided.
+		if (guests != null && !guests.isBlank()) {
+			ret.setGuests(parseMeetingUsersList(guests));
+		}
+		return ret;
+	}
+
+	/**
+	 * Construit, sans ses invités, une réunion d'un lot de
+	 * <code>/meetings/batchAdd</code>.
+	 *
+	 * @param item     Description JSON de la réunion.
+	 * @param guestIds Reçoit les identifiants de ses invités.
+	 * @throws ServiceException si un champ est absent ou invalide.
+	 */
+	public static Meeting checkGivenMeeting(final JSONObject item, final Set<Integer> guestIds)
+			throws ServiceException {
+		if (item == null) {
+			throw new ServiceException("La réunion doit être un objet JSON.");
+		}
+		final Meeting ret = buildMeeting(item.optString(MEETING_PARAM_TITLE, null),
+				item.optString(MEETING_PARAM_START, null), item.optString(MEETING_PARAM_DURATION, null));
+		if (item.has(MEETING_PARAM_GUESTS)) {
+			final JSONArray guests = item.optJSONArray(MEETING_PARAM_GUESTS);
+			try {
+				if (guests == null) {
+					throw new JSONException(MEETING_PARAM_GUESTS);
+				}
+				for (int i = 0; i < guests.length(); i++) {
+					guestIds.add(guests.getInt(i));
+				}
+			} catch (final JSONException e) {
+				throw new ServiceException("La liste des invités de la réunion n'est pas un tableau d'identifiants.", e);
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * @return la réunion sans invités correspondant aux valeurs données.
+	 * @throws ServiceException si une valeur est absente ou invalide.
+	 */
+	private static Meeting buildMeeting(final String title, final String startAsString, final String durationAsString)
+			throws ServiceException {
+		if (title == null || startAsString == null || durationAsString == null) {
+			throw new ServiceException(
+					"Vous devez fournir au moins le nom, la date/heure de début et la durée de la réunion.");
+		}
+		// Start date/time conversion...
+		Date start = null;
+		try {
+			start = DateTimeHelper.parse(startAsString);
+		} catch (final DateTimeParseException e) {
+			throw new ServiceException(
+					"La date de début fournie pour la réunion ne peut être convertie (format attendu : {"
+							.concat(Meeting.DATETIME_PATTERN).concat("} reçu : {").concat(startAsString).concat("})."));
+		}
+		// Duration conversion...
+		int duration = -1;
+		try {
+			duration = Integer.parseUnsignedInt(durationAsString);
+		} catch (final NumberFormatException e) {
+			throw new ServiceException(
+					"La durée fournie n'est pas un entier.");
+		}
+		// Meetings read by period are searched from their start minus this maximum.
+		if (duration > getMaxDuration()) {
+			throw new ServiceException("La durée d'une réunion ne peut dépasser " + getMaxDuration() + " minutes.");
+		}
+		return new Meeting(title, start, duration);
+	}
+
+	/**
+	 * @param commaSeparatedMeetingsIds Identifiants de réunions, séparés par des
+	 *                                  virgules.
+	 * @return les identifiants lus.
+	 * @throws ServiceException si la liste est absente, vide ou invalide.
+	 */
+	public static List<Integer> parseMeetingsIdsList(final String commaSeparatedMeetingsIds)
+			throws ServiceException {
+		if (commaSeparatedMeetingsIds == null || commaSeparatedMeetingsIds.isBlank()) {
+			throw new ServiceException("Vous devez fournir les identifiants des réunions.");
+		}
+		final StringTokenizer st = new StringTokenizer(commaSeparatedMeetingsIds, ",");
+		final List<Integer> ret = new ArrayList<>(st.countTokens());
+		try {
+			while (st.hasMoreTokens()) {
+				ret.add(Integer.parseUnsignedInt(st.nextToken().trim()));
+			}
+		} catch (final NumberFormatException e) {
+			throw new ServiceException("La liste des réunions n'est pas une suite d'identifiants.", e);
+		}
+		return ret;
+	}
+
+	/**
+	 * @param commaSeparatedUsersIds Identifiants des invités, séparés par des
+	 *                               virgules.
+	 * @return les invités lus en base.
+	 * @throws ServiceException si un identifiant est invalide ou inconnu.
+	 */
+	public static List<User> parseMeetingUsersList(final String commaSeparatedUsersIds) throws ServiceException {
+		final StringTokenizer st = new StringTokenizer(commaSeparatedUsersIds, ",");
+		final List<Integer> ids = new ArrayList<Integer>(st.countTokens());
+		try {
+			while (st.hasMoreTokens()) {
+				ids.add(Integer.valueOf(st.nextToken()));
+			}
+		} catch (final NumberFormatException e) {
+			throw new ServiceException("La liste des invités de la réunion n'est pas une suite d'identifiants.", e);
+		}
+		try {
+			final List<User> ret = DaoFactory.getInstance().getUserDao().readUsersByIdList(ids);
+			if (ret.size() != ids.size()) {
+				throw new ServiceException("La liste des invités de la réunion contient au moins un utilisateur non trouvé.");
+			}
+			return ret;
+		} catch (final DaoException e) {
+			throw new ServiceException("Impossible de lire la liste des invités de la réunion.", e);
+		}
+	}
+}
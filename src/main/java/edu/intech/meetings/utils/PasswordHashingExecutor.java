@@ -0,0 +1,144 @@
+package edu.intech.meetings.utils;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import edu.intech.meetings.exceptions.ServiceOverloadedException;
+
+/**
+ * Pool de threads dédié au hachage des mots de passe (connexion, création et
+ * modification d'utilisateur). Un hachage PBKDF2 occupe un cœur pendant
+ * plusieurs millisecondes : sans limite, une rafale de connexions monopolise
+ * le CPU au détriment de tous les autres services.<br>
+ * <br>
+ * Le nombre de hachages simultanés est borné par le nombre de threads du pool
+ * (<code>meetings.hashing.threads</code>, par défaut le nombre de cœurs), et le
+ * nombre de hachages en attente par la taille de la file
+ * (<code>meetings.hashing.queueSize</code>). Quand la file est pleine, ou que
+ * l'attente dépasse <code>meetings.hashing.timeoutMs</code>, la demande est
+ * refusée immédiatement par une {@link ServiceOverloadedException}.
+ */
+public class PasswordHashingExecutor {
+
+	private static PasswordHashingExecutor instance;
+
+	private final ThreadPoolExecutor executor;
+	private final long timeoutMs;
+
+	private final LongAdder completed = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder totalHashNanos = new LongAdder();
+	private final AtomicLong maxHashNanos = new AtomicLong();
+	private final LongAdder totalWaitNanos = new LongAdder();
+	private final AtomicLong maxWaitNanos = new AtomicLong();
+
+	private PasswordHashingExecutor() {
+		final int threads = Math.max(1,
+				ConfigHelper.getInt("meetings.hashing.threads", Runtime.getRuntime().availableProcessors()));
+		final int queueSize = Math.max(1, ConfigHelper.getInt("meetings.hashing.queueSize", 32));
+		this.timeoutMs = ConfigHelper.getLong("meetings.hashing.timeoutMs", 5000);
+		final AtomicInteger count = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueSize), runnable -> {
+					final Thread ret = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+					ret.setDaemon(true);
+					return ret;
+				}, new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	public static synchronized PasswordHashingExecutor getInstance() {
+		if (instance == null) {
+			instance = new PasswordHashingExecutor();
+		}
+		return instance;
+	}
+
+	/**
+	 * Arrête le pool (à l'arrêt de l'application).
+	 */
+	public static synchronized void shutdown() {
+		if (instance != null) {
+			instance.executor.shutdownNow();
+			instance = null;
+		}
+	}
+
+	/**
+	 * @see PasswordHelper#generateSecurePassword(String)
+	 * @throws ServiceOverloadedException si le pool est saturé.
+	 */
+	public String generateSecurePassword(final String password) throws ServiceOverloadedException {
+		return run(() -> PasswordHelper.generateSecurePassword(password));
+	}
+
+	/**
+	 * @see PasswordHelper#verifyUserPassword(String, String)
+	 * @throws ServiceOverloadedException si le pool est saturé.
+	 */
+	public boolean verifyUserPassword(final String providedPassword, final String securedPassword)
+			throws ServiceOverloadedException {
+		return run(() -> PasswordHelper.verifyUserPassword(providedPassword, securedPassword));
+	}
+
+	/**
+	 * @return les statistiques du pool depuis le démarrage.
+	 */
+	public HashingStatistics getStatistics() {
+		return new HashingStatistics(this.executor.getActiveCount(), this.executor.getQueue().size(),
+				this.completed.sum(), this.rejected.sum(), this.totalHashNanos.sum(), this.maxHashNanos.get(),
+				this.totalWaitNanos.sum(), this.maxWaitNanos.get());
+	}
+
+	private <T> T run(final Callable<T> task) throws ServiceOverloadedException {
+		final long submitted = System.nanoTime();
+		final Future<T> future;
+		try {
+			future = this.executor.submit(() -> {
+				final long started = System.nanoTime();
+				record(this.totalWaitNanos, this.maxWaitNanos, started - submitted);
+				try {
+					return task.call();
+				} finally {
+					record(this.totalHashNanos, this.maxHashNanos, System.nanoTime() - started);
+					this.completed.increment();
+				}
+			});
+		} catch (final RejectedExecutionException e) {
+			this.rejected.increment();
+			throw new ServiceOverloadedException("Le serveur est surchargé, veuillez réessayer plus tard.", e);
+		}
+		try {
+			return future.get(this.timeoutMs, TimeUnit.MILLISECONDS);
+		} catch (final TimeoutException e) {
+			future.cancel(true);
+			this.rejected.increment();
+			throw new ServiceOverloadedException("Le serveur est surchargé, veuillez réessayer plus tard.", e);
+		} catch (final InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new ServiceOverloadedException("Le hachage du mot de passe a été interrompu.", e);
+		} catch (final ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	private static void record(final LongAdder total, final AtomicLong max, final long nanos) {
+		total.add(nanos);
+		max.accumulateAndGet(nanos, Math::max);
+	}
+}
@@ -1,25 +1,75 @@
 package edu.intech.meetings.utils;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.security.spec.InvalidKeySpecException;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
 
+/**
+ * Hachage des mots de passe. Les mots de passe sont stockés au format
+ * <code>$&lt;algorithme&gt;$&lt;itérations&gt;$&lt;sel&gt;$&lt;hash&gt;</code>
+ * (sel et hash en Base64), avec un sel aléatoire propre à chaque utilisateur.
+ * Le nombre d'itérations des nouveaux hachages se règle par
+ * <code>meetings.password.iterations</code> (voir
+ * <code>PasswordCostBenchmark</code> pour le calibrer).<br>
+ * <br>
+ * Les anciens hachages (Base64 seul : PBKDF2-SHA1, 10000 itérations, sel commun)
+ * restent vérifiables ; {@link #needsRehash(String)} indique qu'il faut les
+ * recalculer à la prochaine connexion réussie.
+ */
 public class PasswordHelper {
 
-	private final static String SALT = "EqdmPh53c9x33EygXpTpcoJvc4VXLK";
-	private static final int ITERATIONS = 10000;
+	/** Identifiant, dans le format stocké, de l'algorithme des nouveaux hachages. */
+	public static final String ALGORITHM = "pbkdf2-sha256";
+
+	private static final Map<String, String> JCA_ALGORITHMS = Map.of("pbkdf2-sha1", "PBKDF2WithHmacSHA1",
+			ALGORITHM, "PBKDF2WithHmacSHA256");
+
+	private static final String SEPARATOR = "$";
 	private static final int KEY_LENGTH = 256;
+	private static final int SALT_LENGTH = 16;
+
+	// Ancien format.
+	private final static String LEGACY_SALT = "EqdmPh53c9x33EygXpTpcoJvc4VXLK";
+	private static final String LEGACY_ALGORITHM = "pbkdf2-sha1";
+	private static final int LEGACY_ITERATIONS = 10000;
+
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+	// SecretKeyFactory.getInstance parcourt les providers de sécurité à chaque
+	// appel ; une fabrique n'étant pas thread-safe, on en garde une par thread et
+	// par algorithme (en pratique, par thread du PasswordHashingExecutor).
+	private static final ThreadLocal<Map<String, SecretKeyFactory>> FACTORIES = ThreadLocal
+			.withInitial(HashMap::new);
 
-	public static byte[] hash(final char[] password, final byte[] salt) {
-		final PBEKeySpec spec = new PBEKeySpec(password, salt, ITERATIONS, KEY_LENGTH);
+	/**
+	 * @return le nombre d'itérations des nouveaux hachages.
+	 */
+	public static int getIterations() {
+		return ConfigHelper.getInt("meetings.password.iterations", 100000);
+	}
+
+	/**
+	 * @param password   Mot de passe, effacé après usage.
+	 * @param salt       Sel.
+	 * @param algorithm  Identifiant de l'algorithme (voir {@link #ALGORITHM}).
+	 * @param iterations Nombre d'itérations.
+	 * @return le hash du mot de passe.
+	 */
+	public static byte[] hash(final char[] password, final byte[] salt, final String algorithm,
+			final int iterations) {
+		final PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, KEY_LENGTH);
 		Arrays.fill(password, Character.MIN_VALUE);
 		try {
-			final SecretKeyFactory skf = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA1");
-			return skf.generateSecret(spec).getEncoded();
+			return getFactory(algorithm).generateSecret(spec).getEncoded();
 		} catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
 			throw new AssertionError("Error while hashing a password: " + e.getMessage(), e);
 		} finally {
@@ -27,25 +77,81 @@ public class PasswordHelper {
 		}
 	}
 
+	/**
+	 * Hache le mot de passe sur le thread appelant, avec un nouveau sel et le
+	 * nombre d'itérations configuré. Les services passent par
+	 * {@link PasswordHashingExecutor} pour ne pas saturer le serveur.
+	 *
+	 * @return le mot de passe haché, au format stocké.
+	 */
 	public static String generateSecurePassword(final String password) {
-		String returnValue = null;
-		final byte[] securePassword = hash(password.toCharArray(), SALT.getBytes());
-
-		returnValue = Base64.getEncoder().encodeToString(securePassword);
-
-		return returnValue;
+		final byte[] salt = new byte[SALT_LENGTH];
+		RANDOM.nextBytes(salt);
+		final int iterations = getIterations();
+		final Base64.Encoder encoder = Base64.getEncoder();
+		return SEPARATOR + ALGORITHM + SEPARATOR + iterations + SEPARATOR + encoder.encodeToString(salt) + SEPARATOR
+				+ encoder.encodeToString(hash(password.toCharArray(), salt, ALGORITHM, iterations));
 	}
 
-	public static boolean verifyUserPassword(final String providedPassword,
-			final String securedPassword) {
-		boolean returnValue = false;
-
-		// Generate New secure password with the same salt
-		final String newSecurePassword = generateSecurePassword(providedPassword);
+	/**
+	 * @param providedPassword Mot de passe fourni.
+	 * @param securedPassword  Mot de passe stocké, au nouveau format ou à
+	 *                         l'ancien.
+	 * @return <code>true</code> si le mot de passe fourni est le bon.
+	 */
+	public static boolean verifyUserPassword(final String providedPassword, final String securedPassword) {
+		if (securedPassword == null) {
+			return false;
+		}
+		try {
+			final Base64.Decoder decoder = Base64.getDecoder();
+			if (!securedPassword.startsWith(SEPARATOR)) {
+				final byte[] expected = decoder.decode(securedPassword);
+				return MessageDigest.isEqual(expected, hash(providedPassword.toCharArray(),
+						LEGACY_SALT.getBytes(StandardCharsets.UTF_8), LEGACY_ALGORITHM, LEGACY_ITERATIONS));
+			}
+			final String[] parts = securedPassword.split("\\" + SEPARATOR);
+			if (parts.length != 5 || !JCA_ALGORITHMS.containsKey(parts[1])) {
+				return false;
+			}
+			final int iterations = Integer.parseInt(parts[2]);
+			final byte[] expected = decoder.decode(parts[4]);
+			return MessageDigest.isEqual(expected,
+					hash(providedPassword.toCharArray(), decoder.decode(parts[3]), parts[1], iterations));
+		} catch (final IllegalArgumentException e) {
+			// Base64 ou nombre d'itérations invalides : hash stocké corrompu.
+			return false;
+		}
+	}
 
-		// Check if two passwords are equal
-		returnValue = newSecurePassword.equalsIgnoreCase(securedPassword);
+	/**
+	 * @param securedPassword Mot de passe stocké.
+	 * @return <code>true</code> si le hachage stocké est à l'ancien format, ou
+	 *         moins coûteux que la configuration actuelle, et doit être recalculé.
+	 */
+	public static boolean needsRehash(final String securedPassword) {
+		if (securedPassword == null || !securedPassword.startsWith(SEPARATOR)) {
+			return true;
+		}
+		final String[] parts = securedPassword.split("\\" + SEPARATOR);
+		try {
+			return parts.length != 5 || !ALGORITHM.equals(parts[1]) || Integer.parseInt(parts[2]) < getIterations();
+		} catch (final NumberFormatException e) {
+			return true;
+		}
+	}
 
-		return returnValue;
+	private static SecretKeyFactory getFactory(final String algorithm) throws NoSuchAlgorithmException {
+		final String jcaName = JCA_ALGORITHMS.get(algorithm);
+		if (jcaName == null) {
+			throw new NoSuchAlgorithmException(algorithm);
+		}
+		final Map<String, SecretKeyFactory> factories = FACTORIES.get();
+		SecretKeyFactory ret = factories.get(jcaName);
+		if (ret == null) {
+			ret = SecretKeyFactory.getInstance(jcaName);
+			factories.put(jcaName, ret);
+		}
+		return ret;
 	}
-}
\ No newline at end of file
+}
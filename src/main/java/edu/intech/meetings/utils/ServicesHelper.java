@@ -1,19 +1,37 @@
 package edu.intech.meetings.utils;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.StreamingOutput;
 import javax.xml.bind.DatatypeConverter;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import edu.intech.meetings.dao.Page;
 import edu.intech.meetings.exceptions.ServiceException;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 
 public class ServicesHelper {
 
+	public final static String PAGE_PARAM_LIMIT = "limit";
+	public final static String PAGE_PARAM_CURSOR = "cursor";
+
+	private final static String CURSOR_PREFIX = "id:";
+
 	// Email Regex java
 	private static final String EMAIL_REGEX = "^[\\w-\\+]+(\\.[\\w]+)*@[\\w-]+(\\.[\\w]+)*(\\.[a-z]{2,})$";
 
@@ -56,19 +74,158 @@ public class ServicesHelper {
 	 * @throws Exception if given String is not a valid JWT or if token is expired.
 	 */
 	public static String parseJWT(final String jwt, final String secretApiKey) throws ServiceException {
+		return parseJWT(jwt, Jwts.parser().setSigningKey(DatatypeConverter.parseBase64Binary(secretApiKey)))
+				.getIssuer();
+	}
+
+	/**
+	 * Tests given jwt token with an already configured parser, which avoids
+	 * decoding the secret key on each call.
+	 *
+	 * @param jwt    Token to test.
+	 * @param parser Parser holding the signing key of the API.
+	 * @return the claims of the token.
+	 * @throws ServiceException if given String is not a valid JWT or if token is
+	 *                          expired.
+	 */
+	public static Claims parseJWT(final String jwt, final JwtParser parser) throws ServiceException {
 
 		Claims claims = null;
 		try {
-			claims = Jwts.parser().setSigningKey(DatatypeConverter.parseBase64Binary(secretApiKey))
-					.parseClaimsJws(jwt).getBody();
+			claims = parser.parseClaimsJws(jwt).getBody();
 		} catch (final Exception e) {
 			throw new ServiceException("Token invalide ou périmé");
 		}
 
 		final Date now = new Date(System.currentTimeMillis());
-		if (now.after(claims.getExpiration())) {
+		if (claims.getExpiration() == null || now.after(claims.getExpiration())) {
 			throw new ServiceException("La durée de validité du Token est expirée.");
 		}
-		return claims.getIssuer();
+		return claims;
+	}
+
+	/**
+	 * Converts the size of a page asked by a client. Without value, the default
+	 * size (<code>meetings.page.defaultSize</code>) is used ; values greater than
+	 * <code>meetings.page.maxSize</code> are reduced to it.
+	 *
+	 * @param limitAsString Received value of the {@value #PAGE_PARAM_LIMIT}
+	 *                      parameter, may be <code>null</code>.
+	 * @return the page size to read.
+	 * @throws ServiceException if given value is not a positive integer.
+	 */
+	public static int parsePageLimit(final String limitAsString) throws ServiceException {
+		final int max = ConfigHelper.getInt("meetings.page.maxSize", 500);
+		if (limitAsString == null || limitAsString.isBlank()) {
+			return Math.min(ConfigHelper.getInt("meetings.page.defaultSize", 50), max);
+		}
+		final int limit;
+		try {
+			limit = Integer.parseInt(limitAsString.trim());
+		} catch (final NumberFormatException e) {
+			throw new ServiceException("La taille de page fournie n'est pas un entier.");
+		}
+		if (limit <= 0) {
+			throw new ServiceException("La taille de page doit être strictement positive.");
+		}
+		return Math.min(limit, max);
+	}
+
+	/**
+	 * Encodes the identifier returned by {@link Page#getNextCursor()} into the
+	 * opaque token sent to clients.
+	 *
+	 * @param cursor Identifier to encode, may be <code>null</code>.
+	 * @return the token, or <code>null</code> if <code>cursor</code> is
+	 *         <code>null</code> (last page).
+	 */
+	public static String encodeCursor(final Integer cursor) {
+		if (cursor == null) {
+			return null;
+		}
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString((CURSOR_PREFIX + cursor).getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decodes a token built by {@link #encodeCursor(Integer)}.
+	 *
+	 * @param token Received value of the {@value #PAGE_PARAM_CURSOR} parameter,
+	 *              may be <code>null</code>.
+	 * @return the identifier after which the page starts, <code>0</code> for the
+	 *         first page.
+	 * @throws ServiceException if given token is not a valid cursor.
+	 */
+	public static int decodeCursor(final String token) throws ServiceException {
+		if (token == null || token.isBlank()) {
+			return 0;
+		}
+		try {
+			final String decoded = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+			if (decoded.startsWith(CURSOR_PREFIX)) {
+				final int ret = Integer.parseInt(decoded.substring(CURSOR_PREFIX.length()));
+				if (ret >= 0) {
+					return ret;
+				}
+			}
+		} catch (final IllegalArgumentException e) {
+			// NumberFormatException incluse : traitée comme un curseur invalide.
+		}
+		throw new ServiceException("Le curseur de pagination fourni est invalide.");
+	}
+
+	/**
+	 * Serializes a page as <code>{"items": [...], "nextCursor": "..."}</code>,
+	 * <code>nextCursor</code> being <code>null</code> on the last page.
+	 *
+	 * @param itemWriter Writer used to serialize each item (see
+	 *                   {@link JsonHelper#writerFor(Class)}).
+	 * @param page       Page to serialize.
+	 * @return the JSON representation of the page.
+	 * @throws IOException if an item cannot be serialized.
+	 */
+	public static String writePage(final ObjectWriter itemWriter, final Page<?> page) throws IOException {
+		final StringWriter ret = new StringWriter();
+		try (JsonGenerator generator = itemWriter.getFactory().createGenerator(ret)) {
+			generator.writeStartObject();
+			generator.writeArrayFieldStart("items");
+			for (final Object item : page.getItems()) {
+				itemWriter.writeValue(generator, item);
+			}
+			generator.writeEndArray();
+			generator.writeStringField("nextCursor", encodeCursor(page.getNextCursor()));
+			generator.writeEndObject();
+		}
+		return ret.toString();
+	}
+
+	/**
+	 * Builds a response body writing the elements of the stream as a JSON array
+	 * while they are read, instead of building the whole String first. The
+	 * stream is closed once written (or if writing fails).
+	 *
+	 * @param elementWriter Writer used to serialize each element (see
+	 *                      {@link JsonHelper#writerFor(Class)}).
+	 * @param elements      Elements to write, typically read from a database
+	 *                      cursor.
+	 * @return the body to give to {@link javax.ws.rs.core.Response}.
+	 */
+	public static StreamingOutput streamJsonArray(final ObjectWriter elementWriter, final Stream<?> elements) {
+		return output -> {
+			try (elements;
+					JsonGenerator generator = elementWriter.getFactory().createGenerator(output, JsonEncoding.UTF8)) {
+				generator.writeStartArray();
+				elements.forEachOrdered(element -> {
+					try {
+						elementWriter.writeValue(generator, element);
+					} catch (final IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+				generator.writeEndArray();
+			} catch (final UncheckedIOException e) {
+				throw e.getCause();
+			}
+		};
 	}
-}
\ No newline at end of file
+}
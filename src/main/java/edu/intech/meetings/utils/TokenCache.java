@@ -0,0 +1,147 @@
+package edu.intech.meetings.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache des tokens JWT déjà vérifiés. Vérifier un token (décodage, analyse des
+ * claims et calcul du HMAC) coûte plusieurs dizaines de microsecondes alors
+ * qu'un client renvoie le même token à chaque requête pendant toute sa durée de
+ * validité : une fois vérifié, le token est mémorisé jusqu'à son expiration.<br>
+ * <br>
+ * Les tokens ne sont pas conservés en clair : la clé du cache est leur
+ * empreinte SHA-256. Le cache est borné ; quand il est plein, l'entrée utilisée
+ * le moins récemment est retirée. Une taille maximale de 0 le désactive.
+ */
+public class TokenCache {
+
+	private static final class Entry {
+		final String issuer;
+		final long expiresAt;
+
+		Entry(final String issuer, final long expiresAt) {
+			this.issuer = issuer;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	private static TokenCache instance;
+
+	private final int maxSize;
+	private final Map<String, Entry> entries;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * @param maxSize Nombre maximal de tokens en cache (0 pour désactiver le
+	 *                cache).
+	 */
+	public TokenCache(final int maxSize) {
+		this.maxSize = Math.max(maxSize, 0);
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+				if (size() > TokenCache.this.maxSize) {
+					TokenCache.this.evictions.increment();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * @return le cache des tokens vérifiés par l'application, de taille
+	 *         <code>meetings.auth.tokenCache.maxSize</code>.
+	 */
+	public static synchronized TokenCache getInstance() {
+		if (instance == null) {
+			instance = new TokenCache(ConfigHelper.getInt("meetings.auth.tokenCache.maxSize", 10000));
+		}
+		return instance;
+	}
+
+	/**
+	 * @param token Token reçu.
+	 * @return l'émetteur du token s'il a déjà été vérifié et n'a pas expiré,
+	 *         <code>null</code> sinon.
+	 */
+	public String get(final String token) {
+		if (this.maxSize == 0) {
+			this.misses.increment();
+			return null;
+		}
+		final String key = digest(token);
+		final Entry entry;
+		synchronized (this.entries) {
+			entry = this.entries.get(key);
+			if (entry != null && entry.expiresAt <= System.currentTimeMillis()) {
+				this.entries.remove(key);
+				this.misses.increment();
+				return null;
+			}
+		}
+		if (entry == null) {
+			this.misses.increment();
+			return null;
+		}
+		this.hits.increment();
+		return entry.issuer;
+	}
+
+	/**
+	 * Mémorise un token dont la signature vient d'être vérifiée.
+	 *
+	 * @param token     Token vérifié.
+	 * @param issuer    Émetteur du token.
+	 * @param expiresAt Date d'expiration du token, en millisecondes.
+	 */
+	public void put(final String token, final String issuer, final long expiresAt) {
+		if (this.maxSize == 0) {
+			return;
+		}
+		final String key = digest(token);
+		synchronized (this.entries) {
+			this.entries.put(key, new Entry(issuer, expiresAt));
+		}
+	}
+
+	/**
+	 * Vide le cache.
+	 */
+	public void clear() {
+		synchronized (this.entries) {
+			this.entries.clear();
+		}
+	}
+
+	/**
+	 * @return les statistiques du cache depuis sa création.
+	 */
+	public CacheStatistics getStatistics() {
+		final int size;
+		synchronized (this.entries) {
+			size = this.entries.size();
+		}
+		return new CacheStatistics(size, this.hits.sum(), this.misses.sum(), this.evictions.sum());
+	}
+
+	private static String digest(final String token) {
+		try {
+			return Base64.getEncoder().encodeToString(
+					MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+		} catch (final NoSuchAlgorithmException e) {
+			// SHA-256 est fourni par toutes les JVM.
+			throw new IllegalStateException(e);
+		}
+	}
+}
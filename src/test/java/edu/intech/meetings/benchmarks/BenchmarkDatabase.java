@@ -0,0 +1,90 @@
+package edu.intech.meetings.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import edu.intech.meetings.dao.DaoFactory;
+import edu.intech.meetings.dao.EmbeddedDatabase;
+import edu.intech.meetings.dao.pool.ConnectionPool;
+import edu.intech.meetings.exceptions.DaoException;
+import edu.intech.meetings.model.Meeting;
+import edu.intech.meetings.model.Room;
+import edu.intech.meetings.model.User;
+import edu.intech.meetings.servletListener.MeetingsContextListener;
+
+/**
+ * Démarre l'application pour les benchmarks qui lisent la base, comme le ferait
+ * le serveur, sur la base embarquée
+ * ({@link EmbeddedDatabase}) et à travers le pool de
+ * connexions.
+ */
+class BenchmarkDatabase {
+
+	private static MeetingsContextListener context;
+
+	/**
+	 * Démarre l'application sur une base vide (une seule fois par JVM de
+	 * benchmark).
+	 */
+	static synchronized void start() {
+		start(DaoFactory.IMPLEMENTATION_BDD);
+	}
+
+	/**
+	 * Démarre l'application avec l'implémentation des DAO donnée
+	 * ({@value DaoFactory#IMPLEMENTATION_BDD} ou
+	 * {@value DaoFactory#IMPLEMENTATION_MEMORY}).
+	 */
+	static synchronized void start(final String implementation) {
+		if (context != null) {
+			return;
+		}
+		System.setProperty(DaoFactory.IMPLEMENTATION_KEY, implementation);
+		System.setProperty(EmbeddedDatabase.DATABASE_KEY, EmbeddedDatabase.DATABASE_EMBEDDED);
+		System.setProperty(ConnectionPool.MODE_KEY, ConnectionPool.MODE_POOLED);
+		context = new MeetingsContextListener();
+		context.contextInitialized(null);
+	}
+
+	/**
+	 * Arrête l'application, ce qui supprime la base.
+	 */
+	static synchronized void stop() {
+		if (context != null) {
+			context.contextDestroyed(null);
+			context = null;
+		}
+	}
+
+	/**
+	 * Remplit la base : <code>usersCount</code> utilisateurs, et
+	 * <code>meetingsCount</code> réunions de <code>guestsPerMeeting</code> invités
+	 * chacune, dans autant de salles.
+	 *
+	 * @return les utilisateurs créés.
+	 */
+	static List<User> populate(final int usersCount, final int meetingsCount, final int guestsPerMeeting)
+			throws DaoException {
+		final DaoFactory factory = DaoFactory.getInstance();
+		final List<User> users = new ArrayList<>(usersCount);
+		for (int i = 0; i < usersCount; i++) {
+			users.add(factory.getUserDao().createUser(
+					new User("Bench_" + i, "pwd", "Prénom_" + i, "bench" + i + "@intech.edu"), true));
+		}
+		final long day = 24L * 3600 * 1000;
+		for (int i = 0; i < meetingsCount; i++) {
+			final List<User> guests = new ArrayList<>(guestsPerMeeting);
+			for (int g = 0; g < guestsPerMeeting; g++) {
+				guests.add(users.get((i + g) % usersCount));
+			}
+			final Meeting meeting = new Meeting("Réunion " + i, new Date(i * day), 60, guests);
+			factory.getMeetingDao().createMeeting(meeting, true);
+			final List<Meeting> meetings = new ArrayList<>();
+			meetings.add(meeting);
+			factory.getRoomDao().createRoom(new Room("Salle " + i, 20, meetings), true);
+		}
+		factory.releaseEntityManager();
+		return users;
+	}
+}
@@ -0,0 +1,93 @@
+package edu.intech.meetings.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.intech.meetings.dao.DaoFactory;
+import edu.intech.meetings.dao.Page;
+import edu.intech.meetings.exceptions.DaoException;
+import edu.intech.meetings.model.Meeting;
+import edu.intech.meetings.model.Room;
+import edu.intech.meetings.model.User;
+
+/**
+ * Lectures des DAO sur une base embarquée ({@link BenchmarkDatabase}) :
+ * listes complètes, réunions d'un utilisateur, page de réunions et lecture
+ * d'un utilisateur. Chaque appel utilise un EntityManager neuf, comme une
+ * requête HTTP. Les mêmes lectures sur les DAO en mémoire donnent le coût hors
+ * base de données.<br>
+ * <br>
+ * Lancement : <code>mvn -Pbenchmark test-compile exec:exec -Djmh.args=DaoReadBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DaoReadBenchmark {
+
+	@Param({ "100", "1000" })
+	private int meetingsCount;
+
+	@Param({ DaoFactory.IMPLEMENTATION_BDD, DaoFactory.IMPLEMENTATION_MEMORY })
+	private String implementation;
+
+	private int userId;
+
+	@Setup(Level.Trial)
+	public void populate() throws DaoException {
+		BenchmarkDatabase.start(this.implementation);
+		final List<User> users = BenchmarkDatabase.populate(this.meetingsCount / 10, this.meetingsCount, 5);
+		this.userId = users.get(0).getId();
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		BenchmarkDatabase.stop();
+	}
+
+	@TearDown(Level.Invocation)
+	public void releaseEntityManager() throws DaoException {
+		DaoFactory.getInstance().releaseEntityManager();
+	}
+
+	@Benchmark
+	public List<Meeting> readAllMeetings() throws DaoException {
+		return DaoFactory.getInstance().getMeetingDao().readAllMeetings();
+	}
+
+	@Benchmark
+	public List<Meeting> readAllMeetingsWithUser() throws DaoException {
+		return DaoFactory.getInstance().getMeetingDao().readAllMeetingsWithUser(this.userId);
+	}
+
+	@Benchmark
+	public Page<Meeting> readMeetingsPage() throws DaoException {
+		return DaoFactory.getInstance().getMeetingDao().readMeetingsPage(0, 50);
+	}
+
+	@Benchmark
+	public List<Room> readAllRooms() throws DaoException {
+		return DaoFactory.getInstance().getRoomDao().readAllRooms();
+	}
+
+	@Benchmark
+	public User readUser() throws DaoException {
+		return DaoFactory.getInstance().getUserDao().readUser(this.userId);
+	}
+}
@@ -0,0 +1,67 @@
+package edu.intech.meetings.benchmarks;
+
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.intech.meetings.model.Meeting;
+import edu.intech.meetings.utils.DateTimeHelper;
+
+/**
+ * Débit de lecture d'une date de réunion par 32 threads simultanés. Un
+ * {@link SimpleDateFormat} partagé n'étant pas thread-safe, l'ancienne approche
+ * n'est correcte qu'avec un verrou ou une instance par appel : ce sont ces deux
+ * variantes qui sont comparées à {@link DateTimeHelper}.<br>
+ * <br>
+ * Lancement : <code>mvn -Pbenchmark test-compile exec:exec -Djmh.args=DateParsingBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(32)
+public class DateParsingBenchmark {
+
+	private static final String START = "24/12/2020 20:00";
+
+	private final DateFormat sharedFormat = createFormat();
+
+	private static DateFormat createFormat() {
+		final DateFormat ret = new SimpleDateFormat(Meeting.DATETIME_PATTERN, Locale.FRANCE);
+		ret.setLenient(false);
+		return ret;
+	}
+
+	@Benchmark
+	public Date sharedSimpleDateFormatWithLock() throws ParseException {
+		synchronized (this.sharedFormat) {
+			return this.sharedFormat.parse(START);
+		}
+	}
+
+	@Benchmark
+	public Date simpleDateFormatPerCall() throws ParseException {
+		return createFormat().parse(START);
+	}
+
+	@Benchmark
+	public Date dateTimeHelper() {
+		return DateTimeHelper.parse(START);
+	}
+}
@@ -0,0 +1,102 @@
+package edu.intech.meetings.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.intech.meetings.model.Meeting;
+import edu.intech.meetings.model.Room;
+import edu.intech.meetings.model.User;
+import edu.intech.meetings.utils.JsonHelper;
+
+/**
+ * Compare l'écriture JSON telle que la faisaient les services (un
+ * {@link ObjectMapper} neuf par appel) avec les writers partagés de
+ * {@link JsonHelper}, pour une réunion seule, une liste de réunions et une
+ * liste de salles.<br>
+ * <br>
+ * Lancement : <code>mvn -Pbenchmark test-compile exec:exec</code> (résultats
+ * dans <code>target/jmh-result.json</code>).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class JsonWriterBenchmark {
+
+	@Param({ "1", "100" })
+	private int guestsCount;
+
+	private Meeting meeting;
+	private List<Meeting> meetings;
+	private List<Room> rooms;
+
+	@Setup
+	public void createMeetings() {
+		final List<User> guests = new ArrayList<>();
+		for (int i = 0; i < this.guestsCount; i++) {
+			final User user = new User("Nom_" + i, "pwd", "Prénom_" + i, "user" + i + "@intech.edu");
+			user.setId(i);
+			guests.add(user);
+		}
+		this.meeting = new Meeting("Réunion", new Date(), 60, guests);
+		this.meetings = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			this.meetings.add(new Meeting("Réunion " + i, new Date(), 60, guests));
+		}
+		this.rooms = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			this.rooms.add(new Room("Salle " + i, 20, this.meetings.subList(i, i + 1)));
+		}
+	}
+
+	@Benchmark
+	public String meetingWithNewMapper() throws JsonProcessingException {
+		return new ObjectMapper().writeValueAsString(this.meeting);
+	}
+
+	@Benchmark
+	public String meetingWithSharedWriter() throws JsonProcessingException {
+		return JsonHelper.writerFor(Meeting.class).writeValueAsString(this.meeting);
+	}
+
+	@Benchmark
+	public String meetingsListWithNewMapper() throws JsonProcessingException {
+		return new ObjectMapper().writeValueAsString(this.meetings);
+	}
+
+	@Benchmark
+	public String meetingsListWithSharedWriter() throws JsonProcessingException {
+		return JsonHelper.listWriterFor(Meeting.class).writeValueAsString(this.meetings);
+	}
+
+	@Benchmark
+	public String roomsListWithNewMapper() throws JsonProcessingException {
+		return new ObjectMapper().writeValueAsString(this.rooms);
+	}
+
+	@Benchmark
+	public String roomsListWithSharedWriter() throws JsonProcessingException {
+		return JsonHelper.listWriterFor(Room.class).writeValueAsString(this.rooms);
+	}
+}
@@ -0,0 +1,90 @@
+package edu.intech.meetings.benchmarks;
+
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sun.jersey.core.util.MultivaluedMapImpl;
+
+import edu.intech.meetings.dao.DaoFactory;
+import edu.intech.meetings.exceptions.DaoException;
+import edu.intech.meetings.exceptions.ServiceException;
+import edu.intech.meetings.model.Meeting;
+import edu.intech.meetings.model.User;
+import edu.intech.meetings.utils.MeetingsHelper;
+
+/**
+ * Lecture des paramètres d'ajout d'une réunion par
+ * {@link MeetingsHelper#checkGivenMeeting(MultivaluedMap)} (conversion de la
+ * date et de la durée, lecture des invités) et lecture seule de la liste des
+ * invités par {@link MeetingsHelper#parseMeetingUsersList(String)}, sur une
+ * base embarquée ({@link BenchmarkDatabase}).<br>
+ * <br>
+ * Lancement : <code>mvn -Pbenchmark test-compile exec:exec -Djmh.args=MeetingParamsBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeetingParamsBenchmark {
+
+	@Param({ "1", "20" })
+	private int guestsCount;
+
+	private String guests;
+	private MultivaluedMap<String, String> params;
+
+	@Setup(Level.Trial)
+	public void populate() throws DaoException {
+		BenchmarkDatabase.start();
+		final List<User> users = BenchmarkDatabase.populate(this.guestsCount, 0, 0);
+		final StringJoiner ids = new StringJoiner(",");
+		for (final User user : users) {
+			ids.add(Integer.toString(user.getId()));
+		}
+		this.guests = ids.toString();
+		this.params = new MultivaluedMapImpl();
+		this.params.add(MeetingsHelper.MEETING_PARAM_TITLE, "Réunion");
+		this.params.add(MeetingsHelper.MEETING_PARAM_START, "15/01/2030 10:00");
+		this.params.add(MeetingsHelper.MEETING_PARAM_DURATION, "60");
+		this.params.add(MeetingsHelper.MEETING_PARAM_GUESTS, this.guests);
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		BenchmarkDatabase.stop();
+	}
+
+	@TearDown(Level.Invocation)
+	public void releaseEntityManager() throws DaoException {
+		DaoFactory.getInstance().releaseEntityManager();
+	}
+
+	@Benchmark
+	public Meeting checkGivenMeeting() throws ServiceException {
+		return MeetingsHelper.checkGivenMeeting(this.params);
+	}
+
+	@Benchmark
+	public List<User> parseMeetingUsersList() throws ServiceException {
+		return MeetingsHelper.parseMeetingUsersList(this.guests);
+	}
+}
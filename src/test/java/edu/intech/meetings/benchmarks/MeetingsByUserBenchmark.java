@@ -0,0 +1,130 @@
+package edu.intech.meetings.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.codehaus.jettison.json.JSONException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sun.jersey.core.util.MultivaluedMapImpl;
+
+import edu.intech.meetings.dao.DaoFactory;
+import edu.intech.meetings.exceptions.DaoException;
+import edu.intech.meetings.model.Meeting;
+import edu.intech.meetings.model.Room;
+import edu.intech.meetings.model.User;
+import edu.intech.meetings.services.MeetingsService;
+import edu.intech.meetings.utils.MeetingsHelper;
+
+/**
+ * Lecture des réunions d'un utilisateur par
+ * {@link MeetingsService#getMeetingsByUserId(MultivaluedMap)} et des salles
+ * d'une réunion quand la table Meeting grossit, sur une base embarquée
+ * ({@link BenchmarkDatabase}). L'utilisateur lu est invité à un nombre fixe de
+ * réunions : grâce aux jointures sur les index Guests(userId, meetingId) et
+ * Participants(meetingId, roomId), la durée ne doit pas dépendre du nombre de
+ * réunions. La lecture de son agenda
+ * ({@link MeetingsService#getAgendaByUserId(MultivaluedMap)}) donne le coût
+ * sans base de données.<br>
+ * <br>
+ * Lancement : <code>mvn -Pbenchmark test-compile exec:exec -Djmh.args=MeetingsByUserBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MeetingsByUserBenchmark {
+
+	private static final int USERS_COUNT = 1000;
+	private static final int USER_MEETINGS_COUNT = 20;
+	private static final int CHUNK_SIZE = 10_000;
+
+	@Param({ "10000", "100000", "1000000" })
+	private int meetingsCount;
+
+	private final MeetingsService meetingsService = new MeetingsService();
+	private MultivaluedMap<String, String> userParams;
+	private int meetingId;
+
+	@Setup(Level.Trial)
+	public void populate() throws DaoException {
+		BenchmarkDatabase.start();
+		final DaoFactory factory = DaoFactory.getInstance();
+		final List<User> users = BenchmarkDatabase.populate(USERS_COUNT + 1, 0, 0);
+		final List<Integer> userIds = new ArrayList<>();
+		for (final User user : users) {
+			userIds.add(user.getId());
+		}
+		final int userId = userIds.get(USERS_COUNT);
+
+		// Les réunions sont créées par lots, chacun dans un EntityManager neuf ; une
+		// réunion sur meetingsCount / USER_MEETINGS_COUNT invite l'utilisateur lu.
+		final long hour = 3600L * 1000;
+		final int userEvery = this.meetingsCount / USER_MEETINGS_COUNT;
+		for (int chunk = 0; chunk < this.meetingsCount; chunk += CHUNK_SIZE) {
+			final List<User> guests = factory.getUserDao().readUsersByIdList(userIds);
+			final List<Meeting> meetings = new ArrayList<>(CHUNK_SIZE);
+			for (int i = chunk; i < Math.min(chunk + CHUNK_SIZE, this.meetingsCount); i++) {
+				final User guest = i % userEvery == 0 ? guests.get(USERS_COUNT) : guests.get(i % USERS_COUNT);
+				meetings.add(new Meeting("Réunion " + i, new Date(i * hour), 60,
+						new ArrayList<>(Arrays.asList(guest, guests.get((i + 1) % USERS_COUNT)))));
+			}
+			factory.getMeetingDao().createMeetings(meetings);
+			if (chunk == 0) {
+				this.meetingId = meetings.get(0).getId();
+				factory.getRoomDao().createRoom(new Room("Salle", 20, new ArrayList<>(meetings.subList(0, 1))), true);
+			}
+			factory.releaseEntityManager();
+		}
+		this.userParams = new MultivaluedMapImpl();
+		this.userParams.add(MeetingsHelper.MEETING_PARAM_ID, Integer.toString(userId));
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		BenchmarkDatabase.stop();
+	}
+
+	@TearDown(Level.Invocation)
+	public void releaseEntityManager() throws DaoException {
+		DaoFactory.getInstance().releaseEntityManager();
+	}
+
+	@Benchmark
+	public void getMeetingsByUserId() throws JSONException, IOException {
+		((StreamingOutput) this.meetingsService.getMeetingsByUserId(this.userParams).getEntity())
+				.write(OutputStream.nullOutputStream());
+	}
+
+	@Benchmark
+	public String getAgendaByUserId() throws JSONException, IOException {
+		return (String) this.meetingsService.getAgendaByUserId(this.userParams).getEntity();
+	}
+
+	@Benchmark
+	public List<Room> readAllRoomsWithMeeting() throws DaoException {
+		return DaoFactory.getInstance().getRoomDao().readAllRoomsWithMeeting(this.meetingId);
+	}
+}
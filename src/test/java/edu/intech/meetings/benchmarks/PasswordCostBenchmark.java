@@ -0,0 +1,96 @@
+package edu.intech.meetings.benchmarks;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import edu.intech.meetings.utils.PasswordHelper;
+
+/**
+ * Temps de hachage d'un mot de passe selon le nombre d'itérations PBKDF2, seul
+ * et avec la génération du sel et l'encodage du format stocké
+ * ({@link PasswordHelper#generateSecurePassword(String)}), pour choisir
+ * <code>meetings.password.iterations</code> sur les machines de production.<br>
+ * <br>
+ * Lancé par JMH, il donne le temps moyen de chaque configuration :
+ * <code>mvn -Pbenchmark test-compile exec:exec -Djmh.args=PasswordCostBenchmark</code>.
+ * <br>
+ * Lancé par sa méthode {@link #main(String[])}, il recommande en plus le nombre
+ * d'itérations correspondant à un budget en millisecondes par connexion :
+ * <code>mvn -Pbenchmark test-compile exec:exec -Djmh.main=edu.intech.meetings.benchmarks.PasswordCostBenchmark -Djmh.args=250</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordCostBenchmark {
+
+	private static final byte[] SALT = "0123456789abcdef".getBytes();
+
+	@Param({ "10000", "50000", "100000", "200000" })
+	private int iterations;
+
+	@Setup
+	public void configureIterations() {
+		// ConfigHelper lit les propriétés système à chaque appel :
+		// generateSecurePassword utilise le nombre d'itérations mesuré.
+		System.setProperty("meetings.password.iterations", Integer.toString(this.iterations));
+	}
+
+	@Benchmark
+	public byte[] hash() {
+		return PasswordHelper.hash("MotDePasse".toCharArray(), SALT, PasswordHelper.ALGORITHM, this.iterations);
+	}
+
+	@Benchmark
+	public String generateSecurePassword() {
+		return PasswordHelper.generateSecurePassword("MotDePasse");
+	}
+
+	/**
+	 * @param args Options de JMH (format et fichier des résultats), suivies du
+	 *             budget de temps de hachage par connexion, en millisecondes (250
+	 *             par défaut).
+	 */
+	public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+		double budgetMs = 250;
+		String[] jmhArgs = args;
+		if (args.length > 0 && args[args.length - 1].matches("\\d+(\\.\\d+)?")) {
+			budgetMs = Double.parseDouble(args[args.length - 1]);
+			jmhArgs = Arrays.copyOf(args, args.length - 1);
+		}
+		final Collection<RunResult> results = new Runner(new OptionsBuilder()
+				.parent(new CommandLineOptions(jmhArgs)).include(PasswordCostBenchmark.class.getName() + ".hash$")
+				.build()).run();
+		// Le coût est proportionnel au nombre d'itérations : on retient le coût par
+		// itération le plus élevé mesuré, pour ne pas dépasser le budget.
+		double msPerIteration = 0;
+		for (final RunResult result : results) {
+			final int measured = Integer.parseInt(result.getParams().getParam("iterations"));
+			msPerIteration = Math.max(msPerIteration, result.getPrimaryResult().getScore() / measured);
+		}
+		final int recommended = (int) (budgetMs / msPerIteration / 1000) * 1000;
+		System.out.println(String.format("Budget de %.0f ms par hachage : meetings.password.iterations=%d "
+				+ "(%.4f ms pour 1000 itérations).", budgetMs, recommended, msPerIteration * 1000));
+	}
+}
@@ -1,9 +1,14 @@
 package edu.intech.meetings.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 
@@ -11,8 +16,12 @@ import org.junit.jupiter.api.Test;
 
 import com.sun.jersey.core.util.MultivaluedMapImpl;
 
+import edu.intech.meetings.dao.DaoFactory;
 import edu.intech.meetings.exceptions.ServiceException;
+import edu.intech.meetings.model.User;
 import edu.intech.meetings.services.AuthenticationService;
+import edu.intech.meetings.utils.PasswordHelper;
+import edu.intech.meetings.utils.TokenCache;
 
 /**
  * Classe servant à tester les services d'authentification de la classe
@@ -64,4 +73,56 @@ public class AuthenticationServiceTest extends AbstractTest {
 		}, "La vérification du token vide devrait renvoyer une " + ServiceException.class.getName());
 	}
 
+	@Test
+	public void testCheckTokenCache() throws ServiceException {
+		final MultivaluedMap<String, String> params = new MultivaluedMapImpl();
+		params.add("token", TestSetup.token);
+		// La deuxième vérification du même token doit être servie par le cache.
+		AuthenticationService.checkToken(params);
+		final long hits = TokenCache.getInstance().getStatistics().getHits();
+		assertEquals(TestSetup.ROOT_USER_NAME, AuthenticationService.checkToken(params),
+				"La vérification du token devrait renvoyer le nom d'utilisateur " + TestSetup.ROOT_USER_NAME);
+		assertEquals(hits + 1, TokenCache.getInstance().getStatistics().getHits(),
+				"La deuxième vérification aurait dû être servie par le cache.");
+		// Un token modifié ne doit pas profiter du cache du token d'origine.
+		params.clear();
+		params.add("token", TestSetup.token.substring(0, TestSetup.token.length() - 2) + "xx");
+		assertThrows(ServiceException.class, () -> {
+			AuthenticationService.checkToken(params);
+		}, "La vérification d'un token falsifié devrait renvoyer une " + ServiceException.class.getName());
+	}
+
+	@Test
+	public void testRehashOnLogin() throws Exception {
+		// Utilisateur dont le mot de passe est stocké à l'ancien format : PBKDF2-SHA1,
+		// 10000 itérations, sel commun, Base64 du hash seul.
+		final String password = "LegacyPass";
+		final String legacyHash = Base64.getEncoder().encodeToString(PasswordHelper.hash(password.toCharArray(),
+				"EqdmPh53c9x33EygXpTpcoJvc4VXLK".getBytes(StandardCharsets.UTF_8), "pbkdf2-sha1", 10000));
+		assertTrue(PasswordHelper.needsRehash(legacyHash), "L'ancien format devrait être à recalculer.");
+		User user = DaoFactory.getInstance().getUserDao()
+				.createUser(new User("LegacyUser", legacyHash, "Legacy", null), true);
+		try {
+			// La connexion fonctionne avec l'ancien hash...
+			final MultivaluedMap<String, String> params = new MultivaluedMapImpl();
+			params.add("name", "LegacyUser");
+			params.add("pwd", password);
+			final Response ret = this.authenticationService.autenticateUser(params);
+			assertEquals(Response.Status.OK.getStatusCode(), ret.getStatus(),
+					"Le status de la réponse devrait être OK (200).");
+			// ... et le remplace par un hash au nouveau format, toujours valide.
+			DaoFactory.getInstance().releaseEntityManager();
+			user = DaoFactory.getInstance().getUserDao().readUser(user.getId());
+			assertTrue(user.getPassword().startsWith("$" + PasswordHelper.ALGORITHM + "$"),
+					"Le mot de passe aurait dû être haché au nouveau format.");
+			assertFalse(PasswordHelper.needsRehash(user.getPassword()), "Le nouveau hash ne devrait pas être à recalculer.");
+			assertTrue(PasswordHelper.verifyUserPassword(password, user.getPassword()),
+					"Le nouveau hash devrait correspondre au mot de passe.");
+			assertFalse(PasswordHelper.verifyUserPassword("MauvaisPass", user.getPassword()),
+					"Le nouveau hash ne devrait pas correspondre à un autre mot de passe.");
+		} finally {
+			DaoFactory.getInstance().getUserDao().deleteUser(user, true);
+		}
+	}
+
 }
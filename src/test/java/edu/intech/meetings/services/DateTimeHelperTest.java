@@ -0,0 +1,52 @@
+package edu.intech.meetings.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+import edu.intech.meetings.utils.DateTimeHelper;
+
+/**
+ * Classe servant à tester la lecture et l'écriture des dates/heures
+ * ({@link DateTimeHelper}) : mêmes formes acceptées que l'ancien
+ * {@link java.text.SimpleDateFormat}, mais lecture stricte des dates
+ * incohérentes.
+ */
+public class DateTimeHelperTest extends AbstractTest {
+
+	@Test
+	public void testParseShortFields() {
+		assertEquals(date(2020, 12, 4, 9, 5), DateTimeHelper.parse("4/12/2020 9:5"),
+				"Les jours, heures et minutes d'un seul chiffre devraient être acceptés.");
+		assertEquals(date(2020, 12, 24, 20, 0), DateTimeHelper.parse("24/12/2020 20:00"));
+		assertEquals("04/12/2020 09:05", DateTimeHelper.format(date(2020, 12, 4, 9, 5)),
+				"L'écriture devrait toujours utiliser deux chiffres.");
+	}
+
+	@Test
+	public void testLargeYears() {
+		final Date date = date(12345, 1, 2, 3, 4);
+		assertEquals("02/01/12345 03:04", DateTimeHelper.format(date),
+				"Une année de plus de quatre chiffres devrait être écrite en entier.");
+		assertEquals(date, DateTimeHelper.parse("02/01/12345 03:04"),
+				"Une année de plus de quatre chiffres devrait être relue.");
+	}
+
+	@Test
+	public void testInvalidDates() {
+		assertThrows(DateTimeParseException.class, () -> DateTimeHelper.parse("33/22/2020 40:73"));
+		assertThrows(DateTimeParseException.class, () -> DateTimeHelper.parse("31/02/2021 10:00"));
+		assertThrows(DateTimeParseException.class, () -> DateTimeHelper.parse("24/12/2020 20:000"));
+		assertThrows(DateTimeParseException.class, () -> DateTimeHelper.parse("24/12/2020 20:00 demain"));
+	}
+
+	private static Date date(final int year, final int month, final int day, final int hour, final int minute) {
+		return Date.from(LocalDateTime.of(year, month, day, hour, minute).atZone(ZoneId.systemDefault()).toInstant());
+	}
+}
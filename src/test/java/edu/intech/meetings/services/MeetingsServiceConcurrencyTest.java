@@ -0,0 +1,344 @@
+package edu.intech.meetings.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import com.sun.jersey.core.util.MultivaluedMapImpl;
+
+import edu.intech.meetings.dao.DaoFactory;
+import edu.intech.meetings.index.BookingLocks;
+import edu.intech.meetings.index.RoomBookingIndex;
+import edu.intech.meetings.model.Meeting;
+import edu.intech.meetings.model.Room;
+import edu.intech.meetings.model.User;
+import edu.intech.meetings.utils.DateTimeHelper;
+import edu.intech.meetings.utils.MeetingsHelper;
+
+/**
+ * Test de concurrence des services {@link MeetingsService} : plusieurs threads
+ * appellent en parallèle <code>/meetings/add</code> et
+ * <code>/meetings/all</code>, chaque itération émulant une requête HTTP
+ * (l'EntityManager du thread est libéré à la fin de chaque itération, comme le
+ * ferait {@link edu.intech.meetings.servletFilter.EntityManagerFilter}).<br>
+ * <br>
+ * Le test vérifie qu'aucune requête n'échoue (ce qui était le cas lorsque
+ * toutes les requêtes partageaient un seul EntityManager), qu'aucune réunion
+ * créée n'est perdue ni dupliquée, qu'un même invité ne peut être réservé deux
+ * fois sur le même créneau par des requêtes simultanées, et qu'une salle ne
+ * peut recevoir deux réunions qui se chevauchent lorsqu'une de ses réunions est
+ * déplacée pendant sa modification. Les réservations d'invités différents ne
+ * s'attendent pas.
+ *
+ * @author martin
+ *
+ */
+public class MeetingsServiceConcurrencyTest extends AbstractTest {
+
+	private final static int[] THREAD_COUNTS = { 1, 2, 4, 8 };
+	private final static int REQUESTS_PER_THREAD = 20;
+	private final static int BOOKING_THREADS = 8;
+	private final static int ROOM_ROUNDS = 20;
+
+	private final static List<Integer> createdMeetings = Collections.synchronizedList(new ArrayList<>());
+	private static User guest;
+	private static Room room;
+
+	@Test
+	public void testConcurrentAddAndReadMeetings() throws Exception {
+		for (final int threads : THREAD_COUNTS) {
+			final int before = createdMeetings.size();
+			final ExecutorService executor = Executors.newFixedThreadPool(threads);
+			try {
+				final List<Callable<Integer>> tasks = new ArrayList<>();
+				for (int i = 0; i < threads; i++) {
+					tasks.add(this::hammer);
+				}
+				int requests = 0;
+				for (final Future<Integer> future : executor.invokeAll(tasks)) {
+					requests += future.get();
+				}
+				assertEquals(threads * REQUESTS_PER_THREAD * 2, requests,
+						"Toutes les requêtes auraient dû aboutir.");
+			} finally {
+				executor.shutdownNow();
+			}
+
+			// Chaque création a donné une réunion distincte, toutes présentes en base.
+			final List<Integer> ids = new ArrayList<>(createdMeetings.subList(before, createdMeetings.size()));
+			assertEquals(threads * REQUESTS_PER_THREAD, new HashSet<>(ids).size(),
+					"Chaque réunion créée devrait avoir son propre identifiant.");
+			final Set<Integer> stored = DaoFactory.getInstance().getMeetingDao().readMeetingsByIdList(ids).stream()
+					.map(Meeting::getId).collect(Collectors.toSet());
+			DaoFactory.getInstance().releaseEntityManager();
+			assertEquals(new HashSet<>(ids), stored, "Aucune réunion créée ne devrait être perdue.");
+		}
+	}
+
+	@Test
+	public void testConcurrentBookingOfSameGuest() throws Exception {
+		guest = DaoFactory.getInstance().getUserDao()
+				.createUser(new User("Concurrence", "pwd", null, null), true);
+		DaoFactory.getInstance().releaseEntityManager();
+
+		// Tous les threads demandent en même temps le même créneau pour le même
+		// invité : une seule réservation doit aboutir.
+		final CountDownLatch start = new CountDownLatch(1);
+		final ExecutorService executor = Executors.newFixedThreadPool(BOOKING_THREADS);
+		final List<Future<Response>> responses = new ArrayList<>();
+		try {
+			for (int i = 0; i < BOOKING_THREADS; i++) {
+				final int index = i;
+				responses.add(executor.submit(() -> {
+					start.await();
+					try {
+						return new MeetingsService().addMeeting(meetingParams("Réservation " + index, guest.getId()));
+					} finally {
+						DaoFactory.getInstance().releaseEntityManager();
+					}
+				}));
+			}
+			start.countDown();
+			int created = 0;
+			for (final Future<Response> future : responses) {
+				final Response ret = future.get();
+				if (ret.getStatus() == Response.Status.CREATED.getStatusCode()) {
+					createdMeetings.add(TestsHelper.JsonToMeeting((String) ret.getEntity()).getId());
+					created++;
+				} else {
+					assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
+							"Les autres réservations devraient être refusées pour conflit (412).");
+				}
+			}
+			assertEquals(1, created, "Une seule réservation du créneau devrait aboutir.");
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(1, DaoFactory.getInstance().getMeetingDao().readAllMeetingsWithUser(guest.getId()).size(),
+				"L'invité ne devrait avoir qu'une réunion en base.");
+		DaoFactory.getInstance().releaseEntityManager();
+	}
+
+	@Test
+	public void testBookingLocksOfOtherGuests() throws Exception {
+		final BookingLocks held = BookingLocks.of(() -> new BookingLocks.Keys().guest(1));
+		held.lock();
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			final Future<?> sameGuest = executor.submit(() -> lockAndRelease(1));
+			final Future<?> otherGuest = executor.submit(() -> lockAndRelease(2));
+			try {
+				otherGuest.get(5, TimeUnit.SECONDS);
+				Thread.sleep(200);
+				assertFalse(sameGuest.isDone(), "La réservation du même invité devrait attendre le verrou.");
+			} finally {
+				held.unlock();
+			}
+			sameGuest.get(5, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testConcurrentRoomAndMeetingUpdates() throws Exception {
+		// Deux réunions sans invité, l'une après l'autre, et une salle vide.
+		final Date first = DateTimeHelper.parse("01/03/2021 10:00");
+		final Date second = DateTimeHelper.parse("01/03/2021 12:00");
+		final Date moved = DateTimeHelper.parse("01/03/2021 10:30");
+		final int firstId = createMeeting("Salle A", first);
+		final int secondId = createMeeting("Salle B", second);
+		final RoomsService roomsService = new RoomsService();
+		Response ret = roomsService.addRoom(roomParams(-1, ""));
+		assertEquals(Response.Status.CREATED.getStatusCode(), ret.getStatus());
+		room = TestsHelper.JsonToRoom((String) ret.getEntity());
+		DaoFactory.getInstance().releaseEntityManager();
+
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			for (int round = 0; round < ROOM_ROUNDS; round++) {
+				// Salle vide et seconde réunion à son horaire initial...
+				assertEquals(Response.Status.OK.getStatusCode(),
+						roomsService.updateRoom(roomParams(room.getId(), "")).getStatus());
+				assertEquals(Response.Status.OK.getStatusCode(), new MeetingsService()
+						.updateMeeting(meetingParams("Salle B", secondId, second)).getStatus());
+				DaoFactory.getInstance().releaseEntityManager();
+
+				// ... puis, en même temps, les deux réunions mises dans la salle et la
+				// seconde déplacée sur la première.
+				final CountDownLatch start = new CountDownLatch(1);
+				final Future<Response> roomUpdate = executor.submit(() -> {
+					start.await();
+					try {
+						return new RoomsService().updateRoom(roomParams(room.getId(), firstId + "," + secondId));
+					} finally {
+						DaoFactory.getInstance().releaseEntityManager();
+					}
+				});
+				final Future<Response> meetingUpdate = executor.submit(() -> {
+					start.await();
+					try {
+						return new MeetingsService().updateMeeting(meetingParams("Salle B", secondId, moved));
+					} finally {
+						DaoFactory.getInstance().releaseEntityManager();
+					}
+				});
+				start.countDown();
+				final int roomStatus = roomUpdate.get().getStatus();
+				final int meetingStatus = meetingUpdate.get().getStatus();
+				assertTrue((roomStatus == Response.Status.OK.getStatusCode()) != (meetingStatus == Response.Status.OK
+						.getStatusCode()), "Une seule des deux modifications devrait aboutir (salle : " + roomStatus
+								+ ", réunion : " + meetingStatus + ").");
+				final Room stored = DaoFactory.getInstance().getRoomDao().readRoom(room.getId());
+				assertTrue(RoomBookingIndex.findConflicts(stored.getMeetings()).isEmpty(),
+						"La salle ne devrait pas contenir deux réunions qui se chevauchent.");
+				DaoFactory.getInstance().releaseEntityManager();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * @return l'identifiant de la réunion sans invité créée, supprimée par le test.
+	 */
+	private static int createMeeting(final String title, final Date start) throws Exception {
+		final Response ret = new MeetingsService().addMeeting(meetingParams(title, -1, start));
+		assertEquals(Response.Status.CREATED.getStatusCode(), ret.getStatus());
+		final int id = TestsHelper.JsonToMeeting((String) ret.getEntity()).getId();
+		createdMeetings.add(id);
+		DaoFactory.getInstance().releaseEntityManager();
+		return id;
+	}
+
+	/**
+	 * @param meetingId Identifiant de la réunion à modifier, ou <code>-1</code>
+	 *                  pour une création.
+	 */
+	private static MultivaluedMap<String, String> meetingParams(final String title, final int meetingId,
+			final Date start) {
+		final MultivaluedMap<String, String> params = new MultivaluedMapImpl();
+		params.add(AuthenticationService.AUTH_PARAM_TOKEN, TestSetup.token);
+		if (meetingId >= 0) {
+			params.add(MeetingsHelper.MEETING_PARAM_ID, Integer.toString(meetingId));
+		}
+		params.add(MeetingsHelper.MEETING_PARAM_TITLE, title);
+		params.add(MeetingsHelper.MEETING_PARAM_START, DateTimeHelper.format(start));
+		params.add(MeetingsHelper.MEETING_PARAM_DURATION, "60");
+		return params;
+	}
+
+	/**
+	 * @param roomId Identifiant de la salle à modifier, ou <code>-1</code> pour
+	 *               une création.
+	 */
+	private static MultivaluedMap<String, String> roomParams(final int roomId, final String meetings) {
+		final MultivaluedMap<String, String> params = new MultivaluedMapImpl();
+		params.add(AuthenticationService.AUTH_PARAM_TOKEN, TestSetup.token);
+		if (roomId >= 0) {
+			params.add(RoomsService.ROOM_PARAM_ID, Integer.toString(roomId));
+		}
+		params.add(RoomsService.ROOM_PARAM_NAME, "Concurrence");
+		params.add(RoomsService.ROOM_PARAM_MEETINGS, meetings);
+		return params;
+	}
+
+	/**
+	 * Crée une réunion puis lit toutes les réunions, {@link #REQUESTS_PER_THREAD}
+	 * fois. Chaque lecture doit contenir la réunion que le thread vient de créer.
+	 *
+	 * @return le nombre de requêtes ayant abouti.
+	 */
+	private int hammer() throws Exception {
+		final MeetingsService meetingService = new MeetingsService();
+		int ok = 0;
+		for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+			try {
+				Response ret = meetingService
+						.addMeeting(meetingParams("Charge " + Thread.currentThread().getName() + " " + i, -1));
+				assertEquals(Response.Status.CREATED.getStatusCode(), ret.getStatus(),
+						"Le status de la réponse devrait être CREATED (201).");
+				final int id = TestsHelper.JsonToMeeting((String) ret.getEntity()).getId();
+				createdMeetings.add(id);
+				ok++;
+
+				ret = meetingService.getAllMeetings();
+				assertEquals(Response.Status.OK.getStatusCode(), ret.getStatus(),
+						"Le status de la réponse devrait être OK (200).");
+				// Le corps est écrit au fil de la lecture : on le consomme comme le ferait
+				// Jersey.
+				assertTrue(TestsHelper.JsonToMeetingsList(TestsHelper.entityAsString(ret)).stream()
+						.anyMatch(meeting -> meeting.getId() == id),
+						"La liste des réunions devrait contenir la réunion qui vient d'être créée.");
+				ok++;
+			} finally {
+				DaoFactory.getInstance().releaseEntityManager();
+			}
+		}
+		return ok;
+	}
+
+	/**
+	 * @param guestId Identifiant de l'invité, ou <code>-1</code> pour une réunion
+	 *                sans invité.
+	 */
+	private static MultivaluedMap<String, String> meetingParams(final String title, final int guestId) {
+		final MultivaluedMap<String, String> params = new MultivaluedMapImpl();
+		params.add(AuthenticationService.AUTH_PARAM_TOKEN, TestSetup.token);
+		params.add(MeetingsHelper.MEETING_PARAM_TITLE, title);
+		params.add(MeetingsHelper.MEETING_PARAM_START, MeetingsServiceTest.TEST_MEETING_START_OK);
+		params.add(MeetingsHelper.MEETING_PARAM_DURATION, MeetingsServiceTest.TEST_MEETING_DURATION);
+		if (guestId >= 0) {
+			params.add(MeetingsHelper.MEETING_PARAM_GUESTS, Integer.toString(guestId));
+		}
+		return params;
+	}
+
+	@AfterAll
+	public static void deleteJunkMeetings() throws Exception {
+		if (room != null) {
+			DaoFactory.getInstance().getRoomDao().deleteRoom(DaoFactory.getInstance().getRoomDao().readRoom(room.getId()));
+			RoomBookingIndex.getInstance().removeRoom(room.getId());
+			room = null;
+		}
+		for (final Integer id : createdMeetings) {
+			final Meeting meeting = DaoFactory.getInstance().getMeetingDao().readMeeting(id);
+			assertTrue(meeting != null, "La réunion créée par le test de charge est introuvable.");
+			DaoFactory.getInstance().getMeetingDao().deleteMeeting(meeting);
+		}
+		createdMeetings.clear();
+		if (guest != null) {
+			DaoFactory.getInstance().getUserDao()
+					.deleteUser(DaoFactory.getInstance().getUserDao().readUser(guest.getId()), true);
+			guest = null;
+		}
+		DaoFactory.getInstance().releaseEntityManager();
+	}
+
+	private static Void lockAndRelease(final int guestId) throws Exception {
+		final BookingLocks locks = BookingLocks.of(() -> new BookingLocks.Keys().guest(guestId));
+		locks.lock();
+		locks.unlock();
+		return null;
+	}
+}
@@ -1,9 +1,18 @@
 package edu.intech.meetings.services;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sun.jersey.core.util.MultivaluedMapImpl;
+import edu.intech.meetings.dao.DaoFactory;
+import edu.intech.meetings.exceptions.DaoException;
 import edu.intech.meetings.model.Meeting;
 import edu.intech.meetings.model.User;
+import edu.intech.meetings.utils.DateTimeHelper;
+import edu.intech.meetings.utils.MeetingsHelper;
+import edu.intech.meetings.utils.ServicesHelper;
+import org.codehaus.jettison.json.JSONArray;
 import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
 import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
@@ -12,6 +21,8 @@ import org.junit.jupiter.api.TestMethodOrder;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.StringTokenizer;
 
@@ -57,6 +68,8 @@ public class MeetingsServiceTest extends AbstractTest {
 			final Response ret = this.meetingService.getAllMeetings();
 			assertEquals(Response.Status.OK.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être OK (200).");
+			assertNotNull(TestsHelper.JsonToMeetingsList(TestsHelper.entityAsString(ret)),
+					"La réponse devrait être une liste de réunions.");
 		} catch (JSONException | IOException e) {
 			fail(e.getMessage());
 		}
@@ -89,40 +102,47 @@ public class MeetingsServiceTest extends AbstractTest {
 					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
 			// 2eme test sur la réunion : juste le nom. On doit obtenir un
 			// statut 412 PRECONDITION_FAILED.
-			this.params.add(MeetingsService.MEETING_PARAM_TITLE, TEST_MEETING_TITLE);
+			this.params.add(MeetingsHelper.MEETING_PARAM_TITLE, TEST_MEETING_TITLE);
 			ret = this.meetingService.addMeeting(this.params);
 			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
 			// 3eme test sur la réunion : le nom, une date de début dans un mauvais format
 			// et une durée au bon format. On doit obtenir un statut 412
 			// PRECONDITION_FAILED.
-			this.params.add(MeetingsService.MEETING_PARAM_START, "C'est pas une date !");
-			this.params.add(MeetingsService.MEETING_PARAM_DURATION, TEST_MEETING_DURATION);
+			this.params.add(MeetingsHelper.MEETING_PARAM_START, "C'est pas une date !");
+			this.params.add(MeetingsHelper.MEETING_PARAM_DURATION, TEST_MEETING_DURATION);
 			ret = this.meetingService.addMeeting(this.params);
 			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
 			// 4eme test sur la réunion : le nom, une date de début dans un bon format mais
 			// avec des valeurs incohérentes et une durée au bon format. On doit obtenir un
 			// statut 412 PRECONDITION_FAILED.
-			this.params.remove(MeetingsService.MEETING_PARAM_START);
-			this.params.add(MeetingsService.MEETING_PARAM_START, TEST_MEETING_START_KO);
+			this.params.remove(MeetingsHelper.MEETING_PARAM_START);
+			this.params.add(MeetingsHelper.MEETING_PARAM_START, TEST_MEETING_START_KO);
 			ret = this.meetingService.addMeeting(this.params);
 			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
 			// 5eme test sur la réunion : on corrige la date de début mais c'est la durée
 			// qu'on rend maintenant invalide. On doit obtenir un statut 412
 			// PRECONDITION_FAILED.
-			this.params.remove(MeetingsService.MEETING_PARAM_START);
-			this.params.add(MeetingsService.MEETING_PARAM_START, TEST_MEETING_START_OK);
-			this.params.remove(MeetingsService.MEETING_PARAM_DURATION);
-			this.params.add(MeetingsService.MEETING_PARAM_DURATION, "C'est pas un entier !");
+			this.params.remove(MeetingsHelper.MEETING_PARAM_START);
+			this.params.add(MeetingsHelper.MEETING_PARAM_START, TEST_MEETING_START_OK);
+			this.params.remove(MeetingsHelper.MEETING_PARAM_DURATION);
+			this.params.add(MeetingsHelper.MEETING_PARAM_DURATION, "C'est pas un entier !");
+			ret = this.meetingService.addMeeting(this.params);
+			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
+					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
+			// Une durée supérieure à la durée maximale d'une réunion est aussi refusée.
+			this.params.remove(MeetingsHelper.MEETING_PARAM_DURATION);
+			this.params.add(MeetingsHelper.MEETING_PARAM_DURATION,
+					Integer.toString(MeetingsHelper.getMaxDuration() + 1));
 			ret = this.meetingService.addMeeting(this.params);
 			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
 			// 6eme test sur la réunion : juste le nom, une date de début au bon format et
 			// une durée au bon format aussi. Ca doit marcher.
-			this.params.remove(MeetingsService.MEETING_PARAM_DURATION);
-			this.params.add(MeetingsService.MEETING_PARAM_DURATION, TEST_MEETING_DURATION);
+			this.params.remove(MeetingsHelper.MEETING_PARAM_DURATION);
+			this.params.add(MeetingsHelper.MEETING_PARAM_DURATION, TEST_MEETING_DURATION);
 			ret = this.meetingService.addMeeting(this.params);
 			assertEquals(Response.Status.CREATED.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être CREATED (201).");
@@ -131,7 +151,7 @@ public class MeetingsServiceTest extends AbstractTest {
 			tempMeeting = TestsHelper.JsonToMeeting((String) ret.getEntity());
 			assertEquals(tempMeeting.getTitle(), TEST_MEETING_TITLE,
 					"Le titre de la réunion créée n'est pas le bon.");
-			assertEquals(MeetingsService.DATE_FORMATTER.format(tempMeeting.getStart()), TEST_MEETING_START_OK,
+			assertEquals(DateTimeHelper.format(tempMeeting.getStart()), TEST_MEETING_START_OK,
 					"La date de début de la réunion créée n'est pas la bonne.");
 			assertEquals(Integer.toString(tempMeeting.getDuration()), TEST_MEETING_DURATION,
 					"La durée de la réunion créée n'est pas la bonne.");
@@ -165,16 +185,16 @@ public class MeetingsServiceTest extends AbstractTest {
 			// 2eme test : juste le nom, une date et une durée (avec des valeurs
 			// changées). On doit encore obtenir un statut 412 PRECONDITION_FAILED parce
 			// qu'on a pas spécifié l'identifiant.
-			this.params.add(MeetingsService.MEETING_PARAM_TITLE, TEST_CHANGE_TITLE);
-			this.params.add(MeetingsService.MEETING_PARAM_START, TEST_CHANGE_START);
-			this.params.add(MeetingsService.MEETING_PARAM_DURATION, TEST_CHANGE_DURATION);
+			this.params.add(MeetingsHelper.MEETING_PARAM_TITLE, TEST_CHANGE_TITLE);
+			this.params.add(MeetingsHelper.MEETING_PARAM_START, TEST_CHANGE_START);
+			this.params.add(MeetingsHelper.MEETING_PARAM_DURATION, TEST_CHANGE_DURATION);
 			ret = this.meetingService.updateMeeting(this.params);
 			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
 
 			// 3eme test : on passe un identifiant au mauvais format.
 			// On doit encore obtenir un statut 412 PRECONDITION_FAILED.
-			this.params.add(MeetingsService.MEETING_PARAM_ID, "ezaeaza");
+			this.params.add(MeetingsHelper.MEETING_PARAM_ID, "ezaeaza");
 			ret = this.meetingService.updateMeeting(this.params);
 			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
@@ -182,8 +202,8 @@ public class MeetingsServiceTest extends AbstractTest {
 			// 4eme test : on passe un identifiant au bon format mais ne
 			// correspondant pas à une réunion réelle. On doit encore obtenir un statut 412
 			// PRECONDITION_FAILED.
-			this.params.remove(MeetingsService.MEETING_PARAM_ID);
-			this.params.add(MeetingsService.MEETING_PARAM_ID, "-1");
+			this.params.remove(MeetingsHelper.MEETING_PARAM_ID);
+			this.params.add(MeetingsHelper.MEETING_PARAM_ID, "-1");
 			ret = this.meetingService.updateMeeting(this.params);
 			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
@@ -191,8 +211,8 @@ public class MeetingsServiceTest extends AbstractTest {
 			// 5eme test : on passe l'identifiant du Meeting créé dans le premier
 			// test. La mise à jour doit avoir lieu sur le nom et le mot de passe. On doit
 			// obtenir un statut 200 OK.
-			this.params.remove(MeetingsService.MEETING_PARAM_ID);
-			this.params.add(MeetingsService.MEETING_PARAM_ID, Integer.toString(tempMeeting.getId()));
+			this.params.remove(MeetingsHelper.MEETING_PARAM_ID);
+			this.params.add(MeetingsHelper.MEETING_PARAM_ID, Integer.toString(tempMeeting.getId()));
 			ret = this.meetingService.updateMeeting(this.params);
 			assertEquals(Response.Status.OK.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être CREATED (201).");
@@ -201,14 +221,14 @@ public class MeetingsServiceTest extends AbstractTest {
 			tempMeeting = TestsHelper.JsonToMeeting((String) ret.getEntity());
 			assertEquals(tempMeeting.getTitle(), TEST_CHANGE_TITLE,
 					"Le nom de la réunion n'a pas été modifié.");
-			assertEquals(MeetingsService.DATE_FORMATTER.format(tempMeeting.getStart()), TEST_CHANGE_START,
+			assertEquals(DateTimeHelper.format(tempMeeting.getStart()), TEST_CHANGE_START,
 					"La date de début de la réunion créée n'est pas la bonne.");
 			assertEquals(Integer.toString(tempMeeting.getDuration()), TEST_CHANGE_DURATION,
 					"La durée de la réunion créée n'est pas la bonne.");
 
 			// 6eme test : on tente d'ajouter des utilisateurs mais en mettant n'importe
 			// quoi dans le champs. On doit obtenir un statut 412 PRECONDITION_FAILED.
-			this.params.add(MeetingsService.MEETING_PARAM_GUESTS, "C'est pas une liste d'id user séparés par des virgules !");
+			this.params.add(MeetingsHelper.MEETING_PARAM_GUESTS, "C'est pas une liste d'id user séparés par des virgules !");
 			ret = this.meetingService.updateMeeting(this.params);
 			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
@@ -216,17 +236,17 @@ public class MeetingsServiceTest extends AbstractTest {
 			// 7eme test : on met maintenant une liste d'identifiants mais ne correspondant
 			// pas à des vrais utilisateurs.On doit obtenir un statut 412
 			// PRECONDITION_FAILED.
-			this.params.remove(MeetingsService.MEETING_PARAM_GUESTS);
-			this.params.add(MeetingsService.MEETING_PARAM_GUESTS, TEST_MEETING_USERS_KO);
+			this.params.remove(MeetingsHelper.MEETING_PARAM_GUESTS);
+			this.params.add(MeetingsHelper.MEETING_PARAM_GUESTS, TEST_MEETING_USERS_KO);
 			ret = this.meetingService.updateMeeting(this.params);
 			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
 
 			// 8eme test : on crée 2 utilisateurs et on les met comme invités.
 			// On doit obtenir un statut 200 OK.
-			this.params.remove(MeetingsService.MEETING_PARAM_GUESTS);
+			this.params.remove(MeetingsHelper.MEETING_PARAM_GUESTS);
 			final String guestsList = createGuestsList();
-			this.params.add(MeetingsService.MEETING_PARAM_GUESTS, guestsList);
+			this.params.add(MeetingsHelper.MEETING_PARAM_GUESTS, guestsList);
 			ret = this.meetingService.updateMeeting(this.params);
 			assertEquals(Response.Status.OK.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être OK (200).");
@@ -238,7 +258,7 @@ public class MeetingsServiceTest extends AbstractTest {
 
 			// 9eme test : on désinvite les 2 utilisateurs.
 			// On doit obtenir un statut 200 OK.
-			this.params.remove(MeetingsService.MEETING_PARAM_GUESTS);
+			this.params.remove(MeetingsHelper.MEETING_PARAM_GUESTS);
 			ret = this.meetingService.updateMeeting(this.params);
 			assertEquals(Response.Status.OK.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être OK (200).");
@@ -260,15 +280,15 @@ public class MeetingsServiceTest extends AbstractTest {
 			this.params.clear();
 			// 1er test : on passe un identifiant au mauvais format.
 			// On doit obtenir un statut 412 PRECONDITION_FAILED.
-			this.params.add(MeetingsService.MEETING_PARAM_ID, "ezaeaza");
+			this.params.add(MeetingsHelper.MEETING_PARAM_ID, "ezaeaza");
 			ret = this.meetingService.getMeetingById(this.params);
 			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
 
 			// 2eme test : on passe un identifiant null. On doit encore obtenir un statut
 			// 412 PRECONDITION_FAILED.
-			this.params.remove(MeetingsService.MEETING_PARAM_ID);
-			this.params.add(MeetingsService.MEETING_PARAM_ID, null);
+			this.params.remove(MeetingsHelper.MEETING_PARAM_ID);
+			this.params.add(MeetingsHelper.MEETING_PARAM_ID, null);
 			ret = this.meetingService.getMeetingById(this.params);
 			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
@@ -276,16 +296,16 @@ public class MeetingsServiceTest extends AbstractTest {
 			// 3eme test : on passe un identifiant au bon format mais ne correspondant pas à
 			// une réunion réelle. On doit encore obtenir un statut 412
 			// PRECONDITION_FAILED.
-			this.params.remove(MeetingsService.MEETING_PARAM_ID);
-			this.params.add(MeetingsService.MEETING_PARAM_ID, "-1");
+			this.params.remove(MeetingsHelper.MEETING_PARAM_ID);
+			this.params.add(MeetingsHelper.MEETING_PARAM_ID, "-1");
 			ret = this.meetingService.getMeetingById(this.params);
 			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
 
 			// 4eme test : on passe l'identifiant du Meeting créé dans le premier
 			// test. On doit obtenir un statut 200 OK.
-			this.params.remove(MeetingsService.MEETING_PARAM_ID);
-			this.params.add(MeetingsService.MEETING_PARAM_ID, Integer.toString(tempMeeting.getId()));
+			this.params.remove(MeetingsHelper.MEETING_PARAM_ID);
+			this.params.add(MeetingsHelper.MEETING_PARAM_ID, Integer.toString(tempMeeting.getId()));
 			ret = this.meetingService.getMeetingById(this.params);
 			assertEquals(Response.Status.OK.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être OK (200).");
@@ -294,7 +314,7 @@ public class MeetingsServiceTest extends AbstractTest {
 			tempMeeting = TestsHelper.JsonToMeeting((String) ret.getEntity());
 			assertEquals(tempMeeting.getTitle(), TEST_CHANGE_TITLE,
 					"Le nom de la réunion n'a pas été modifié.");
-			assertEquals(MeetingsService.DATE_FORMATTER.format(tempMeeting.getStart()), TEST_CHANGE_START,
+			assertEquals(DateTimeHelper.format(tempMeeting.getStart()), TEST_CHANGE_START,
 					"La date de début de la réunion créée n'est pas la bonne.");
 			assertEquals(Integer.toString(tempMeeting.getDuration()), TEST_CHANGE_DURATION,
 					"La durée de la réunion créée n'est pas la bonne.");
@@ -324,15 +344,15 @@ public class MeetingsServiceTest extends AbstractTest {
 
 			// 1er test : on passe un identifiant au mauvais format.
 			// On doit obtenir un statut 412 PRECONDITION_FAILED.
-			this.params.add(MeetingsService.MEETING_PARAM_ID, "ezaeaza");
+			this.params.add(MeetingsHelper.MEETING_PARAM_ID, "ezaeaza");
 			ret = this.meetingService.deleteMeetingById(this.params);
 			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
 
 			// 2eme test : on passe un identifiant null. On doit encore obtenir un statut
 			// 412 PRECONDITION_FAILED.
-			this.params.remove(MeetingsService.MEETING_PARAM_ID);
-			this.params.add(MeetingsService.MEETING_PARAM_ID, null);
+			this.params.remove(MeetingsHelper.MEETING_PARAM_ID);
+			this.params.add(MeetingsHelper.MEETING_PARAM_ID, null);
 			ret = this.meetingService.deleteMeetingById(this.params);
 			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
@@ -340,16 +360,16 @@ public class MeetingsServiceTest extends AbstractTest {
 			// 3eme test : on passe un identifiant au bon format mais ne correspondant pas à
 			// une réunion réel. On doit encore obtenir un statut 412
 			// PRECONDITION_FAILED.
-			this.params.remove(MeetingsService.MEETING_PARAM_ID);
-			this.params.add(MeetingsService.MEETING_PARAM_ID, "-1");
+			this.params.remove(MeetingsHelper.MEETING_PARAM_ID);
+			this.params.add(MeetingsHelper.MEETING_PARAM_ID, "-1");
 			ret = this.meetingService.deleteMeetingById(this.params);
 			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
 
 			// 4eme test : on passe l'identifiant du Meeting créé dans le premier
 			// test. On doit obtenir un statut 200 OK.
-			this.params.remove(MeetingsService.MEETING_PARAM_ID);
-			this.params.add(MeetingsService.MEETING_PARAM_ID, Integer.toString(tempMeeting.getId()));
+			this.params.remove(MeetingsHelper.MEETING_PARAM_ID);
+			this.params.add(MeetingsHelper.MEETING_PARAM_ID, Integer.toString(tempMeeting.getId()));
 			ret = this.meetingService.deleteMeetingById(this.params);
 			assertEquals(Response.Status.OK.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être OK (200).");
@@ -377,20 +397,20 @@ public class MeetingsServiceTest extends AbstractTest {
 			// Création de la première réunion
 			this.params.clear();
 			this.params.add(AuthenticationService.AUTH_PARAM_TOKEN, TestSetup.token);
-			this.params.add(MeetingsService.MEETING_PARAM_TITLE, TEST_MEETING_TITLE);
-			this.params.add(MeetingsService.MEETING_PARAM_START, TEST_MEETING_START_OK);
-			this.params.add(MeetingsService.MEETING_PARAM_DURATION, TEST_MEETING_DURATION);
-			this.params.add(MeetingsService.MEETING_PARAM_GUESTS, userIdAsString);
+			this.params.add(MeetingsHelper.MEETING_PARAM_TITLE, TEST_MEETING_TITLE);
+			this.params.add(MeetingsHelper.MEETING_PARAM_START, TEST_MEETING_START_OK);
+			this.params.add(MeetingsHelper.MEETING_PARAM_DURATION, TEST_MEETING_DURATION);
+			this.params.add(MeetingsHelper.MEETING_PARAM_GUESTS, userIdAsString);
 			ret = this.meetingService.addMeeting(this.params);
 			tempMeeting = TestsHelper.JsonToMeeting((String) ret.getEntity());
 			String commaSeparatedMeetingsIdList = Integer.toString(tempMeeting.getId());
 			// Création de la deuxième réunion
 			this.params.clear();
 			this.params.add(AuthenticationService.AUTH_PARAM_TOKEN, TestSetup.token);
-			this.params.add(MeetingsService.MEETING_PARAM_TITLE, TEST_CHANGE_TITLE);
-			this.params.add(MeetingsService.MEETING_PARAM_START, TEST_CHANGE_START);
-			this.params.add(MeetingsService.MEETING_PARAM_DURATION, TEST_CHANGE_DURATION);
-			this.params.add(MeetingsService.MEETING_PARAM_GUESTS, userIdAsString);
+			this.params.add(MeetingsHelper.MEETING_PARAM_TITLE, TEST_CHANGE_TITLE);
+			this.params.add(MeetingsHelper.MEETING_PARAM_START, TEST_CHANGE_START);
+			this.params.add(MeetingsHelper.MEETING_PARAM_DURATION, TEST_CHANGE_DURATION);
+			this.params.add(MeetingsHelper.MEETING_PARAM_GUESTS, userIdAsString);
 			ret = this.meetingService.addMeeting(this.params);
 			tempMeeting = TestsHelper.JsonToMeeting((String) ret.getEntity());
 			commaSeparatedMeetingsIdList = commaSeparatedMeetingsIdList.concat(",").concat(Integer.toString(tempMeeting.getId()));
@@ -408,15 +428,15 @@ public class MeetingsServiceTest extends AbstractTest {
 
 			// 2eme test : identifiant null. On doit encore obtenir un statut 412
 			// PRECONDITION_FAILED.
-			this.params.add(MeetingsService.MEETING_PARAM_ID, null);
+			this.params.add(MeetingsHelper.MEETING_PARAM_ID, null);
 			ret = this.meetingService.getMeetingsByUserId(this.params);
 			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
 
 			// 3eme test : on passe un identifiant au mauvais format.
 			// On doit encore obtenir un statut 412 PRECONDITION_FAILED.
-			this.params.remove(MeetingsService.MEETING_PARAM_ID);
-			this.params.add(MeetingsService.MEETING_PARAM_ID, "ezaeaza");
+			this.params.remove(MeetingsHelper.MEETING_PARAM_ID);
+			this.params.add(MeetingsHelper.MEETING_PARAM_ID, "ezaeaza");
 			ret = this.meetingService.getMeetingsByUserId(this.params);
 			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
@@ -424,8 +444,8 @@ public class MeetingsServiceTest extends AbstractTest {
 			// 4eme test : on passe un identifiant au bon format mais ne
 			// correspondant pas à un utilisateur réel. On doit encore obtenir un statut 412
 			// PRECONDITION_FAILED.
-			this.params.remove(MeetingsService.MEETING_PARAM_ID);
-			this.params.add(MeetingsService.MEETING_PARAM_ID, "-1");
+			this.params.remove(MeetingsHelper.MEETING_PARAM_ID);
+			this.params.add(MeetingsHelper.MEETING_PARAM_ID, "-1");
 			ret = this.meetingService.getMeetingsByUserId(this.params);
 			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
@@ -433,14 +453,14 @@ public class MeetingsServiceTest extends AbstractTest {
 			// 5eme test : on passe l'identifiant de l'utilisateur créé poir ce test. La
 			// mise à jour doit avoir lieu sur le nom et le mot de passe. On doit obtenir un
 			// statut 200 OK.
-			this.params.remove(MeetingsService.MEETING_PARAM_ID);
-			this.params.add(MeetingsService.MEETING_PARAM_ID, userIdAsString);
+			this.params.remove(MeetingsHelper.MEETING_PARAM_ID);
+			this.params.add(MeetingsHelper.MEETING_PARAM_ID, userIdAsString);
 			ret = this.meetingService.getMeetingsByUserId(this.params);
 			assertEquals(Response.Status.OK.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être CREATED (201).");
 			// On teste maintenant que les réunions retournées correspondent
 			// bien à celles qu'on avait créées.
-			final List<Meeting> meetings = TestsHelper.JsonToMeetingsList((String) ret.getEntity());
+			final List<Meeting> meetings = TestsHelper.JsonToMeetingsList(TestsHelper.entityAsString(ret));
 			for (final Meeting tmp : meetings) {
 				assertTrue(commaSeparatedMeetingsIdList.contains(Integer.toString(tmp.getId())),
 						"L'une des réunions ramenée ne concerne pas l'utilisateur.");
@@ -462,6 +482,516 @@ public class MeetingsServiceTest extends AbstractTest {
 		}
 	}
 
+	@Test
+	@Order(7)
+	public void testGetAllMeetingsPaged() {
+		Response ret;
+		try {
+			// Création de 3 réunions pour avoir au moins 2 pages de 2 réunions.
+			String commaSeparatedMeetingsIdList = "";
+			for (int i = 0; i < 3; i++) {
+				this.params.clear();
+				this.params.add(AuthenticationService.AUTH_PARAM_TOKEN, TestSetup.token);
+				this.params.add(MeetingsHelper.MEETING_PARAM_TITLE, TEST_MEETING_TITLE);
+				this.params.add(MeetingsHelper.MEETING_PARAM_START, TEST_MEETING_START_OK);
+				this.params.add(MeetingsHelper.MEETING_PARAM_DURATION, TEST_MEETING_DURATION);
+				ret = this.meetingService.addMeeting(this.params);
+				tempMeeting = TestsHelper.JsonToMeeting((String) ret.getEntity());
+				commaSeparatedMeetingsIdList = commaSeparatedMeetingsIdList.concat(",")
+						.concat(Integer.toString(tempMeeting.getId()));
+			}
+
+			// 1er test : taille de page ou curseur invalides. On doit obtenir un statut
+			// 412 PRECONDITION_FAILED.
+			ret = this.meetingService.getAllMeetings("ezaeaza", null);
+			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
+					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
+			ret = this.meetingService.getAllMeetings("0", null);
+			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
+					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
+			ret = this.meetingService.getAllMeetings("2", "ezaeaza");
+			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
+					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
+
+			// 2eme test : le parcours de toutes les pages doit renvoyer exactement les
+			// réunions de la liste complète, triées par identifiant.
+			ret = this.meetingService.getAllMeetings();
+			final List<Integer> expected = new ArrayList<>();
+			for (final Meeting meeting : TestsHelper.JsonToMeetingsList(TestsHelper.entityAsString(ret))) {
+				expected.add(meeting.getId());
+			}
+			Collections.sort(expected);
+			final List<Integer> found = new ArrayList<>();
+			final ObjectMapper mapper = new ObjectMapper();
+			String cursor = null;
+			do {
+				ret = this.meetingService.getAllMeetings("2", cursor);
+				assertEquals(Response.Status.OK.getStatusCode(), ret.getStatus(),
+						"Le status de la réponse devrait être OK (200).");
+				final JsonNode page = mapper.readTree((String) ret.getEntity());
+				assertTrue(page.get("items").size() <= 2, "La page contient trop de réunions.");
+				for (final JsonNode meeting : page.get("items")) {
+					found.add(meeting.get("id").asInt());
+				}
+				cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+			} while (cursor != null);
+			assertEquals(expected, found, "Les pages ne contiennent pas toutes les réunions dans l'ordre.");
+
+			deleteJunkMeetings(commaSeparatedMeetingsIdList);
+		} catch (JSONException | IOException e) {
+			fail(e.getMessage());
+		}
+	}
+
+	@Test
+	@Order(8)
+	public void testGuestConflicts() {
+		Response ret;
+		try {
+			// Un invité ne peut pas être invité à deux réunions au même moment.
+			final String userIdAsString = Integer.toString(createUserAndReturnId("01"));
+			this.params.clear();
+			this.params.add(AuthenticationService.AUTH_PARAM_TOKEN, TestSetup.token);
+			this.params.add(MeetingsHelper.MEETING_PARAM_TITLE, TEST_MEETING_TITLE);
+			this.params.add(MeetingsHelper.MEETING_PARAM_START, TEST_MEETING_START_OK);
+			this.params.add(MeetingsHelper.MEETING_PARAM_DURATION, TEST_MEETING_DURATION);
+			this.params.add(MeetingsHelper.MEETING_PARAM_GUESTS, userIdAsString);
+			ret = this.meetingService.addMeeting(this.params);
+			assertEquals(Response.Status.CREATED.getStatusCode(), ret.getStatus(),
+					"Le status de la réponse devrait être CREATED (201).");
+			final String firstMeetingId = Integer.toString(TestsHelper.JsonToMeeting((String) ret.getEntity()).getId());
+
+			// 1er test : même créneau, même invité. On doit obtenir un statut 412
+			// PRECONDITION_FAILED indiquant la réunion en conflit.
+			ret = this.meetingService.addMeeting(this.params);
+			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
+					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
+			final JSONObject conflict = new JSONObject((String) ret.getEntity()).getJSONArray("conflicts")
+					.getJSONObject(0);
+			assertEquals(userIdAsString, conflict.getString("guestId"), "L'invité en conflit n'est pas le bon.");
+			assertEquals(firstMeetingId, conflict.getJSONArray("meetings").getString(0),
+					"La réunion en conflit n'est pas la bonne.");
+
+			// 2eme test : sans l'invité, la réunion est créée...
+			this.params.remove(MeetingsHelper.MEETING_PARAM_GUESTS);
+			ret = this.meetingService.addMeeting(this.params);
+			assertEquals(Response.Status.CREATED.getStatusCode(), ret.getStatus(),
+					"Le status de la réponse devrait être CREATED (201).");
+			final String secondMeetingId = Integer.toString(TestsHelper.JsonToMeeting((String) ret.getEntity()).getId());
+
+			// ... mais on ne peut pas l'y ajouter par une mise à jour...
+			this.params.add(MeetingsHelper.MEETING_PARAM_ID, secondMeetingId);
+			this.params.add(MeetingsHelper.MEETING_PARAM_GUESTS, userIdAsString);
+			ret = this.meetingService.updateMeeting(this.params);
+			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
+					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
+
+			// ... sauf en déplaçant la réunion sur un créneau libre.
+			this.params.remove(MeetingsHelper.MEETING_PARAM_START);
+			this.params.add(MeetingsHelper.MEETING_PARAM_START, TEST_CHANGE_START);
+			ret = this.meetingService.updateMeeting(this.params);
+			assertEquals(Response.Status.OK.getStatusCode(), ret.getStatus(),
+					"Le status de la réponse devrait être OK (200).");
+
+			// ***********************************************************************
+			// Tests finis : suppression des données de test
+			// ***********************************************************************
+			deleteJunkMeetings(firstMeetingId + "," + secondMeetingId);
+			deleteUser(userIdAsString);
+		} catch (JSONException | IOException e) {
+			fail(e.getMessage());
+		}
+	}
+
+	@Test
+	@Order(9)
+	public void testFindSlots() {
+		Response ret;
+		try {
+			// L'invité est pris de 20:00 à 23:00 le 24/12/2020.
+			final String userIdAsString = Integer.toString(createUserAndReturnId("01"));
+			this.params.clear();
+			this.params.add(AuthenticationService.AUTH_PARAM_TOKEN, TestSetup.token);
+			this.params.add(MeetingsHelper.MEETING_PARAM_TITLE, TEST_MEETING_TITLE);
+			this.params.add(MeetingsHelper.MEETING_PARAM_START, TEST_MEETING_START_OK);
+			this.params.add(MeetingsHelper.MEETING_PARAM_DURATION, TEST_MEETING_DURATION);
+			this.params.add(MeetingsHelper.MEETING_PARAM_GUESTS, userIdAsString);
+			ret = this.meetingService.addMeeting(this.params);
+			final String meetingId = Integer.toString(TestsHelper.JsonToMeeting((String) ret.getEntity()).getId());
+
+			// 1er test : pas de période de recherche. On doit obtenir un statut 412
+			// PRECONDITION_FAILED.
+			this.params.clear();
+			this.params.add(MeetingsHelper.MEETING_PARAM_GUESTS, userIdAsString);
+			this.params.add(MeetingsHelper.MEETING_PARAM_DURATION, "30");
+			ret = this.meetingService.findSlots(this.params);
+			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
+					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
+
+			// 2eme test : les 3 premiers créneaux de 30 minutes à partir de 19:00 sont
+			// 19:00, 19:30 puis 23:00, à la fin de la réunion.
+			this.params.add(MeetingsHelper.MEETING_PARAM_FROM, "24/12/2020 19:00");
+			this.params.add(MeetingsHelper.MEETING_PARAM_TO, "25/12/2020 01:00");
+			this.params.add(ServicesHelper.PAGE_PARAM_LIMIT, "3");
+			ret = this.meetingService.findSlots(this.params);
+			assertEquals(Response.Status.OK.getStatusCode(), ret.getStatus(),
+					"Le status de la réponse devrait être OK (200).");
+			final JSONArray slots = new JSONArray((String) ret.getEntity());
+			assertEquals(3, slots.length(), "Le nombre de créneaux proposés n'est pas le bon.");
+			assertEquals("24/12/2020 19:00", slots.getJSONObject(0).getString("start"));
+			assertEquals("24/12/2020 19:30", slots.getJSONObject(1).getString("start"));
+			assertEquals("24/12/2020 23:00", slots.getJSONObject(2).getString("start"));
+
+			// 3eme test : aucune salle n'est assez grande.
+			this.params.add(MeetingsHelper.MEETING_PARAM_CAPACITY, Integer.toString(Integer.MAX_VALUE));
+			ret = this.meetingService.findSlots(this.params);
+			assertEquals("[]", ret.getEntity(), "Aucun créneau ne devrait être proposé.");
+
+			// ***********************************************************************
+			// Tests finis : suppression des données de test
+			// ***********************************************************************
+			deleteJunkMeetings(meetingId);
+			deleteUser(userIdAsString);
+		} catch (JSONException | IOException e) {
+			fail(e.getMessage());
+		}
+	}
+
+	@Test
+	@Order(10)
+	public void testBatchAddMeetings() {
+		Response ret;
+		try {
+			// 1er test : sans token. On doit obtenir un statut 403 FORBIDDEN.
+			this.params.clear();
+			ret = this.meetingService.batchAddMeetings(this.params);
+			assertEquals(Response.Status.FORBIDDEN.getStatusCode(), ret.getStatus(),
+					"Le status de la réponse devrait être FORBIDEN (403).");
+			// 2eme test : le lot n'est pas un tableau JSON. On doit obtenir un statut 412
+			// PRECONDITION_FAILED.
+			this.params.add(AuthenticationService.AUTH_PARAM_TOKEN, TestSetup.token);
+			this.params.add(MeetingsHelper.MEETING_PARAM_MEETINGS, "C'est pas un tableau !");
+			ret = this.meetingService.batchAddMeetings(this.params);
+			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
+					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
+
+			// 3eme test : un lot de 4 réunions dont seule la première est valide. La
+			// deuxième prend le même invité sur le même créneau, la troisième a une
+			// date invalide et la quatrième un invité inconnu.
+			final int userId = createUserAndReturnId("01");
+			final JSONArray batch = new JSONArray();
+			batch.put(batchItem(TEST_MEETING_START_OK, userId));
+			batch.put(batchItem(TEST_MEETING_START_OK, userId));
+			batch.put(batchItem(TEST_MEETING_START_KO));
+			batch.put(batchItem(TEST_CHANGE_START, -1));
+			this.params.remove(MeetingsHelper.MEETING_PARAM_MEETINGS);
+			this.params.add(MeetingsHelper.MEETING_PARAM_MEETINGS, batch.toString());
+			ret = this.meetingService.batchAddMeetings(this.params);
+			assertEquals(Response.Status.CREATED.getStatusCode(), ret.getStatus(),
+					"Le status de la réponse devrait être CREATED (201).");
+			final JSONObject json = new JSONObject((String) ret.getEntity());
+			assertEquals(1, json.getInt("created"), "Une seule réunion devrait être créée.");
+			assertEquals(3, json.getInt("failed"), "Trois réunions devraient être refusées.");
+			final JSONArray results = json.getJSONArray("results");
+			assertEquals("ok", results.getJSONObject(0).getString("status"));
+			assertEquals(0, results.getJSONObject(1).getInt("batchIndex"),
+					"La deuxième réunion devrait être en conflit avec la première du lot.");
+			assertEquals("error", results.getJSONObject(2).getString("status"));
+			assertEquals("error", results.getJSONObject(3).getString("status"));
+			final String meetingId = results.getJSONObject(0).getString("id");
+			final MultivaluedMap<String, String> idParams = new MultivaluedMapImpl();
+			idParams.add(MeetingsHelper.MEETING_PARAM_ID, meetingId);
+			final Meeting created = TestsHelper
+					.JsonToMeeting((String) this.meetingService.getMeetingById(idParams).getEntity());
+			assertEquals(userId, created.getGuests().get(0).getId(), "L'invité de la réunion créée n'est pas le bon.");
+
+			// 4eme test : la même réunion, désormais en conflit avec la réunion créée.
+			// Aucune réunion n'est créée : statut 412 PRECONDITION_FAILED.
+			this.params.remove(MeetingsHelper.MEETING_PARAM_MEETINGS);
+			this.params.add(MeetingsHelper.MEETING_PARAM_MEETINGS,
+					new JSONArray().put(batchItem(TEST_MEETING_START_OK, userId)).toString());
+			ret = this.meetingService.batchAddMeetings(this.params);
+			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
+					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
+
+			// ***********************************************************************
+			// Tests finis : suppression des données de test
+			// ***********************************************************************
+			deleteJunkMeetings(meetingId);
+			deleteUser(Integer.toString(userId));
+		} catch (JSONException | IOException e) {
+			fail(e.getMessage());
+		}
+	}
+
+	@Test
+	@Order(11)
+	public void testBulkOperations() {
+		Response ret;
+		try {
+			// Trois réunions successives du même invité, dont la deuxième dans une salle,
+			// et une réunion ancienne.
+			final int userId = createUserAndReturnId("01");
+			this.params.clear();
+			this.params.add(AuthenticationService.AUTH_PARAM_TOKEN, TestSetup.token);
+			this.params.add(MeetingsHelper.MEETING_PARAM_MEETINGS,
+					new JSONArray().put(batchItem("01/03/2021 10:00", userId))
+							.put(batchItem("01/03/2021 14:00", userId)).put(batchItem("01/03/2021 18:00", userId))
+							.put(batchItem("01/06/1990 10:00")).toString());
+			final JSONArray results = new JSONObject((String) this.meetingService.batchAddMeetings(this.params)
+					.getEntity()).getJSONArray("results");
+			final String[] ids = new String[4];
+			for (int i = 0; i < ids.length; i++) {
+				ids[i] = results.getJSONObject(i).getString("id");
+			}
+			final MultivaluedMap<String, String> roomParams = new MultivaluedMapImpl();
+			roomParams.add(AuthenticationService.AUTH_PARAM_TOKEN, TestSetup.token);
+			roomParams.add(RoomsService.ROOM_PARAM_NAME, "Salle des opérations en masse");
+			roomParams.add(RoomsService.ROOM_PARAM_CAPACITY, "10");
+			roomParams.add(RoomsService.ROOM_PARAM_MEETINGS, ids[1]);
+			final String roomId = Integer.toString(
+					TestsHelper.JsonToRoom((String) new RoomsService().addRoom(roomParams).getEntity()).getId());
+
+			// 1er test : décaler la première réunion de 4 heures la ferait chevaucher la
+			// deuxième. On doit obtenir un statut 412 PRECONDITION_FAILED.
+			this.params.clear();
+			this.params.add(AuthenticationService.AUTH_PARAM_TOKEN, TestSetup.token);
+			this.params.add(MeetingsHelper.MEETING_PARAM_IDS, ids[0]);
+			this.params.add(MeetingsHelper.MEETING_PARAM_OFFSET, "240");
+			ret = this.meetingService.rescheduleMeetings(this.params);
+			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
+					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
+
+			// 2eme test : décaler les trois réunions ensemble d'une heure. Ca doit marcher.
+			this.params.remove(MeetingsHelper.MEETING_PARAM_IDS);
+			this.params.add(MeetingsHelper.MEETING_PARAM_IDS, ids[0] + "," + ids[1] + "," + ids[2]);
+			this.params.remove(MeetingsHelper.MEETING_PARAM_OFFSET);
+			this.params.add(MeetingsHelper.MEETING_PARAM_OFFSET, "60");
+			ret = this.meetingService.rescheduleMeetings(this.params);
+			assertEquals(Response.Status.OK.getStatusCode(), ret.getStatus(),
+					"Le status de la réponse devrait être OK (200).");
+			assertEquals(3, new JSONObject((String) ret.getEntity()).getInt("updated"));
+			final MultivaluedMap<String, String> idParams = new MultivaluedMapImpl();
+			idParams.add(MeetingsHelper.MEETING_PARAM_ID, ids[0]);
+			assertEquals("01/03/2021 11:00", DateTimeHelper.format(TestsHelper
+					.JsonToMeeting((String) this.meetingService.getMeetingById(idParams).getEntity()).getStart()),
+					"La réunion devrait être décalée d'une heure.");
+
+			// 3eme test : suppression des deux premières réunions. La salle n'a plus de
+			// réunion.
+			this.params.clear();
+			this.params.add(AuthenticationService.AUTH_PARAM_TOKEN, TestSetup.token);
+			this.params.add(MeetingsHelper.MEETING_PARAM_IDS, ids[0] + "," + ids[1]);
+			ret = this.meetingService.deleteMeetingsByIdList(this.params);
+			assertEquals(Response.Status.OK.getStatusCode(), ret.getStatus(),
+					"Le status de la réponse devrait être OK (200).");
+			assertEquals(2, new JSONObject((String) ret.getEntity()).getInt("deleted"));
+			assertEquals(Response.Status.NOT_FOUND.getStatusCode(),
+					this.meetingService.getMeetingById(idParams).getStatus(), "La réunion devrait être supprimée.");
+			final MultivaluedMap<String, String> roomIdParams = new MultivaluedMapImpl();
+			roomIdParams.add(RoomsService.ROOM_PARAM_ID, roomId);
+			assertTrue(TestsHelper.JsonToRoom((String) new RoomsService().getRoomById(roomIdParams).getEntity())
+					.getMeetings().isEmpty(), "La réservation de la salle devrait être supprimée.");
+
+			// 4eme test : suppression des réunions antérieures à 1991.
+			this.params.clear();
+			this.params.add(AuthenticationService.AUTH_PARAM_TOKEN, TestSetup.token);
+			this.params.add(MeetingsHelper.MEETING_PARAM_BEFORE, "01/01/1991 00:00");
+			ret = this.meetingService.deleteMeetingsBefore(this.params);
+			assertEquals(Response.Status.OK.getStatusCode(), ret.getStatus(),
+					"Le status de la réponse devrait être OK (200).");
+			idParams.clear();
+			idParams.add(MeetingsHelper.MEETING_PARAM_ID, ids[3]);
+			assertEquals(Response.Status.NOT_FOUND.getStatusCode(),
+					this.meetingService.getMeetingById(idParams).getStatus(),
+					"La réunion ancienne devrait être supprimée.");
+
+			// ***********************************************************************
+			// Tests finis : suppression des données de test
+			// ***********************************************************************
+			roomParams.add(RoomsService.ROOM_PARAM_ID, roomId);
+			new RoomsService().deleteRoomById(roomParams);
+			deleteJunkMeetings(ids[2]);
+			deleteUser(Integer.toString(userId));
+		} catch (JSONException | IOException e) {
+			fail(e.getMessage());
+		}
+	}
+
+	@Test
+	@Order(12)
+	public void testGetMeetingsBetween() {
+		Response ret;
+		try {
+			// Trois réunions de 3 heures : 08:00-11:00, 12:00-15:00 et le lendemain.
+			this.params.clear();
+			this.params.add(AuthenticationService.AUTH_PARAM_TOKEN, TestSetup.token);
+			this.params.add(MeetingsHelper.MEETING_PARAM_MEETINGS,
+					new JSONArray().put(batchItem("01/02/2022 08:00")).put(batchItem("01/02/2022 12:00"))
+							.put(batchItem("02/02/2022 10:00")).toString());
+			final JSONArray results = new JSONObject((String) this.meetingService.batchAddMeetings(this.params)
+					.getEntity()).getJSONArray("results");
+			final List<Integer> ids = new ArrayList<>();
+			for (int i = 0; i < results.length(); i++) {
+				ids.add(results.getJSONObject(i).getInt("id"));
+			}
+
+			// 1er test : sans la fin de la période. On doit obtenir un statut 412
+			// PRECONDITION_FAILED.
+			this.params.clear();
+			this.params.add(MeetingsHelper.MEETING_PARAM_FROM, "01/02/2022 10:00");
+			ret = this.meetingService.getMeetingsBetween(this.params);
+			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
+					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
+
+			// 2eme test : période inversée. On doit obtenir un statut 412
+			// PRECONDITION_FAILED.
+			this.params.add(MeetingsHelper.MEETING_PARAM_TO, "01/02/2022 09:00");
+			ret = this.meetingService.getMeetingsBetween(this.params);
+			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
+					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
+
+			// 3eme test : de 10:00 à 12:00. Seule la première réunion, commencée avant la
+			// période, la chevauche ; la deuxième commence à la fin (exclue).
+			this.params.remove(MeetingsHelper.MEETING_PARAM_TO);
+			this.params.add(MeetingsHelper.MEETING_PARAM_TO, "01/02/2022 12:00");
+			ret = this.meetingService.getMeetingsBetween(this.params);
+			assertEquals(Response.Status.OK.getStatusCode(), ret.getStatus(),
+					"Le status de la réponse devrait être OK (200).");
+			assertEquals(ids.subList(0, 1), meetingsIds((String) ret.getEntity()),
+					"Seule la première réunion devrait chevaucher la période.");
+
+			// 4eme test : de 11:00 à minuit. La première réunion finit au début de la
+			// période (exclue), la deuxième est renvoyée.
+			this.params.clear();
+			this.params.add(MeetingsHelper.MEETING_PARAM_FROM, "01/02/2022 11:00");
+			this.params.add(MeetingsHelper.MEETING_PARAM_TO, "02/02/2022 00:00");
+			ret = this.meetingService.getMeetingsBetween(this.params);
+			assertEquals(ids.subList(1, 2), meetingsIds((String) ret.getEntity()),
+					"Seule la deuxième réunion devrait chevaucher la période.");
+
+			// 5eme test : les deux jours, dans l'ordre des débuts.
+			this.params.clear();
+			this.params.add(MeetingsHelper.MEETING_PARAM_FROM, "01/02/2022 00:00");
+			this.params.add(MeetingsHelper.MEETING_PARAM_TO, "03/02/2022 00:00");
+			ret = this.meetingService.getMeetingsBetween(this.params);
+			assertEquals(ids, meetingsIds((String) ret.getEntity()),
+					"Les trois réunions devraient être renvoyées, triées par début.");
+
+			// 6eme test : une réunion plus longue que la durée maximale, enregistrée
+			// directement en base (avant l'introduction de la limite), commencée bien
+			// avant la période. Elle doit être renvoyée avec la troisième réunion.
+			final Meeting longMeeting = new Meeting("Séminaire", DateTimeHelper.parse("20/01/2022 00:00"),
+					MeetingsHelper.getMaxDuration() * 15);
+			DaoFactory.getInstance().getMeetingDao().createMeeting(longMeeting, true);
+			ids.add(longMeeting.getId());
+			this.params.clear();
+			this.params.add(MeetingsHelper.MEETING_PARAM_FROM, "02/02/2022 12:00");
+			this.params.add(MeetingsHelper.MEETING_PARAM_TO, "02/02/2022 13:00");
+			ret = this.meetingService.getMeetingsBetween(this.params);
+			assertEquals(List.of(longMeeting.getId(), ids.get(2)), meetingsIds((String) ret.getEntity()),
+					"La réunion plus longue que la durée maximale devrait être renvoyée.");
+
+			// ***********************************************************************
+			// Tests finis : suppression des données de test
+			// ***********************************************************************
+			deleteJunkMeetings(ids.get(0) + "," + ids.get(1) + "," + ids.get(2) + "," + ids.get(3));
+		} catch (JSONException | IOException | DaoException e) {
+			fail(e.getMessage());
+		}
+	}
+
+	@Test
+	@Order(13)
+	public void testGetAgenda() {
+		Response ret;
+		try {
+			// Deux réunions du même invité, créées dans le désordre.
+			final int userId = createUserAndReturnId("02");
+			this.params.clear();
+			this.params.add(AuthenticationService.AUTH_PARAM_TOKEN, TestSetup.token);
+			this.params.add(MeetingsHelper.MEETING_PARAM_MEETINGS,
+					new JSONArray().put(batchItem("05/04/2022 14:00", userId))
+							.put(batchItem("05/04/2022 09:00", userId)).toString());
+			final JSONArray results = new JSONObject((String) this.meetingService.batchAddMeetings(this.params)
+					.getEntity()).getJSONArray("results");
+			final String lateId = results.getJSONObject(0).getString("id");
+			final String earlyId = results.getJSONObject(1).getString("id");
+
+			// 1er test : identifiant au mauvais format. On doit obtenir un statut 412
+			// PRECONDITION_FAILED.
+			final MultivaluedMap<String, String> agendaParams = new MultivaluedMapImpl();
+			agendaParams.add(MeetingsHelper.MEETING_PARAM_ID, "ezaeaza");
+			ret = this.meetingService.getAgendaByUserId(agendaParams);
+			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
+					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
+
+			// 2eme test : l'agenda contient les deux réunions, triées par début, sans
+			// leurs invités.
+			agendaParams.clear();
+			agendaParams.add(MeetingsHelper.MEETING_PARAM_ID, Integer.toString(userId));
+			ret = this.meetingService.getAgendaByUserId(agendaParams);
+			assertEquals(Response.Status.OK.getStatusCode(), ret.getStatus(),
+					"Le status de la réponse devrait être OK (200).");
+			JSONArray agenda = new JSONArray((String) ret.getEntity());
+			assertEquals(2, agenda.length(), "L'agenda devrait contenir les deux réunions.");
+			assertEquals(earlyId, agenda.getJSONObject(0).getString("id"), "L'agenda devrait être trié par début.");
+			assertEquals("05/04/2022 09:00", agenda.getJSONObject(0).getString("start"));
+			assertFalse(agenda.getJSONObject(0).has("guests"), "L'agenda ne devrait pas contenir les invités.");
+
+			// 3eme test : la réunion de 14:00 est renommée et avancée à 07:00.
+			this.params.clear();
+			this.params.add(AuthenticationService.AUTH_PARAM_TOKEN, TestSetup.token);
+			this.params.add(MeetingsHelper.MEETING_PARAM_ID, lateId);
+			this.params.add(MeetingsHelper.MEETING_PARAM_TITLE, TEST_CHANGE_TITLE);
+			this.params.add(MeetingsHelper.MEETING_PARAM_START, "05/04/2022 07:00");
+			this.params.add(MeetingsHelper.MEETING_PARAM_DURATION, "60");
+			this.params.add(MeetingsHelper.MEETING_PARAM_GUESTS, Integer.toString(userId));
+			assertEquals(Response.Status.OK.getStatusCode(), this.meetingService.updateMeeting(this.params).getStatus(),
+					"Le status de la réponse devrait être OK (200).");
+			agenda = new JSONArray((String) this.meetingService.getAgendaByUserId(agendaParams).getEntity());
+			assertEquals(lateId, agenda.getJSONObject(0).getString("id"),
+					"La réunion avancée devrait être la première de l'agenda.");
+			assertEquals(TEST_CHANGE_TITLE, agenda.getJSONObject(0).getString("title"),
+					"L'agenda devrait contenir le nouveau titre.");
+
+			// 4eme test : suppression de la réunion avancée.
+			deleteMeeting(lateId);
+			agenda = new JSONArray((String) this.meetingService.getAgendaByUserId(agendaParams).getEntity());
+			assertEquals(1, agenda.length(), "La réunion supprimée ne devrait plus être dans l'agenda.");
+			assertEquals(earlyId, agenda.getJSONObject(0).getString("id"));
+
+			// ***********************************************************************
+			// Tests finis : suppression des données de test
+			// ***********************************************************************
+			deleteMeeting(earlyId);
+			deleteUser(Integer.toString(userId));
+			agenda = new JSONArray((String) this.meetingService.getAgendaByUserId(agendaParams).getEntity());
+			assertEquals(0, agenda.length(), "L'agenda de l'utilisateur supprimé devrait être vide.");
+		} catch (JSONException | IOException e) {
+			fail(e.getMessage());
+		}
+	}
+
+	private static List<Integer> meetingsIds(final String jsonString) throws IOException {
+		final List<Integer> ret = new ArrayList<>();
+		for (final Meeting meeting : TestsHelper.JsonToMeetingsList(jsonString)) {
+			ret.add(meeting.getId());
+		}
+		return ret;
+	}
+
+	private JSONObject batchItem(final String start, final int... guestIds) throws JSONException {
+		final JSONArray guests = new JSONArray();
+		for (final int guestId : guestIds) {
+			guests.put(guestId);
+		}
+		return new JSONObject().put(MeetingsHelper.MEETING_PARAM_TITLE, TEST_MEETING_TITLE)
+				.put(MeetingsHelper.MEETING_PARAM_START, start)
+				.put(MeetingsHelper.MEETING_PARAM_DURATION, TEST_MEETING_DURATION)
+				.put(MeetingsHelper.MEETING_PARAM_GUESTS, guests);
+	}
+
 	private String createGuestsListFromUsersList(final List<User> users) {
 		String ret = "";
 		boolean first = true;
@@ -0,0 +1,137 @@
+package edu.intech.meetings.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.intech.meetings.dao.Page;
+import edu.intech.meetings.dao.implementations.memory.MeetingDaoMemory;
+import edu.intech.meetings.dao.implementations.memory.MemoryDatabase;
+import edu.intech.meetings.dao.implementations.memory.RoomDaoMemory;
+import edu.intech.meetings.dao.implementations.memory.UserDaoMemory;
+import edu.intech.meetings.exceptions.DaoException;
+import edu.intech.meetings.model.Meeting;
+import edu.intech.meetings.model.Room;
+import edu.intech.meetings.model.User;
+
+/**
+ * Classe servant à tester les DAO en mémoire : index secondaires, copies des
+ * entités lues et contraintes de suppression identiques à celles de la base.
+ * Chaque test utilise ses propres tables, indépendamment de l'implémentation
+ * configurée.
+ */
+public class MemoryDaoTest extends AbstractTest {
+
+	private UserDaoMemory userDao;
+	private MeetingDaoMemory meetingDao;
+	private RoomDaoMemory roomDao;
+
+	private User alice;
+	private User bob;
+	private Meeting meeting;
+	private Room room;
+
+	@BeforeEach
+	public void populate() throws DaoException {
+		final MemoryDatabase database = new MemoryDatabase();
+		this.userDao = new UserDaoMemory(database);
+		this.meetingDao = new MeetingDaoMemory(database);
+		this.roomDao = new RoomDaoMemory(database);
+		this.alice = this.userDao.createUser(new User("Alice", "pwd", "A", "alice@intech.edu"), true);
+		this.bob = this.userDao.createUser(new User("Bob", "pwd", "B", "bob@intech.edu"), true);
+		this.meeting = new Meeting("Réunion", new Date(), 60, new ArrayList<>(Arrays.asList(this.alice)));
+		this.meetingDao.createMeeting(this.meeting, true);
+		this.room = new Room("Salle", 10, new ArrayList<>(Arrays.asList(this.meeting)));
+		this.roomDao.createRoom(this.room, true);
+	}
+
+	@Test
+	public void testIndexes() throws DaoException {
+		assertTrue(this.alice.getId() > 0 && this.meeting.getId() > 0 && this.room.getId() > 0,
+				"Les entités créées devraient avoir reçu un identifiant.");
+		assertEquals(this.bob.getId(), this.userDao.readUserByName("Bob").getId(),
+				"L'utilisateur devrait être trouvé par son nom.");
+		assertEquals(ids(this.meetingDao.readAllMeetingsWithUser(this.alice.getId()).stream()),
+				Arrays.asList(this.meeting.getId()), "Alice devrait être invitée à la réunion.");
+		assertEquals(ids(this.roomDao.readAllRoomsWithMeeting(this.meeting.getId()).stream()),
+				Arrays.asList(this.room.getId()), "La réunion devrait avoir lieu dans la salle.");
+
+		// Bob remplace Alice : l'index des réunions par invité suit.
+		this.meeting.setGuests(new ArrayList<>(Arrays.asList(this.bob)));
+		this.meetingDao.updateMeeting(this.meeting, true);
+		assertTrue(this.meetingDao.readAllMeetingsWithUser(this.alice.getId()).isEmpty(),
+				"Alice ne devrait plus être invitée.");
+		try (Stream<Meeting> meetings = this.meetingDao.streamMeetingsWithUser(this.bob.getId())) {
+			assertEquals(ids(meetings), Arrays.asList(this.meeting.getId()), "Bob devrait être invité.");
+		}
+
+		// Renommage : l'index par nom suit.
+		this.bob.setName("Robert");
+		this.userDao.updateUser(this.bob, true);
+		assertNull(this.userDao.readUserByName("Bob"), "L'ancien nom ne devrait plus être indexé.");
+		assertEquals("Robert", this.roomDao.readRoom(this.room.getId()).getMeetings().get(0).getGuests().get(0)
+				.getName(), "Les invités des réunions d'une salle devraient être relus à jour.");
+	}
+
+	@Test
+	public void testReadReturnsCopies() throws DaoException {
+		final User read = this.userDao.readUser(this.alice.getId());
+		read.setName("Modifié");
+		assertEquals("Alice", this.userDao.readUser(this.alice.getId()).getName(),
+				"Une entité lue puis modifiée ne devrait être enregistrée qu'à sa mise à jour.");
+		final Meeting readMeeting = this.meetingDao.readMeeting(this.meeting.getId());
+		readMeeting.getGuests().clear();
+		assertEquals(1, this.meetingDao.readMeeting(this.meeting.getId()).getGuests().size(),
+				"Les invités stockés ne devraient pas être modifiables par l'appelant.");
+	}
+
+	@Test
+	public void testDeleteConstraints() throws DaoException {
+		assertThrows(DaoException.class, () -> this.userDao.deleteUser(this.alice, true),
+				"Un utilisateur invité à une réunion ne devrait pas pouvoir être supprimé.");
+		assertThrows(DaoException.class, () -> this.meetingDao.deleteMeeting(this.meeting),
+				"Une réunion affectée à une salle ne devrait pas pouvoir être supprimée.");
+
+		this.roomDao.deleteRoom(this.room);
+		assertTrue(this.roomDao.readAllRoomsWithMeeting(this.meeting.getId()).isEmpty(),
+				"La salle supprimée ne devrait plus être indexée.");
+		this.meetingDao.deleteMeeting(this.meeting);
+		assertNull(this.meetingDao.readMeeting(this.meeting.getId()), "La réunion devrait être supprimée.");
+		this.userDao.deleteUser(this.alice, true);
+		assertNull(this.userDao.readUserByName("Alice"), "L'utilisateur devrait être supprimé.");
+		assertNotNull(this.userDao.readUser(this.bob.getId()), "Les autres utilisateurs devraient rester.");
+	}
+
+	@Test
+	public void testPages() throws DaoException {
+		for (int i = 0; i < 3; i++) {
+			this.userDao.createUser(new User("User_" + i, "pwd", null, null), true);
+		}
+		final Page<User> first = this.userDao.readUsersPage(0, 3);
+		assertEquals(3, first.getItems().size(), "La première page devrait être pleine.");
+		assertNotNull(first.getNextCursor(), "Une page suivante devrait exister.");
+		final Page<User> second = this.userDao.readUsersPage(first.getNextCursor(), 3);
+		assertEquals(2, second.getItems().size(), "La dernière page devrait contenir le reste.");
+		assertNull(second.getNextCursor(), "Il ne devrait pas y avoir de page suivante.");
+		assertEquals(ids(this.userDao.readAllUsers().stream()),
+				ids(Stream.concat(first.getItems().stream(), second.getItems().stream())),
+				"Les pages devraient couvrir tous les utilisateurs, dans l'ordre.");
+	}
+
+	private static List<Integer> ids(final Stream<?> entities) {
+		return entities.map(e -> e instanceof User ? ((User) e).getId()
+				: e instanceof Meeting ? ((Meeting) e).getId() : ((Room) e).getId()).collect(Collectors.toList());
+	}
+}
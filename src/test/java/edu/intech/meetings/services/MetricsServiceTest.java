@@ -0,0 +1,89 @@
+package edu.intech.meetings.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.core.Response;
+
+import org.junit.jupiter.api.Test;
+
+import edu.intech.meetings.servletFilter.MetricsFilter;
+
+/**
+ * Classe servant à tester le {@link MetricsFilter} et l'export des métriques
+ * par le service {@link MetricsService}.
+ */
+public class MetricsServiceTest extends AbstractTest {
+
+	final MetricsService metricsService = new MetricsService();
+	final MetricsFilter metricsFilter = new MetricsFilter();
+
+	@Test
+	public void testMetrics() throws Exception {
+		// Deux requêtes réussies sur /room/all (avec et sans barre oblique
+		// finale) et une requête refusée sur /meetings/add.
+		filter("/room/all", 200);
+		filter("/room/all/", 200);
+		filter("/meetings/add", 412);
+		// Des URL inexistantes : elles ne doivent pas devenir des points d'entrée.
+		filter("/inexistant/1", 404);
+		filter("/inexistant/2", 404);
+
+		final Response ret = this.metricsService.getMetrics();
+		assertEquals(Response.Status.OK.getStatusCode(), ret.getStatus(),
+				"Le status de la réponse devrait être OK (200).");
+		final String metrics = (String) ret.getEntity();
+		assertTrue(metrics.contains("meetings_http_requests_total{endpoint=\"/room/all\",status=\"200\"} 2\n"),
+				"Les deux requêtes sur /room/all devraient être comptées ensemble.");
+		assertTrue(metrics.contains("meetings_http_requests_total{endpoint=\"/meetings/add\",status=\"412\"} 1\n"),
+				"La requête refusée devrait être comptée avec son statut.");
+		assertTrue(metrics.contains("meetings_http_request_errors_total{endpoint=\"/meetings/add\"} 1\n"),
+				"La requête refusée devrait être comptée en erreur.");
+		assertTrue(metrics.contains("meetings_http_request_errors_total{endpoint=\"/room/all\"} 0\n"),
+				"Aucune requête sur /room/all ne devrait être en erreur.");
+		assertTrue(
+				metrics.contains(
+						"meetings_http_request_duration_seconds_bucket{endpoint=\"/room/all\",le=\"+Inf\"} 2\n"),
+				"L'histogramme de /room/all devrait contenir les deux requêtes.");
+		assertTrue(metrics.contains("meetings_http_request_duration_seconds_count{endpoint=\"/room/all\"} 2\n"),
+				"L'histogramme de /room/all devrait contenir les deux requêtes.");
+		assertFalse(metrics.contains("/inexistant/"),
+				"Les URL inexistantes ne devraient pas être suivies comme points d'entrée.");
+		assertTrue(metrics.contains("meetings_http_requests_total{endpoint=\"other\",status=\"404\"} 2\n"),
+				"Les requêtes sur des URL inexistantes devraient être comptées sous \"other\".");
+		assertTrue(metrics.contains("meetings_db_queries_total{query=\"User.findByName\"}"),
+				"Les mesures des requêtes des DAO devraient être exportées.");
+		assertTrue(metrics.contains("# TYPE meetings_token_cache_hits_total counter\n"),
+				"Les statistiques du cache des tokens devraient être exportées.");
+		assertTrue(metrics.contains("# TYPE meetings_user_cache_hits_total counter\n"),
+				"Les statistiques du cache des utilisateurs devraient être exportées.");
+		assertTrue(metrics.contains("# TYPE meetings_password_hashing_completed_total counter\n"),
+				"Les statistiques du pool de hachage devraient être exportées.");
+		assertTrue(metrics.contains("# TYPE meetings_password_hashing_wait_seconds_total counter\n"),
+				"L'attente cumulée du pool de hachage devrait être exportée.");
+		assertTrue(metrics.contains("# TYPE meetings_password_hashing_wait_max_seconds gauge\n"),
+				"La plus longue attente du pool de hachage devrait être exportée.");
+		assertTrue(metrics.contains("# TYPE meetings_password_hashing_max_seconds gauge\n"),
+				"Le plus long hachage devrait être exporté.");
+	}
+
+	/**
+	 * Fait passer par le {@link MetricsFilter} une requête sur le chemin donné,
+	 * à laquelle le service répond avec le statut donné.
+	 */
+	private void filter(final String pathInfo, final int status) throws Exception {
+		final HttpServletRequest request = (HttpServletRequest) Proxy.newProxyInstance(
+				getClass().getClassLoader(), new Class<?>[] { HttpServletRequest.class },
+				(proxy, method, args) -> "getPathInfo".equals(method.getName()) ? pathInfo : null);
+		final HttpServletResponse response = (HttpServletResponse) Proxy.newProxyInstance(
+				getClass().getClassLoader(), new Class<?>[] { HttpServletResponse.class },
+				(proxy, method, args) -> "getStatus".equals(method.getName()) ? status : null);
+		this.metricsFilter.doFilter(request, response, (req, resp) -> {
+		});
+	}
+}
@@ -0,0 +1,339 @@
+package edu.intech.meetings.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.eclipse.persistence.jpa.JpaCache;
+import org.eclipse.persistence.jpa.JpaQuery;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.sessions.DatabaseRecord;
+import org.eclipse.persistence.sessions.Session;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import edu.intech.meetings.dao.DaoFactory;
+import edu.intech.meetings.dao.EmbeddedDatabase;
+import edu.intech.meetings.dao.implementations.bdd.UserDaoBdd;
+import edu.intech.meetings.dao.interfaces.IUserDao;
+import edu.intech.meetings.dao.profiling.QueryProfiler;
+import edu.intech.meetings.dao.profiling.QueryStatistics;
+import edu.intech.meetings.model.Meeting;
+import edu.intech.meetings.model.Room;
+import edu.intech.meetings.model.User;
+import edu.intech.meetings.servletListener.MeetingsContextListener;
+
+/**
+ * Vérifie que la lecture des listes de réunions et de salles envoie un nombre
+ * de requêtes SQL constant, quel que soit le nombre de lignes lues (pas de
+ * requête supplémentaire par réunion pour charger ses invités, ni par salle
+ * pour charger ses réunions), et que la recherche des réunions d'une période
+ * parcourt un intervalle borné de l'index sur leur début. Cette classe hérite
+ * de {@link AbstractTest} afin
+ * que les tests lancés puissent profiter des initialisation et fermetures
+ * globales proposées par la classe {@link TestSetup}.
+ *
+ * @author martin
+ *
+ */
+public class QueryCountTest extends AbstractTest {
+
+	private static final List<User> users = new ArrayList<>();
+	private static final List<Meeting> meetings = new ArrayList<>();
+	private static final List<Room> rooms = new ArrayList<>();
+
+	private static EntityManagerFactory emf;
+	private static QueryProfiler profiler;
+
+	@BeforeAll
+	public static void install() throws Exception {
+		emf = DaoFactory.getInstance().getEntityManager().getEntityManagerFactory();
+		profiler = MeetingsContextListener.getQueryProfiler();
+		assertNotNull(profiler, "Le profileur des requêtes devrait être installé au démarrage.");
+		for (int i = 0; i < 3; i++) {
+			users.add(DaoFactory.getInstance().getUserDao().createUser(new User("QueryCount_" + i, "pwd", null, null),
+					true));
+		}
+	}
+
+	@Test
+	public void testStatementCountDoesNotDependOnRowCount() throws Exception {
+		final int userId = users.get(0).getId();
+		createData(5);
+		final long allMeetings = countStatements(() -> DaoFactory.getInstance().getMeetingDao().readAllMeetings());
+		final long userMeetings = countStatements(
+				() -> DaoFactory.getInstance().getMeetingDao().readAllMeetingsWithUser(userId));
+		final long allRooms = countStatements(() -> DaoFactory.getInstance().getRoomDao().readAllRooms());
+
+		createData(20);
+		assertEquals(allMeetings,
+				countStatements(() -> DaoFactory.getInstance().getMeetingDao().readAllMeetings()),
+				"Le nombre de requêtes pour lire toutes les réunions ne devrait pas dépendre du nombre de réunions.");
+		assertEquals(userMeetings,
+				countStatements(() -> DaoFactory.getInstance().getMeetingDao().readAllMeetingsWithUser(userId)),
+				"Le nombre de requêtes pour lire les réunions d'un utilisateur ne devrait pas dépendre du nombre de réunions.");
+		assertEquals(allRooms, countStatements(() -> DaoFactory.getInstance().getRoomDao().readAllRooms()),
+				"Le nombre de requêtes pour lire toutes les salles ne devrait pas dépendre du nombre de salles.");
+	}
+
+	@Test
+	public void testUnwrittenStreamClosedOnRelease() throws Exception {
+		createData(2);
+		// Le curseur est ouvert par le DAO : une erreur de la base serait levée avant
+		// la réponse.
+		final boolean[] closed = new boolean[1];
+		assertTrue(countStatements(() -> DaoFactory.getInstance().getMeetingDao().streamAllMeetings()
+				.onClose(() -> closed[0] = true)) > 0, "Le curseur devrait être ouvert par le DAO.");
+		// Corps de réponse jamais écrit : le flux est fermé en fin de requête.
+		assertFalse(closed[0]);
+		DaoFactory.getInstance().releaseEntityManager();
+		assertTrue(closed[0], "Un flux jamais parcouru devrait être fermé à la libération de l'EntityManager.");
+	}
+
+	@Test
+	public void testQueryStatistics() throws Exception {
+		createData(3);
+		final QueryStatistics before = statisticsOf("Meeting.findAllWithGuests");
+		final long statements = countStatements(() -> DaoFactory.getInstance().getMeetingDao().readAllMeetings());
+		final int read = DaoFactory.getInstance().getMeetingDao().readAllMeetings().size();
+		final QueryStatistics after = statisticsOf("Meeting.findAllWithGuests");
+		assertEquals(2, after.getExecutions() - before.getExecutions(),
+				"Les deux lectures de toutes les réunions devraient être mesurées.");
+		assertEquals(2 * read, after.getRows() - before.getRows(),
+				"Les lignes renvoyées par les deux lectures devraient être comptées.");
+		assertTrue(statements > 0 && after.getStatements() - before.getStatements() >= statements,
+				"Les requêtes SQL de la lecture devraient lui être attribuées.");
+	}
+
+	@Test
+	public void testBulkStatementCountDoesNotDependOnRowCount() throws Exception {
+		final List<Integer> few = createBulkData(2);
+		final List<Integer> many = createBulkData(20);
+		final long reschedule = countStatements(
+				() -> DaoFactory.getInstance().getMeetingDao().rescheduleMeetings(few, 60));
+		assertEquals(reschedule,
+				countStatements(() -> DaoFactory.getInstance().getMeetingDao().rescheduleMeetings(many, 60)),
+				"Le nombre de requêtes pour décaler des réunions ne devrait pas dépendre du nombre de réunions.");
+		final long delete = countStatements(() -> DaoFactory.getInstance().getMeetingDao().deleteMeetings(few));
+		assertEquals(delete, countStatements(() -> DaoFactory.getInstance().getMeetingDao().deleteMeetings(many)),
+				"Le nombre de requêtes pour supprimer des réunions ne devrait pas dépendre du nombre de réunions.");
+		assertTrue(DaoFactory.getInstance().getMeetingDao().readMeetingsByIdList(many).isEmpty(),
+				"Les réunions devraient être supprimées.");
+	}
+
+	@Test
+	public void testMeetingsBetweenUsesStartRange() throws Exception {
+		assumeTrue(EmbeddedDatabase.isEnabled(), "Le plan vérifié est celui de la base embarquée.");
+		final DatabaseQuery query = DaoFactory.getInstance().getEntityManager()
+				.createNamedQuery("Meeting.findBetween", Meeting.class).unwrap(JpaQuery.class).getDatabaseQuery();
+		query.prepareCall(DaoFactory.getInstance().getEntityManager().unwrap(Session.class), new DatabaseRecord());
+		final String plan;
+		try (Connection connection = DriverManager.getConnection(EmbeddedDatabase.getUrl(), EmbeddedDatabase.USER,
+				EmbeddedDatabase.PASSWORD);
+				PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query.getSQLString())) {
+			final Timestamp now = new Timestamp(System.currentTimeMillis());
+			for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+				statement.setTimestamp(i, now);
+			}
+			try (ResultSet result = statement.executeQuery()) {
+				assertTrue(result.next());
+				plan = result.getString(1).toUpperCase();
+			}
+		}
+		// H2 indique l'index utilisé et les conditions qui le parcourent :
+		// /* PUBLIC.IDX_MEETING_START: START >= ?1 AND START < ?2 */
+		final Matcher index = Pattern.compile("IDX_MEETING_START: ([^*]*)\\*/").matcher(plan);
+		assertTrue(index.find(), "La recherche devrait utiliser l'index sur le début des réunions : " + plan);
+		assertTrue(index.group(1).contains(">=") && index.group(1).contains("<"),
+				"Le début des réunions devrait être borné des deux côtés : " + plan);
+	}
+
+	@Test
+	public void testSharedCache() throws Exception {
+		final User user = users.get(2);
+		// DAO sans le cache applicatif des utilisateurs : seul le cache d'EclipseLink
+		// est mesuré.
+		final IUserDao userDao = new UserDaoBdd(DaoFactory.getInstance());
+		final long before = hitsOf("User");
+		countStatements(() -> userDao.readUserByName(user.getName()));
+		DaoFactory.getInstance().releaseEntityManager();
+		final long start = profiler.getStatementCount();
+		assertEquals(user.getId(), userDao.readUserByName(user.getName()).getId());
+		assertEquals(0, profiler.getStatementCount() - start,
+				"La seconde lecture d'un utilisateur par son nom devrait être servie par le cache.");
+		assertTrue(hitsOf("User") > before, "Les lectures servies par le cache devraient être comptées.");
+
+		// Une écriture par EclipseLink invalide les résultats en cache.
+		final String name = user.getName();
+		final User renamed = userDao.readUser(user.getId());
+		renamed.setName(name + "_renamed");
+		userDao.updateUser(renamed, true);
+		DaoFactory.getInstance().releaseEntityManager();
+		assertNull(userDao.readUserByName(name),
+				"L'ancien nom ne devrait plus être trouvé après le renommage.");
+		assertEquals(user.getId(), userDao.readUserByName(name + "_renamed").getId(),
+				"Le nouveau nom devrait être trouvé après le renommage.");
+		renamed.setName(name);
+		userDao.updateUser(renamed, true);
+
+		// Une opération en masse, faite hors d'EclipseLink, aussi.
+		final List<Integer> ids = createBulkData(2);
+		DaoFactory.getInstance().releaseEntityManager();
+		DaoFactory.getInstance().getRoomDao().readAllRooms();
+		DaoFactory.getInstance().getMeetingDao().deleteMeetings(ids);
+		DaoFactory.getInstance().releaseEntityManager();
+		for (final Room room : DaoFactory.getInstance().getRoomDao().readAllRooms()) {
+			for (final Meeting meeting : room.getMeetings()) {
+				assertFalse(ids.contains(meeting.getId()),
+						"Les salles en cache ne devraient plus contenir les réunions supprimées.");
+			}
+		}
+	}
+
+	@Test
+	public void testRoomsSeeMeetingWrites() throws Exception {
+		createData(1);
+		final Meeting meeting = meetings.get(meetings.size() - 1);
+		final int roomId = rooms.get(rooms.size() - 1).getId();
+		DaoFactory.getInstance().releaseEntityManager();
+		assertEquals(meeting.getTitle(), meetingOfRoom(roomId, meeting.getId()).getTitle());
+
+		// Modification de la réunion par EclipseLink...
+		final Meeting renamed = DaoFactory.getInstance().getMeetingDao().readMeeting(meeting.getId());
+		renamed.setTitle(meeting.getTitle() + "_renamed");
+		DaoFactory.getInstance().getMeetingDao().updateMeeting(renamed, true);
+		DaoFactory.getInstance().releaseEntityManager();
+		assertEquals(meeting.getTitle() + "_renamed", meetingOfRoom(roomId, meeting.getId()).getTitle(),
+				"Les salles relues devraient porter la réunion renommée.");
+
+		// ... puis par une opération en masse.
+		final long start = meetingOfRoom(roomId, meeting.getId()).getStart().getTime();
+		DaoFactory.getInstance().getMeetingDao().rescheduleMeetings(Arrays.asList(meeting.getId()), 60);
+		DaoFactory.getInstance().releaseEntityManager();
+		assertEquals(start + 3_600_000L, meetingOfRoom(roomId, meeting.getId()).getStart().getTime(),
+				"Les salles relues devraient porter la réunion décalée.");
+	}
+
+	/**
+	 * @return la réunion de la salle lue par la liste de toutes les salles.
+	 */
+	private static Meeting meetingOfRoom(final int roomId, final int meetingId) throws Exception {
+		for (final Room room : DaoFactory.getInstance().getRoomDao().readAllRooms()) {
+			if (room.getId() == roomId) {
+				for (final Meeting ret : room.getMeetings()) {
+					if (ret.getId() == meetingId) {
+						return ret;
+					}
+				}
+			}
+		}
+		throw new AssertionError("La salle devrait porter sa réunion.");
+	}
+
+	/**
+	 * Crée <code>count</code> réunions, supprimées par le test, auxquelles sont
+	 * invités tous les utilisateurs de test, ainsi qu'une salle par réunion.
+	 *
+	 * @return les identifiants des réunions.
+	 */
+	private static List<Integer> createBulkData(final int count) throws Exception {
+		final List<Integer> ret = new ArrayList<>();
+		final List<User> guests = DaoFactory.getInstance().getUserDao()
+				.readUsersByIdList(Arrays.asList(users.get(0).getId(), users.get(1).getId(), users.get(2).getId()));
+		for (int i = 0; i < count; i++) {
+			final Meeting meeting = new Meeting("QueryCount_bulk_" + i, new Date(), 30, new ArrayList<>(guests));
+			DaoFactory.getInstance().getMeetingDao().createMeeting(meeting, true);
+			ret.add(meeting.getId());
+			final Room room = new Room("QueryCount_bulk_" + i, 10, new ArrayList<>(Arrays.asList(meeting)));
+			DaoFactory.getInstance().getRoomDao().createRoom(room, true);
+			rooms.add(room);
+		}
+		return ret;
+	}
+
+	/**
+	 * Crée <code>count</code> réunions auxquelles sont invités tous les
+	 * utilisateurs de test, ainsi qu'une salle par réunion.
+	 */
+	private static void createData(final int count) throws Exception {
+		final List<User> guests = DaoFactory.getInstance().getUserDao()
+				.readUsersByIdList(Arrays.asList(users.get(0).getId(), users.get(1).getId(), users.get(2).getId()));
+		for (int i = 0; i < count; i++) {
+			final Meeting meeting = new Meeting("QueryCount_" + i, new Date(), 30, new ArrayList<>(guests));
+			DaoFactory.getInstance().getMeetingDao().createMeeting(meeting, true);
+			meetings.add(meeting);
+			final Room room = new Room("QueryCount_" + i, 10, new ArrayList<>(Arrays.asList(meeting)));
+			DaoFactory.getInstance().getRoomDao().createRoom(room, true);
+			rooms.add(room);
+		}
+	}
+
+	/**
+	 * Exécute l'action avec un EntityManager neuf, un cache partagé vide et aucun
+	 * résultat de requête en cache, comme le ferait une nouvelle requête HTTP sur
+	 * un serveur venant de démarrer.
+	 *
+	 * @return le nombre de requêtes SQL envoyées.
+	 */
+	private static long countStatements(final Callable<?> action) throws Exception {
+		DaoFactory.getInstance().releaseEntityManager();
+		emf.getCache().evictAll();
+		((JpaCache) emf.getCache()).clearQueryCache();
+		final long before = profiler.getStatementCount();
+		action.call();
+		return profiler.getStatementCount() - before;
+	}
+
+	/**
+	 * @return les statistiques de la requête, à zéro si elle n'a jamais été
+	 *         exécutée.
+	 */
+	private static QueryStatistics statisticsOf(final String query) {
+		for (final QueryStatistics ret : profiler.getStatistics()) {
+			if (ret.getQuery().equals(query)) {
+				return ret;
+			}
+		}
+		return new QueryStatistics(query, 0, 0, 0, 0, 0, 0);
+	}
+
+	private static long hitsOf(final String entity) {
+		return profiler.getCacheStatistics().get(entity).getHits();
+	}
+
+	@AfterAll
+	public static void deleteJunkData() throws Exception {
+		DaoFactory.getInstance().releaseEntityManager();
+		for (final Room room : rooms) {
+			DaoFactory.getInstance().getRoomDao().deleteRoom(DaoFactory.getInstance().getRoomDao().readRoom(room.getId()));
+		}
+		for (final Meeting meeting : meetings) {
+			DaoFactory.getInstance().getMeetingDao()
+					.deleteMeeting(DaoFactory.getInstance().getMeetingDao().readMeeting(meeting.getId()));
+		}
+		for (final User user : users) {
+			DaoFactory.getInstance().getUserDao().deleteUser(DaoFactory.getInstance().getUserDao().readUser(user.getId()),
+					true);
+		}
+	}
+}
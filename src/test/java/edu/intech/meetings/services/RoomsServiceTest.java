@@ -4,7 +4,10 @@ import com.sun.jersey.core.util.MultivaluedMapImpl;
 import edu.intech.meetings.model.Meeting;
 import edu.intech.meetings.model.Room;
 import edu.intech.meetings.model.User;
+import edu.intech.meetings.utils.DateTimeHelper;
+import edu.intech.meetings.utils.MeetingsHelper;
 import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
@@ -13,6 +16,7 @@ import org.junit.jupiter.api.TestMethodOrder;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 import java.io.IOException;
+import java.util.Date;
 import java.util.List;
 import java.util.StringTokenizer;
 
@@ -41,6 +45,8 @@ class RoomsServiceTest extends AbstractTest {
             final Response ret = this.roomService.getAllRooms();
             assertEquals(Response.Status.OK.getStatusCode(), ret.getStatus(),
                     "Le status de la réponse devrait être OK (200).");
+            assertTrue(TestsHelper.entityAsString(ret).startsWith("["),
+                    "La réponse devrait être une liste de salles.");
         } catch (JSONException | IOException e) {
             fail(e.getMessage());
         }
@@ -270,10 +276,10 @@ class RoomsServiceTest extends AbstractTest {
         Response ret;
         try {
             // ***********************************************************************
-            // Création des données pour le test : on va créer un utilisateur qu'on va
-            // inviter à 2 salles pour tester
+            // Création des données pour le test : on va créer une réunion qu'on va
+            // placer dans 2 salles pour tester
             // ***********************************************************************
-            // Création de l'utilisateur.
+            // Création de la réunion.
             final String meetingIdAsString = Integer.toString(createMeetingAndReturnId("01"));
             // Création de la première salle
             this.params.clear();
@@ -299,8 +305,76 @@ class RoomsServiceTest extends AbstractTest {
             // ***********************************************************************
             // Suppression des salles
             deleteJunkRooms(commaSeparatedRoomsIdList);
-            // Supression de l'utilisateur
-            deleteUser(meetingIdAsString);
+            // Suppression de la réunion
+            deleteMeeting(meetingIdAsString);
+        } catch (JSONException | IOException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    @Order(7)
+    public void testRoomAvailability() {
+        Response ret;
+        try {
+            // Deux réunions au même horaire ne peuvent pas se tenir dans la même salle.
+            final String firstMeetingId = Integer.toString(createMeetingAndReturnId("01"));
+            final String secondMeetingId = Integer.toString(createMeetingAndReturnId("02"));
+            this.params.clear();
+            this.params.add(AuthenticationService.AUTH_PARAM_TOKEN, TestSetup.token);
+            this.params.add(RoomsService.ROOM_PARAM_NAME, TEST_ROOM_NAME);
+            this.params.add(RoomsService.ROOM_PARAM_MEETINGS, firstMeetingId + "," + secondMeetingId);
+            ret = this.roomService.addRoom(this.params);
+            assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
+                    "Le status de la réponse devrait être PRECONDITION_FAILED (412).");
+
+            // Avec une seule réunion, la salle est créée.
+            this.params.remove(RoomsService.ROOM_PARAM_MEETINGS);
+            this.params.add(RoomsService.ROOM_PARAM_MEETINGS, firstMeetingId);
+            ret = this.roomService.addRoom(this.params);
+            assertEquals(Response.Status.CREATED.getStatusCode(), ret.getStatus(),
+                    "Le status de la réponse devrait être CREATED (201).");
+            tempRoom = TestsHelper.JsonToRoom((String) ret.getEntity());
+
+            // La salle est occupée au début de la réunion...
+            final Date start = DateTimeHelper.parse(TEST_MEETING_START_OK);
+            final long duration = Integer.parseInt(TEST_MEETING_DURATION) * 60_000L;
+            this.params.clear();
+            this.params.add(RoomsService.ROOM_PARAM_ID, Integer.toString(tempRoom.getId()));
+            this.params.add(RoomsService.ROOM_PARAM_START, TEST_MEETING_START_OK);
+            this.params.add(RoomsService.ROOM_PARAM_END,
+                    DateTimeHelper.format(new Date(start.getTime() + duration)));
+            ret = this.roomService.getRoomAvailability(this.params);
+            assertEquals(Response.Status.OK.getStatusCode(), ret.getStatus(),
+                    "Le status de la réponse devrait être OK (200).");
+            JSONObject json = new JSONObject((String) ret.getEntity());
+            assertFalse(json.getBoolean("free"), "La salle devrait être occupée.");
+            assertEquals(firstMeetingId, json.getJSONArray("conflicts").getString(0),
+                    "La réunion occupant la salle n'est pas la bonne.");
+
+            // ... et libre dès sa fin.
+            this.params.remove(RoomsService.ROOM_PARAM_START);
+            this.params.remove(RoomsService.ROOM_PARAM_END);
+            this.params.add(RoomsService.ROOM_PARAM_START, DateTimeHelper.format(new Date(start.getTime() + duration)));
+            this.params.add(RoomsService.ROOM_PARAM_END,
+                    DateTimeHelper.format(new Date(start.getTime() + 2 * duration)));
+            ret = this.roomService.getRoomAvailability(this.params);
+            json = new JSONObject((String) ret.getEntity());
+            assertTrue(json.getBoolean("free"), "La salle devrait être libre.");
+
+            // Salle inconnue : 404.
+            this.params.remove(RoomsService.ROOM_PARAM_ID);
+            this.params.add(RoomsService.ROOM_PARAM_ID, "0");
+            ret = this.roomService.getRoomAvailability(this.params);
+            assertEquals(Response.Status.NOT_FOUND.getStatusCode(), ret.getStatus(),
+                    "Le status de la réponse devrait être NOT_FOUND (404).");
+
+            // ***********************************************************************
+            // Tests finis : suppression des données de test
+            // ***********************************************************************
+            deleteRoom(Integer.toString(tempRoom.getId()));
+            deleteMeeting(firstMeetingId);
+            deleteMeeting(secondMeetingId);
         } catch (JSONException | IOException e) {
             fail(e.getMessage());
         }
@@ -327,9 +401,9 @@ class RoomsServiceTest extends AbstractTest {
     private int createMeetingAndReturnId(final String meetingNumber) throws IOException, JSONException {
         final MultivaluedMap<String, String> params = new MultivaluedMapImpl();
         params.add(AuthenticationService.AUTH_PARAM_TOKEN, TestSetup.token);
-        params.add(MeetingsService.MEETING_PARAM_TITLE, "TestMeeting_".concat(meetingNumber));
-        params.add(MeetingsService.MEETING_PARAM_START, TEST_MEETING_START_OK);
-        params.add(MeetingsService.MEETING_PARAM_DURATION, TEST_MEETING_DURATION);
+        params.add(MeetingsHelper.MEETING_PARAM_TITLE, "TestMeeting_".concat(meetingNumber));
+        params.add(MeetingsHelper.MEETING_PARAM_START, TEST_MEETING_START_OK);
+        params.add(MeetingsHelper.MEETING_PARAM_DURATION, TEST_MEETING_DURATION);
         final Response ret = new MeetingsService().addMeeting(params);
         final Meeting tempMeeting = TestsHelper.JsonToMeeting((String) ret.getEntity());
         return tempMeeting.getId();
@@ -349,6 +423,13 @@ class RoomsServiceTest extends AbstractTest {
         new UsersService().deleteUserById(params);
     }
 
+    private void deleteMeeting(final String meetingId) throws IOException, JSONException {
+        final MultivaluedMap<String, String> params = new MultivaluedMapImpl();
+        params.add(AuthenticationService.AUTH_PARAM_TOKEN, TestSetup.token);
+        params.add(MeetingsHelper.MEETING_PARAM_ID, meetingId);
+        new MeetingsService().deleteMeetingById(params);
+    }
+
     private void deleteJunkRooms(final String commaSeparatedRoomsIdList)
             throws IOException, JSONException {
         final StringTokenizer st = new StringTokenizer(commaSeparatedRoomsIdList, ",");
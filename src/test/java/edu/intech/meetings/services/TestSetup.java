@@ -92,7 +92,10 @@ public class TestSetup implements BeforeAllCallback, CloseableResource {
 
 	@Override
 	public void close() throws Throwable {
-		DaoFactory.getInstance().getUserDao().deleteUser(testUser, true);
+		// L'EntityManager ayant créé testUser a pu être libéré entre-temps : on relit
+		// l'utilisateur pour le supprimer.
+		DaoFactory.getInstance().getUserDao().deleteUser(DaoFactory.getInstance().getUserDao().readUser(testUser.getId()),
+				true);
 		ctx.contextDestroyed(null);
 	}
 
@@ -1,36 +1,56 @@
 package edu.intech.meetings.services;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import edu.intech.meetings.model.Meeting;
 import edu.intech.meetings.model.Room;
 import edu.intech.meetings.model.User;
+import edu.intech.meetings.utils.JsonHelper;
 
 public class TestsHelper {
 
+	/**
+	 * Renvoie le corps de la réponse, qu'il ait été construit d'un bloc ou
+	 * qu'il soit écrit au fil de l'eau ({@link StreamingOutput}).
+	 */
+	static String entityAsString(final Response response) throws IOException {
+		final Object entity = response.getEntity();
+		if (entity instanceof StreamingOutput) {
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			((StreamingOutput) entity).write(out);
+			return new String(out.toByteArray(), StandardCharsets.UTF_8);
+		}
+		return (String) entity;
+	}
+
 	static User JsonToUser(final String jsonString) throws IOException {
-		final ObjectMapper mapper = new ObjectMapper();
+		final ObjectMapper mapper = JsonHelper.getMapper();
 		return mapper.readerFor(User.class).readValue(jsonString);
 	}
 
 	static Meeting JsonToMeeting(final String jsonString) throws IOException {
-		final ObjectMapper mapper = new ObjectMapper();
+		final ObjectMapper mapper = JsonHelper.getMapper();
 		return mapper.readerFor(Meeting.class).readValue(jsonString);
 	}
 
 	static Room JsonToRoom(final String jsonString) throws IOException {
-		final ObjectMapper mapper = new ObjectMapper();
+		final ObjectMapper mapper = JsonHelper.getMapper();
 		return mapper.readerFor(Room.class).readValue(jsonString);
 	}
 
 	static List<Meeting> JsonToMeetingsList(final String jsonString) throws IOException {
 		final TypeReference<List<Meeting>> mapType = new TypeReference<List<Meeting>>() {
 		};
-		final ObjectMapper mapper = new ObjectMapper();
+		final ObjectMapper mapper = JsonHelper.getMapper();
 		return mapper.readValue(jsonString, mapType);
 	}
 }
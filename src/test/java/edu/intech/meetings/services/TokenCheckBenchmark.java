@@ -0,0 +1,82 @@
+package edu.intech.meetings.services;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.MultivaluedMap;
+import javax.xml.bind.DatatypeConverter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sun.jersey.core.util.MultivaluedMapImpl;
+
+import edu.intech.meetings.exceptions.ServiceException;
+import edu.intech.meetings.utils.ServicesHelper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+/**
+ * Coût de la vérification du token des requêtes d'écriture : vérification
+ * complète en décodant la clé secrète à chaque appel (ancienne version de
+ * <code>checkToken</code>), vérification avec un parser déjà construit, et
+ * {@link AuthenticationService#checkToken(MultivaluedMap)} avec son cache,
+ * pour un client qui renvoie toujours le même token.<br>
+ * <br>
+ * Placé dans le paquet des services pour créer un token de l'application sans
+ * exposer {@link AuthenticationService#issueToken(String, long)}.<br>
+ * <br>
+ * Lancement : <code>mvn -Pbenchmark test-compile exec:exec -Djmh.args=TokenCheckBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class TokenCheckBenchmark {
+
+	private static final String SECRET = "BenchmarkSecretKey";
+
+	private String benchmarkToken;
+	private JwtParser parser;
+	private MultivaluedMap<String, String> params;
+
+	@Setup
+	public void createTokens() {
+		this.benchmarkToken = Jwts.builder().setIssuer("bench")
+				.setExpiration(new Date(System.currentTimeMillis() + 3_600_000L))
+				.signWith(SignatureAlgorithm.HS256, DatatypeConverter.parseBase64Binary(SECRET)).compact();
+		this.parser = Jwts.parser().setSigningKey(DatatypeConverter.parseBase64Binary(SECRET));
+		this.params = new MultivaluedMapImpl();
+		this.params.add(AuthenticationService.AUTH_PARAM_TOKEN,
+				AuthenticationService.issueToken("bench", AuthenticationService.TOKEN_LIFETIME_MS));
+	}
+
+	@Benchmark
+	public String decodeSecretEachTime() throws ServiceException {
+		return ServicesHelper.parseJWT(this.benchmarkToken, SECRET);
+	}
+
+	@Benchmark
+	public Claims preKeyedParser() throws ServiceException {
+		return ServicesHelper.parseJWT(this.benchmarkToken, this.parser);
+	}
+
+	@Benchmark
+	public String checkTokenCached() throws ServiceException {
+		return AuthenticationService.checkToken(this.params);
+	}
+}
@@ -0,0 +1,151 @@
+package edu.intech.meetings.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.intech.meetings.dao.cache.CachingUserDao;
+import edu.intech.meetings.dao.implementations.memory.MemoryDatabase;
+import edu.intech.meetings.dao.implementations.memory.UserDaoMemory;
+import edu.intech.meetings.exceptions.DaoException;
+import edu.intech.meetings.model.User;
+import edu.intech.meetings.utils.AdmissionCache;
+import edu.intech.meetings.utils.CacheStatistics;
+
+/**
+ * Classe servant à tester le cache des utilisateurs ({@link CachingUserDao}) et
+ * sa politique d'éviction ({@link AdmissionCache}) : lectures servies par le
+ * cache, invalidation par les écritures, taille bornée, résistance aux
+ * parcours et expiration. Chaque test utilise ses propres tables en mémoire,
+ * indépendamment de l'implémentation configurée.
+ */
+public class UserCacheTest extends AbstractTest {
+
+	private UserDaoMemory delegate;
+	private CachingUserDao userDao;
+	private User alice;
+
+	@BeforeEach
+	public void populate() throws DaoException {
+		this.delegate = new UserDaoMemory(new MemoryDatabase());
+		this.userDao = new CachingUserDao(this.delegate, 100, 60_000);
+		this.alice = this.delegate.createUser(new User("Alice", "pwd", "A", "alice@intech.edu"), true);
+	}
+
+	@Test
+	public void testReadThrough() throws DaoException {
+		assertEquals("Alice", this.userDao.readUser(this.alice.getId()).getName());
+		final User first = this.userDao.readUser(this.alice.getId());
+		final User second = this.userDao.readUserByName("Alice");
+		this.userDao.readUserByName("Alice");
+		CacheStatistics statistics = this.userDao.getStatistics();
+		assertEquals(2, statistics.getHits(), "Les secondes lectures devraient être servies par le cache.");
+		assertEquals(2, statistics.getMisses(), "Les premières lectures devraient être faites par le DAO.");
+
+		// Chaque lecture renvoie sa propre copie.
+		assertNotSame(first, this.userDao.readUser(this.alice.getId()));
+		first.setFirstName("Modifié");
+		assertEquals("A", this.userDao.readUser(this.alice.getId()).getFirstName(),
+				"Modifier un utilisateur lu ne devrait pas modifier le cache.");
+
+		// Une écriture retire l'utilisateur du cache, sous l'ancien nom comme sous le
+		// nouveau.
+		second.setName("Alicia");
+		this.userDao.updateUser(second, true);
+		assertNull(this.userDao.readUserByName("Alice"), "L'ancien nom ne devrait plus être trouvé.");
+		assertEquals("Alicia", this.userDao.readUser(this.alice.getId()).getName(),
+				"Le nouveau nom devrait être lu après la modification.");
+		assertNotNull(this.userDao.readUserByName("Alicia"), "Le nouveau nom devrait être trouvé.");
+
+		this.userDao.deleteUser(second, true);
+		assertNull(this.userDao.readUser(this.alice.getId()), "L'utilisateur supprimé ne devrait plus être lu.");
+		assertNull(this.userDao.readUserByName("Alicia"), "L'utilisateur supprimé ne devrait plus être lu.");
+		statistics = this.userDao.getStatistics();
+		assertEquals(0, statistics.getSize(), "Le cache ne devrait plus contenir l'utilisateur supprimé.");
+	}
+
+	@Test
+	public void testMissReturnsCopy() throws DaoException {
+		// DAO qui renvoie toujours le même objet, comme une entité gérée par
+		// l'EntityManager.
+		final User managed = this.delegate.readUser(this.alice.getId());
+		final CachingUserDao userDao = new CachingUserDao(new UserDaoMemory(new MemoryDatabase()) {
+			@Override
+			public User readUser(final int id) {
+				return managed;
+			}
+
+			@Override
+			public User readUserByName(final String name) {
+				return managed;
+			}
+		}, 100, 60_000);
+		assertNotSame(managed, userDao.readUser(this.alice.getId()),
+				"Une lecture faite par le DAO devrait aussi renvoyer une copie.");
+		assertNotSame(managed, userDao.readUserByName("Alice"),
+				"Une lecture faite par le DAO devrait aussi renvoyer une copie.");
+		userDao.readUser(this.alice.getId()).setFirstName("Modifié");
+		assertEquals("A", managed.getFirstName(), "Modifier un utilisateur lu ne devrait pas modifier celui du DAO.");
+	}
+
+	@Test
+	public void testBoundedSize() {
+		final AdmissionCache<Integer, Integer> cache = new AdmissionCache<>(100, 60_000);
+		for (int i = 0; i < 1000; i++) {
+			cache.get(i);
+			cache.put(i, i);
+		}
+		final CacheStatistics statistics = cache.getStatistics();
+		assertTrue(statistics.getSize() <= 100, "Le cache ne devrait pas dépasser sa taille maximale.");
+		assertEquals(900, statistics.getEvictions(), "Chaque entrée écartée devrait être comptée.");
+		assertEquals(1000, statistics.getMisses());
+	}
+
+	@Test
+	public void testScanResistance() {
+		final AdmissionCache<Integer, Integer> cache = new AdmissionCache<>(100, 60_000);
+		final int hotCount = 50;
+		for (int i = 0; i < hotCount; i++) {
+			cache.put(i, i);
+		}
+		readAll(cache, hotCount);
+
+		// Parcours de 10 000 clés lues une seule fois, pendant que les clés
+		// fréquentes continuent d'être lues.
+		for (int i = 0; i < 10_000; i++) {
+			final int key = 1_000_000 + i;
+			cache.get(key);
+			cache.put(key, key);
+			if (i % 100 == 0) {
+				readAll(cache, hotCount);
+			}
+		}
+		for (int i = 0; i < hotCount; i++) {
+			assertEquals(Integer.valueOf(i), cache.get(i),
+					"Une clé fréquente ne devrait pas être chassée par un parcours.");
+		}
+	}
+
+	@Test
+	public void testExpiry() throws InterruptedException {
+		final AdmissionCache<Integer, Integer> cache = new AdmissionCache<>(100, 50);
+		cache.put(1, 1);
+		assertEquals(Integer.valueOf(1), cache.get(1));
+		Thread.sleep(100);
+		assertNull(cache.get(1), "Une entrée expirée ne devrait plus être lue.");
+		final CacheStatistics statistics = cache.getStatistics();
+		assertEquals(0, statistics.getSize(), "Une entrée expirée devrait être retirée à sa lecture.");
+		assertEquals(1, statistics.getMisses(), "La lecture d'une entrée expirée devrait être un échec.");
+	}
+
+	private static void readAll(final AdmissionCache<Integer, Integer> cache, final int count) {
+		for (int i = 0; i < count; i++) {
+			cache.get(i);
+		}
+	}
+}
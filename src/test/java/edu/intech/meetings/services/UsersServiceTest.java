@@ -1,6 +1,7 @@
 package edu.intech.meetings.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.IOException;
@@ -19,6 +20,7 @@ import com.sun.jersey.core.util.MultivaluedMapImpl;
 import edu.intech.meetings.model.User;
 import edu.intech.meetings.services.AuthenticationService;
 import edu.intech.meetings.services.UsersService;
+import edu.intech.meetings.utils.PasswordHashingExecutor;
 import edu.intech.meetings.utils.PasswordHelper;
 
 /**
@@ -96,17 +98,21 @@ public class UsersServiceTest extends AbstractTest {
 			ret = this.userService.addUser(this.params);
 			assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être PRECONDITION_FAILED (412).");
-			// 3eme test sur le user : juste le nom et le mot de passe. Ca doit marcher.
+			// 3eme test sur le user : juste le nom et le mot de passe. Ca doit marcher, le
+			// mot de passe étant haché par le pool dédié.
+			final long hashed = PasswordHashingExecutor.getInstance().getStatistics().getCompleted();
 			this.params.add(UsersService.USER_PARAM_PWD, TEST_USER_PASS);
 			ret = this.userService.addUser(this.params);
 			assertEquals(Response.Status.CREATED.getStatusCode(), ret.getStatus(),
 					"Le status de la réponse devrait être CREATED (201).");
+			assertEquals(hashed + 1, PasswordHashingExecutor.getInstance().getStatistics().getCompleted(),
+					"Le mot de passe aurait dû être haché par le PasswordHashingExecutor.");
 			// On teste maintenant que les données de l'utilisateur crée correspondent bien
 			// à ce qu'on avait envoyé.
 			tempUser = TestsHelper.JsonToUser((String) ret.getEntity());
 			assertEquals(UsersServiceTest.tempUser.getName(), TEST_USER_NAME,
 					"Le nom de l'utilisateur créé n'est pas le bon.");
-			assertEquals(UsersServiceTest.tempUser.getPassword(), PasswordHelper.generateSecurePassword(TEST_USER_PASS),
+			assertTrue(PasswordHelper.verifyUserPassword(TEST_USER_PASS, UsersServiceTest.tempUser.getPassword()),
 					"Le mot de passe de l'utilisateur créé n'est pas le bon.");
 		} catch (JSONException | IOException e) {
 			fail(e.getMessage());
@@ -174,8 +180,7 @@ public class UsersServiceTest extends AbstractTest {
 			UsersServiceTest.tempUser = TestsHelper.JsonToUser((String) ret.getEntity());
 			assertEquals(UsersServiceTest.tempUser.getName(), TEST_CHANGE_NAME,
 					"Le nom de l'utilisateur n'a pas été modifié.");
-			assertEquals(UsersServiceTest.tempUser.getPassword(),
-					PasswordHelper.generateSecurePassword(TEST_CHANGE_PASS),
+			assertTrue(PasswordHelper.verifyUserPassword(TEST_CHANGE_PASS, UsersServiceTest.tempUser.getPassword()),
 					"Le mot de passe de l'utilisateur n'a pas été modifié.");
 
 			// 6eme test : on tente de modifier l'adresse mail en mettant une adresse
@@ -249,8 +254,7 @@ public class UsersServiceTest extends AbstractTest {
 			UsersServiceTest.tempUser = TestsHelper.JsonToUser((String) ret.getEntity());
 			assertEquals(UsersServiceTest.tempUser.getName(), TEST_CHANGE_NAME,
 					"Le nom de l'utilisateur n'a pas été modifié.");
-			assertEquals(UsersServiceTest.tempUser.getPassword(),
-					PasswordHelper.generateSecurePassword(TEST_CHANGE_PASS),
+			assertTrue(PasswordHelper.verifyUserPassword(TEST_CHANGE_PASS, UsersServiceTest.tempUser.getPassword()),
 					"Le mot de passe de l'utilisateur n'a pas été modifié.");
 			assertEquals(UsersServiceTest.tempUser.getFirstName(), TEST_USER_FIRSTNAME,
 					"Le prénom de l'utilisateur n'a pas été modifié.");